@@ -0,0 +1,33 @@
+package com.toyota.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Toyota Financial Data Platform - Benchmark Runner
+ *
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line and adds
+ * the GC profiler unless other profilers were requested, so every run reports
+ * allocation per operation (gc.alloc.rate.norm) next to the timings.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
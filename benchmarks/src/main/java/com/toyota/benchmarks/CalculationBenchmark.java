@@ -0,0 +1,91 @@
+package com.toyota.benchmarks;
+
+import com.toyota.benchmarks.support.BenchmarkPipeline;
+import com.toyota.benchmarks.support.Rates;
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.util.RateCalculationUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toyota Financial Data Platform - Calculation Benchmark
+ *
+ * One AVG rule over three providers via RateCalculationUtils, and the
+ * EURTRY cross through the Groovy script strategy and the compiled formula
+ * strategy that replaced it in calculation-config.json.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+@State(Scope.Benchmark)
+public class CalculationBenchmark {
+
+    private BenchmarkPipeline pipeline;
+    private CalculationRuleDto averageRule;
+    private CalculationRuleDto groovyCrossRule;
+    private CalculationRuleDto formulaCrossRule;
+    private Map<String, BaseRateDto> providerRates;
+    private Map<String, BaseRateDto> crossInputs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pipeline = new BenchmarkPipeline();
+        averageRule = rule("USDTRY_AVG");
+        formulaCrossRule = rule("EURTRY_CROSS");
+        groovyCrossRule = CalculationRuleDto.builder()
+                .outputSymbol("EURTRY_CROSS")
+                .type("CROSS")
+                .strategyType("groovyScriptCalculationStrategy")
+                .implementation("scripts/eur_try_calculator.groovy")
+                .inputSymbols(List.of("EURUSD_AVG", "USDTRY_AVG"))
+                .inputParameters(Map.of("eurUsdAvgKey", "EURUSD_AVG",
+                        "usdTryAvgSourceKey", "USDTRY_AVG", "defaultScale", "5"))
+                .build();
+
+        providerRates = Map.of(
+                "TCPProvider1", Rates.raw("TCPProvider1", "USDTRY", "34.10120", "34.20120"),
+                "TCPProvider2", Rates.raw("TCPProvider2", "USDTRY", "34.10340", "34.20340"),
+                "RESTProvider1", Rates.raw("RESTProvider1", "USDTRY", "34.09980", "34.19980"));
+        crossInputs = Map.of(
+                "EURUSD_AVG", Rates.calculated("EURUSD_AVG", "1.08012", "1.08112"),
+                "USDTRY_AVG", Rates.calculated("USDTRY_AVG", "34.10147", "34.20147"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    @Benchmark
+    public BaseRateDto averageOfThreeProviders() {
+        return RateCalculationUtils.calculateAverage(averageRule, providerRates);
+    }
+
+    @Benchmark
+    public Optional<BaseRateDto> groovyCross() {
+        return pipeline.getGroovyStrategy().calculate(groovyCrossRule, crossInputs);
+    }
+
+    @Benchmark
+    public Optional<BaseRateDto> formulaCross() {
+        return pipeline.getFormulaStrategy().calculate(formulaCrossRule, crossInputs);
+    }
+
+    private CalculationRuleDto rule(String outputSymbol) {
+        return pipeline.getProperties().getCalculationRules().stream()
+                .filter(rule -> outputSymbol.equals(rule.getOutputSymbol()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(outputSymbol + " missing from calculation-config.json"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.toyota.benchmarks;
+
+import com.toyota.mainapp.util.FixedPointPrice;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toyota Financial Data Platform - Fixed Point Price Benchmark
+ *
+ * BigDecimal against FixedPointPrice mantissas for the two hot-path shapes:
+ * parsing four provider bid/ask pairs from wire text with a spread check and
+ * averaging them, and a cross multiply from text. Run with -prof gc for the
+ * allocation figures.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+@State(Scope.Thread)
+public class FixedPointBenchmark {
+
+    private static final int SCALE = 5;
+    private static final BigDecimal FOUR = BigDecimal.valueOf(4);
+
+    private final String[] bids = {"34.10120", "34.10340", "34.09980", "34.10210"};
+    private final String[] asks = {"34.20120", "34.20340", "34.19980", "34.20210"};
+    private final String eurUsdBid = "1.08012";
+    private final String usdTryBid = "34.10147";
+
+    @Benchmark
+    public BigDecimal bigDecimalParseAndAverage() {
+        BigDecimal sumBid = BigDecimal.ZERO;
+        BigDecimal sumAsk = BigDecimal.ZERO;
+        for (int i = 0; i < bids.length; i++) {
+            BigDecimal bid = new BigDecimal(bids[i]);
+            BigDecimal ask = new BigDecimal(asks[i]);
+            if (bid.signum() <= 0 || ask.compareTo(bid) < 0) {
+                continue;
+            }
+            sumBid = sumBid.add(bid);
+            sumAsk = sumAsk.add(ask);
+        }
+        return sumBid.add(sumAsk).divide(FOUR.add(FOUR), SCALE, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public long fixedPointParseAndAverage() {
+        long sumBid = 0;
+        long sumAsk = 0;
+        for (int i = 0; i < bids.length; i++) {
+            long bid = FixedPointPrice.parse(bids[i], SCALE);
+            long ask = FixedPointPrice.parse(asks[i], SCALE);
+            if (bid <= 0 || ask < bid) {
+                continue;
+            }
+            sumBid += bid;
+            sumAsk += ask;
+        }
+        return FixedPointPrice.divideHalfUp(sumBid + sumAsk, 8);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalCrossMultiply() {
+        return new BigDecimal(eurUsdBid).multiply(new BigDecimal(usdTryBid)).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public long fixedPointCrossMultiply() {
+        return FixedPointPrice.multiply(FixedPointPrice.parse(eurUsdBid, SCALE), SCALE,
+                FixedPointPrice.parse(usdTryBid, SCALE), SCALE, SCALE);
+    }
+}
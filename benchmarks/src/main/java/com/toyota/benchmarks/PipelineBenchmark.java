@@ -0,0 +1,90 @@
+package com.toyota.benchmarks;
+
+import com.toyota.benchmarks.support.BenchmarkPipeline;
+import com.toyota.mainapp.calculator.RealTimeBatchProcessor;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateTick;
+import com.toyota.mainapp.util.FixedPointPrice;
+import com.toyota.mainapp.util.TickInterner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toyota Financial Data Platform - Pipeline Benchmark
+ *
+ * Full RealTimeBatchProcessor run per tick (raw stage, incremental AVG,
+ * formula CROSS, snapshot assembly) with the production rule set, rotating
+ * through every provider/symbol pair; Redis and Kafka are in-memory.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+    private static final String[] PROVIDERS = {"TCPProvider1", "TCPProvider2", "RESTProvider1"};
+    private static final String[] SYMBOLS = {"USDTRY", "EURUSD", "GBPUSD"};
+    private static final String[] MID_PRICES = {"34.10000", "1.08000", "1.27000"};
+
+    private BenchmarkPipeline pipeline;
+    private RealTimeBatchProcessor processor;
+    private TickInterner tickInterner;
+    private int[] symbolIds;
+    private int[] providerIds;
+    private long[] midMantissas;
+    private int[] scales;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pipeline = new BenchmarkPipeline();
+        processor = pipeline.getProcessor();
+        tickInterner = pipeline.getTickInterner();
+
+        int pairs = SYMBOLS.length * PROVIDERS.length;
+        symbolIds = new int[pairs];
+        providerIds = new int[pairs];
+        midMantissas = new long[pairs];
+        scales = new int[pairs];
+        for (int i = 0; i < pairs; i++) {
+            int symbol = i % SYMBOLS.length;
+            symbolIds[i] = tickInterner.symbolId(SYMBOLS[symbol]);
+            providerIds[i] = tickInterner.providerId(PROVIDERS[i / SYMBOLS.length]);
+            scales[i] = tickInterner.scaleOf(symbolIds[i]);
+            midMantissas[i] = FixedPointPrice.parse(MID_PRICES[symbol], scales[i]);
+        }
+        // Seed every average board so CROSS rules have inputs from the first measured tick
+        for (int i = 0; i < pairs; i++) {
+            processTick();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    @Benchmark
+    public long processTick() {
+        int pair = (int) (sequence++ % symbolIds.length);
+        int scale = scales[pair];
+        // Small price walk so averages and crosses change on every tick
+        long jitter = (sequence % 7) * FixedPointPrice.pow10(Math.max(0, scale - 4));
+        long bid = midMantissas[pair] + jitter;
+        long ask = bid + FixedPointPrice.pow10(Math.max(0, scale - 2));
+        long now = System.currentTimeMillis();
+
+        RateTick tick = new RateTick(symbolIds[pair], providerIds[pair], bid, ask, scale, now, now, System.nanoTime());
+        BaseRateDto rate = tickInterner.toBaseRateDto(tick);
+        rate.setValidatedAt(now);
+        processor.processNewRate(tick, rate);
+        return pipeline.getKafkaSendCount();
+    }
+}
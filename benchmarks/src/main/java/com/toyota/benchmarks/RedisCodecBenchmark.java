@@ -0,0 +1,89 @@
+package com.toyota.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.toyota.benchmarks.support.Rates;
+import com.toyota.mainapp.cache.BinaryRateRedisSerializer;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.InputRateInfo;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toyota Financial Data Platform - Redis Codec Benchmark
+ *
+ * Encode/decode cost of a cached rate with the legacy typed-JSON serializer
+ * and the binary codec. Bytes per entry are logged once per trial.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+@State(Scope.Thread)
+public class RedisCodecBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCodecBenchmark.class);
+
+    @Param({"json", "binary"})
+    public String codec;
+
+    @Param({"raw", "calculated"})
+    public String rateKind;
+
+    private RedisSerializer<BaseRateDto> serializer;
+    private BaseRateDto rate;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        Jackson2JsonRedisSerializer<BaseRateDto> json = typedJson();
+        serializer = "json".equals(codec) ? json : new BinaryRateRedisSerializer(true, json);
+
+        BaseRateDto usdTry = Rates.raw("TCPProvider1", "USDTRY", "34.12340", "34.12590");
+        if ("raw".equals(rateKind)) {
+            rate = usdTry;
+        } else {
+            rate = Rates.calculated("EURTRY_CROSS", "36.91230", "36.91880");
+            rate.setCalculationInputs(List.of(
+                    InputRateInfo.fromBaseRateDto(usdTry),
+                    InputRateInfo.fromBaseRateDto(Rates.raw("TCPProvider1", "EURUSD", "1.08170", "1.08190"))));
+        }
+        rate.setReceivedAt(rate.getTimestamp());
+        rate.setStatus(BaseRateDto.RateStatusEnum.ACTIVE);
+        encoded = serializer.serialize(rate);
+        log.info("codec={} rate={} bytes/entry={}", codec, rateKind, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(rate);
+    }
+
+    @Benchmark
+    public BaseRateDto decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    /** Same mapper setup as RedisConfig's redisObjectMapper. */
+    private static Jackson2JsonRedisSerializer<BaseRateDto> typedJson() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        return new Jackson2JsonRedisSerializer<>(mapper, BaseRateDto.class);
+    }
+}
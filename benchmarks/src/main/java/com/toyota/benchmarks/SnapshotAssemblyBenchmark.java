@@ -0,0 +1,66 @@
+package com.toyota.benchmarks;
+
+import com.toyota.benchmarks.support.BenchmarkPipeline;
+import com.toyota.benchmarks.support.Rates;
+import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.util.SymbolUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toyota Financial Data Platform - Snapshot Assembly Benchmark
+ *
+ * SimpleBatchAssemblyStage sorting and pipe-formatting a snapshot of the
+ * given size and handing it to an in-memory Kafka template.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+@State(Scope.Benchmark)
+public class SnapshotAssemblyBenchmark {
+
+    @Param({"8", "64"})
+    public int snapshotSize;
+
+    private BenchmarkPipeline pipeline;
+    private final Map<String, BaseRateDto> snapshot = new ConcurrentHashMap<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pipeline = new BenchmarkPipeline();
+        String[] providers = {"TCPProvider1", "TCPProvider2", "RESTProvider1"};
+        for (int i = 0; i < snapshotSize; i++) {
+            BaseRateDto rate = i % 4 == 3
+                    ? Rates.calculated("SYM" + i + "_AVG", "1.08012", "1.08112")
+                    : Rates.raw(providers[i % providers.length], "SYM" + i, "34.10120", "34.20120");
+            snapshot.put(SymbolUtils.generateSnapshotKey(rate), rate);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    @Benchmark
+    public ExecutionContext assembleAndPublish() {
+        // Fresh context per call: the stage appends to its result list
+        ExecutionContext context = ExecutionContext.builder()
+                .pipelineId("BENCH_SNAPSHOT")
+                .startTime(System.currentTimeMillis())
+                .snapshotRates(snapshot)
+                .build();
+        pipeline.getAssemblyStage().execute(context);
+        return context;
+    }
+}
@@ -0,0 +1,48 @@
+package com.toyota.benchmarks;
+
+import com.toyota.mainapp.util.SymbolRegistry;
+import com.toyota.mainapp.util.SymbolUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toyota Financial Data Platform - Symbol Normalization Benchmark
+ *
+ * SymbolUtils.normalizeSymbol and the SymbolRegistry id lookup over the
+ * symbol spellings seen on the hot path (provider pairs, slashed pairs,
+ * AVG/CROSS rule outputs).
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+@State(Scope.Thread)
+public class SymbolUtilsBenchmark {
+
+    @Param({"USDTRY", "USD/TRY", "eurusd", "EURUSD_AVG", "CALC_EURTRY_CROSS"})
+    public String symbol;
+
+    @Setup(Level.Trial)
+    public void registerSymbols() {
+        // As calculation-config.json would; unregistered spellings take the slow path every call
+        for (String configured : new String[]{"USDTRY", "EURUSD", "EURTRY"}) {
+            SymbolRegistry.global().register(configured);
+        }
+    }
+
+    @Benchmark
+    public String normalizeSymbol() {
+        return SymbolUtils.normalizeSymbol(symbol);
+    }
+
+    @Benchmark
+    public int resolveSymbolId() {
+        return SymbolRegistry.global().resolve(symbol);
+    }
+}
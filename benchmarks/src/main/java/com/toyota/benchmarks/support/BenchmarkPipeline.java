@@ -0,0 +1,144 @@
+package com.toyota.benchmarks.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toyota.mainapp.cache.RateCacheMirror;
+import com.toyota.mainapp.calculator.CalculatedRatePublisher;
+import com.toyota.mainapp.calculator.RealTimeBatchProcessor;
+import com.toyota.mainapp.calculator.ShardedPipelineExecutor;
+import com.toyota.mainapp.calculator.engine.CalculationStrategyFactory;
+import com.toyota.mainapp.calculator.engine.IncrementalAverageEngine;
+import com.toyota.mainapp.calculator.engine.impl.AverageCalculationStrategy;
+import com.toyota.mainapp.calculator.engine.impl.FormulaCalculationStrategy;
+import com.toyota.mainapp.calculator.engine.impl.GroovyScriptCalculationStrategy;
+import com.toyota.mainapp.calculator.pipeline.PipelineStageRunner;
+import com.toyota.mainapp.calculator.pipeline.stage.AverageCalculationStage;
+import com.toyota.mainapp.calculator.pipeline.stage.CrossRateCalculationStage;
+import com.toyota.mainapp.calculator.pipeline.stage.RawDataHandlingStage;
+import com.toyota.mainapp.calculator.pipeline.stage.SimpleBatchAssemblyStage;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.kafka.KafkaPublishingService;
+import com.toyota.mainapp.kafka.SpoolingKafkaSender;
+import com.toyota.mainapp.kafka.TransactionalSnapshotPublisher;
+import com.toyota.mainapp.mapper.RateMapperImpl;
+import com.toyota.mainapp.metrics.PipelineLatencyMetrics;
+import com.toyota.mainapp.util.CalculationInputUtils;
+import com.toyota.mainapp.util.TickInterner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.List;
+
+/**
+ * Toyota Financial Data Platform - Benchmark Pipeline
+ *
+ * Hand-wired copy of the production calculation pipeline (same components,
+ * same calculation-config.json) with Redis and Kafka replaced by in-memory
+ * stand-ins. Built without a Spring context so setup stays out of the forks.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class BenchmarkPipeline implements AutoCloseable {
+
+    private final DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ApplicationProperties properties;
+    private final TickInterner tickInterner;
+    private final InMemoryRateCacheService rateCache = new InMemoryRateCacheService();
+    private final InMemoryKafkaTemplate<Object> kafkaTemplate = new InMemoryKafkaTemplate<>();
+    private final InMemoryKafkaTemplate<String> stringKafkaTemplate = new InMemoryKafkaTemplate<>();
+    private final KafkaPublishingService kafkaPublishingService;
+    private final GroovyScriptCalculationStrategy groovyStrategy;
+    private final FormulaCalculationStrategy formulaStrategy;
+    private final SimpleBatchAssemblyStage assemblyStage;
+    private final RealTimeBatchProcessor processor;
+    private final ThreadPoolTaskExecutor stageCallExecutor = new ThreadPoolTaskExecutor();
+    private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+
+    public BenchmarkPipeline() {
+        properties = new ApplicationProperties(resourceLoader);
+        properties.setObjectMapper(new ObjectMapper());
+        properties.setCalculationConfigPath("classpath:calculation-config.json");
+        properties.loadCalculationConfiguration();
+        // Traces would only queue up between scheduled flushes that never run here
+        properties.getTracing().setEnabled(false);
+
+        tickInterner = new TickInterner(properties);
+        // Spool left unopened and transactions off: the in-memory templates never fail
+        SpoolingKafkaSender spoolingKafkaSender = new SpoolingKafkaSender(stringKafkaTemplate, properties);
+        kafkaPublishingService = new KafkaPublishingService(kafkaTemplate, kafkaTemplate, stringKafkaTemplate,
+                spoolingKafkaSender,
+                new TransactionalSnapshotPublisher(stringKafkaTemplate, stringKafkaTemplate, spoolingKafkaSender, properties),
+                new RateMapperImpl(), properties);
+
+        stageCallExecutor.setThreadNamePrefix("BenchStageCall-");
+        stageCallExecutor.initialize();
+        taskScheduler.setThreadNamePrefix("BenchScheduled-");
+        taskScheduler.initialize();
+
+        PipelineLatencyMetrics latencyMetrics = new PipelineLatencyMetrics(meterRegistry, tickInterner);
+        PipelineStageRunner stageRunner = new PipelineStageRunner(properties, stageCallExecutor, meterRegistry, latencyMetrics);
+
+        groovyStrategy = new GroovyScriptCalculationStrategy(resourceLoader, properties, meterRegistry);
+        groovyStrategy.precompileScripts();
+        formulaStrategy = new FormulaCalculationStrategy(properties);
+        formulaStrategy.precompileFormulas();
+        CalculationStrategyFactory strategyFactory = new CalculationStrategyFactory(
+                List.of(new AverageCalculationStrategy(), groovyStrategy, formulaStrategy));
+
+        // Cache writes run inline; the in-memory cache makes them cheap
+        RateCacheMirror rateCacheMirror = new RateCacheMirror(rateCache, Runnable::run);
+        InMemoryReactiveRateCacheService reactiveRateCache = new InMemoryReactiveRateCacheService(rateCache);
+        IncrementalAverageEngine averageEngine = new IncrementalAverageEngine(tickInterner);
+        CalculatedRatePublisher calculatedRatePublisher =
+                new CalculatedRatePublisher(rateCacheMirror, kafkaPublishingService, properties);
+
+        assemblyStage = new SimpleBatchAssemblyStage(kafkaPublishingService, latencyMetrics);
+        processor = new RealTimeBatchProcessor(
+                new RawDataHandlingStage(),
+                new AverageCalculationStage(calculatedRatePublisher, properties, strategyFactory,
+                        new CalculationInputUtils(rateCache, reactiveRateCache), averageEngine, stageRunner),
+                new CrossRateCalculationStage(reactiveRateCache, calculatedRatePublisher, properties,
+                        strategyFactory, stageRunner),
+                assemblyStage, stageRunner,
+                new ShardedPipelineExecutor(properties, meterRegistry),
+                taskScheduler, kafkaPublishingService, properties);
+    }
+
+    public ApplicationProperties getProperties() {
+        return properties;
+    }
+
+    public TickInterner getTickInterner() {
+        return tickInterner;
+    }
+
+    public GroovyScriptCalculationStrategy getGroovyStrategy() {
+        return groovyStrategy;
+    }
+
+    public FormulaCalculationStrategy getFormulaStrategy() {
+        return formulaStrategy;
+    }
+
+    public SimpleBatchAssemblyStage getAssemblyStage() {
+        return assemblyStage;
+    }
+
+    public RealTimeBatchProcessor getProcessor() {
+        return processor;
+    }
+
+    public long getKafkaSendCount() {
+        return kafkaTemplate.getSentCount();
+    }
+
+    @Override
+    public void close() {
+        stageCallExecutor.shutdown();
+        taskScheduler.shutdown();
+    }
+}
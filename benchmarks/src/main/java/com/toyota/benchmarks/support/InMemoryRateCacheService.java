@@ -0,0 +1,93 @@
+package com.toyota.benchmarks.support;
+
+import com.toyota.mainapp.cache.RateCacheService;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Toyota Financial Data Platform - In-Memory Rate Cache
+ *
+ * Redis stand-in for benchmarks: same contract as {@link RateCacheService},
+ * backed by concurrent maps so measurements exclude network round trips.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public class InMemoryRateCacheService extends RateCacheService {
+
+    private final Map<String, BaseRateDto> rawRates = new ConcurrentHashMap<>();
+    private final Map<String, BaseRateDto> calculatedRates = new ConcurrentHashMap<>();
+
+    public InMemoryRateCacheService() {
+        super(null, null);
+        // Mirror writes prime the near cache exactly as they do in the application
+        initNearCache();
+    }
+
+    @Override
+    public void cacheRawRates(Collection<BaseRateDto> rates) {
+        rates.forEach(this::cacheRawRate);
+    }
+
+    @Override
+    public void cacheCalculatedRates(Collection<BaseRateDto> rates) {
+        rates.forEach(this::cacheCalculatedRate);
+    }
+
+    @Override
+    public void cacheRawRate(BaseRateDto rate) {
+        if (rate == null || rate.getSymbol() == null || rate.getProviderName() == null) {
+            return;
+        }
+        rawRates.put(rate.getSymbol() + ":" + rate.getProviderName(), rate);
+    }
+
+    @Override
+    public void cacheCalculatedRate(BaseRateDto rate) {
+        if (rate == null || rate.getSymbol() == null) {
+            return;
+        }
+        calculatedRates.put(rate.getSymbol(), rate);
+    }
+
+    @Override
+    public Map<String, BaseRateDto> getRawRatesForSymbol(String symbol, List<String> providerNames) {
+        Map<String, BaseRateDto> result = new HashMap<>();
+        if (symbol == null || providerNames == null) {
+            return result;
+        }
+        for (String provider : providerNames) {
+            BaseRateDto rate = rawRates.get(symbol + ":" + provider);
+            if (rate != null) {
+                result.put(provider, rate);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, BaseRateDto> getCalculatedRates(List<String> symbols) {
+        Map<String, BaseRateDto> result = new HashMap<>();
+        if (symbols == null) {
+            return result;
+        }
+        for (String symbol : symbols) {
+            BaseRateDto rate = calculatedRates.get(symbol);
+            if (rate != null) {
+                result.put(symbol, rate);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public BaseRateDto getLatestCalculatedRate(String symbol) {
+        return symbol != null ? calculatedRates.get(symbol) : null;
+    }
+}
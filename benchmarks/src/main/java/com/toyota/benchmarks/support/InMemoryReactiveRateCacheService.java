@@ -0,0 +1,44 @@
+package com.toyota.benchmarks.support;
+
+import com.toyota.mainapp.cache.ReactiveRateCacheService;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Toyota Financial Data Platform - In-Memory Reactive Rate Cache
+ *
+ * Reactive view over {@link InMemoryRateCacheService} for benchmarks; every
+ * read completes immediately.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public class InMemoryReactiveRateCacheService extends ReactiveRateCacheService {
+
+    private final InMemoryRateCacheService rateCache;
+
+    public InMemoryReactiveRateCacheService(InMemoryRateCacheService rateCache) {
+        super(rateCache, null, null);
+        this.rateCache = rateCache;
+    }
+
+    @Override
+    public Mono<Map<String, Map<String, BaseRateDto>>> getRawRatesForSymbols(List<String> symbols,
+                                                                             List<String> providerNames) {
+        Map<String, Map<String, BaseRateDto>> result = new HashMap<>();
+        for (String symbol : symbols) {
+            result.put(symbol, rateCache.getRawRatesForSymbol(symbol, providerNames));
+        }
+        return Mono.just(result);
+    }
+
+    @Override
+    public Mono<Map<String, BaseRateDto>> getCalculatedRates(List<String> symbols) {
+        return Mono.just(rateCache.getCalculatedRates(symbols));
+    }
+}
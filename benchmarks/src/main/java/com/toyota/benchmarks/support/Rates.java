@@ -0,0 +1,38 @@
+package com.toyota.benchmarks.support;
+
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateType;
+
+import java.math.BigDecimal;
+
+/**
+ * Toyota Financial Data Platform - Benchmark Rate Fixtures
+ *
+ * Quote builders shared by the benchmark suites.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class Rates {
+
+    private Rates() {
+    }
+
+    public static BaseRateDto raw(String provider, String symbol, String bid, String ask) {
+        BaseRateDto rate = new BaseRateDto();
+        rate.setRateType(RateType.RAW);
+        rate.setSymbol(symbol);
+        rate.setProviderName(provider);
+        rate.setBid(new BigDecimal(bid));
+        rate.setAsk(new BigDecimal(ask));
+        rate.setTimestamp(System.currentTimeMillis());
+        return rate;
+    }
+
+    public static BaseRateDto calculated(String symbol, String bid, String ask) {
+        BaseRateDto rate = raw("CALCULATED", symbol, bid, ask);
+        rate.setRateType(RateType.CALCULATED);
+        return rate;
+    }
+}
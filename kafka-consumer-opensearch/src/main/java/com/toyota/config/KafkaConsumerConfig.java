@@ -1,6 +1,7 @@
 package com.toyota.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -38,6 +39,13 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.max-poll-records:500}")
     private String maxPollRecords;
 
+    // Listener threads per instance; kept well below the partition count so added instances take over partitions
+    @Value("${app.kafka.consumer.concurrency:2}")
+    private int concurrency;
+
+    @Value("${app.kafka.consumer.isolation-level:read_committed}")
+    private String isolationLevel;
+
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -48,7 +56,11 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.parseInt(maxPollRecords)); // ✅ Integer parse
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Skip records of aborted snapshot transactions; non-transactional records are unaffected
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel);
         props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 500); // ✅ Batch processing için
+        // Adding an instance moves only the partitions it takes over
+        props.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName());
         
         return new DefaultKafkaConsumerFactory<>(props);
     }
@@ -60,6 +72,7 @@ public class KafkaConsumerConfig {
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
         factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
         
         // ✅ Error handling
@@ -2,10 +2,14 @@ package com.toyota.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.rest.RestStatus;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
@@ -13,10 +17,14 @@ import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import com.toyota.envelope.SnapshotEnvelope;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -38,6 +46,10 @@ public class OpenSearchService {
     
     private final RestHighLevelClient opensearchClient;
     private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Rounds of resending the items OpenSearch rejected as overloaded or unavailable
+    @Value("${app.opensearch.bulk.max-attempts:3}")
+    private int bulkMaxAttempts;
     
     @Value("${app.opensearch.index-name.simple-rates}")
     private String simpleRatesIndexName;
@@ -51,7 +63,7 @@ public class OpenSearchService {
     @Value("${app.opensearch.index-name.pipeline-tracking}")
     private String pipelineTrackingIndexName;
 
-    // ✅ Simple rates: PIPE-DELIMITED STRING format
+    // ✅ Simple rates: snapshot envelope, or legacy PIPE-DELIMITED STRING per rate
     @KafkaListener(
         topics = "${app.kafka.topic.simple-rates}",
         groupId = "${app.kafka.consumer.group-id}",
@@ -62,10 +74,19 @@ public class OpenSearchService {
             @Header(value = "kafka_receivedMessageKey", required = false) String pipelineId,
             Acknowledgment acknowledgment) {
         try {
-            indexSimpleRateMessage(message, pipelineId, simpleRatesIndexName);
+            if (SnapshotEnvelope.isEnvelope(message)) {
+                indexSnapshotEnvelope(message, pipelineId, simpleRatesIndexName);
+            } else {
+                indexSimpleRateMessage(message, pipelineId, simpleRatesIndexName);
+                log.debug("Simple rate indexed with pipeline: {} [{}]", 
+                         extractRateNameFromPipeString(message), pipelineId);
+            }
             acknowledgment.acknowledge();
-            log.debug("Simple rate indexed with pipeline: {} [{}]", 
-                     extractRateNameFromPipeString(message), pipelineId);
+        } catch (BulkIndexingException e) {
+            // Not acknowledged: the container's error handler redelivers the record
+            log.error("Simple rate bulk indexing failed, record will be redelivered [Pipeline: {}]: {}",
+                     pipelineId, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Simple rate OpenSearch indexing error: {} [Pipeline: {}]", 
                      message, pipelineId, e);
@@ -122,6 +143,10 @@ public class OpenSearchService {
             acknowledgment.acknowledge();
             log.debug("Pipeline tracking indexed: {} [{}]", 
                      extractRateNameFromPipeString(message), pipelineId);
+        } catch (BulkIndexingException e) {
+            log.error("Pipeline tracking bulk indexing failed, record will be redelivered [Pipeline: {}]: {}",
+                     pipelineId, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Pipeline tracking OpenSearch indexing error: {} [Pipeline: {}]", 
                      message, pipelineId, e);
@@ -131,11 +156,52 @@ public class OpenSearchService {
 
     // ✅ Handle PIPE-DELIMITED format (for simple-rates)
     private void indexSimpleRateMessage(String message, String pipelineId, String indexName) throws Exception {
+        Map<String, Object> document = simpleRateDocument(message, pipelineId);
+        if (document == null) {
+            return;
+        }
+        
+        IndexRequest indexRequest = new IndexRequest(indexName)
+            .id(UUID.randomUUID().toString())
+            .source(document, XContentType.JSON);
+        
+        opensearchClient.index(indexRequest, RequestOptions.DEFAULT);
+    }
+
+    // ✅ Handle snapshot envelope (for simple-rates): every rate of the pipeline in one bulk request
+    private void indexSnapshotEnvelope(String message, String pipelineId, String indexName) throws Exception {
+        SnapshotEnvelope envelope = SnapshotEnvelope.decode(message, pipelineId);
+        if (envelope == null) {
+            log.warn("Invalid snapshot envelope (expected: SNAP|v1|PIPELINE_ID|TRIGGER|RULES_VERSION|COUNT and COUNT rate lines): {}", message);
+            return;
+        }
+        
+        BulkRequest bulkRequest = new BulkRequest();
+        for (String rate : envelope.rates()) {
+            Map<String, Object> document = simpleRateDocument(rate, envelope.pipelineId());
+            if (document != null) {
+                document.put("trigger_symbol", envelope.triggerSymbol());
+                document.put("rules_version", envelope.ruleSetVersion());
+                bulkRequest.add(new IndexRequest(indexName)
+                    .id(UUID.randomUUID().toString())
+                    .source(document, XContentType.JSON));
+            }
+        }
+        
+        if (bulkRequest.numberOfActions() == 0) {
+            return;
+        }
+        bulkIndex(bulkRequest, envelope.pipelineId());
+        log.debug("Snapshot indexed: {} rates [{}]", bulkRequest.numberOfActions(), envelope.pipelineId());
+    }
+
+    // SYMBOL|BID|ASK|TIMESTAMP
+    private Map<String, Object> simpleRateDocument(String message, String pipelineId) {
         String[] parts = message.split("\\|");
         
         if (parts.length < 4) {
             log.warn("Invalid simple rate message format (expected: SYMBOL|BID|ASK|TIMESTAMP): {}", message);
-            return;
+            return null;
         }
         
         Map<String, Object> document = new HashMap<>();
@@ -157,12 +223,7 @@ public class OpenSearchService {
         document.put("received_at", System.currentTimeMillis());
         document.put("message", message);
         document.put("document_type", "simple-rate");
-        
-        IndexRequest indexRequest = new IndexRequest(indexName)
-            .id(UUID.randomUUID().toString())
-            .source(document, XContentType.JSON);
-        
-        opensearchClient.index(indexRequest, RequestOptions.DEFAULT);
+        return document;
     }
 
     // ✅ Handle JSON format (for raw-rates and calculated-rates)
@@ -220,13 +281,81 @@ public class OpenSearchService {
     }
 
     // ✅ Handle PIPE-DELIMITED format (for pipeline-tracking)
+    // Messages carry one or more newline-separated records; batches are indexed in one bulk request
     private void indexPipelineTrackingMessage(String message, String pipelineId, String indexName) throws Exception {
-        String[] parts = message.split("\\|");
+        BulkRequest bulkRequest = new BulkRequest();
         
-        if (parts.length < 6) {
-            log.warn("Invalid pipeline tracking message format (expected: SYMBOL|BID|ASK|TIMESTAMP|PIPELINE_ID|PROVIDER): {}", message);
+        for (String record : message.split("\n")) {
+            if (record.isBlank()) {
+                continue;
+            }
+            Map<String, Object> document = pipelineTrackingDocument(record.trim());
+            if (document != null) {
+                bulkRequest.add(new IndexRequest(indexName)
+                    .id(UUID.randomUUID().toString())
+                    .source(document, XContentType.JSON));
+            }
+        }
+        
+        if (bulkRequest.numberOfActions() == 0) {
             return;
         }
+        bulkIndex(bulkRequest, pipelineId);
+    }
+
+    /**
+     * Send a bulk request, resending only the items rejected with 429 or 5xx. Items rejected
+     * as invalid (4xx) are logged and dropped, since resending them cannot succeed.
+     *
+     * @throws BulkIndexingException if retryable failures remain after the last attempt or
+     *         OpenSearch cannot be reached; the caller withholds the acknowledgment
+     */
+    private void bulkIndex(BulkRequest bulkRequest, String pipelineId) {
+        BulkRequest pending = bulkRequest;
+        for (int attempt = 1; ; attempt++) {
+            BulkResponse response;
+            try {
+                response = opensearchClient.bulk(pending, RequestOptions.DEFAULT);
+            } catch (IOException e) {
+                throw new BulkIndexingException("OpenSearch bulk request failed: " + e.getMessage(), e);
+            }
+            if (!response.hasFailures()) {
+                return;
+            }
+
+            BulkRequest retry = new BulkRequest();
+            for (BulkItemResponse item : response.getItems()) {
+                if (!item.isFailed()) {
+                    continue;
+                }
+                RestStatus status = item.status();
+                if (status == RestStatus.TOO_MANY_REQUESTS || status.getStatus() >= 500) {
+                    retry.add(pending.requests().get(item.getItemId()));
+                } else {
+                    log.error("Document rejected by OpenSearch, dropped [{}]: {}", pipelineId, item.getFailureMessage());
+                }
+            }
+            if (retry.numberOfActions() == 0) {
+                return;
+            }
+            if (attempt >= Math.max(1, bulkMaxAttempts)) {
+                throw new BulkIndexingException(retry.numberOfActions() + " of " + bulkRequest.numberOfActions()
+                        + " documents not indexed after " + attempt + " attempts: " + response.buildFailureMessage(), null);
+            }
+            log.warn("⚠️ Bulk indexing attempt {} had {} retryable failures [{}], resending them",
+                    attempt, retry.numberOfActions(), pipelineId);
+            pending = retry;
+        }
+    }
+
+    // SYMBOL|BID|ASK|TIMESTAMP|PIPELINE_ID|PROVIDER[|DURATION_MS|STAGES_US|INPUTS|ERRORS|SNAPSHOT_SIZE|CUT_OFF]
+    private Map<String, Object> pipelineTrackingDocument(String record) {
+        String[] parts = record.split("\\|", -1);
+        
+        if (parts.length < 6) {
+            log.warn("Invalid pipeline tracking message format (expected: SYMBOL|BID|ASK|TIMESTAMP|PIPELINE_ID|PROVIDER): {}", record);
+            return null;
+        }
         
         Map<String, Object> document = new HashMap<>();
         document.put("rate_name", parts[0]);
@@ -236,7 +365,7 @@ public class OpenSearchService {
         document.put("pipeline_execution_id", parts[4]);
         document.put("provider_name", parts[5]);
         document.put("received_at", System.currentTimeMillis());
-        document.put("message", message);
+        document.put("message", record);
         document.put("document_type", "pipeline-tracking");
         
         // Rate type extraction
@@ -249,11 +378,45 @@ public class OpenSearchService {
         }
         document.put("rate_type", rateType);
         
-        IndexRequest indexRequest = new IndexRequest(indexName)
-            .id(UUID.randomUUID().toString())
-            .source(document, XContentType.JSON);
-        
-        opensearchClient.index(indexRequest, RequestOptions.DEFAULT);
+        if (parts.length >= 12) {
+            document.put("duration_ms", parseLong(parts[6]));
+            Map<String, Object> stages = new HashMap<>();
+            for (String stage : splitList(parts[7], ",")) {
+                int eq = stage.lastIndexOf('=');
+                if (eq > 0) {
+                    stages.put(stage.substring(0, eq), parseLong(stage.substring(eq + 1)));
+                }
+            }
+            document.put("stage_durations_us", stages);
+            document.put("inputs", splitList(parts[8], ","));
+            List<String> errors = splitList(parts[9], ";");
+            document.put("errors", errors);
+            document.put("error_count", errors.size());
+            document.put("snapshot_size", parseLong(parts[10]));
+            document.put("cut_off_reason", parts[11].isEmpty() ? null : parts[11]);
+        }
+        if (parts.length >= 13) {
+            document.put("rules_version", parseLong(parts[12]));
+        }
+        return document;
+    }
+
+    private static List<String> splitList(String value, String separator) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(separator)) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     // ✅ Helper methods
@@ -278,4 +441,13 @@ public class OpenSearchService {
             return "unknown";
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * A bulk request that left documents unindexed; the record must be redelivered, not acknowledged.
+     */
+    static class BulkIndexingException extends RuntimeException {
+        BulkIndexingException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.toyota.consumer.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -44,6 +45,13 @@ public class KafkaConsumerConfig {
     @Value("${app.batch.processing.fetch-max-wait:500}")
     private String fetchMaxWait;
 
+    // Listener threads per instance; kept well below the partition count so added instances take over partitions
+    @Value("${app.kafka.consumer.concurrency:2}")
+    private int concurrency;
+
+    @Value("${app.kafka.consumer.isolation-level:read_committed}")
+    private String isolationLevel;
+
 
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
@@ -55,6 +63,7 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords); 
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); 
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel);
 
 
         return new DefaultKafkaConsumerFactory<>(props);
@@ -78,6 +87,7 @@ public class KafkaConsumerConfig {
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
         factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
         
         // Pipeline-aware batch optimization
@@ -102,6 +112,10 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWait);
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Skip records of aborted snapshot transactions; non-transactional records are unaffected
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel);
+        // Adding an instance moves only the partitions it takes over
+        props.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName());
         return props;
     }
 }
\ No newline at end of file
@@ -3,22 +3,25 @@ package com.toyota.consumer.listener;
 import com.toyota.consumer.model.RateEntity;
 import com.toyota.consumer.service.PersistenceService;
 import com.toyota.consumer.util.RateParser;
+import com.toyota.envelope.SnapshotEnvelope;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Toyota Financial Data Platform - Simple Rate Listener
  * 
  * Kafka message listener for financial rate data consumption.
- * Processes batched rate messages grouped by pipeline ID with
- * intelligent parsing, categorization, and bulk persistence.
+ * Processes snapshot envelopes (one record per pipeline) and legacy per-rate
+ * messages grouped by pipeline ID, with parsing, categorization, and bulk persistence
+ * per partition.
  * 
  * @author Fatih Karataş
  * @version 1.0
@@ -32,6 +35,9 @@ public class SimpleRateListener {
     private final PersistenceService persistenceService;
     private final RateParser rateParser;
 
+    @Value("${app.kafka.consumer.redelivery-backoff:1s}")
+    private Duration redeliveryBackoff = Duration.ofSeconds(1);
+
     @KafkaListener(
         topics = "${app.kafka.topic.simple-rates}",
         groupId = "${app.kafka.consumer.group-id}",
@@ -40,47 +46,73 @@ public class SimpleRateListener {
     public void consumeRateMessages(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
         log.info("Received batch of {} records from topic", records.size());
         
-        // Group by Pipeline ID for intelligent processing
-        Map<String, List<String>> pipelineBatches = records.stream()
-            .collect(Collectors.groupingBy(
-                ConsumerRecord::key, // Pipeline ID (BATCH_USDTRY_1749399209461)
-                Collectors.mapping(ConsumerRecord::value, Collectors.toList())
-            ));
-        
-        log.info("Processing {} pipeline batches with {} total messages", 
-                pipelineBatches.size(), records.size());
-        
-        List<RateEntity> allEntitiesToPersist = new ArrayList<>();
-        int totalUnparseable = 0;
-        
-        // Process each pipeline batch
-        for (Map.Entry<String, List<String>> entry : pipelineBatches.entrySet()) {
-            String pipelineId = entry.getKey();
-            List<String> messages = entry.getValue();
-            
-            ProcessingResult result = processPipelineBatch(pipelineId, messages);
-            allEntitiesToPersist.addAll(result.entitiesToPersist);
-            totalUnparseable += result.unparseableCount;
+        // A poll returns each partition's records contiguously and in offset order
+        Map<Integer, Integer> partitionStarts = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            partitionStarts.putIfAbsent(records.get(i).partition(), i);
         }
-
-        // Bulk persistence
-        if (!allEntitiesToPersist.isEmpty()) {
+        
+        // Each partition (one set of symbol groups) is persisted on its own, so a failure
+        // redelivers that partition and the ones after it while earlier partitions commit
+        int persisted = 0;
+        int unparseable = 0;
+        List<Integer> starts = new ArrayList<>(partitionStarts.values());
+        for (int p = 0; p < starts.size(); p++) {
+            int from = starts.get(p);
+            int to = p + 1 < starts.size() ? starts.get(p + 1) : records.size();
+            int partition = records.get(from).partition();
             try {
-                List<RateEntity> persistedEntities = persistenceService.saveAllRates(allEntitiesToPersist);
-                log.info("Successfully persisted {} entities from {} pipeline batches", 
-                        persistedEntities.size(), pipelineBatches.size());
+                PartitionResult result = processPartition(partition, records.subList(from, to));
+                persisted += result.persistedCount();
+                unparseable += result.unparseableCount();
             } catch (Exception e) {
-                log.error("Error persisting batch of {} entities from {} pipelines. Acknowledgment withheld for retry.",
-                    allEntitiesToPersist.size(), pipelineBatches.size(), e);
+                log.error("Error persisting partition {} ({} records). Redelivering from offset {}.",
+                    partition, to - from, records.get(from).offset(), e);
+                acknowledgment.nack(from, redeliveryBackoff);
                 return;
             }
-        } else {
-            log.info("No processable messages in any pipeline batch to persist.");
         }
 
         acknowledgment.acknowledge();
-        log.info("Batch acknowledged: {} pipeline batches, {} total messages, {} unparseable", 
-                pipelineBatches.size(), records.size(), totalUnparseable);
+        log.info("Batch acknowledged: {} partitions, {} entities persisted, {} unparseable", 
+                partitionStarts.size(), persisted, unparseable);
+    }
+    
+    private PartitionResult processPartition(int partition, List<ConsumerRecord<String, String>> records) {
+        // Envelopes already carry a whole pipeline; legacy per-rate records are grouped by their key
+        Map<String, List<String>> pipelineBatches = new LinkedHashMap<>();
+        int unparseable = 0;
+        for (ConsumerRecord<String, String> record : records) {
+            String value = record.value();
+            if (SnapshotEnvelope.isEnvelope(value)) {
+                SnapshotEnvelope envelope = SnapshotEnvelope.decode(value, record.key());
+                if (envelope == null) {
+                    log.warn("Malformed snapshot envelope at partition {} offset {}: '{}'", partition, record.offset(), value);
+                    unparseable++;
+                    continue;
+                }
+                pipelineBatches.computeIfAbsent(envelope.pipelineId(), k -> new ArrayList<>()).addAll(envelope.rates());
+            } else {
+                // Pipeline ID (BATCH_USDTRY_1749399209461)
+                pipelineBatches.computeIfAbsent(record.key(), k -> new ArrayList<>()).add(value);
+            }
+        }
+        
+        List<RateEntity> entitiesToPersist = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : pipelineBatches.entrySet()) {
+            ProcessingResult result = processPipelineBatch(entry.getKey(), entry.getValue());
+            entitiesToPersist.addAll(result.entitiesToPersist);
+            unparseable += result.unparseableCount;
+        }
+
+        if (entitiesToPersist.isEmpty()) {
+            log.debug("Partition {}: no processable messages to persist", partition);
+            return new PartitionResult(0, unparseable);
+        }
+        List<RateEntity> persistedEntities = persistenceService.saveAllRates(entitiesToPersist);
+        log.debug("Partition {}: persisted {} entities from {} pipeline batches", 
+                partition, persistedEntities.size(), pipelineBatches.size());
+        return new PartitionResult(persistedEntities.size(), unparseable);
     }
     
     private ProcessingResult processPipelineBatch(String pipelineId, List<String> messages) {
@@ -128,4 +160,7 @@ public class SimpleRateListener {
             this.unparseableCount = unparseableCount;
         }
     }
-}
\ No newline at end of file
+    
+    private record PartitionResult(int persistedCount, int unparseableCount) {
+    }
+}
@@ -11,8 +11,8 @@ import java.util.List;
  * Toyota Financial Data Platform - Rate Repository
  * 
  * JPA repository interface for financial rate data persistence.
- * Provides custom query methods for rate retrieval by time range,
- * symbol, and duplicate detection for the Toyota platform.
+ * Provides custom query methods for rate retrieval by time range
+ * and symbol for the Toyota platform.
  * 
  * @author Fatih Karataş
  * @version 1.0
@@ -23,5 +23,4 @@ public interface RateRepository extends JpaRepository<RateEntity, Long> {
     
   List<RateEntity> findByRateUpdatetimeAfter(LocalDateTime dateTime);
     List<RateEntity> findByRateName(String rateName); 
-    boolean existsByRateNameAndRateUpdatetime(String rateName, LocalDateTime rateUpdatetime);
 }
@@ -4,19 +4,20 @@ import com.toyota.consumer.model.RateEntity;
 import com.toyota.consumer.repository.RateRepository; 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Toyota Financial Data Platform - Persistence Service
  * 
  * Manages database persistence operations for financial rate data.
- * Provides transactional safety, duplicate detection, and bulk operations
- * for efficient storage of real-time rate information.
+ * Provides transactional safety, idempotent bulk inserts, and single-rate
+ * operations for efficient storage of real-time rate information.
  * 
  * @author Fatih Karataş
  * @version 1.0
@@ -27,7 +28,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PersistenceService {
 
+    private static final String INSERT_IGNORING_DUPLICATES =
+            "INSERT INTO rates (rate_name, bid, ask, rate_updatetime, db_updatetime, pipeline_id, rate_category) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (rate_name, rate_updatetime) DO NOTHING";
+
     private final RateRepository rateRepository; 
+    private final JdbcTemplate jdbcTemplate;
     
     @Transactional
     public RateEntity saveRate(RateEntity rateEntity) {
@@ -49,42 +55,52 @@ public class PersistenceService {
         return rateRepository.count(); 
     }
 
+    /**
+     * Insert rates in one JDBC batch; rows already stored (same rate_name and rate_updatetime)
+     * are skipped by the unique constraint instead of a lookup per row.
+     *
+     * @return the entities that were actually inserted
+     */
     @Transactional
     public List<RateEntity> saveAllRates(List<RateEntity> rateEntities) {
         if (rateEntities == null || rateEntities.isEmpty()) {
             log.info("Received an empty or null list of rate entities to save.");
             return new ArrayList<>();
         }
-        LocalDateTime now = LocalDateTime.now();
-        List<RateEntity> newEntitiesToSave = new ArrayList<>();
-        List<RateEntity> duplicateEntities = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IGNORING_DUPLICATES, rateEntities, rateEntities.size(),
+                (statement, entity) -> {
+                    statement.setString(1, entity.getRateName());
+                    statement.setBigDecimal(2, entity.getBid());
+                    statement.setBigDecimal(3, entity.getAsk());
+                    statement.setTimestamp(4, entity.getRateUpdatetime() != null
+                            ? Timestamp.valueOf(entity.getRateUpdatetime()) : null);
+                    statement.setTimestamp(5, now);
+                    statement.setString(6, entity.getPipelineId());
+                    statement.setString(7, entity.getRateCategory());
+                });
 
-        for (RateEntity entity : rateEntities) {
-           
-            if (rateRepository.existsByRateNameAndRateUpdatetime(entity.getRateName(), entity.getRateUpdatetime())) { 
-                duplicateEntities.add(entity);
-            } else {
-                entity.setDbUpdatetime(now); 
-                newEntitiesToSave.add(entity);
+        List<RateEntity> savedEntities = new ArrayList<>(rateEntities.size());
+        int duplicates = 0;
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                RateEntity entity = rateEntities.get(index++);
+                // Drivers that rewrite batches report SUCCESS_NO_INFO; count those as inserted
+                if (count != 0) {
+                    entity.setDbUpdatetime(now.toLocalDateTime());
+                    savedEntities.add(entity);
+                } else {
+                    duplicates++;
+                }
             }
         }
 
-        if (!duplicateEntities.isEmpty()) {
-            log.info("Found {} duplicate entities that will be skipped: {}",
-                    duplicateEntities.size(),
-                    duplicateEntities.stream()
-                                     .map(e -> e.getRateName() + "@" + e.getRateUpdatetime())
-                                     .collect(Collectors.joining(", ")));
+        if (duplicates > 0) {
+            log.info("Skipped {} duplicate entities already stored.", duplicates);
         }
-
-        if (newEntitiesToSave.isEmpty()) {
-            log.info("No new entities to save after filtering duplicates.");
-            return new ArrayList<>(); 
-        }    
-        
-        log.info("Attempting to save {} new entities.", newEntitiesToSave.size());
-        List<RateEntity> savedEntities = rateRepository.saveAll(newEntitiesToSave); 
         log.info("Successfully saved {} new entities.", savedEntities.size());
         return savedEntities;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,4 @@
+-- Rates are inserted with ON CONFLICT (rate_name, rate_updatetime) DO NOTHING against
+-- uq_rate_name_updatetime instead of probing for duplicates row by row.
+-- rate_category was previously added only by Hibernate's ddl-auto; the insert now writes it directly.
+ALTER TABLE rates ADD COLUMN IF NOT EXISTS rate_category VARCHAR(255);
@@ -0,0 +1,87 @@
+package com.toyota.consumer;
+
+import com.toyota.consumer.model.RateEntity;
+import com.toyota.consumer.repository.RateRepository;
+import com.toyota.consumer.service.PersistenceService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PersistenceServiceTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2025, 1, 1, 10, 0, 0, 504_000_000);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PersistenceService persistenceService = new PersistenceService(mock(RateRepository.class), jdbcTemplate);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchInsertIgnoresConflictsAndBindsEveryColumn() throws Exception {
+        List<RateEntity> rates = List.of(rate("PF1_USDTRY"), rate("USDTRY_AVG"));
+        when(jdbcTemplate.batchUpdate(anyString(), eq(rates), eq(2), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 0}});
+
+        List<RateEntity> saved = persistenceService.saveAllRates(rates);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<RateEntity>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), eq(rates), eq(2), setter.capture());
+        assertTrue(sql.getValue().endsWith("ON CONFLICT (rate_name, rate_updatetime) DO NOTHING"));
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        setter.getValue().setValues(statement, rates.get(0));
+        verify(statement).setString(1, "PF1_USDTRY");
+        verify(statement).setBigDecimal(2, new BigDecimal("34.10"));
+        verify(statement).setTimestamp(4, Timestamp.valueOf(UPDATED));
+        verify(statement).setString(6, "BATCH_USDTRY_1");
+
+        // The conflicting row (count 0) is reported as not inserted
+        assertEquals(List.of(rates.get(0)), saved);
+        assertNotNull(rates.get(0).getDbUpdatetime());
+        assertNull(rates.get(1).getDbUpdatetime());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void successNoInfoCountsAsInsertedAcrossBatches() {
+        List<RateEntity> rates = List.of(rate("PF1_USDTRY"), rate("PF2_USDTRY"), rate("USDTRY_AVG"));
+        // Rewritten batches report SUCCESS_NO_INFO (-2) instead of a row count
+        when(jdbcTemplate.batchUpdate(anyString(), eq(rates), eq(3), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{Statement.SUCCESS_NO_INFO}, {0, Statement.SUCCESS_NO_INFO}});
+
+        List<RateEntity> saved = persistenceService.saveAllRates(rates);
+
+        assertEquals(List.of("PF1_USDTRY", "USDTRY_AVG"), saved.stream().map(RateEntity::getRateName).toList());
+    }
+
+    @Test
+    void emptyListSkipsTheDatabase() {
+        assertTrue(persistenceService.saveAllRates(List.of()).isEmpty());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static RateEntity rate(String name) {
+        return RateEntity.builder()
+                .rateName(name)
+                .bid(new BigDecimal("34.10"))
+                .ask(new BigDecimal("34.20"))
+                .rateUpdatetime(UPDATED)
+                .pipelineId("BATCH_USDTRY_1")
+                .rateCategory("OTHER")
+                .build();
+    }
+}
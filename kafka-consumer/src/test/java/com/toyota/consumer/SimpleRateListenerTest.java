@@ -0,0 +1,116 @@
+package com.toyota.consumer;
+
+import com.toyota.consumer.listener.SimpleRateListener;
+import com.toyota.consumer.model.RateEntity;
+import com.toyota.consumer.service.PersistenceService;
+import com.toyota.consumer.util.RateParser;
+import com.toyota.envelope.SnapshotEnvelope;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SimpleRateListenerTest {
+
+    private static final List<String> RATES = List.of(
+            "PF1_USDTRY|34.10|34.20|2025-01-01T10:00:00.504",
+            "USDTRY_AVG|34.12|34.22|2025-01-01T10:00:00.504");
+
+    private final PersistenceService persistenceService = mock(PersistenceService.class);
+    private final Acknowledgment acknowledgment = mock(Acknowledgment.class);
+    private final SimpleRateListener listener = new SimpleRateListener(persistenceService, new RateParser());
+
+    @Test
+    void envelopeRatesArePersistedUnderItsPipeline() {
+        String envelope = SnapshotEnvelope.encode("BATCH_USDTRY_1", "USDTRY", 3L, RATES);
+        when(persistenceService.saveAllRates(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        listener.consumeRateMessages(List.of(record(0, "key", envelope)), acknowledgment);
+
+        List<RateEntity> persisted = persistedEntities();
+        assertEquals(List.of("PF1_USDTRY", "USDTRY_AVG"), persisted.stream().map(RateEntity::getRateName).toList());
+        assertTrue(persisted.stream().allMatch(rate -> "BATCH_USDTRY_1".equals(rate.getPipelineId())));
+        assertEquals(List.of("OTHER", "AVERAGE"), persisted.stream().map(RateEntity::getRateCategory).toList());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void truncatedEnvelopeIsSkippedNotPartiallyPersisted() {
+        String envelope = SnapshotEnvelope.encode("BATCH_USDTRY_1", "USDTRY", 3L, RATES);
+        String truncated = envelope.substring(0, envelope.lastIndexOf('\n'));
+
+        listener.consumeRateMessages(List.of(record(0, "key", truncated)), acknowledgment);
+
+        verify(persistenceService, never()).saveAllRates(anyList());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void envelopesAndLegacyLinesOfAPartitionShareOneSave() {
+        String envelope = SnapshotEnvelope.encode("", "USDTRY", 3L, RATES);
+        when(persistenceService.saveAllRates(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        listener.consumeRateMessages(List.of(
+                record(0, "BATCH_USDTRY_2", envelope),
+                record(0, "BATCH_EURTRY_1", "EURTRY_CROSS|36.90|37.00|2025-01-01T10:00:00.504")), acknowledgment);
+
+        List<RateEntity> persisted = persistedEntities();
+        assertEquals(3, persisted.size());
+        // An envelope without a pipeline id falls back to its record key
+        assertEquals("BATCH_USDTRY_2", persisted.get(0).getPipelineId());
+        assertEquals("BATCH_EURTRY_1", persisted.get(2).getPipelineId());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void persistenceFailureRedeliversTheBatch() {
+        when(persistenceService.saveAllRates(anyList())).thenThrow(new IllegalStateException("db down"));
+
+        listener.consumeRateMessages(List.of(record(0, "key",
+                SnapshotEnvelope.encode("BATCH_USDTRY_1", "USDTRY", 3L, RATES))), acknowledgment);
+
+        verify(acknowledgment, never()).acknowledge();
+        verify(acknowledgment).nack(0, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void partitionsPersistSeparatelyAndAFailureRedeliversFromItsFirstRecord() {
+        String eurtry = "EURTRY_CROSS|36.90|37.00|2025-01-01T10:00:00.504";
+        when(persistenceService.saveAllRates(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new IllegalStateException("db down"));
+
+        listener.consumeRateMessages(List.of(
+                record(0, "key", SnapshotEnvelope.encode("BATCH_USDTRY_1", "USDTRY", 3L, RATES)),
+                record(0, "BATCH_USDTRY_2", RATES.get(0)),
+                record(3, "BATCH_EURTRY_1", eurtry),
+                record(5, "BATCH_GBPTRY_1", "GBPTRY_AVG|43.10|43.20|2025-01-01T10:00:00.504")), acknowledgment);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RateEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(persistenceService, times(2)).saveAllRates(captor.capture());
+        assertEquals(3, captor.getAllValues().get(0).size());
+        assertEquals("EURTRY_CROSS", captor.getAllValues().get(1).get(0).getRateName());
+        // Partition 0 commits; partition 3 and everything after it is redelivered
+        verify(acknowledgment).nack(2, Duration.ofSeconds(1));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RateEntity> persistedEntities() {
+        ArgumentCaptor<List<RateEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(persistenceService).saveAllRates(captor.capture());
+        return captor.getValue();
+    }
+
+    private static ConsumerRecord<String, String> record(int partition, String key, String value) {
+        return new ConsumerRecord<>("financial-simple-rates", partition, 0L, key, value);
+    }
+}
@@ -0,0 +1,310 @@
+package com.toyota.mainapp.cache;
+
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.InputRateInfo;
+import com.toyota.mainapp.dto.model.RateType;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Toyota Financial Data Platform - Binary Rate Redis Serializer
+ *
+ * Versioned compact codec for cached rates: a magic byte, a format version,
+ * a presence bitmask, then the present fields in a fixed order with varint
+ * numbers. Values that start with '{' are legacy JSON entries and are handed
+ * to the optional legacy serializer, so existing keys stay readable. The
+ * reverse does not hold: a JSON-only instance cannot read binary entries, so a
+ * rolling deploy must finish before any instance writes binary (see RedisConfig).
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public class BinaryRateRedisSerializer implements RedisSerializer<BaseRateDto> {
+
+    static final byte MAGIC = (byte) 0xB7;
+    static final byte VERSION = 1;
+    private static final byte JSON_OBJECT_START = '{';
+
+    private static final int RATE_TYPE = 1;
+    private static final int SYMBOL = 1 << 1;
+    private static final int BID = 1 << 2;
+    private static final int ASK = 1 << 3;
+    private static final int PROVIDER = 1 << 4;
+    private static final int TIMESTAMP = 1 << 5;
+    private static final int RECEIVED_AT = 1 << 6;
+    private static final int VALIDATED_AT = 1 << 7;
+    private static final int CALCULATION_TYPE = 1 << 8;
+    private static final int STRATEGY = 1 << 9;
+    private static final int STATUS = 1 << 10;
+    private static final int STATUS_MESSAGE = 1 << 11;
+    private static final int LAST_CALCULATION = 1 << 12;
+    private static final int INPUTS = 1 << 13;
+
+    private static final RateType[] RATE_TYPES = RateType.values();
+    private static final BaseRateDto.RateStatusEnum[] STATUSES = BaseRateDto.RateStatusEnum.values();
+
+    private final boolean includeInputs;
+    private final RedisSerializer<BaseRateDto> legacySerializer;
+
+    /**
+     * @param includeInputs    write the calculationInputs audit list; raw rates never carry one
+     * @param legacySerializer reader for entries written before the binary codec, or null to reject them
+     */
+    public BinaryRateRedisSerializer(boolean includeInputs, RedisSerializer<BaseRateDto> legacySerializer) {
+        this.includeInputs = includeInputs;
+        this.legacySerializer = legacySerializer;
+    }
+
+    @Override
+    public byte[] serialize(BaseRateDto rate) throws SerializationException {
+        if (rate == null) {
+            return new byte[0];
+        }
+        Writer out = new Writer();
+        out.buffer[0] = MAGIC;
+        out.buffer[1] = VERSION;
+        out.position = 2;
+
+        int presence = presence(rate);
+        out.writeVarLong(presence);
+        if ((presence & RATE_TYPE) != 0) out.writeVarLong(rate.getRateType().ordinal());
+        if ((presence & SYMBOL) != 0) out.writeString(rate.getSymbol());
+        if ((presence & BID) != 0) out.writeDecimal(rate.getBid());
+        if ((presence & ASK) != 0) out.writeDecimal(rate.getAsk());
+        if ((presence & PROVIDER) != 0) out.writeString(rate.getProviderName());
+        if ((presence & TIMESTAMP) != 0) out.writeZigZag(rate.getTimestamp());
+        if ((presence & RECEIVED_AT) != 0) out.writeZigZag(rate.getReceivedAt());
+        if ((presence & VALIDATED_AT) != 0) out.writeZigZag(rate.getValidatedAt());
+        if ((presence & CALCULATION_TYPE) != 0) out.writeString(rate.getCalculationType());
+        if ((presence & STRATEGY) != 0) out.writeString(rate.getCalculatedByStrategy());
+        if ((presence & STATUS) != 0) out.writeVarLong(rate.getStatus().ordinal());
+        if ((presence & STATUS_MESSAGE) != 0) out.writeString(rate.getStatusMessage());
+        if ((presence & LAST_CALCULATION) != 0) out.writeZigZag(rate.getLastCalculationTimestamp());
+        if ((presence & INPUTS) != 0) writeInputs(out, rate.getCalculationInputs());
+        return out.toByteArray();
+    }
+
+    @Override
+    public BaseRateDto deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == JSON_OBJECT_START) {
+            if (legacySerializer == null) {
+                throw new SerializationException("Legacy JSON rate entry and legacy reads are disabled");
+            }
+            return legacySerializer.deserialize(bytes);
+        }
+        if (bytes.length < 3 || bytes[0] != MAGIC) {
+            throw new SerializationException("Not a binary rate entry");
+        }
+        if (bytes[1] != VERSION) {
+            throw new SerializationException("Unsupported binary rate version: " + bytes[1]);
+        }
+
+        try {
+            Reader in = new Reader(bytes, 2);
+            int presence = (int) in.readVarLong();
+            BaseRateDto rate = new BaseRateDto();
+            if ((presence & RATE_TYPE) != 0) rate.setRateType(RATE_TYPES[(int) in.readVarLong()]);
+            if ((presence & SYMBOL) != 0) rate.setSymbol(in.readString());
+            if ((presence & BID) != 0) rate.setBid(in.readDecimal());
+            if ((presence & ASK) != 0) rate.setAsk(in.readDecimal());
+            if ((presence & PROVIDER) != 0) rate.setProviderName(in.readString());
+            if ((presence & TIMESTAMP) != 0) rate.setTimestamp(in.readZigZag());
+            if ((presence & RECEIVED_AT) != 0) rate.setReceivedAt(in.readZigZag());
+            if ((presence & VALIDATED_AT) != 0) rate.setValidatedAt(in.readZigZag());
+            if ((presence & CALCULATION_TYPE) != 0) rate.setCalculationType(in.readString());
+            if ((presence & STRATEGY) != 0) rate.setCalculatedByStrategy(in.readString());
+            if ((presence & STATUS) != 0) rate.setStatus(STATUSES[(int) in.readVarLong()]);
+            if ((presence & STATUS_MESSAGE) != 0) rate.setStatusMessage(in.readString());
+            if ((presence & LAST_CALCULATION) != 0) rate.setLastCalculationTimestamp(in.readZigZag());
+            if ((presence & INPUTS) != 0) rate.setCalculationInputs(readInputs(in));
+            return rate;
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            // Past the end, or a corrupt length or count (negative, or a zero-length integer)
+            throw new SerializationException("Truncated or corrupt binary rate entry", e);
+        }
+    }
+
+    private int presence(BaseRateDto rate) {
+        int presence = 0;
+        if (rate.getRateType() != null) presence |= RATE_TYPE;
+        if (rate.getSymbol() != null) presence |= SYMBOL;
+        if (rate.getBid() != null) presence |= BID;
+        if (rate.getAsk() != null) presence |= ASK;
+        if (rate.getProviderName() != null) presence |= PROVIDER;
+        if (rate.getTimestamp() != null) presence |= TIMESTAMP;
+        if (rate.getReceivedAt() != null) presence |= RECEIVED_AT;
+        if (rate.getValidatedAt() != null) presence |= VALIDATED_AT;
+        if (rate.getCalculationType() != null) presence |= CALCULATION_TYPE;
+        if (rate.getCalculatedByStrategy() != null) presence |= STRATEGY;
+        if (rate.getStatus() != null) presence |= STATUS;
+        if (rate.getStatusMessage() != null) presence |= STATUS_MESSAGE;
+        if (rate.getLastCalculationTimestamp() != null) presence |= LAST_CALCULATION;
+        if (includeInputs && rate.getCalculationInputs() != null && !rate.getCalculationInputs().isEmpty()) {
+            presence |= INPUTS;
+        }
+        return presence;
+    }
+
+    private static void writeInputs(Writer out, List<InputRateInfo> inputs) {
+        out.writeVarLong(inputs.size());
+        for (InputRateInfo input : inputs) {
+            int presence = 0;
+            if (input.getSymbol() != null) presence |= 1;
+            if (input.getRateType() != null) presence |= 1 << 1;
+            if (input.getProviderName() != null) presence |= 1 << 2;
+            if (input.getBid() != null) presence |= 1 << 3;
+            if (input.getAsk() != null) presence |= 1 << 4;
+            if (input.getTimestamp() != null) presence |= 1 << 5;
+            out.writeVarLong(presence);
+            if ((presence & 1) != 0) out.writeString(input.getSymbol());
+            if ((presence & 1 << 1) != 0) out.writeString(input.getRateType());
+            if ((presence & 1 << 2) != 0) out.writeString(input.getProviderName());
+            if ((presence & 1 << 3) != 0) out.writeDecimal(input.getBid());
+            if ((presence & 1 << 4) != 0) out.writeDecimal(input.getAsk());
+            if ((presence & 1 << 5) != 0) out.writeZigZag(input.getTimestamp());
+        }
+    }
+
+    private static List<InputRateInfo> readInputs(Reader in) {
+        long count = in.readVarLong();
+        if (count < 0 || count > in.remaining()) {
+            // Every input takes at least one byte; refuse to size a list from a corrupt count
+            throw new SerializationException("Corrupt input count in binary rate entry: " + count);
+        }
+        List<InputRateInfo> inputs = new ArrayList<>((int) count);
+        for (int i = 0; i < count; i++) {
+            int presence = (int) in.readVarLong();
+            InputRateInfo input = new InputRateInfo();
+            if ((presence & 1) != 0) input.setSymbol(in.readString());
+            if ((presence & 1 << 1) != 0) input.setRateType(in.readString());
+            if ((presence & 1 << 2) != 0) input.setProviderName(in.readString());
+            if ((presence & 1 << 3) != 0) input.setBid(in.readDecimal());
+            if ((presence & 1 << 4) != 0) input.setAsk(in.readDecimal());
+            if ((presence & 1 << 5) != 0) input.setTimestamp(in.readZigZag());
+            inputs.add(input);
+        }
+        return inputs;
+    }
+
+    /** Growable output buffer; a raw rate fits the initial 64 bytes. */
+    private static final class Writer {
+        byte[] buffer = new byte[64];
+        int position;
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length);
+            writeBytes(utf8);
+        }
+
+        /**
+         * Header = zigzag(scale) << 1 | wide; a price's unscaled value is a zigzag varint unless it
+         * needs more than 63 bits, then it is written as two's complement bytes.
+         */
+        void writeDecimal(BigDecimal value) {
+            BigInteger unscaled = value.unscaledValue();
+            long scale = value.scale();
+            long zigZagScale = (scale << 1) ^ (scale >> 63);
+            if (unscaled.bitLength() < 64) {
+                writeVarLong(zigZagScale << 1);
+                writeZigZag(unscaled.longValue());
+            } else {
+                writeVarLong((zigZagScale << 1) | 1);
+                byte[] bytes = unscaled.toByteArray();
+                writeVarLong(bytes.length);
+                writeBytes(bytes);
+            }
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+        final byte[] bytes;
+        int position;
+
+        Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in binary rate entry");
+        }
+
+        int remaining() {
+            return bytes.length - position;
+        }
+
+        long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        BigDecimal readDecimal() {
+            long header = readVarLong();
+            long zigZagScale = header >>> 1;
+            int scale = (int) ((zigZagScale >>> 1) ^ -(zigZagScale & 1));
+            if ((header & 1) == 0) {
+                return BigDecimal.valueOf(readZigZag(), scale);
+            }
+            int length = (int) readVarLong();
+            BigInteger unscaled = new BigInteger(bytes, position, length);
+            position += length;
+            return new BigDecimal(unscaled, scale);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.toyota.mainapp.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Toyota Financial Data Platform - Near Cache
+ *
+ * Bounded in-process TTL cache in front of Redis. Entries carry their own
+ * expiry so they age out with the Redis key they mirror; absent keys can be
+ * cached briefly as negative entries so repeated probes stay in the JVM.
+ * Invalidations leave a versioned tombstone, so a Redis read that started
+ * before the invalidation cannot fill the old value back in.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public class NearCache<V> {
+
+    private final String name;
+    private final int maxEntries;
+    // Evict down to this size so the next inserts do not sweep again
+    private final int evictTo;
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidationVersion = new AtomicLong();
+    // Highest version of a tombstone dropped by a sweep; fills stamped before it are refused
+    private volatile long purgedTombstoneVersion;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder staleFills = new LongAdder();
+
+    public NearCache(String name, int maxEntries) {
+        this.name = name;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.evictTo = this.maxEntries - Math.max(1, this.maxEntries / 10);
+    }
+
+    /**
+     * Take before reading Redis and hand to {@link #putIfAbsent}; invalidations after it win.
+     */
+    public long stamp() {
+        return invalidationVersion.get();
+    }
+
+    /**
+     * Fresh entry for the key, or null on a miss. A returned entry with a null value is a
+     * cached "not in Redis" answer.
+     */
+    public Entry<V> lookup(String key, long nowMillis) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.isTombstone()) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() - nowMillis <= 0) {
+            if (entries.remove(key, entry)) {
+                expirations.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        if (entry.value() == null) {
+            negativeHits.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Write-through from this instance; always replaces what is cached.
+     */
+    public void put(String key, V value, long ttlMillis, long nowMillis) {
+        ensureCapacity(key, nowMillis);
+        entries.put(key, new Entry<>(value, nowMillis + ttlMillis, 0L));
+    }
+
+    /**
+     * Fill from a Redis read that started at {@code stamp}. Never overwrites a live entry, so a
+     * slow load cannot replace a newer value written locally while the read was in flight, and
+     * is refused if the key was invalidated after the read started.
+     */
+    public void putIfAbsent(String key, V value, long ttlMillis, long nowMillis, long stamp) {
+        if (stamp < purgedTombstoneVersion) {
+            // The tombstone that would have told us is gone; skip rather than risk a stale fill
+            staleFills.increment();
+            return;
+        }
+        ensureCapacity(key, nowMillis);
+        Entry<V> loaded = new Entry<>(value, nowMillis + ttlMillis, 0L);
+        entries.compute(key, (k, current) -> {
+            if (current == null) {
+                return loaded;
+            }
+            if (current.isTombstone()) {
+                if (current.version() > stamp) {
+                    staleFills.increment();
+                    return current;
+                }
+                return loaded;
+            }
+            return current.expiresAt() - nowMillis <= 0 ? loaded : current;
+        });
+    }
+
+    /**
+     * Replace a live entry with a value derived from it; absent or expired entries stay absent.
+     */
+    public void computeIfPresent(String key, UnaryOperator<V> update, long ttlMillis, long nowMillis) {
+        entries.computeIfPresent(key, (k, current) -> {
+            if (current.isTombstone()) {
+                return current;
+            }
+            return current.expiresAt() - nowMillis <= 0
+                    ? null
+                    : new Entry<>(update.apply(current.value()), nowMillis + ttlMillis, 0L);
+        });
+    }
+
+    /**
+     * Drop the key and leave a tombstone that refuses fills stamped before this call. The
+     * tombstone is replaced by the next local write or newer fill, or swept as expired.
+     */
+    public void invalidate(String key, long nowMillis) {
+        Entry<V> tombstone = new Entry<>(null, nowMillis, invalidationVersion.incrementAndGet());
+        Entry<V> previous = entries.put(key, tombstone);
+        if (previous != null && !previous.isTombstone()) {
+            invalidations.increment();
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return hits.sum() + negativeHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long hitCount = getHits();
+        long missCount = misses.sum();
+        stats.put("size", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("negativeHits", negativeHits.sum());
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("staleFills", staleFills.sum());
+        return stats;
+    }
+
+    private void ensureCapacity(String key, long nowMillis) {
+        if (entries.size() < maxEntries || entries.containsKey(key)) {
+            return;
+        }
+        sweep(nowMillis);
+    }
+
+    /**
+     * One pass over the map: drop expired entries and tombstones, then evict the live entries
+     * closest to expiry until {@link #evictTo} is reached. Evicting below the limit means a full
+     * cache sweeps once per maxEntries / 10 inserts instead of on every insert.
+     */
+    private synchronized void sweep(long nowMillis) {
+        if (entries.size() < maxEntries) {
+            // Another writer swept while we waited
+            return;
+        }
+        long[] liveExpiries = new long[entries.size()];
+        int live = 0;
+        long purgedVersion = purgedTombstoneVersion;
+        for (Map.Entry<String, Entry<V>> e : entries.entrySet()) {
+            Entry<V> entry = e.getValue();
+            if (entry.expiresAt() - nowMillis > 0) {
+                if (live < liveExpiries.length) {
+                    liveExpiries[live++] = entry.expiresAt();
+                }
+            } else if (entries.remove(e.getKey(), entry)) {
+                if (entry.isTombstone()) {
+                    purgedVersion = Math.max(purgedVersion, entry.version());
+                } else {
+                    expirations.increment();
+                }
+            }
+        }
+        purgedTombstoneVersion = purgedVersion;
+
+        int excess = entries.size() - evictTo;
+        if (excess <= 0 || live == 0) {
+            return;
+        }
+        Arrays.sort(liveExpiries, 0, live);
+        long threshold = liveExpiries[Math.min(excess, live) - 1];
+        for (Map.Entry<String, Entry<V>> e : entries.entrySet()) {
+            if (excess <= 0) {
+                break;
+            }
+            Entry<V> entry = e.getValue();
+            if (!entry.isTombstone() && entry.expiresAt() - threshold <= 0 && entries.remove(e.getKey(), entry)) {
+                evictions.increment();
+                excess--;
+            }
+        }
+    }
+
+    /**
+     * A cached value, or a negative entry when value is null. A non-zero version marks the
+     * tombstone of an invalidation.
+     */
+    public record Entry<V>(V value, long expiresAt, long version) {
+
+        public boolean isTombstone() {
+            return version != 0L;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.toyota.mainapp.cache;
+
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Toyota Financial Data Platform - Rate Cache Mirror
+ *
+ * Asynchronous write-behind to Redis. The calculation pipeline reads from
+ * in-memory state, so cache writes are handed to a single mirror thread and
+ * never hold up a pipeline shard. Pending writes are conflated per key and
+ * flushed as one batch, i.e. one Redis round trip per drain. A write is only
+ * ever superseded by a newer rate for the same key, never discarded, and
+ * superseded writes are counted.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateCacheMirror {
+
+    private final RateCacheService rateCacheService;
+    @Qualifier("cacheMirrorExecutor")
+    private final TaskExecutor cacheMirrorExecutor;
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder conflatedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+
+    private final Map<String, BaseRateDto> pendingRaw = new ConcurrentHashMap<>();
+    private final Map<String, BaseRateDto> pendingCalculated = new ConcurrentHashMap<>();
+    private final AtomicBoolean rawDrainScheduled = new AtomicBoolean();
+    private final AtomicBoolean calculatedDrainScheduled = new AtomicBoolean();
+
+    public void mirrorRawRate(BaseRateDto rate) {
+        // Local readers see the rate now; Redis and other instances catch up on the mirror thread
+        rateCacheService.primeRawRate(rate);
+        enqueue(pendingRaw, rate.getSymbol() + "|" + rate.getProviderName(), rate, rawDrainScheduled, this::drainRaw);
+    }
+
+    public void mirrorCalculatedRate(BaseRateDto rate) {
+        rateCacheService.primeCalculatedRate(rate);
+        enqueue(pendingCalculated, rate.getSymbol(), rate, calculatedDrainScheduled, this::drainCalculated);
+    }
+
+    private void enqueue(Map<String, BaseRateDto> pending, String key, BaseRateDto rate,
+                         AtomicBoolean drainScheduled, Runnable drain) {
+        submittedCount.increment();
+        if (pending.put(key, rate) != null) {
+            conflatedCount.increment();
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            submit(drain, drainScheduled);
+        }
+    }
+
+    /**
+     * Resubmit drains whose submission the executor rejected; their rates are still pending.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.mirror-retry-interval-ms:1000}")
+    public void resubmitPendingDrains() {
+        if (!pendingRaw.isEmpty() && rawDrainScheduled.compareAndSet(false, true)) {
+            submit(this::drainRaw, rawDrainScheduled);
+        }
+        if (!pendingCalculated.isEmpty() && calculatedDrainScheduled.compareAndSet(false, true)) {
+            submit(this::drainCalculated, calculatedDrainScheduled);
+        }
+    }
+
+    private void drainRaw() {
+        drain(pendingRaw, rawDrainScheduled, rateCacheService::cacheRawRates);
+    }
+
+    private void drainCalculated() {
+        drain(pendingCalculated, calculatedDrainScheduled, rateCacheService::cacheCalculatedRates);
+    }
+
+    private void drain(Map<String, BaseRateDto> pending, AtomicBoolean drainScheduled,
+                       Consumer<List<BaseRateDto>> write) {
+        // Clear the flag first so a rate arriving mid-drain schedules the next batch
+        drainScheduled.set(false);
+        List<BaseRateDto> batch = new ArrayList<>(pending.size());
+        for (String key : pending.keySet()) {
+            BaseRateDto rate = pending.remove(key);
+            if (rate != null) {
+                batch.add(rate);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchCount.increment();
+            write.accept(batch);
+        }
+    }
+
+    private void submit(Runnable drain, AtomicBoolean drainScheduled) {
+        try {
+            cacheMirrorExecutor.execute(drain);
+        } catch (Exception e) {
+            // Rates stay pending and go out with the next drain or the periodic resubmit
+            drainScheduled.set(false);
+            rejectedCount.increment();
+            log.warn("⚠️ Cache mirror drain rejected, rates stay pending: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getMirrorStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("submitted", submittedCount.sum());
+        stats.put("rejected", rejectedCount.sum());
+        stats.put("conflated", conflatedCount.sum());
+        stats.put("batches", batchCount.sum());
+        stats.put("pending", getPendingCount());
+        return stats;
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.sum();
+    }
+
+    /**
+     * Writes replaced by a newer rate for the same key before reaching Redis.
+     */
+    public long getConflatedCount() {
+        return conflatedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public int getPendingCount() {
+        return pendingRaw.size() + pendingCalculated.size();
+    }
+}
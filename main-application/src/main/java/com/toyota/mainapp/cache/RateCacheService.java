@@ -1,23 +1,38 @@
 package com.toyota.mainapp.cache;
 
 import com.toyota.mainapp.dto.model.BaseRateDto;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Toyota Financial Data Platform - Rate Cache Service
  * 
  * Redis-based caching service for raw and calculated financial rate data.
  * Provides optimized storage with configurable TTL values and batch operations
- * for high-performance rate data access across the platform.
+ * for high-performance rate data access across the platform. Reads are served
+ * from a bounded {@link NearCache} first. Writes go through one Lua script call
+ * per batch, which also publishes the written keys so other instances drop
+ * their near cache copy (missed messages age out by TTL).
  * 
  * @author Fatih Karataş
  * @version 1.0
@@ -34,107 +49,287 @@ public class RateCacheService {
     @Qualifier("calculatedRateRedisTemplate") 
     private final RedisTemplate<String, BaseRateDto> calculatedRateRedisTemplate;
 
+    private static final RedisScript<Long> CACHE_RATES_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/cache-rates.lua"), Long.class);
+    private static final RedisScript<Long> CACHE_RATES_HASH_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/cache-rates-hash.lua"), Long.class);
+    private static final String HASH_LAYOUT = "hash";
+    private static final String FINGERPRINT_SUFFIX = ":fp";
+
     @Value("${app.cache.raw-rate.ttl-seconds:15}")
     private int rawRateTtlSeconds;
 
+    /**
+     * "keys": one string key per symbol and provider; "hash": one hash per symbol, providers as fields.
+     */
+    @Value("${app.cache.raw-rate.layout:keys}")
+    private String rawRateLayout = "keys";
+
     @Value("${app.cache.calculated-rate.ttl-seconds:10}")
     private int calculatedRateTtlSeconds;
 
     @Value("${app.cache.key-prefix:}")
     private String keyPrefix;
 
-    public void cacheRawRate(BaseRateDto rate) {
-        if (rate == null || rate.getSymbol() == null || rate.getProviderName() == null) {
+    @Value("${app.cache.near.enabled:true}")
+    private boolean nearCacheEnabled = true;
+
+    @Value("${app.cache.near.max-entries:10000}")
+    private int nearCacheMaxEntries = 10000;
+
+    @Value("${app.cache.near.negative-ttl-ms:500}")
+    private long nearCacheNegativeTtlMs = 500L;
+
+    @Value("${app.cache.near.invalidation-channel:toyota_rates:cache:invalidate}")
+    private String invalidationChannel = "toyota_rates:cache:invalidate";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final LongAdder invalidationsPublished = new LongAdder();
+    private final LongAdder invalidationsReceived = new LongAdder();
+    private final LongAdder scriptCalls = new LongAdder();
+    private final LongAdder scriptWrites = new LongAdder();
+    private final LongAdder ttlRefreshes = new LongAdder();
+    private NearCache<BaseRateDto> rawNearCache;
+    private NearCache<Map<String, BaseRateDto>> rawSymbolNearCache;
+    private NearCache<BaseRateDto> calculatedNearCache;
+
+    @PostConstruct
+    public void initNearCache() {
+        rawNearCache = new NearCache<>("raw", nearCacheMaxEntries);
+        rawSymbolNearCache = new NearCache<>("raw-symbol", nearCacheMaxEntries);
+        calculatedNearCache = new NearCache<>("calculated", nearCacheMaxEntries);
+        log.info("✅ Near cache {}: maxEntries={}, channel={}, raw layout={}",
+                nearCacheEnabled ? "enabled" : "disabled", nearCacheMaxEntries, invalidationChannel, rawRateLayout);
+    }
+
+    /**
+     * Make a rate visible to local reads right away, before its Redis write-behind runs.
+     */
+    public void primeRawRate(BaseRateDto rate) {
+        if (!nearCacheEnabled || rate == null || rate.getSymbol() == null || rate.getProviderName() == null) {
             return;
         }
+        if (isHashLayout()) {
+            // Only a symbol already loaded in full can take the field; a partial map would hide providers
+            rawSymbolNearCache.computeIfPresent(buildRawHashKey(rate.getSymbol()), providers -> {
+                Map<String, BaseRateDto> updated = new HashMap<>(providers);
+                updated.put(rate.getProviderName(), rate);
+                return updated;
+            }, TimeUnit.SECONDS.toMillis(rawRateTtlSeconds), System.currentTimeMillis());
+        } else {
+            rawNearCache.put(buildRawRateKey(rate.getSymbol(), rate.getProviderName()), rate,
+                    TimeUnit.SECONDS.toMillis(rawRateTtlSeconds), System.currentTimeMillis());
+        }
+    }
 
-        String key = buildRawRateKey(rate.getSymbol(), rate.getProviderName());
-       try {
-        // Mevcut değeri kontrol et
-        BaseRateDto existingRate = rawRateRedisTemplate.opsForValue().get(key);
-        if (existingRate != null && 
-            Objects.equals(existingRate.getBid(), rate.getBid()) && 
-            Objects.equals(existingRate.getAsk(), rate.getAsk())) {
-            // Sadece TTL'i yenile, değeri tekrar yazma
-            rawRateRedisTemplate.expire(key, rawRateTtlSeconds, TimeUnit.SECONDS);
-            return;
+    public void primeCalculatedRate(BaseRateDto rate) {
+        if (nearCacheEnabled && rate != null && rate.getSymbol() != null) {
+            calculatedNearCache.put(buildCalculatedRateKey(rate.getSymbol()), rate,
+                    TimeUnit.SECONDS.toMillis(calculatedRateTtlSeconds), System.currentTimeMillis());
         }
-        
-        // Değer farklı veya mevcut değilse, yeni değeri yaz
-        rawRateRedisTemplate.opsForValue().set(key, rate, rawRateTtlSeconds, TimeUnit.SECONDS);
-    } catch (Exception e) {
-        log.error("Failed to cache raw rate: key={}", key, e);
     }
+
+    public void cacheRawRate(BaseRateDto rate) {
+        cacheRawRates(Collections.singletonList(rate));
+    }
+
+    /**
+     * Write raw rates in one round trip. Quotes whose bid/ask did not change only get their
+     * TTL refreshed, decided server-side so nothing is read back and decoded here.
+     */
+    public void cacheRawRates(Collection<BaseRateDto> rates) {
+        boolean hashLayout = isHashLayout();
+        List<String> keys = new ArrayList<>(rates.size());
+        List<BaseRateDto> batch = new ArrayList<>(rates.size());
+        for (BaseRateDto rate : rates) {
+            if (rate != null && rate.getSymbol() != null && rate.getProviderName() != null) {
+                keys.add(hashLayout
+                        ? buildRawHashKey(rate.getSymbol())
+                        : buildRawRateKey(rate.getSymbol(), rate.getProviderName()));
+                batch.add(rate);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (hashLayout) {
+                writeRawHash(keys, batch);
+            } else {
+                writeRates(rawRateRedisTemplate, keys, batch, true, rawRateTtlSeconds);
+            }
+            batch.forEach(this::primeRawRate);
+        } catch (Exception e) {
+            log.error("Failed to cache raw rates: keys={}", keys, e);
+        }
     }
 
     public void cacheCalculatedRate(BaseRateDto rate) {
-        if (rate == null || rate.getSymbol() == null) {
+        cacheCalculatedRates(Collections.singletonList(rate));
+    }
+
+    public void cacheCalculatedRates(Collection<BaseRateDto> rates) {
+        List<String> keys = new ArrayList<>(rates.size());
+        List<BaseRateDto> batch = new ArrayList<>(rates.size());
+        for (BaseRateDto rate : rates) {
+            if (rate != null && rate.getSymbol() != null) {
+                keys.add(buildCalculatedRateKey(rate.getSymbol()));
+                batch.add(rate);
+            }
+        }
+        if (batch.isEmpty()) {
             return;
         }
 
-        String key = buildCalculatedRateKey(rate.getSymbol());
-        
         try {
-            calculatedRateRedisTemplate.opsForValue().set(key, rate, calculatedRateTtlSeconds, TimeUnit.SECONDS);
+            writeRates(calculatedRateRedisTemplate, keys, batch, false, calculatedRateTtlSeconds);
+            batch.forEach(this::primeCalculatedRate);
         } catch (Exception e) {
-            log.error("Failed to cache calculated rate: key={}", key, e);
+            log.error("Failed to cache calculated rates: keys={}", keys, e);
         }
     }
 
+    /**
+     * Raw rates of a symbol keyed by provider. With the hash layout every provider that wrote the
+     * symbol is returned and {@code providerNames} is ignored; the key layout can only fetch the
+     * providers it is given.
+     */
     public Map<String, BaseRateDto> getRawRatesForSymbol(String symbol, List<String> providerNames) {
+        if (isHashLayout()) {
+            return getRawRatesForSymbol(symbol);
+        }
         if (symbol == null || providerNames == null || providerNames.isEmpty()) {
             return Collections.emptyMap();
         }
 
         try {
-            List<String> keys = providerNames.stream()
-                    .map(provider -> buildRawRateKey(symbol, provider))
-                    .collect(Collectors.toList());
-
-            List<BaseRateDto> rates = rawRateRedisTemplate.opsForValue().multiGet(keys);
-            Map<String, BaseRateDto> result = new HashMap<>();
-
-            if (rates != null) {
-                for (int i = 0; i < rates.size(); i++) {
-                    BaseRateDto rate = rates.get(i);
-                    if (rate != null && i < providerNames.size()) {
-                        result.put(providerNames.get(i), rate);
-                    }
-                }
-            }
-
-            return result;
-
+            return readRawRates(List.of(symbol), providerNames,
+                            keys -> CompletableFuture.completedFuture(rawRateRedisTemplate.opsForValue().multiGet(keys)),
+                            e -> log.error("Failed to get raw rates: symbol={}", symbol, e))
+                    .toCompletableFuture().join()
+                    .getOrDefault(symbol, Collections.emptyMap());
         } catch (Exception e) {
             log.error("Failed to get raw rates: symbol={}", symbol, e);
             return Collections.emptyMap();
         }
     }
 
-    public Map<String, BaseRateDto> getCalculatedRates(List<String> symbols) {
-        if (symbols == null || symbols.isEmpty()) {
+    /**
+     * All fresh provider rates of a symbol from its hash, one HGETALL on a near cache miss.
+     */
+    public Map<String, BaseRateDto> getRawRatesForSymbol(String symbol) {
+        if (symbol == null) {
             return Collections.emptyMap();
         }
 
         try {
-            List<String> keys = symbols.stream()
-                    .map(this::buildCalculatedRateKey)
-                    .collect(Collectors.toList());
+            return readRawHash(symbol,
+                            key -> CompletableFuture.completedFuture(
+                                    rawRateRedisTemplate.<String, BaseRateDto>opsForHash().entries(key)),
+                            e -> log.error("Failed to get raw rate hash: symbol={}", symbol, e))
+                    .toCompletableFuture().join();
+        } catch (Exception e) {
+            log.error("Failed to get raw rate hash: symbol={}", symbol, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Raw rates of several symbols with the key layout, near cache first. The misses go to
+     * {@code multiGet} in one call, which answers with their values in key order (null when
+     * absent). A failed load is handed to {@code onLoadFailure} and reads as a miss.
+     *
+     * @return symbol -> provider -> rate
+     */
+    public CompletionStage<Map<String, Map<String, BaseRateDto>>> readRawRates(
+            List<String> symbols, List<String> providerNames,
+            Function<List<String>, CompletionStage<List<BaseRateDto>>> multiGet, Consumer<Throwable> onLoadFailure) {
+        List<String> keys = new ArrayList<>(symbols.size() * providerNames.size());
+        for (String symbol : symbols) {
+            for (String provider : providerNames) {
+                keys.add(buildRawRateKey(symbol, provider));
+            }
+        }
+        int providerCount = providerNames.size();
+        Map<String, Map<String, BaseRateDto>> result = new HashMap<>();
+        return readThrough(rawNearCache, keys, rawRateTtlSeconds, multiGet, onLoadFailure,
+                (i, rate) -> result.computeIfAbsent(symbols.get(i / providerCount), symbol -> new HashMap<>())
+                        .put(providerNames.get(i % providerCount), rate))
+                .thenApply(loaded -> result);
+    }
 
-            List<BaseRateDto> rates = calculatedRateRedisTemplate.opsForValue().multiGet(keys);
-            Map<String, BaseRateDto> result = new HashMap<>();
+    /**
+     * Calculated rates by symbol, near cache first; see {@link #readRawRates} for the loader contract.
+     */
+    public CompletionStage<Map<String, BaseRateDto>> readCalculatedRates(
+            List<String> symbols,
+            Function<List<String>, CompletionStage<List<BaseRateDto>>> multiGet, Consumer<Throwable> onLoadFailure) {
+        List<String> keys = symbols.stream().map(this::buildCalculatedRateKey).toList();
+        Map<String, BaseRateDto> result = new HashMap<>();
+        return readThrough(calculatedNearCache, keys, calculatedRateTtlSeconds, multiGet, onLoadFailure,
+                (i, rate) -> result.put(symbols.get(i), rate))
+                .thenApply(loaded -> result);
+    }
 
-            if (rates != null) {
-                for (int i = 0; i < symbols.size() && i < rates.size(); i++) {
-                    BaseRateDto rate = rates.get(i);
-                    if (rate != null) {
-                        result.put(symbols.get(i), rate);
-                    }
-                }
+    /**
+     * Fresh providers of a symbol hash, near cache first; {@code hgetall} loads the hash on a miss.
+     * A failed load is handed to {@code onLoadFailure} and reads as an empty hash.
+     */
+    public CompletionStage<Map<String, BaseRateDto>> readRawHash(
+            String symbol,
+            Function<String, CompletionStage<Map<String, BaseRateDto>>> hgetall, Consumer<Throwable> onLoadFailure) {
+        String key = buildRawHashKey(symbol);
+        long stamp = rawSymbolNearCache.stamp();
+        long now = System.currentTimeMillis();
+        NearCache.Entry<Map<String, BaseRateDto>> cached = nearCacheEnabled ? rawSymbolNearCache.lookup(key, now) : null;
+        if (cached != null) {
+            return CompletableFuture.completedFuture(freshProviders(cached.value(), now));
+        }
+        return load(hgetall, key).handle((loaded, e) -> {
+            if (e != null) {
+                onLoadFailure.accept(unwrap(e));
+                return Collections.<String, BaseRateDto>emptyMap();
             }
+            return loadedRawHash(key, stamp, loaded);
+        });
+    }
 
-            return result;
+    private Map<String, BaseRateDto> loadedRawHash(String key, long stamp, Map<String, BaseRateDto> loaded) {
+        long now = System.currentTimeMillis();
+        Map<String, BaseRateDto> providers = loaded != null ? Map.copyOf(loaded) : Map.of();
+        if (nearCacheEnabled) {
+            rawSymbolNearCache.putIfAbsent(key, providers, providers.isEmpty()
+                    ? nearCacheNegativeTtlMs : TimeUnit.SECONDS.toMillis(rawRateTtlSeconds), now, stamp);
+        }
+        return freshProviders(providers, now);
+    }
 
+    private Map<String, BaseRateDto> freshProviders(Map<String, BaseRateDto> providers, long now) {
+        Map<String, BaseRateDto> result = new HashMap<>();
+        long staleBefore = now - TimeUnit.SECONDS.toMillis(rawRateTtlSeconds);
+        providers.forEach((provider, rate) -> {
+            if (rate != null && isFresh(rate, staleBefore)) {
+                result.put(provider, rate);
+            }
+        });
+        return result;
+    }
+
+    public boolean isHashLayout() {
+        return HASH_LAYOUT.equalsIgnoreCase(rawRateLayout);
+    }
+
+    public Map<String, BaseRateDto> getCalculatedRates(List<String> symbols) {
+        if (symbols == null || symbols.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            return readCalculatedRates(symbols,
+                            keys -> CompletableFuture.completedFuture(calculatedRateRedisTemplate.opsForValue().multiGet(keys)),
+                            e -> log.error("Failed to get calculated rates in batch", e))
+                    .toCompletableFuture().join();
         } catch (Exception e) {
             log.error("Failed to get calculated rates in batch", e);
             return Collections.emptyMap();
@@ -148,7 +343,16 @@ public class RateCacheService {
 
         try {
             String key = buildCalculatedRateKey(symbol);
-            return calculatedRateRedisTemplate.opsForValue().get(key);
+            long stamp = calculatedNearCache.stamp();
+            if (nearCacheEnabled) {
+                NearCache.Entry<BaseRateDto> cached = calculatedNearCache.lookup(key, System.currentTimeMillis());
+                if (cached != null) {
+                    return cached.value();
+                }
+            }
+            BaseRateDto rate = calculatedRateRedisTemplate.opsForValue().get(key);
+            fillNear(calculatedNearCache, stamp, List.of(key), Collections.singletonList(rate), calculatedRateTtlSeconds);
+            return rate;
         } catch (Exception e) {
             log.error("Error retrieving calculated rate: {}", symbol, e);
             return null;
@@ -159,6 +363,168 @@ public class RateCacheService {
         return getLatestCalculatedRate(symbol);
     }
 
+    /**
+     * Handle a key published by an instance that wrote it; our own messages are ignored.
+     */
+    public void onInvalidation(String message) {
+        int separator = message != null ? message.indexOf('|') : -1;
+        if (separator < 0 || instanceId.equals(message.substring(0, separator))) {
+            return;
+        }
+        String key = message.substring(separator + 1);
+        invalidationsReceived.increment();
+        long now = System.currentTimeMillis();
+        rawNearCache.invalidate(key, now);
+        rawSymbolNearCache.invalidate(key, now);
+        calculatedNearCache.invalidate(key, now);
+    }
+
+    public List<NearCache<?>> getNearCaches() {
+        return List.of(rawNearCache, rawSymbolNearCache, calculatedNearCache);
+    }
+
+    /**
+     * Serve what the near cache holds, load the rest with one call and fill the near cache with
+     * the answer. onValue gets the key index and rate of every hit and loaded value.
+     */
+    private CompletionStage<Void> readThrough(NearCache<BaseRateDto> nearCache, List<String> keys, int ttlSeconds,
+                                              Function<List<String>, CompletionStage<List<BaseRateDto>>> multiGet,
+                                              Consumer<Throwable> onLoadFailure,
+                                              BiConsumer<Integer, BaseRateDto> onValue) {
+        long stamp = nearCache.stamp();
+        List<Integer> missing = new ArrayList<>(keys.size());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < keys.size(); i++) {
+            NearCache.Entry<BaseRateDto> cached = nearCacheEnabled ? nearCache.lookup(keys.get(i), now) : null;
+            if (cached == null) {
+                missing.add(i);
+            } else if (cached.value() != null) {
+                onValue.accept(i, cached.value());
+            }
+        }
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<String> missingKeys = missing.stream().map(keys::get).toList();
+        return load(multiGet, missingKeys).handle((rates, e) -> {
+            if (e != null) {
+                onLoadFailure.accept(unwrap(e));
+                return null;
+            }
+            fillNear(nearCache, stamp, missingKeys, rates, ttlSeconds);
+            if (rates != null) {
+                for (int i = 0; i < rates.size() && i < missing.size(); i++) {
+                    if (rates.get(i) != null) {
+                        onValue.accept(missing.get(i), rates.get(i));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private void fillNear(NearCache<BaseRateDto> nearCache, long stamp, List<String> keys, List<BaseRateDto> rates,
+                          int ttlSeconds) {
+        if (!nearCacheEnabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < keys.size(); i++) {
+            BaseRateDto rate = rates != null && i < rates.size() ? rates.get(i) : null;
+            // Absent keys are remembered briefly so repeated probes stay local
+            nearCache.putIfAbsent(keys.get(i), rate,
+                    rate != null ? TimeUnit.SECONDS.toMillis(ttlSeconds) : nearCacheNegativeTtlMs, now, stamp);
+        }
+    }
+
+    private static <K, V> CompletionStage<V> load(Function<K, CompletionStage<V>> loader, K request) {
+        try {
+            return loader.apply(request);
+        } catch (RuntimeException e) {
+            // A blocking loader fails by throwing; treat it like a failed stage
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeRates(RedisTemplate<String, BaseRateDto> template, List<String> keys,
+                            List<BaseRateDto> rates, boolean compare, int ttlSeconds) {
+        RedisSerializer<BaseRateDto> valueSerializer = (RedisSerializer<BaseRateDto>) template.getValueSerializer();
+        Object[] args = new Object[4 + 2 * rates.size()];
+        args[0] = bytes(compare ? "1" : "0");
+        args[1] = bytes(Integer.toString(ttlSeconds));
+        args[2] = bytes(nearCacheEnabled ? invalidationChannel : "");
+        args[3] = bytes(instanceId);
+        for (int i = 0; i < rates.size(); i++) {
+            BaseRateDto rate = rates.get(i);
+            args[4 + 2 * i] = bytes(rate.getBid() + "|" + rate.getAsk());
+            args[5 + 2 * i] = valueSerializer.serialize(rate);
+        }
+
+        // Fingerprint keys are declared like every other key the script touches
+        List<String> scriptKeys = keys;
+        if (compare) {
+            scriptKeys = new ArrayList<>(2 * keys.size());
+            scriptKeys.addAll(keys);
+            for (String key : keys) {
+                scriptKeys.add(key + FINGERPRINT_SUFFIX);
+            }
+        }
+        Long written = template.execute(CACHE_RATES_SCRIPT, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class), scriptKeys, args);
+        long writtenCount = written != null ? written : 0L;
+        scriptCalls.increment();
+        scriptWrites.add(writtenCount);
+        ttlRefreshes.add(rates.size() - writtenCount);
+        if (nearCacheEnabled) {
+            invalidationsPublished.add(writtenCount);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeRawHash(List<String> keys, List<BaseRateDto> rates) {
+        RedisSerializer<BaseRateDto> valueSerializer =
+                (RedisSerializer<BaseRateDto>) rawRateRedisTemplate.getHashValueSerializer();
+        Object[] args = new Object[3 + 2 * rates.size()];
+        args[0] = bytes(Integer.toString(rawRateTtlSeconds));
+        args[1] = bytes(nearCacheEnabled ? invalidationChannel : "");
+        args[2] = bytes(instanceId);
+        for (int i = 0; i < rates.size(); i++) {
+            BaseRateDto rate = rates.get(i);
+            args[3 + 2 * i] = bytes(rate.getProviderName());
+            args[4 + 2 * i] = valueSerializer.serialize(rate);
+        }
+
+        rawRateRedisTemplate.execute(CACHE_RATES_HASH_SCRIPT, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class), keys, args);
+        scriptCalls.increment();
+        scriptWrites.add(rates.size());
+        if (nearCacheEnabled) {
+            invalidationsPublished.add(rates.size());
+        }
+    }
+
+    /**
+     * Hash fields have no TTL of their own; a provider that stopped quoting ages out by receivedAt.
+     */
+    private static boolean isFresh(BaseRateDto rate, long staleBefore) {
+        Long writtenAt = rate.getReceivedAt() != null ? rate.getReceivedAt() : rate.getTimestamp();
+        return writtenAt == null || writtenAt >= staleBefore;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String buildRawHashKey(String symbol) {
+        return String.format("%s:raw:h:%s", keyPrefix, symbol);
+    }
+
     private String buildRawRateKey(String symbol, String providerName) {
         return String.format("%s:raw:%s:%s", keyPrefix, symbol, providerName);
     }
@@ -168,11 +534,21 @@ public class RateCacheService {
     }
 
     public Map<String, Object> getCacheStats() {
-        return Map.of(
-            "rawRateTtlSeconds", rawRateTtlSeconds,
-            "calculatedRateTtlSeconds", calculatedRateTtlSeconds,
-            "keyPrefix", keyPrefix
-        );
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("rawRateTtlSeconds", rawRateTtlSeconds);
+        stats.put("calculatedRateTtlSeconds", calculatedRateTtlSeconds);
+        stats.put("keyPrefix", keyPrefix);
+        stats.put("nearCacheEnabled", nearCacheEnabled);
+        stats.put("rawLayout", rawRateLayout);
+        stats.put("raw", rawNearCache.getStats());
+        stats.put("rawSymbol", rawSymbolNearCache.getStats());
+        stats.put("calculated", calculatedNearCache.getStats());
+        stats.put("invalidationsPublished", invalidationsPublished.sum());
+        stats.put("invalidationsReceived", invalidationsReceived.sum());
+        stats.put("scriptCalls", scriptCalls.sum());
+        stats.put("scriptWrites", scriptWrites.sum());
+        stats.put("ttlRefreshes", ttlRefreshes.sum());
+        return stats;
     }
 
     
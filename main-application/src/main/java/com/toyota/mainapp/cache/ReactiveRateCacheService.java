@@ -0,0 +1,115 @@
+package com.toyota.mainapp.cache;
+
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Toyota Financial Data Platform - Reactive Rate Cache Service
+ *
+ * Non-blocking reads of the rate cache on Lettuce's shared connection.
+ * Commands issued concurrently are pipelined on that connection, so a stage
+ * can start the reads for all its rules at once and wait for one round trip.
+ * Shares the near cache and key layout of {@link RateCacheService}.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveRateCacheService {
+
+    private final RateCacheService rateCacheService;
+
+    @Qualifier("reactiveRawRateRedisTemplate")
+    private final ReactiveRedisTemplate<String, BaseRateDto> reactiveRawRateRedisTemplate;
+
+    @Qualifier("reactiveCalculatedRateRedisTemplate")
+    private final ReactiveRedisTemplate<String, BaseRateDto> reactiveCalculatedRateRedisTemplate;
+
+    private final LongAdder redisReads = new LongAdder();
+    private final LongAdder failedReads = new LongAdder();
+
+    /**
+     * Provider rates for several symbols: one MGET for every near cache miss with the key layout,
+     * one pipelined HGETALL per missed symbol with the hash layout.
+     *
+     * @return symbol -> provider -> rate; a failed read leaves only what the near cache held
+     */
+    public Mono<Map<String, Map<String, BaseRateDto>>> getRawRatesForSymbols(List<String> symbols,
+                                                                             List<String> providerNames) {
+        if (symbols == null || symbols.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        if (rateCacheService.isHashLayout()) {
+            return Flux.fromIterable(symbols)
+                    .flatMap(symbol -> getRawRateHash(symbol).map(providers -> Map.entry(symbol, providers)))
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+        }
+        if (providerNames == null || providerNames.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return Mono.fromCompletionStage(() -> rateCacheService.readRawRates(symbols, providerNames,
+                keys -> multiGet(reactiveRawRateRedisTemplate, keys), e -> failed("raw rates for " + symbols, e)));
+    }
+
+    /**
+     * Calculated rates by symbol, one MGET for the near cache misses.
+     */
+    public Mono<Map<String, BaseRateDto>> getCalculatedRates(List<String> symbols) {
+        if (symbols == null || symbols.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return Mono.fromCompletionStage(() -> rateCacheService.readCalculatedRates(symbols,
+                keys -> multiGet(reactiveCalculatedRateRedisTemplate, keys), e -> failed("calculated rates " + symbols, e)));
+    }
+
+    public Mono<BaseRateDto> getCalculatedRate(String symbol) {
+        if (symbol == null) {
+            return Mono.empty();
+        }
+        return getCalculatedRates(List.of(symbol)).mapNotNull(rates -> rates.get(symbol));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("redisReads", redisReads.sum());
+        stats.put("failedReads", failedReads.sum());
+        return stats;
+    }
+
+    private Mono<Map<String, BaseRateDto>> getRawRateHash(String symbol) {
+        return Mono.fromCompletionStage(() -> rateCacheService.readRawHash(symbol, key -> {
+            redisReads.increment();
+            return reactiveRawRateRedisTemplate.<String, BaseRateDto>opsForHash().entries(key)
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                    .toFuture();
+        }, e -> failed("raw rate hash of " + symbol, e)));
+    }
+
+    private CompletionStage<List<BaseRateDto>> multiGet(ReactiveRedisTemplate<String, BaseRateDto> template,
+                                                        List<String> keys) {
+        redisReads.increment();
+        return template.opsForValue().multiGet(keys).toFuture();
+    }
+
+    private void failed(String what, Throwable e) {
+        // Same contract as the blocking service: a Redis failure reads as a cache miss
+        failedReads.increment();
+        log.error("Failed to get {}: {}", what, e.getMessage());
+    }
+}
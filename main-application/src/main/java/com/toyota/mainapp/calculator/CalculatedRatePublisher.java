@@ -0,0 +1,227 @@
+package com.toyota.mainapp.calculator;
+
+import com.toyota.mainapp.cache.RateCacheMirror;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.config.RuleSetSnapshot;
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.dto.config.PublishPolicyDto;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.kafka.KafkaPublishingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Toyota Financial Data Platform - Calculated Rate Publisher
+ *
+ * Sends calculated rates to the Redis mirror and Kafka according to each rule's
+ * {@link PublishPolicyDto}. The last published value per output symbol is kept
+ * in memory; suppressed results are remembered so throttled rules publish their
+ * trailing value and every gated rule is republished on its heartbeat. Sends of
+ * one symbol happen under its state lock, so they reach Redis and Kafka in the
+ * order they were decided; state of symbols a reload no longer gates is dropped.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CalculatedRatePublisher {
+
+    private final RateCacheMirror rateCacheMirror;
+    private final KafkaPublishingService kafkaPublishingService;
+    private final ApplicationProperties appProperties;
+
+    private final Map<String, PublishState> states = new ConcurrentHashMap<>();
+    // Gated output symbols of the active rule set, rebuilt when its version changes
+    private volatile GatedRules gatedRules = new GatedRules(-1L, Map.of());
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder trailingPublished = new LongAdder();
+    private final LongAdder heartbeats = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+
+    /**
+     * Publish the result if the rule's policy lets it through; otherwise keep it as pending.
+     *
+     * @return whether the rate was sent to Redis and Kafka now
+     */
+    public boolean publish(CalculationRuleDto rule, BaseRateDto rate) {
+        PublishPolicyDto policy = rule.getPublishPolicy();
+        if (policy == null || policy.getModeOrDefault() == PublishPolicyDto.Mode.ALWAYS) {
+            send(rate);
+            published.increment();
+            return true;
+        }
+
+        long now = System.currentTimeMillis();
+        PublishState state = states.computeIfAbsent(rule.getOutputSymbol(), symbol -> new PublishState());
+        boolean publishNow;
+        synchronized (state) {
+            state.policy = policy;
+            publishNow = state.published == null || passes(policy, state, rate, now);
+            if (publishNow) {
+                state.markPublished(rate, now);
+                // Both sends only enqueue; holding the lock keeps a concurrent flush from overtaking them
+                send(rate);
+            } else {
+                state.pending = rate;
+            }
+        }
+
+        if (publishNow) {
+            published.increment();
+        } else {
+            suppressed.increment();
+            log.debug("Publish suppressed by {} policy: {}", policy.getModeOrDefault(), rule.getOutputSymbol());
+        }
+        return publishNow;
+    }
+
+    /**
+     * Publish trailing values of throttled rules whose interval has passed, and republish
+     * every gated rule that has been silent for its heartbeat interval. Symbols the active
+     * rule set no longer gates (removed, renamed or switched to ALWAYS) are forgotten, and
+     * the others pick up their reloaded policy.
+     */
+    @Scheduled(fixedDelayString = "${app.publish.flush-interval-ms:250}")
+    public void flushDue() {
+        if (states.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, PublishPolicyDto> policies = gatedPolicies();
+
+        for (Iterator<Map.Entry<String, PublishState>> it = states.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, PublishState> entry = it.next();
+            PublishPolicyDto policy = policies.get(entry.getKey());
+            if (policy == null) {
+                it.remove();
+                purged.increment();
+                continue;
+            }
+            PublishState state = entry.getValue();
+            synchronized (state) {
+                state.policy = policy;
+                if (state.published == null) {
+                    continue;
+                }
+                long silentMs = now - state.publishedAt;
+                if (state.pending != null && policy.getModeOrDefault() == PublishPolicyDto.Mode.THROTTLE
+                        && silentMs >= policy.getMinIntervalMs()) {
+                    BaseRateDto trailing = state.pending;
+                    state.markPublished(trailing, now);
+                    send(trailing);
+                    trailingPublished.increment();
+                    continue;
+                }
+                long heartbeatMs = heartbeatMs(policy);
+                if (heartbeatMs > 0 && silentMs >= heartbeatMs) {
+                    BaseRateDto latest = state.pending != null ? state.pending : state.published;
+                    state.markPublished(latest, now);
+                    send(latest);
+                    heartbeats.increment();
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("published", published.sum());
+        stats.put("suppressed", suppressed.sum());
+        stats.put("trailingPublished", trailingPublished.sum());
+        stats.put("heartbeats", heartbeats.sum());
+        stats.put("gatedSymbols", states.size());
+        stats.put("purgedSymbols", purged.sum());
+        return stats;
+    }
+
+    private Map<String, PublishPolicyDto> gatedPolicies() {
+        RuleSetSnapshot ruleSet = appProperties.getRuleSet();
+        GatedRules current = gatedRules;
+        if (current.version() != ruleSet.version()) {
+            Map<String, PublishPolicyDto> policies = new HashMap<>();
+            for (CalculationRuleDto rule : ruleSet.rules()) {
+                PublishPolicyDto policy = rule.getPublishPolicy();
+                if (policy != null && policy.getModeOrDefault() != PublishPolicyDto.Mode.ALWAYS) {
+                    policies.put(rule.getOutputSymbol(), policy);
+                }
+            }
+            current = new GatedRules(ruleSet.version(), policies);
+            gatedRules = current;
+        }
+        return current.policies();
+    }
+
+    private boolean passes(PublishPolicyDto policy, PublishState state, BaseRateDto rate, long now) {
+        if (policy.getModeOrDefault() == PublishPolicyDto.Mode.THROTTLE) {
+            return now - state.publishedAt >= policy.getMinIntervalMs();
+        }
+        return movedEnough(policy, state.published, rate);
+    }
+
+    /**
+     * Threshold against the last published value, not the last calculated one, so slow drift
+     * is published once it adds up.
+     */
+    private static boolean movedEnough(PublishPolicyDto policy, BaseRateDto last, BaseRateDto rate) {
+        if (rate.getBid() == null || rate.getAsk() == null || last.getBid() == null || last.getAsk() == null) {
+            return true;
+        }
+        double bidMove = Math.abs(rate.getBid().subtract(last.getBid()).doubleValue());
+        double askMove = Math.abs(rate.getAsk().subtract(last.getAsk()).doubleValue());
+
+        if (policy.getMinChangePips() != null) {
+            double pipSize = policy.pipSizeFor(rate.getSymbol());
+            if (Math.max(bidMove, askMove) / pipSize >= policy.getMinChangePips()) {
+                return true;
+            }
+        }
+        if (policy.getMinChangeBps() != null) {
+            double lastMid = last.getBid().add(last.getAsk()).doubleValue() / 2;
+            double midMove = Math.abs(rate.getBid().add(rate.getAsk()).subtract(last.getBid().add(last.getAsk())).doubleValue()) / 2;
+            if (lastMid == 0 || midMove / lastMid * 10_000 >= policy.getMinChangeBps()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long heartbeatMs(PublishPolicyDto policy) {
+        return policy.getHeartbeatMs() != null
+                ? policy.getHeartbeatMs()
+                : appProperties.getPublish().getDefaultHeartbeatMs();
+    }
+
+    private void send(BaseRateDto rate) {
+        rateCacheMirror.mirrorCalculatedRate(rate);
+        kafkaPublishingService.publishCalculatedRate(rate);
+    }
+
+    private static final class PublishState {
+        PublishPolicyDto policy;
+        BaseRateDto published;
+        BaseRateDto pending;
+        long publishedAt;
+
+        void markPublished(BaseRateDto rate, long now) {
+            published = rate;
+            publishedAt = now;
+            pending = null;
+        }
+    }
+
+    private record GatedRules(long version, Map<String, PublishPolicyDto> policies) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.toyota.mainapp.calculator;
+
+import com.toyota.mainapp.dto.model.RateTick;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Toyota Financial Data Platform - Conflating Rate Queue
+ *
+ * Latest-value holder in front of the calculation pipeline. Only the newest
+ * pending tick per provider/symbol key is kept; ticks superseded before the
+ * pipeline picks them up are counted and skipped, which bounds latency when
+ * providers tick faster than averages and crosses can be computed.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+public class ConflatingRateQueue {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, RateTick> pending = new ConcurrentHashMap<>();
+    private final LongAdder offeredCount = new LongAdder();
+    private final LongAdder conflatedCount = new LongAdder();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("pipeline.conflation.pending", pending, Map::size)
+                .description("Keys with a rate waiting for the calculation pipeline")
+                .register(meterRegistry);
+        Gauge.builder("pipeline.conflation.conflated", conflatedCount, LongAdder::sum)
+                .description("Ticks replaced by a newer tick before calculation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Store the tick as the latest pending value for the key.
+     *
+     * @return true if no rate was pending for the key, in which case the caller must
+     *         schedule a {@link #poll(long)}; false if an older pending tick was replaced
+     */
+    public boolean offer(long key, RateTick tick) {
+        offeredCount.increment();
+        RateTick previous = pending.put(key, tick);
+        if (previous != null) {
+            conflatedCount.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Take the latest pending tick for the key, or null if it was already taken.
+     */
+    public RateTick poll(long key) {
+        return pending.remove(key);
+    }
+
+    public long getConflatedCount() {
+        return conflatedCount.sum();
+    }
+
+    public Map<String, Object> getConflationStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pendingKeys", pending.size());
+        stats.put("offered", offeredCount.sum());
+        stats.put("conflated", conflatedCount.sum());
+        return stats;
+    }
+}
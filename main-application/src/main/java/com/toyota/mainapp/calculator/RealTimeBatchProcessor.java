@@ -1,24 +1,35 @@
 package com.toyota.mainapp.calculator;
 
 import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
+import com.toyota.mainapp.calculator.pipeline.PipelineStageRunner;
 import com.toyota.mainapp.calculator.pipeline.stage.*;
 import com.toyota.mainapp.config.ApplicationProperties;
 import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateTick;
+import com.toyota.mainapp.kafka.KafkaPublishingService;
 import com.toyota.mainapp.util.SymbolUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.CompletableFuture;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Toyota Financial Data Platform - Real-Time Batch Processor
  * 
- * Asynchronous pipeline orchestrator that processes incoming rates through
+ * Pipeline orchestrator that processes incoming rates through
  * a four-stage calculation pipeline. Coordinates raw data handling, average
  * calculations, cross-rate derivations, and snapshot publishing for real-time
- * financial data distribution across the platform.
+ * financial data distribution across the platform. Optionally coalesces ticks
+ * of a shard into micro-batches that share one run and one snapshot.
  * 
  * @author Fatih Karataş
  * @version 1.0
@@ -33,68 +44,130 @@ public class RealTimeBatchProcessor {
     private final AverageCalculationStage averageCalculationStage;
     private final CrossRateCalculationStage crossRateCalculationStage;
     private final SimpleBatchAssemblyStage simpleBatchAssemblyStage;
+    private final PipelineStageRunner pipelineStageRunner;
+    private final ShardedPipelineExecutor shardedPipelineExecutor;
+    private final TaskScheduler taskScheduler;
+    private final KafkaPublishingService kafkaPublishingService;
     
     private final ApplicationProperties applicationProperties;
 
-    @Async("pipelineTaskExecutor")
-    public CompletableFuture<Void> processNewRate(BaseRateDto rawRate) {
+    // One open batch per shard; only touched by that shard's worker thread
+    private final Map<Integer, PendingBatch> pendingBatches = new ConcurrentHashMap<>();
+    private final LongAdder batchedRuns = new LongAdder();
+    private final LongAdder batchedTicks = new LongAdder();
+
+    /**
+     * Runs synchronously on the caller; callers dispatch through {@link ShardedPipelineExecutor}
+     * so that ticks of one symbol are never processed concurrently. With micro-batching enabled
+     * the tick joins the shard's open batch, which runs once its window elapses or it is full.
+     */
+    public void processNewRate(RateTick tick, BaseRateDto rawRate) {
+        ApplicationProperties.PipelineConfig pipeline = applicationProperties.getPipeline();
+        if (pipeline.getBatchWindowMs() <= 0) {
+            runPipeline(Collections.singletonList(tick), Collections.singletonList(rawRate));
+            return;
+        }
+
+        String symbol = rawRate.getSymbol();
+        int shard = tick != null ? shardedPipelineExecutor.shardFor(tick.getSymbolId()) : shardedPipelineExecutor.shardFor(symbol);
+        PendingBatch batch = pendingBatches.computeIfAbsent(shard, key -> new PendingBatch());
+        batch.ticks.add(tick);
+        batch.rates.add(rawRate);
+
+        if (batch.rates.size() >= pipeline.getBatchMaxSize()) {
+            flush(batch);
+        } else if (batch.rates.size() == 1) {
+            // Window timer hops back onto this shard so the batch stays single-writer
+            long generation = batch.generation;
+            taskScheduler.schedule(
+                    () -> shardedPipelineExecutor.execute(symbol, () -> {
+                        if (batch.generation == generation) {
+                            flush(batch);
+                        }
+                    }),
+                    Instant.now().plusMillis(pipeline.getBatchWindowMs()));
+        }
+    }
+
+    public Map<String, Object> getBatchStats() {
+        ApplicationProperties.PipelineConfig pipeline = applicationProperties.getPipeline();
+        long runs = batchedRuns.sum();
+        long ticks = batchedTicks.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", pipeline.getBatchWindowMs() > 0);
+        stats.put("windowMs", pipeline.getBatchWindowMs());
+        stats.put("maxSize", pipeline.getBatchMaxSize());
+        stats.put("runs", runs);
+        stats.put("ticks", ticks);
+        stats.put("averageBatchSize", runs > 0 ? (double) ticks / runs : 0.0);
+        return stats;
+    }
+
+    private void flush(PendingBatch batch) {
+        List<RateTick> ticks = batch.ticks;
+        List<BaseRateDto> rates = batch.rates;
+        batch.ticks = new ArrayList<>();
+        batch.rates = new ArrayList<>();
+        batch.generation++;
+
+        batchedRuns.increment();
+        batchedTicks.add(rates.size());
+        runPipeline(ticks, rates);
+    }
+
+    private void runPipeline(List<RateTick> ticks, List<BaseRateDto> rates) {
         long startTime = System.currentTimeMillis();
-        String pipelineId = SymbolUtils.generatePipelineId(rawRate);
+        BaseRateDto lastRate = rates.get(rates.size() - 1);
+        String pipelineId = rates.size() == 1
+                ? SymbolUtils.generatePipelineId(lastRate)
+                : SymbolUtils.BATCH_PIPELINE_PREFIX + SymbolUtils.generatePipelineId(lastRate);
         
         try {
             if (!applicationProperties.isConfigurationReady()) {
                 log.warn("Pipeline [{}]: Configuration not ready, skipping", pipelineId);
-                return CompletableFuture.completedFuture(null);
+                return;
             }
             
             ExecutionContext context = ExecutionContext.builder()
-                    .triggeringRate(rawRate)
                     .startTime(startTime)
                     .pipelineId(pipelineId)
+                    .ruleSet(applicationProperties.getRuleSet())
                     .build();
+            pipelineStageRunner.prepare(context);
+            for (int i = 0; i < rates.size(); i++) {
+                context.addTrigger(ticks.get(i), rates.get(i));
+            }
 
-            log.debug("Pipeline [{}]: Started for {}", pipelineId, rawRate.getSymbol());
+            log.debug("Pipeline [{}]: Started for {} rate(s)", pipelineId, rates.size());
 
             runPipelineStages(context);
+            kafkaPublishingService.publishPipelineTrace(context);
 
             long duration = System.currentTimeMillis() - startTime;
-            log.info("✅ Pipeline [{}]: Completed in {}ms with {} snapshot rates", 
-                    pipelineId, duration, context.getSnapshotRates().size());
+            log.info("✅ Pipeline [{}]: Completed in {}ms with {} snapshot rates (rules v{})",
+                    pipelineId, duration, context.getSnapshotRates().size(), context.getRuleSetVersion());
 
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
             log.error("❌ Pipeline [{}]: Failed after {}ms - {}", pipelineId, duration, e.getMessage(), e);
         }
-
-        return CompletableFuture.completedFuture(null);
     }
 
     private void runPipelineStages(ExecutionContext context) {
-        // Stage 1: Process raw rate (add triggering rate to snapshot)
-        rawDataHandlingStage.execute(context);
-        log.info("Pipeline [{}]: Stage 1 completed - {} rates in snapshot", 
-                context.getPipelineId(), context.getSnapshotRates().size());
-
-        // Stage 2: Calculate averages (collect inputs from cache, add to snapshot)
-        averageCalculationStage.execute(context);
-        log.info("Pipeline [{}]: Stage 2 completed - {} rates in snapshot", 
-                context.getPipelineId(), context.getSnapshotRates().size());
-        
-        //  DEBUG: Log snapshot contents before cross-rate stage
-        log.debug("📋 Snapshot before CROSS stage [{}]: {}", 
-                context.getPipelineId(), 
-                context.getSnapshotRates().stream()
-                    .map(rate -> rate.getSymbol() + "(" + rate.getRateType() + ")")
-                    .toList());
-
-        // Stage 3: Calculate cross rates (use snapshot data only)
-        crossRateCalculationStage.execute(context);
-        log.info("Pipeline [{}]: Stage 3 completed - {} rates in snapshot", 
-                context.getPipelineId(), context.getSnapshotRates().size());
-
-        // Stage 4: Publish complete snapshot
-        simpleBatchAssemblyStage.execute(context);
-        log.info("Pipeline [{}]: Stage 4 completed - snapshot published", 
-                context.getPipelineId());
+        // Stage 1: raw rate(s) into the snapshot, Stage 2: averages, Stage 3: crosses,
+        // Stage 4: publish the (possibly partial) snapshot
+        pipelineStageRunner.run(context,
+                List.of(rawDataHandlingStage, averageCalculationStage, crossRateCalculationStage),
+                simpleBatchAssemblyStage);
+
+        log.debug("Pipeline [{}]: stages finished - {} rates in snapshot{}", context.getPipelineId(),
+                context.getSnapshotRates().size(),
+                context.isCutOff() ? ", cut off: " + context.getCutOffReason() : "");
+    }
+
+    private static final class PendingBatch {
+        List<RateTick> ticks = new ArrayList<>();
+        List<BaseRateDto> rates = new ArrayList<>();
+        long generation;
     }
 }
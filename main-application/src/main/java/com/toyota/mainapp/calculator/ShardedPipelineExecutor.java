@@ -0,0 +1,285 @@
+package com.toyota.mainapp.calculator;
+
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.util.SymbolRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Toyota Financial Data Platform - Sharded Pipeline Executor
+ *
+ * Single-writer executor for the calculation pipeline. Every symbol maps by its
+ * registry id to one fixed worker thread, so ticks of the same symbol are handled
+ * strictly in order and state owned by a worker needs no locking. Conflated
+ * (latest-wins) drains bypass the task queue and run between task rounds.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShardedPipelineExecutor {
+
+    private final ApplicationProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private static final long NO_ORDERING_KEY = -1L;
+
+    private final SymbolRegistry symbolRegistry = SymbolRegistry.global();
+    private ShardWorker[] workers;
+
+    @PostConstruct
+    public void start() {
+        ApplicationProperties.PipelineConfig config = appProperties.getPipeline();
+        int shardCount = config.getShardCount() > 0
+                ? config.getShardCount()
+                : Runtime.getRuntime().availableProcessors();
+        int queueCapacity = Math.max(16, config.getShardQueueCapacity());
+
+        workers = new ShardWorker[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            workers[i] = new ShardWorker(i, queueCapacity);
+            workers[i].start();
+
+            ShardWorker worker = workers[i];
+            Gauge.builder("pipeline.shard.queue.depth", worker, w -> w.queue.size())
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+
+        log.info("✅ ShardedPipelineExecutor started: shards={}, queueCapacity={}", shardCount, queueCapacity);
+    }
+
+    /**
+     * Run the task on the worker owning the symbol, in submission order.
+     */
+    public void execute(String symbol, Runnable task) {
+        workers[shardFor(symbol)].submit(NO_ORDERING_KEY, 0L, latest -> task.run());
+    }
+
+    /**
+     * Run the task on the worker owning the symbol, in submission order. The task is told whether
+     * its sequence is still the newest seen for the ordering key (provider + symbol) on that worker,
+     * so a superseded tick can be dropped instead of overwriting newer state.
+     */
+    public void execute(int symbolId, long orderingKey, long sequence, OrderedTask task) {
+        workers[shardFor(symbolId)].submit(orderingKey, sequence, task);
+    }
+
+    /**
+     * Schedule a latest-wins drain on the worker owning the symbol. It never enters the bounded
+     * task queue: the worker runs pending drains between rounds, a round being the tasks queued
+     * when it started, so a drain waits at most one round and every tick of that round collapses
+     * into it. Called from another thread, the drain is queued like a normal task.
+     */
+    public void executeConflated(int symbolId, Runnable drain) {
+        workers[shardFor(symbolId)].submitConflated(drain);
+    }
+
+    /**
+     * Shard of a registered symbol; registry ids are dense, so they spread evenly without a lookup table.
+     */
+    public int shardFor(int symbolId) {
+        return symbolId >= 0 ? symbolId % workers.length : 0;
+    }
+
+    /**
+     * Shard of any spelling of a symbol: the registered id's shard, or a hash for unconfigured symbols.
+     */
+    public int shardFor(String symbol) {
+        if (symbol == null) {
+            return 0;
+        }
+        int symbolId = symbolRegistry.resolve(symbol);
+        return symbolRegistry.isValid(symbolId) ? shardFor(symbolId) : Math.floorMod(symbol.hashCode(), workers.length);
+    }
+
+    public int getShardCount() {
+        return workers.length;
+    }
+
+    public Map<String, Object> getShardStats() {
+        Map<String, Object> stats = new HashMap<>();
+        List<Map<String, Object>> shards = new ArrayList<>();
+        for (ShardWorker worker : workers) {
+            Map<String, Object> shard = new HashMap<>();
+            shard.put("shard", worker.index);
+            shard.put("queueDepth", worker.queue.size());
+            shard.put("processed", worker.processed.sum());
+            shard.put("staleOutOfOrder", worker.stale.sum());
+            shard.put("conflatedDrains", worker.drains.sum());
+            shard.put("failed", worker.failed.sum());
+            shards.add(shard);
+        }
+        stats.put("shardCount", workers.length);
+        stats.put("shards", shards);
+        Map<String, Integer> symbolToShard = new TreeMap<>();
+        for (int symbolId = 0; symbolId < symbolRegistry.size(); symbolId++) {
+            symbolToShard.put(symbolRegistry.name(symbolId), shardFor(symbolId));
+        }
+        stats.put("symbolToShard", symbolToShard);
+        stats.put("timestamp", System.currentTimeMillis());
+        return stats;
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (ShardWorker worker : workers) {
+            worker.running = false;
+        }
+        for (ShardWorker worker : workers) {
+            try {
+                worker.thread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("ShardedPipelineExecutor stopped");
+    }
+
+    /**
+     * Shard task that learns whether its tick is the newest for its ordering key.
+     */
+    @FunctionalInterface
+    public interface OrderedTask {
+        void run(boolean latest);
+    }
+
+    private static final class ShardTask {
+        private final long orderingKey;
+        private final long sequence;
+        private final OrderedTask task;
+
+        private ShardTask(long orderingKey, long sequence, OrderedTask task) {
+            this.orderingKey = orderingKey;
+            this.sequence = sequence;
+            this.task = task;
+        }
+    }
+
+    private static final class ShardWorker implements Runnable {
+        private final int index;
+        private final BlockingQueue<ShardTask> queue;
+        private final Thread thread;
+        // Owned by the worker thread only
+        private final Map<Long, Long> lastSequences = new HashMap<>();
+        private final ArrayDeque<Runnable> conflatedDrains = new ArrayDeque<>();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder drains = new LongAdder();
+        private final LongAdder stale = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private volatile boolean running = true;
+
+        private ShardWorker(int index, int queueCapacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "Pipeline-Shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        private void submit(long orderingKey, long sequence, OrderedTask task) {
+            ShardTask shardTask = new ShardTask(orderingKey, sequence, task);
+            if (Thread.currentThread() == thread) {
+                // Follow-up work scheduled by the worker itself must never block on its own queue
+                if (!queue.offer(shardTask)) {
+                    runTask(shardTask);
+                }
+                return;
+            }
+            try {
+                // Blocking put pushes back on ingestion instead of growing without bound
+                queue.put(shardTask);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void submitConflated(Runnable drain) {
+            if (Thread.currentThread() == thread) {
+                conflatedDrains.add(drain);
+            } else {
+                submit(NO_ORDERING_KEY, 0L, latest -> drain.run());
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty() || !conflatedDrains.isEmpty()) {
+                try {
+                    runConflatedDrains();
+                    int round = queue.size();
+                    if (round == 0) {
+                        ShardTask shardTask = queue.poll(100, TimeUnit.MILLISECONDS);
+                        if (shardTask != null) {
+                            runTask(shardTask);
+                        }
+                        continue;
+                    }
+                    for (int i = 0; i < round; i++) {
+                        runTask(queue.poll());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void runConflatedDrains() {
+            // Drains scheduled by this round's drains wait for the next round
+            for (int pending = conflatedDrains.size(); pending > 0; pending--) {
+                Runnable drain = conflatedDrains.poll();
+                try {
+                    drain.run();
+                    drains.increment();
+                } catch (Exception e) {
+                    failed.increment();
+                    log.error("❌ Shard {} conflated drain failed: {}", index, e.getMessage(), e);
+                }
+            }
+        }
+
+        private void runTask(ShardTask shardTask) {
+            boolean latest = true;
+            if (shardTask.orderingKey != NO_ORDERING_KEY) {
+                Long last = lastSequences.get(shardTask.orderingKey);
+                if (last != null && shardTask.sequence <= last) {
+                    latest = false;
+                    stale.increment();
+                } else {
+                    lastSequences.put(shardTask.orderingKey, shardTask.sequence);
+                }
+            }
+
+            try {
+                shardTask.task.run(latest);
+                processed.increment();
+            } catch (Exception e) {
+                failed.increment();
+                log.error("❌ Shard {} task failed: {}", index, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -41,6 +41,15 @@ public interface CalculationStrategy {
         return "CUSTOM"; // Default to CUSTOM instead of GENERIC
     }
     
+    /**
+     * Whether calculate() may block or run arbitrarily long (e.g. user scripts); such
+     * strategies are called off the pipeline thread under the stage time budget
+     * @return true if calls must be guarded by a timeout
+     */
+    default boolean requiresTimeoutGuard() {
+        return false;
+    }
+
     /**
       Check if strategy can handle the rule
      * @param rule Configuration rule to validate
@@ -0,0 +1,347 @@
+package com.toyota.mainapp.calculator.engine;
+
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.InputRateInfo;
+import com.toyota.mainapp.dto.model.RateTick;
+import com.toyota.mainapp.dto.model.RateType;
+import com.toyota.mainapp.util.FixedPointPrice;
+import com.toyota.mainapp.util.RateCalculationUtils;
+import com.toyota.mainapp.util.TickInterner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Toyota Financial Data Platform - Incremental Average Engine
+ *
+ * In-process provider board for AVG rules. Keeps the latest bid/ask per
+ * provider as fixed-point mantissas with running weighted sums per rule, so a
+ * single provider tick updates an average in O(1) without reading Redis or
+ * allocating. Enforces the rule's maxAge and minProviders parameters.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IncrementalAverageEngine {
+
+    /** Output scale, same as the BigDecimal average it replaces. */
+    private static final int OUTPUT_SCALE = 5;
+    /** Weights are held as mantissas with four decimals. */
+    private static final int WEIGHT_SCALE = 4;
+
+    private final TickInterner tickInterner;
+
+    private final Map<String, AverageAccumulator> accumulators = new ConcurrentHashMap<>();
+    private final LongAdder updateCount = new LongAdder();
+    private final LongAdder staleEvictionCount = new LongAdder();
+    private final LongAdder belowMinProvidersCount = new LongAdder();
+
+    /**
+     * Apply a provider tick to every AVG rule reading its symbol.
+     *
+     * @param edgeRate materialized form of the tick, kept only for snapshot/audit output
+     */
+    public void onRawTick(RateTick tick, BaseRateDto edgeRate, Collection<CalculationRuleDto> avgRules) {
+        if (tick.getBid() <= 0 || tick.getAsk() < tick.getBid()) {
+            return;
+        }
+        for (CalculationRuleDto rule : avgRules) {
+            accumulatorFor(rule).update(tick, edgeRate);
+        }
+        updateCount.increment();
+    }
+
+    /**
+     * Seed a rule's board, e.g. from Redis after a restart. Newer board entries win.
+     */
+    public void seed(CalculationRuleDto rule, Collection<BaseRateDto> rates) {
+        AverageAccumulator accumulator = accumulatorFor(rule);
+        for (BaseRateDto rate : rates) {
+            if (RateCalculationUtils.isValidRate(rate) && rate.getProviderName() != null && rate.getSymbol() != null) {
+                int symbolId = tickInterner.symbolId(rate.getSymbol());
+                if (!tickInterner.isValidSymbol(symbolId)) {
+                    continue;
+                }
+                int scale = tickInterner.scaleOf(symbolId);
+                long seen = rate.getValidatedAt() != null ? rate.getValidatedAt()
+                        : rate.getReceivedAt() != null ? rate.getReceivedAt()
+                        : rate.getTimestamp() != null ? rate.getTimestamp() : 0L;
+                RateTick tick = new RateTick(symbolId, tickInterner.providerId(rate.getProviderName()),
+                        FixedPointPrice.fromBigDecimal(rate.getBid(), scale),
+                        FixedPointPrice.fromBigDecimal(rate.getAsk(), scale),
+                        scale, rate.getTimestamp() != null ? rate.getTimestamp() : seen, seen);
+                accumulator.updateIfNewer(tick, rate);
+            }
+        }
+    }
+
+    public boolean hasInputs(CalculationRuleDto rule) {
+        AverageAccumulator accumulator = accumulators.get(key(rule));
+        return accumulator != null && accumulator.size() > 0;
+    }
+
+    /**
+     * Current average for the rule, or empty if fewer than minProviders fresh quotes exist.
+     */
+    public Optional<BaseRateDto> calculate(CalculationRuleDto rule) {
+        AverageAccumulator accumulator = accumulators.get(key(rule));
+        if (accumulator == null) {
+            return Optional.empty();
+        }
+        return accumulator.average(System.currentTimeMillis());
+    }
+
+    /**
+     * Fresh provider quotes currently contributing to the rule.
+     */
+    public List<BaseRateDto> getInputs(CalculationRuleDto rule) {
+        AverageAccumulator accumulator = accumulators.get(key(rule));
+        return accumulator != null ? accumulator.inputs() : List.of();
+    }
+
+    public Map<String, Object> getEngineStats() {
+        Map<String, Object> stats = new HashMap<>();
+        Map<String, Integer> boardSizes = new HashMap<>();
+        accumulators.forEach((rule, accumulator) -> boardSizes.put(rule, accumulator.size()));
+        stats.put("rules", accumulators.size());
+        stats.put("boardSizes", boardSizes);
+        stats.put("updates", updateCount.sum());
+        stats.put("staleEvictions", staleEvictionCount.sum());
+        stats.put("belowMinProviders", belowMinProvidersCount.sum());
+        return stats;
+    }
+
+    private AverageAccumulator accumulatorFor(CalculationRuleDto rule) {
+        AverageAccumulator accumulator = accumulators.computeIfAbsent(key(rule), k -> new AverageAccumulator(rule));
+        if (accumulator.rule != rule) {
+            // Rule definition was reloaded; weights and limits may have changed
+            AverageAccumulator rebuilt = new AverageAccumulator(rule);
+            rebuilt.seedFrom(accumulator);
+            accumulators.put(key(rule), rebuilt);
+            return rebuilt;
+        }
+        return accumulator;
+    }
+
+    private static String key(CalculationRuleDto rule) {
+        return rule.getOutputSymbol();
+    }
+
+    private static long longParameter(CalculationRuleDto rule, String name, long defaultValue) {
+        if (rule.getInputParameters() == null) {
+            return defaultValue;
+        }
+        Object value = rule.getInputParameters().get(name);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Long.parseLong(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Per-rule board. Slots are indexed by provider id (and symbol for multi-source rules),
+     * so an update touches one slot and three running sums.
+     */
+    private final class AverageAccumulator {
+        private final CalculationRuleDto rule;
+        private final long maxAgeMs;
+        private final int minProviders;
+        private final Map<String, Long> providerWeights = new HashMap<>();
+
+        private int scale = -1;
+        private int[] slotKeys = new int[0];
+        private long[] bids = new long[0];
+        private long[] asks = new long[0];
+        private long[] weights = new long[0];
+        private long[] seenAt = new long[0];
+        private long[] timestamps = new long[0];
+        private BaseRateDto[] edgeRates = new BaseRateDto[0];
+        private int size;
+
+        private long sumBid;
+        private long sumAsk;
+        private long sumWeight;
+
+        private AverageAccumulator(CalculationRuleDto rule) {
+            this.rule = rule;
+            this.maxAgeMs = longParameter(rule, "maxAge", 0L);
+            this.minProviders = (int) Math.max(1, longParameter(rule, "minProviders", 1L));
+        }
+
+        private synchronized void update(RateTick tick, BaseRateDto edgeRate) {
+            if (scale < 0) {
+                scale = tick.getScale();
+            }
+            long bid = FixedPointPrice.rescale(tick.getBid(), tick.getScale(), scale);
+            long ask = FixedPointPrice.rescale(tick.getAsk(), tick.getScale(), scale);
+            int slotKey = slotKey(tick);
+
+            int slot = indexOf(slotKey);
+            if (slot < 0) {
+                slot = append(slotKey, weightFor(tick.getProviderId()));
+            } else {
+                subtract(slot);
+            }
+            bids[slot] = bid;
+            asks[slot] = ask;
+            seenAt[slot] = tick.getReceivedAt();
+            timestamps[slot] = tick.getTimestamp();
+            edgeRates[slot] = edgeRate;
+            sumBid += bid * weights[slot];
+            sumAsk += ask * weights[slot];
+            sumWeight += weights[slot];
+        }
+
+        private synchronized void updateIfNewer(RateTick tick, BaseRateDto edgeRate) {
+            int slot = indexOf(slotKey(tick));
+            if (slot < 0 || seenAt[slot] < tick.getReceivedAt()) {
+                update(tick, edgeRate);
+            }
+        }
+
+        private synchronized void seedFrom(AverageAccumulator previous) {
+            synchronized (previous) {
+                for (int i = 0; i < previous.size; i++) {
+                    int slotKey = previous.slotKeys[i];
+                    update(new RateTick(slotKey >>> 16, slotKey & 0xFFFF, previous.bids[i], previous.asks[i],
+                            previous.scale, previous.timestamps[i], previous.seenAt[i]), previous.edgeRates[i]);
+                }
+            }
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized List<BaseRateDto> inputs() {
+            List<BaseRateDto> rates = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                if (edgeRates[i] != null) {
+                    rates.add(edgeRates[i]);
+                }
+            }
+            return rates;
+        }
+
+        private synchronized Optional<BaseRateDto> average(long now) {
+            if (maxAgeMs > 0) {
+                for (int i = size - 1; i >= 0; i--) {
+                    if (now - seenAt[i] > maxAgeMs) {
+                        remove(i);
+                        staleEvictionCount.increment();
+                    }
+                }
+            }
+
+            if (size < minProviders || sumWeight == 0) {
+                belowMinProvidersCount.increment();
+                log.debug("AVG {} has {} fresh providers, needs {}", rule.getOutputSymbol(), size, minProviders);
+                return Optional.empty();
+            }
+
+            long averageBid = FixedPointPrice.divide(sumBid, scale + WEIGHT_SCALE, sumWeight, WEIGHT_SCALE, OUTPUT_SCALE);
+            long averageAsk = FixedPointPrice.divide(sumAsk, scale + WEIGHT_SCALE, sumWeight, WEIGHT_SCALE, OUTPUT_SCALE);
+
+            // Edge: materialize the DTO for cache, Kafka and snapshot
+            List<InputRateInfo> calculationInputs = new ArrayList<>(size);
+            long latestTimestamp = 0;
+            for (int i = 0; i < size; i++) {
+                if (edgeRates[i] != null) {
+                    calculationInputs.add(InputRateInfo.fromBaseRateDto(edgeRates[i]));
+                }
+                latestTimestamp = Math.max(latestTimestamp, timestamps[i]);
+            }
+
+            BaseRateDto result = new BaseRateDto();
+            result.setSymbol(rule.getOutputSymbol());
+            result.setRateType(RateType.CALCULATED);
+            result.setBid(FixedPointPrice.toBigDecimal(averageBid, OUTPUT_SCALE));
+            result.setAsk(FixedPointPrice.toBigDecimal(averageAsk, OUTPUT_SCALE));
+            result.setTimestamp(latestTimestamp > 0 ? latestTimestamp : now);
+            result.setProviderName("CALCULATED");
+            result.setCalculationInputs(calculationInputs);
+            result.setCalculatedByStrategy("incrementalAverageEngine");
+            return Optional.of(result);
+        }
+
+        private int slotKey(RateTick tick) {
+            if (tick.getSymbolId() >= TickInterner.MAX_IDS || tick.getProviderId() >= TickInterner.MAX_IDS) {
+                throw new IllegalArgumentException("Symbol id " + tick.getSymbolId() + " or provider id "
+                        + tick.getProviderId() + " does not fit a 16-bit slot key");
+            }
+            return (tick.getSymbolId() << 16) | tick.getProviderId();
+        }
+
+        private int indexOf(int slotKey) {
+            for (int i = 0; i < size; i++) {
+                if (slotKeys[i] == slotKey) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int append(int slotKey, long weight) {
+            if (size == slotKeys.length) {
+                int capacity = Math.max(4, size * 2);
+                slotKeys = Arrays.copyOf(slotKeys, capacity);
+                bids = Arrays.copyOf(bids, capacity);
+                asks = Arrays.copyOf(asks, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                seenAt = Arrays.copyOf(seenAt, capacity);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                edgeRates = Arrays.copyOf(edgeRates, capacity);
+            }
+            slotKeys[size] = slotKey;
+            weights[size] = weight;
+            return size++;
+        }
+
+        private void remove(int slot) {
+            subtract(slot);
+            int last = --size;
+            slotKeys[slot] = slotKeys[last];
+            bids[slot] = bids[last];
+            asks[slot] = asks[last];
+            weights[slot] = weights[last];
+            seenAt[slot] = seenAt[last];
+            timestamps[slot] = timestamps[last];
+            edgeRates[slot] = edgeRates[last];
+            edgeRates[last] = null;
+        }
+
+        private void subtract(int slot) {
+            sumBid -= bids[slot] * weights[slot];
+            sumAsk -= asks[slot] * weights[slot];
+            sumWeight -= weights[slot];
+        }
+
+        private long weightFor(int providerId) {
+            String providerName = tickInterner.providerName(providerId);
+            return providerWeights.computeIfAbsent(providerName, name ->
+                    Math.round(rule.getWeightForSymbol(name) * FixedPointPrice.pow10(WEIGHT_SCALE)));
+        }
+    }
+}
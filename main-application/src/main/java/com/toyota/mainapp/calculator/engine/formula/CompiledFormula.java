@@ -0,0 +1,154 @@
+package com.toyota.mainapp.calculator.engine.formula;
+
+import com.toyota.mainapp.util.FixedPointPrice;
+
+/**
+ * Toyota Financial Data Platform - Compiled Formula
+ *
+ * Postfix program produced by {@link FormulaCompiler}. Evaluation is a single
+ * switch loop over primitive opcodes on caller-owned stacks of fixed-point
+ * mantissas, so it neither allocates nor dispatches through interfaces.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class CompiledFormula {
+
+    static final int LOAD_BID = 0;
+    static final int LOAD_ASK = 1;
+    static final int LOAD_MID = 2;
+    static final int CONST = 3;
+    static final int ADD = 4;
+    static final int SUB = 5;
+    static final int MUL = 6;
+    static final int DIV = 7;
+    static final int NEG = 8;
+    static final int MIN = 9;
+    static final int MAX = 10;
+    static final int ROUND = 11;
+
+    /** Scale of quotients; products and sums stay exact where they fit. */
+    static final int DIVISION_SCALE = 10;
+
+    private final String source;
+    private final int[] ops;
+    private final long[] operands;
+    private final int[] operandScales;
+    private final int maxStackDepth;
+
+    CompiledFormula(String source, int[] ops, long[] operands, int[] operandScales, int maxStackDepth) {
+        this.source = source;
+        this.ops = ops;
+        this.operands = operands;
+        this.operandScales = operandScales;
+        this.maxStackDepth = maxStackDepth;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public int getMaxStackDepth() {
+        return maxStackDepth;
+    }
+
+    /**
+     * Evaluate against input quotes indexed by the slots the formula was compiled with.
+     *
+     * @param stackValues scratch of at least {@link #getMaxStackDepth()} entries
+     * @param stackScales scratch of at least {@link #getMaxStackDepth()} entries
+     * @return result mantissa rounded HALF_UP to the target scale
+     * @throws ArithmeticException on division by zero or a value outside the long range
+     */
+    public long evaluate(long[] bids, long[] asks, int[] inputScales,
+                         long[] stackValues, int[] stackScales, int targetScale) {
+        int top = -1;
+        for (int pc = 0; pc < ops.length; pc++) {
+            switch (ops[pc]) {
+                case LOAD_BID -> {
+                    int slot = (int) operands[pc];
+                    stackValues[++top] = bids[slot];
+                    stackScales[top] = inputScales[slot];
+                }
+                case LOAD_ASK -> {
+                    int slot = (int) operands[pc];
+                    stackValues[++top] = asks[slot];
+                    stackScales[top] = inputScales[slot];
+                }
+                case LOAD_MID -> {
+                    // (bid + ask) / 2 is exact one decimal further: (bid + ask) * 5
+                    int slot = (int) operands[pc];
+                    stackValues[++top] = Math.multiplyExact(Math.addExact(bids[slot], asks[slot]), 5L);
+                    stackScales[top] = inputScales[slot] + 1;
+                }
+                case CONST -> {
+                    stackValues[++top] = operands[pc];
+                    stackScales[top] = operandScales[pc];
+                }
+                case NEG -> stackValues[top] = Math.negateExact(stackValues[top]);
+                case ROUND -> {
+                    int scale = (int) operands[pc];
+                    stackValues[top] = FixedPointPrice.rescale(stackValues[top], stackScales[top], scale);
+                    stackScales[top] = scale;
+                }
+                default -> {
+                    long b = stackValues[top];
+                    int sb = stackScales[top];
+                    top--;
+                    long a = stackValues[top];
+                    int sa = stackScales[top];
+                    binary(ops[pc], a, sa, b, sb, stackValues, stackScales, top);
+                }
+            }
+        }
+        return FixedPointPrice.rescale(stackValues[0], stackScales[0], targetScale);
+    }
+
+    private static void binary(int op, long a, int sa, long b, int sb,
+                               long[] stackValues, int[] stackScales, int top) {
+        switch (op) {
+            case ADD, SUB, MIN, MAX -> {
+                int scale = Math.max(sa, sb);
+                long x = align(a, sa, scale);
+                long y = align(b, sb, scale);
+                stackScales[top] = scale;
+                stackValues[top] = switch (op) {
+                    case ADD -> Math.addExact(x, y);
+                    case SUB -> Math.subtractExact(x, y);
+                    case MIN -> Math.min(x, y);
+                    default -> Math.max(x, y);
+                };
+            }
+            case MUL -> {
+                int exactScale = sa + sb;
+                long high = Math.multiplyHigh(a, b);
+                long low = a * b;
+                if (exactScale <= FixedPointPrice.MAX_SCALE
+                        && ((high == 0 && low >= 0) || (high == -1 && low < 0))) {
+                    stackValues[top] = low;
+                    stackScales[top] = exactScale;
+                } else {
+                    int scale = Math.max(sa, sb);
+                    stackValues[top] = FixedPointPrice.multiply(a, sa, b, sb, scale);
+                    stackScales[top] = scale;
+                }
+            }
+            case DIV -> {
+                stackValues[top] = FixedPointPrice.divide(a, sa, b, sb, DIVISION_SCALE);
+                stackScales[top] = DIVISION_SCALE;
+            }
+            default -> throw new IllegalStateException("Unknown opcode " + op);
+        }
+    }
+
+    private static long align(long mantissa, int fromScale, int toScale) {
+        return fromScale == toScale ? mantissa
+                : Math.multiplyExact(mantissa, FixedPointPrice.pow10(toScale - fromScale));
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
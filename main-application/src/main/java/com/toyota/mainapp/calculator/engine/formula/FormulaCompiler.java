@@ -0,0 +1,291 @@
+package com.toyota.mainapp.calculator.engine.formula;
+
+import com.toyota.mainapp.exception.FormulaCompilationException;
+import com.toyota.mainapp.util.FixedPointPrice;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Toyota Financial Data Platform - Formula Compiler
+ *
+ * Recursive-descent parser for the rule formula language, emitting a postfix
+ * {@link CompiledFormula}. Supports rate field references (EURUSD_AVG.bid,
+ * .ask, .mid; symbols with other characters are bracketed, [USD/TRY].bid),
+ * decimal literals, + - * / (also − × ÷), unary minus, parentheses,
+ * min(...), max(...) and round(expr, scale).
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class FormulaCompiler {
+
+    private final String source;
+    private final List<String> inputSymbols;
+    private int pos;
+
+    private int[] ops = new int[16];
+    private long[] operands = new long[16];
+    private int[] operandScales = new int[16];
+    private int length;
+    private int depth;
+    private int maxDepth;
+
+    private FormulaCompiler(String source, List<String> inputSymbols) {
+        this.source = source;
+        this.inputSymbols = inputSymbols;
+    }
+
+    /**
+     * Compile a formula whose references resolve to slots in {@code inputSymbols}
+     * (slot = list index).
+     *
+     * @throws FormulaCompilationException on syntax errors or unknown references
+     */
+    public static CompiledFormula compile(String formula, List<String> inputSymbols) {
+        if (formula == null || formula.isBlank()) {
+            throw new FormulaCompilationException("Empty formula", String.valueOf(formula), 0);
+        }
+        FormulaCompiler compiler = new FormulaCompiler(formula, inputSymbols);
+        compiler.expression();
+        compiler.skipWhitespace();
+        if (compiler.pos < formula.length()) {
+            throw compiler.error("Unexpected '" + formula.charAt(compiler.pos) + "'");
+        }
+        return new CompiledFormula(formula,
+                Arrays.copyOf(compiler.ops, compiler.length),
+                Arrays.copyOf(compiler.operands, compiler.length),
+                Arrays.copyOf(compiler.operandScales, compiler.length),
+                compiler.maxDepth);
+    }
+
+    // expression := term (('+' | '-') term)*
+    private void expression() {
+        term();
+        while (true) {
+            if (accept('+')) {
+                term();
+                emit(CompiledFormula.ADD, 0, 0, -1);
+            } else if (accept('-') || accept('−')) {
+                term();
+                emit(CompiledFormula.SUB, 0, 0, -1);
+            } else {
+                return;
+            }
+        }
+    }
+
+    // term := unary (('*' | '/') unary)*
+    private void term() {
+        unary();
+        while (true) {
+            if (accept('*') || accept('×')) {
+                unary();
+                emit(CompiledFormula.MUL, 0, 0, -1);
+            } else if (accept('/') || accept('÷')) {
+                unary();
+                emit(CompiledFormula.DIV, 0, 0, -1);
+            } else {
+                return;
+            }
+        }
+    }
+
+    // unary := '-' unary | primary
+    private void unary() {
+        if (accept('-') || accept('−')) {
+            unary();
+            emit(CompiledFormula.NEG, 0, 0, 0);
+            return;
+        }
+        primary();
+    }
+
+    // primary := number | '(' expression ')' | function '(' args ')' | SYMBOL '.' field | '[' SYMBOL ']' '.' field
+    private void primary() {
+        skipWhitespace();
+        if (pos >= source.length()) {
+            throw error("Unexpected end of formula");
+        }
+        char c = source.charAt(pos);
+        if (c == '(') {
+            pos++;
+            expression();
+            expect(')');
+        } else if (Character.isDigit(c) || c == '.') {
+            number();
+        } else if (c == '[') {
+            int start = pos;
+            reference(bracketedSymbol(), start);
+        } else if (isIdentifierChar(c)) {
+            int start = pos;
+            String name = identifier();
+            skipWhitespace();
+            if (pos < source.length() && source.charAt(pos) == '(') {
+                function(name, start);
+            } else {
+                reference(name, start);
+            }
+        } else {
+            throw error("Unexpected '" + c + "'");
+        }
+    }
+
+    private void function(String name, int start) {
+        expect('(');
+        switch (name.toLowerCase()) {
+            case "min", "max" -> {
+                int op = name.equalsIgnoreCase("min") ? CompiledFormula.MIN : CompiledFormula.MAX;
+                expression();
+                int args = 1;
+                while (accept(',')) {
+                    expression();
+                    emit(op, 0, 0, -1);
+                    args++;
+                }
+                if (args < 2) {
+                    throw error(name + "() needs at least two arguments");
+                }
+            }
+            case "round" -> {
+                expression();
+                expect(',');
+                skipWhitespace();
+                int scaleStart = pos;
+                while (pos < source.length() && Character.isDigit(source.charAt(pos))) {
+                    pos++;
+                }
+                if (scaleStart == pos) {
+                    throw error("round() scale must be an integer literal");
+                }
+                int scale = Integer.parseInt(source.substring(scaleStart, pos));
+                if (scale > FixedPointPrice.MAX_SCALE) {
+                    throw error("round() scale exceeds " + FixedPointPrice.MAX_SCALE);
+                }
+                emit(CompiledFormula.ROUND, scale, 0, 0);
+            }
+            default -> {
+                pos = start;
+                throw error("Unknown function '" + name + "'");
+            }
+        }
+        expect(')');
+    }
+
+    private void reference(String symbol, int start) {
+        int slot = inputSymbols.indexOf(symbol);
+        if (slot < 0) {
+            pos = start;
+            throw error("Unknown input '" + symbol + "', expected one of " + inputSymbols);
+        }
+        expect('.');
+        int fieldStart = pos;
+        String field = identifier();
+        int op = switch (field.toLowerCase()) {
+            case "bid" -> CompiledFormula.LOAD_BID;
+            case "ask" -> CompiledFormula.LOAD_ASK;
+            case "mid" -> CompiledFormula.LOAD_MID;
+            default -> {
+                pos = fieldStart;
+                throw error("Unknown rate field '" + field + "', expected bid, ask or mid");
+            }
+        };
+        emit(op, slot, 0, 1);
+    }
+
+    private void number() {
+        int start = pos;
+        int fractionDigits = -1;
+        while (pos < source.length()) {
+            char c = source.charAt(pos);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (Character.isDigit(c)) {
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else {
+                break;
+            }
+            pos++;
+        }
+        int scale = Math.min(Math.max(fractionDigits, 0), FixedPointPrice.MAX_SCALE);
+        try {
+            emit(CompiledFormula.CONST, FixedPointPrice.parse(source, start, pos, scale), scale, 1);
+        } catch (NumberFormatException | ArithmeticException e) {
+            pos = start;
+            throw error("Invalid number");
+        }
+    }
+
+    private String identifier() {
+        skipWhitespace();
+        int start = pos;
+        while (pos < source.length() && isIdentifierChar(source.charAt(pos))) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("Identifier expected");
+        }
+        return source.substring(start, pos);
+    }
+
+    private String bracketedSymbol() {
+        int start = ++pos;
+        int end = source.indexOf(']', start);
+        if (end < 0) {
+            throw error("Expected ']'");
+        }
+        pos = end + 1;
+        String symbol = source.substring(start, end).trim();
+        if (symbol.isEmpty()) {
+            pos = start;
+            throw error("Identifier expected");
+        }
+        return symbol;
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private void emit(int op, long operand, int operandScale, int stackEffect) {
+        if (length == ops.length) {
+            ops = Arrays.copyOf(ops, length * 2);
+            operands = Arrays.copyOf(operands, length * 2);
+            operandScales = Arrays.copyOf(operandScales, length * 2);
+        }
+        ops[length] = op;
+        operands[length] = operand;
+        operandScales[length] = operandScale;
+        length++;
+        depth += stackEffect;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    private boolean accept(char expected) {
+        skipWhitespace();
+        if (pos < source.length() && source.charAt(pos) == expected) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        if (!accept(expected)) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private FormulaCompilationException error(String message) {
+        return new FormulaCompilationException(message, source, pos);
+    }
+}
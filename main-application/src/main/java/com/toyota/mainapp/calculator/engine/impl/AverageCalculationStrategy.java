@@ -4,12 +4,16 @@ import com.toyota.mainapp.calculator.engine.CalculationStrategy;
 import com.toyota.mainapp.dto.config.CalculationRuleDto;
 import com.toyota.mainapp.dto.model.BaseRateDto;
 import com.toyota.mainapp.util.RateCalculationUtils;
+import com.toyota.mainapp.util.SymbolRegistry;
+import com.toyota.mainapp.util.SymbolUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Toyota Financial Data Platform - Average Calculation Strategy
@@ -26,6 +30,13 @@ import java.util.HashMap;
 @Slf4j
 public class AverageCalculationStrategy implements CalculationStrategy {
 
+    private static final byte UNRESOLVED = 0;
+    private static final byte RELEVANT = 1;
+    private static final byte IRRELEVANT = 2;
+
+    private final SymbolRegistry symbolRegistry = SymbolRegistry.global();
+    private final Map<String, SourceFilter> sourceFilters = new ConcurrentHashMap<>();
+
     @Override
     public Optional<BaseRateDto> calculate(CalculationRuleDto rule, Map<String, BaseRateDto> inputRates) {
         try {
@@ -49,7 +60,7 @@ public class AverageCalculationStrategy implements CalculationStrategy {
             if (averageRate != null) {
                 averageRate.setSymbol(rule.getOutputSymbol()); 
 
-                String normalizedSymbol = com.toyota.mainapp.util.SymbolUtils.normalizeSymbol(averageRate.getSymbol());
+                String normalizedSymbol = SymbolUtils.normalizeSymbol(averageRate.getSymbol());
                 if (!rule.getOutputSymbol().equals(normalizedSymbol) && 
                     !rule.getOutputSymbol().equals(averageRate.getSymbol())) {
                     log.warn("Symbol format inconsistency detected: rule={}, calculated={}, normalized={}", 
@@ -72,35 +83,40 @@ public class AverageCalculationStrategy implements CalculationStrategy {
 
     private Map<String, BaseRateDto> filterRatesForRule(CalculationRuleDto rule, Map<String, BaseRateDto> inputRates) {
         Map<String, BaseRateDto> filtered = new HashMap<>();
-        
-        if (rule.getRawSources() == null || rule.getRawSources().isEmpty()) {
+
+        SourceFilter sourceFilter = sourceFilter(rule);
+        if (sourceFilter.isEmpty()) {
             return filtered;
         }
 
         for (Map.Entry<String, BaseRateDto> entry : inputRates.entrySet()) {
             BaseRateDto rate = entry.getValue();
-            if (rate != null && rate.getSymbol() != null) {
-                // ✅ NORMALIZE: Use consistent symbol comparison
-                String rateSymbol = com.toyota.mainapp.util.SymbolUtils.normalizeSymbol(rate.getSymbol());
-                boolean isRelevant = rule.getRawSources().stream()
-                        .anyMatch(source -> {
-                            String normalizedSource = com.toyota.mainapp.util.SymbolUtils.normalizeSymbol(source);
-                            return normalizedSource.equals(rateSymbol) || 
-                                   rateSymbol.contains(normalizedSource);
-                        });
-                
-                if (isRelevant) {
-                    filtered.put(entry.getKey(), rate);
-                }
+            if (rate != null && rate.getSymbol() != null
+                    && sourceFilter.matches(symbolRegistry.resolve(rate.getSymbol()))) {
+                filtered.put(entry.getKey(), rate);
             }
         }
-        
-        log.debug("Filtered {} relevant rates from {} total inputs for rule: {}", 
+
+        log.debug("Filtered {} relevant rates from {} total inputs for rule: {}",
                 filtered.size(), inputRates.size(), rule.getOutputSymbol());
-        
+
         return filtered;
     }
 
+    private SourceFilter sourceFilter(CalculationRuleDto rule) {
+        SourceFilter filter = sourceFilters.get(rule.getOutputSymbol());
+        if (filter != null && filter.rule == rule) {
+            return filter;
+        }
+        // First use, or the rule definition was reloaded
+        filter = new SourceFilter(rule, rule.getRawSources().stream()
+                .mapToInt(symbolRegistry::resolve)
+                .filter(symbolRegistry::isValid)
+                .toArray());
+        sourceFilters.put(rule.getOutputSymbol(), filter);
+        return filter;
+    }
+
     @Override
     public String getStrategyName() {
         return "averageCalculationStrategy"; 
@@ -120,4 +136,49 @@ public class AverageCalculationStrategy implements CalculationStrategy {
                "AVERAGE".equals(rule.getStrategyType()) ||
                "averageCalculationStrategy".equals(rule.getStrategyType());
     }
+
+    /**
+     * Per-rule relevance of symbol ids, memoized in an id-indexed table. A rate is relevant when
+     * its canonical symbol equals or contains one of the rule's raw sources.
+     */
+    private final class SourceFilter {
+        private final CalculationRuleDto rule;
+        private final int[] sourceIds;
+        private volatile byte[] relevance = new byte[0];
+
+        SourceFilter(CalculationRuleDto rule, int[] sourceIds) {
+            this.rule = rule;
+            this.sourceIds = sourceIds;
+        }
+
+        boolean isEmpty() {
+            return sourceIds.length == 0;
+        }
+
+        boolean matches(int symbolId) {
+            if (symbolId < 0) {
+                return false;
+            }
+            byte[] table = relevance;
+            if (symbolId < table.length && table[symbolId] != UNRESOLVED) {
+                return table[symbolId] == RELEVANT;
+            }
+            boolean relevant = computeRelevance(symbolId);
+            // Racing writers store the same verdict, so a lost update only costs a recompute
+            byte[] grown = symbolId < table.length ? table : Arrays.copyOf(table, symbolRegistry.size());
+            grown[symbolId] = relevant ? RELEVANT : IRRELEVANT;
+            relevance = grown;
+            return relevant;
+        }
+
+        private boolean computeRelevance(int symbolId) {
+            String symbol = symbolRegistry.name(symbolId);
+            for (int sourceId : sourceIds) {
+                if (sourceId == symbolId || symbol.contains(symbolRegistry.name(sourceId))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
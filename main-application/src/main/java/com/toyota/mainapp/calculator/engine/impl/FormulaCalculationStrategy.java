@@ -0,0 +1,265 @@
+package com.toyota.mainapp.calculator.engine.impl;
+
+import com.toyota.mainapp.calculator.engine.CalculationStrategy;
+import com.toyota.mainapp.calculator.engine.formula.CompiledFormula;
+import com.toyota.mainapp.calculator.engine.formula.FormulaCompiler;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.InputRateInfo;
+import com.toyota.mainapp.dto.model.RateType;
+import com.toyota.mainapp.util.FixedPointPrice;
+import com.toyota.mainapp.util.SymbolUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Toyota Financial Data Platform - Formula Calculation Strategy
+ *
+ * Groovy-free strategy for rules whose bid and ask are plain arithmetic over
+ * input rates, e.g. "round(EURUSD_AVG.bid * USDTRY_AVG.bid, 5)". Formulas are
+ * compiled once per rule and evaluated on fixed-point mantissas.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component("formulaCalculationStrategy")
+@Slf4j
+@RequiredArgsConstructor
+public class FormulaCalculationStrategy implements CalculationStrategy {
+
+    public static final String BID_FORMULA = "bidFormula";
+    public static final String ASK_FORMULA = "askFormula";
+    private static final String SCALE_PARAMETER = "defaultScale";
+    private static final int DEFAULT_OUTPUT_SCALE = 5;
+
+    private final ApplicationProperties appProperties;
+
+    private final Map<String, CompiledRule> compiledRules = new ConcurrentHashMap<>();
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    private final LongAdder evaluationCount = new LongAdder();
+
+    /**
+     * Compile the formulas of every loaded rule; an invalid formula stops startup.
+     */
+    @PostConstruct
+    public void precompileFormulas() {
+        precompileFormulas(appProperties.getCalculationRules());
+    }
+
+    /**
+     * Compile and cache the formulas of the given rules, e.g. a validated rule set before it is activated.
+     *
+     * @throws IllegalStateException if any formula does not compile
+     */
+    public void precompileFormulas(Collection<CalculationRuleDto> rules) {
+        List<String> errors = new ArrayList<>();
+        for (CalculationRuleDto rule : rules) {
+            if (!canHandle(rule)) {
+                continue;
+            }
+            try {
+                compiledRule(rule);
+            } catch (RuntimeException e) {
+                errors.add(rule.getOutputSymbol() + ": " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            log.error("❌ Formula compilation failed: {}", errors);
+            throw new IllegalStateException("Formula compilation failed: " + errors);
+        }
+        log.info("✅ Compiled formulas for {} calculation rules", compiledRules.size());
+    }
+
+    /**
+     * Compile the formulas of a candidate rule set without touching the active cache.
+     *
+     * @return one message per rule whose formulas do not compile
+     */
+    public List<String> validateRules(Collection<CalculationRuleDto> rules) {
+        List<String> errors = new ArrayList<>();
+        for (CalculationRuleDto rule : rules) {
+            if (!canHandle(rule)) {
+                continue;
+            }
+            try {
+                compile(rule);
+            } catch (RuntimeException e) {
+                errors.add(rule.getOutputSymbol() + ": " + e.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    @Override
+    public Optional<BaseRateDto> calculate(CalculationRuleDto rule, Map<String, BaseRateDto> inputRates) {
+        try {
+            CompiledRule compiled = compiledRule(rule);
+            Scratch s = scratch.get();
+            s.ensureCapacity(compiled.inputSymbols.size(), compiled.maxStackDepth());
+
+            for (int slot = 0; slot < compiled.inputSymbols.size(); slot++) {
+                BaseRateDto input = inputRates.get(compiled.inputSymbols.get(slot));
+                if (input == null || input.getBid() == null || input.getAsk() == null) {
+                    log.debug("Formula input {} missing for rule {}", compiled.inputSymbols.get(slot), rule.getOutputSymbol());
+                    return Optional.empty();
+                }
+                int scale = loadScale(input.getBid(), input.getAsk());
+                s.bids[slot] = FixedPointPrice.fromBigDecimal(input.getBid(), scale);
+                s.asks[slot] = FixedPointPrice.fromBigDecimal(input.getAsk(), scale);
+                s.scales[slot] = scale;
+            }
+
+            long bid = compiled.bid.evaluate(s.bids, s.asks, s.scales, s.stackValues, s.stackScales, compiled.outputScale);
+            long ask = compiled.ask.evaluate(s.bids, s.asks, s.scales, s.stackValues, s.stackScales, compiled.outputScale);
+            evaluationCount.increment();
+
+            if (bid <= 0 || ask < bid) {
+                log.warn("❌ Formula produced invalid quote for {}: bid={}, ask={}", rule.getOutputSymbol(),
+                        FixedPointPrice.toString(bid, compiled.outputScale), FixedPointPrice.toString(ask, compiled.outputScale));
+                return Optional.empty();
+            }
+            return Optional.of(toRate(rule, compiled, inputRates, bid, ask));
+
+        } catch (ArithmeticException e) {
+            log.warn("❌ Formula arithmetic error for rule {}: {}", rule.getOutputSymbol(), e.getMessage());
+            return Optional.empty();
+        } catch (Exception e) {
+            log.error("❌ Formula calculation error for rule {}: {}", rule.getOutputSymbol(), e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    private CompiledRule compiledRule(CalculationRuleDto rule) {
+        CompiledRule compiled = compiledRules.get(rule.getOutputSymbol());
+        if (compiled != null && compiled.rule == rule) {
+            return compiled;
+        }
+        // First use, or the rule definition was reloaded
+        compiled = compile(rule);
+        compiledRules.put(rule.getOutputSymbol(), compiled);
+        log.debug("Formula compiled for {}: bid={}, ask={}", rule.getOutputSymbol(), compiled.bid, compiled.ask);
+        return compiled;
+    }
+
+    private static CompiledRule compile(CalculationRuleDto rule) {
+        List<String> inputs = List.copyOf(rule.getInputSymbols() != null ? rule.getInputSymbols() : List.of());
+        return new CompiledRule(rule, inputs,
+                FormulaCompiler.compile(stringParameter(rule, BID_FORMULA), inputs),
+                FormulaCompiler.compile(stringParameter(rule, ASK_FORMULA), inputs),
+                outputScale(rule));
+    }
+
+    private BaseRateDto toRate(CalculationRuleDto rule, CompiledRule compiled, Map<String, BaseRateDto> inputRates,
+                               long bid, long ask) {
+        int scale = compiled.outputScale;
+        // Lineage for audit and snapshots, same as the Groovy scripts record
+        List<InputRateInfo> calculationInputs = new ArrayList<>(compiled.inputSymbols.size());
+        for (String symbol : compiled.inputSymbols) {
+            InputRateInfo input = InputRateInfo.fromBaseRateDto(inputRates.get(symbol));
+            if (input != null) {
+                calculationInputs.add(input);
+            }
+        }
+
+        BaseRateDto result = new BaseRateDto();
+        result.setSymbol(SymbolUtils.normalizeSymbol(rule.getOutputSymbol()));
+        result.setRateType(RateType.CALCULATED);
+        result.setCalculationType(rule.getStrategyType());
+        result.setBid(FixedPointPrice.toBigDecimal(bid, scale));
+        result.setAsk(FixedPointPrice.toBigDecimal(ask, scale));
+        result.setTimestamp(System.currentTimeMillis());
+        result.setProviderName("FormulaCalculator");
+        result.setCalculationInputs(calculationInputs);
+        result.setCalculatedByStrategy(getStrategyName());
+        return result;
+    }
+
+    private static int loadScale(BigDecimal bid, BigDecimal ask) {
+        int scale = Math.max(bid.scale(), ask.scale());
+        return Math.max(0, Math.min(scale, FixedPointPrice.MAX_SCALE));
+    }
+
+    private static int outputScale(CalculationRuleDto rule) {
+        Object value = rule.getInputParameters() != null ? rule.getInputParameters().get(SCALE_PARAMETER) : null;
+        if (value == null) {
+            return DEFAULT_OUTPUT_SCALE;
+        }
+        int scale = Integer.parseInt(value.toString().trim());
+        if (scale < 0 || scale > FixedPointPrice.MAX_SCALE) {
+            throw new IllegalArgumentException("Unsupported " + SCALE_PARAMETER + ": " + scale);
+        }
+        return scale;
+    }
+
+    private static String stringParameter(CalculationRuleDto rule, String name) {
+        Object value = rule.getInputParameters() != null ? rule.getInputParameters().get(name) : null;
+        return value != null ? value.toString() : null;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "formulaCalculationStrategy";
+    }
+
+    @Override
+    public String getStrategyType() {
+        return "CROSS";
+    }
+
+    @Override
+    public boolean canHandle(CalculationRuleDto rule) {
+        return rule != null &&
+               "formulaCalculationStrategy".equals(rule.getStrategyType()) &&
+               stringParameter(rule, BID_FORMULA) != null &&
+               stringParameter(rule, ASK_FORMULA) != null;
+    }
+
+    public Map<String, Object> getFormulaStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("compiledRules", compiledRules.size());
+        stats.put("evaluations", evaluationCount.sum());
+        return stats;
+    }
+
+    private record CompiledRule(CalculationRuleDto rule, List<String> inputSymbols,
+                                CompiledFormula bid, CompiledFormula ask, int outputScale) {
+        int maxStackDepth() {
+            return Math.max(bid.getMaxStackDepth(), ask.getMaxStackDepth());
+        }
+    }
+
+    /** Per-thread input and stack arrays reused across evaluations. */
+    private static final class Scratch {
+        long[] bids = new long[4];
+        long[] asks = new long[4];
+        int[] scales = new int[4];
+        long[] stackValues = new long[16];
+        int[] stackScales = new int[16];
+
+        void ensureCapacity(int inputs, int stackDepth) {
+            if (bids.length < inputs) {
+                bids = new long[inputs];
+                asks = new long[inputs];
+                scales = new int[inputs];
+            }
+            if (stackValues.length < stackDepth) {
+                stackValues = new long[stackDepth];
+                stackScales = new int[stackDepth];
+            }
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package com.toyota.mainapp.calculator.engine.impl;
 
 import com.toyota.mainapp.calculator.engine.CalculationStrategy;
+import com.toyota.mainapp.config.ApplicationProperties;
 import com.toyota.mainapp.dto.model.BaseRateDto;
 import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.util.SymbolRegistry;
 import com.toyota.mainapp.util.SymbolUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
 import groovy.lang.Binding;
-import groovy.lang.GroovyShell;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
 import org.codehaus.groovy.control.CompilerConfiguration;
 
 import java.io.IOException;
@@ -17,13 +24,17 @@ import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Toyota Financial Data Platform - Groovy Script Calculation Strategy
  * 
  * Dynamic calculation strategy that executes Groovy scripts for complex rate
- * calculations. Provides flexible scripting capabilities with input rate adaptation,
- * script caching, and comprehensive error handling for custom financial formulas.
+ * calculations. Scripts are compiled into Script classes keyed by path and
+ * content hash, each in its own class loader, when the rules are loaded or
+ * validated for a reload; each worker thread reuses its own instance with a
+ * rebindable Binding.
  * 
  * @author Fatih Karataş
  * @version 1.0
@@ -35,9 +46,65 @@ import java.util.concurrent.ConcurrentHashMap;
 public class GroovyScriptCalculationStrategy implements CalculationStrategy {
 
     private final ResourceLoader resourceLoader;
+    private final ApplicationProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final SymbolRegistry symbolRegistry = SymbolRegistry.global();
+    // Keyed by path and content hash, so an edited script is never served from a stale entry
+    private final Map<String, Class<? extends Script>> compiledScripts = new ConcurrentHashMap<>();
+    // Script class bound to each rule object; a reloaded rule rebinds against the current content
+    private final Map<String, RuleScript> ruleScripts = new ConcurrentHashMap<>();
+    private final Map<String, Timer> executionTimers = new ConcurrentHashMap<>();
+    // Script instances hold their Binding as state, so each worker thread gets its own
+    private final ThreadLocal<Map<String, Script>> threadScripts = ThreadLocal.withInitial(HashMap::new);
+    private final LongAdder compileCount = new LongAdder();
+    private final LongAdder instanceCount = new LongAdder();
+    private final LongAdder executionCount = new LongAdder();
+
+    /**
+     * Compile every script referenced by the loaded rules; a broken script stops startup.
+     */
+    @PostConstruct
+    public void precompileScripts() {
+        List<String> errors = new ArrayList<>();
+        for (CalculationRuleDto rule : appProperties.getCalculationRules()) {
+            if (!canHandle(rule)) {
+                continue;
+            }
+            try {
+                ruleScript(rule);
+            } catch (Exception e) {
+                errors.add(rule.getOutputSymbol() + " (" + rule.getImplementation() + "): " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            log.error("❌ Groovy script compilation failed: {}", errors);
+            throw new IllegalStateException("Groovy script compilation failed: " + errors);
+        }
+        log.info("✅ Precompiled {} Groovy calculation scripts", compiledScripts.size());
+    }
 
-    private final Map<String, String> scriptCache = new ConcurrentHashMap<>();
-    private static final int MAX_SCRIPT_CACHE_SIZE = 50;
+    /**
+     * Compile the scripts of a candidate rule set from their current content. Classes are
+     * keyed by path and content hash, so this checks edited scripts too and warms the cache
+     * for the rules about to be activated.
+     *
+     * @return one message per rule whose script does not compile
+     */
+    public List<String> validateRules(Collection<CalculationRuleDto> rules) {
+        List<String> errors = new ArrayList<>();
+        for (CalculationRuleDto rule : rules) {
+            if (!canHandle(rule)) {
+                continue;
+            }
+            try {
+                compiledScript(rule.getImplementation().trim());
+            } catch (Exception e) {
+                errors.add(rule.getOutputSymbol() + " (" + rule.getImplementation() + "): " + e.getMessage());
+            }
+        }
+        return errors;
+    }
 
     @Override
     public Optional<BaseRateDto> calculate(CalculationRuleDto rule, Map<String, BaseRateDto> inputRates) {
@@ -48,14 +115,20 @@ public class GroovyScriptCalculationStrategy implements CalculationStrategy {
                 return Optional.empty();
             }
 
-            String scriptContent = loadScript(scriptPath);
-            Binding binding = createScriptBinding(rule, inputRates);
-
-            CompilerConfiguration compilerConfig = new CompilerConfiguration();
-            compilerConfig.setScriptBaseClass("groovy.lang.Script");
-            
-            GroovyShell shell = new GroovyShell(getClass().getClassLoader(), binding, compilerConfig);
-            Object result = shell.evaluate(scriptContent);
+            scriptPath = scriptPath.trim();
+            Script script = threadLocalScript(scriptPath, ruleScript(rule));
+            bindScript(script.getBinding(), rule, inputRates);
+
+            long startNanos = System.nanoTime();
+            Object result;
+            try {
+                result = script.run();
+            } finally {
+                executionTimer(scriptPath).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                executionCount.increment();
+                // Do not keep input rates reachable from an idle thread
+                script.getBinding().getVariables().clear();
+            }
 
             if (result instanceof Map) {
                 @SuppressWarnings("unchecked")
@@ -77,9 +150,9 @@ public class GroovyScriptCalculationStrategy implements CalculationStrategy {
         }
     }
 
-    private Binding createScriptBinding(CalculationRuleDto rule, Map<String, BaseRateDto> inputRates) {
-        Binding binding = new Binding();
-        
+    private void bindScript(Binding binding, CalculationRuleDto rule, Map<String, BaseRateDto> inputRates) {
+        binding.getVariables().clear();
+
         // Core script variables
         binding.setVariable("log", log);
         binding.setVariable("outputSymbol", rule.getOutputSymbol());
@@ -98,8 +171,87 @@ public class GroovyScriptCalculationStrategy implements CalculationStrategy {
         log.debug("Script binding created: {} parameters, {} input rates", 
                 rule.getInputParameters() != null ? rule.getInputParameters().size() : 0, 
                 adaptedInputs.size());
-        
-        return binding;
+    }
+
+    private Class<? extends Script> ruleScript(CalculationRuleDto rule) throws IOException {
+        RuleScript bound = ruleScripts.get(rule.getOutputSymbol());
+        if (bound != null) {
+            if (bound.rule == rule) {
+                return bound.scriptClass;
+            }
+            if (bound.previous != null && bound.previous.rule == rule) {
+                // Pipeline still running on the rule set before a reload
+                return bound.previous.scriptClass;
+            }
+        }
+        // First use, or the rule definition was reloaded: bind against the script's current content
+        Class<? extends Script> scriptClass = compiledScript(rule.getImplementation().trim());
+        RuleScript previous = bound != null ? new RuleScript(bound.rule, bound.scriptClass, null) : null;
+        ruleScripts.put(rule.getOutputSymbol(), new RuleScript(rule, scriptClass, previous));
+        return scriptClass;
+    }
+
+    private Script threadLocalScript(String scriptPath, Class<? extends Script> scriptClass) {
+        Map<String, Script> scripts = threadScripts.get();
+        Script script = scripts.get(scriptPath);
+        if (script == null || script.getClass() != scriptClass) {
+            // First use on this thread, or the script content changed
+            try {
+                script = scriptClass.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot instantiate script " + scriptPath, e);
+            }
+            script.setBinding(new Binding());
+            scripts.put(scriptPath, script);
+            instanceCount.increment();
+        }
+        return script;
+    }
+
+    private Class<? extends Script> compiledScript(String scriptPath) throws IOException {
+        String scriptContent = loadScript(scriptPath);
+        String key = scriptPath + "@" + DigestUtils.md5DigestAsHex(scriptContent.getBytes(StandardCharsets.UTF_8));
+        Class<? extends Script> cached = compiledScripts.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (compiledScripts) {
+            cached = compiledScripts.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            // One loader per script version, so replaced versions become collectable with it
+            Class<?> parsed = newScriptClassLoader().parseClass(scriptContent, scriptFileName(scriptPath));
+            if (!Script.class.isAssignableFrom(parsed)) {
+                throw new IllegalStateException("Not a Groovy script: " + scriptPath);
+            }
+            @SuppressWarnings("unchecked")
+            Class<? extends Script> scriptClass = (Class<? extends Script>) parsed;
+            // Rules already bound keep their class; only the newest version of a path stays cached
+            compiledScripts.keySet().removeIf(cachedKey -> cachedKey.startsWith(scriptPath + "@"));
+            compiledScripts.put(key, scriptClass);
+            compileCount.increment();
+            log.info("✅ Groovy script compiled: {}", scriptPath);
+            return scriptClass;
+        }
+    }
+
+    private Timer executionTimer(String scriptPath) {
+        return executionTimers.computeIfAbsent(scriptPath, path -> Timer.builder("calculation.script.execution")
+                .description("Groovy calculation script execution time")
+                .tag("script", path)
+                .register(meterRegistry));
+    }
+
+    private static String scriptFileName(String scriptPath) {
+        int slash = scriptPath.lastIndexOf('/');
+        return slash >= 0 ? scriptPath.substring(slash + 1) : scriptPath;
+    }
+
+    private GroovyClassLoader newScriptClassLoader() {
+        CompilerConfiguration compilerConfig = new CompilerConfiguration();
+        compilerConfig.setScriptBaseClass("groovy.lang.Script");
+        return new GroovyClassLoader(getClass().getClassLoader(), compilerConfig);
     }
 
     private Map<String, BaseRateDto> adaptInputRatesForScript(Map<String, BaseRateDto> inputRates, CalculationRuleDto rule) {
@@ -111,12 +263,12 @@ public class GroovyScriptCalculationStrategy implements CalculationStrategy {
             BaseRateDto rate = entry.getValue();
             String originalKey = entry.getKey();
             String symbol = rate.getSymbol();
-            String normalizedSymbol = SymbolUtils.normalizeSymbol(symbol);
-
-            log.debug("Processing rate: originalKey={}, symbol={}, normalized={}", 
-                    originalKey, symbol, normalizedSymbol);
+            int symbolId = symbolRegistry.resolve(symbol);
 
-            if (SymbolUtils.isValidSymbol(normalizedSymbol)) {
+            if (symbolRegistry.isValid(symbolId)) {
+                String normalizedSymbol = symbolRegistry.name(symbolId);
+                log.debug("Processing rate: originalKey={}, symbol={}, normalized={}",
+                        originalKey, symbol, normalizedSymbol);
               
                 adaptedRates.put(normalizedSymbol, rate);                    // "USDTRY"
                 adaptedRates.put(normalizedSymbol + "_AVG", rate);           // "USDTRY_AVG"
@@ -141,7 +293,7 @@ public class GroovyScriptCalculationStrategy implements CalculationStrategy {
 
                 if (rule.getRequiredCalculatedRates() != null) {
                     for (String requiredRate : rule.getRequiredCalculatedRates()) {
-                        if (SymbolUtils.symbolsEquivalent(requiredRate, normalizedSymbol) ||
+                        if (symbolRegistry.resolve(requiredRate) == symbolId ||
                             requiredRate.equals(originalKey)) {
                             adaptedRates.put(requiredRate, rate);
                             log.debug("✅ Added required-rate key: {} -> {}", requiredRate, symbol);
@@ -164,26 +316,13 @@ public class GroovyScriptCalculationStrategy implements CalculationStrategy {
     }
 
     private String loadScript(String scriptPath) throws IOException {
-
-        String cachedScript = scriptCache.get(scriptPath);
-        if (cachedScript != null) {
-            return cachedScript;
-        }
-
         try {
             var resource = resourceLoader.getResource("classpath:" + scriptPath);
             if (!resource.exists()) {
                 throw new IOException("Script not found: " + scriptPath);
             }
 
-            String scriptContent = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-
-            if (scriptCache.size() < MAX_SCRIPT_CACHE_SIZE) {
-                scriptCache.put(scriptPath, scriptContent);
-                log.debug("Script cached: {}", scriptPath);
-            }
-
-            return scriptContent;
+            return new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
         } catch (IOException e) {
             log.error("Failed to load script: {}", scriptPath, e);
             throw e;
@@ -250,6 +389,11 @@ public class GroovyScriptCalculationStrategy implements CalculationStrategy {
         return "CROSS";
     }
 
+    @Override
+    public boolean requiresTimeoutGuard() {
+        return true;
+    }
+
     @Override
     public boolean canHandle(CalculationRuleDto rule) {
         return rule != null && 
@@ -259,12 +403,34 @@ public class GroovyScriptCalculationStrategy implements CalculationStrategy {
                !rule.getImplementation().trim().isEmpty();
     }
 
+    /**
+     * Drop compiled scripts so they are recompiled from the classpath on next use.
+     * Old classes become collectable together with their class loaders.
+     */
     public void clearScriptCache() {
-        scriptCache.clear();
+        synchronized (compiledScripts) {
+            compiledScripts.clear();
+            ruleScripts.clear();
+        }
         log.info("🔄 Script cache cleared");
     }
 
-    public Map<String, Integer> getScriptCacheStats() {
-        return Map.of("scriptCacheSize", scriptCache.size());
+    public Map<String, Object> getScriptCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("scriptCacheSize", compiledScripts.size());
+        stats.put("compilations", compileCount.sum());
+        stats.put("threadInstances", instanceCount.sum());
+        stats.put("executions", executionCount.sum());
+
+        Map<String, Object> latency = new HashMap<>();
+        executionTimers.forEach((path, timer) -> latency.put(path, Map.of(
+                "count", timer.count(),
+                "meanMs", timer.mean(TimeUnit.MILLISECONDS),
+                "maxMs", timer.max(TimeUnit.MILLISECONDS))));
+        stats.put("executionLatency", latency);
+        return stats;
+    }
+
+    private record RuleScript(CalculationRuleDto rule, Class<? extends Script> scriptClass, RuleScript previous) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,357 @@
+package com.toyota.mainapp.calculator.graph;
+
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.dto.config.CalculationRuleType;
+import com.toyota.mainapp.exception.RuleGraphValidationException;
+import com.toyota.mainapp.util.SymbolRegistry;
+import com.toyota.mainapp.util.SymbolUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Toyota Financial Data Platform - Rule Dependency Graph
+ *
+ * Immutable DAG compiled from the calculation rules at configuration load:
+ * raw symbol → AVG rules → CROSS rules. Symbols are mapped to dense ids and
+ * every symbol's downstream closure is precomputed in topological order, so a
+ * tick only re-evaluates the rules that actually depend on it. The AVG rules of
+ * each raw symbol are also indexed by its {@link SymbolRegistry} id, which ticks
+ * carry, so the per-tick lookup is a plain array read.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class RuleDependencyGraph {
+
+    @SuppressWarnings("unchecked")
+    private static final RuleDependencyGraph EMPTY = new RuleDependencyGraph(
+            List.of(), Map.of(), new int[0][], new int[0][], new List[0]);
+
+    /** Rules in topological order; a rule's index is its position here. */
+    private final List<CalculationRuleDto> orderedRules;
+    /** Raw symbols (normalized) and calculated outputs (exact, upper case) to dense ids. */
+    private final Map<String, Integer> symbolIds;
+    /** Rules reading a symbol directly, per symbol id. */
+    private final int[][] directConsumers;
+    /** Full downstream closure per symbol id, sorted by topological index. */
+    private final int[][] closures;
+    /** AVG rules in a raw symbol's closure, per {@link SymbolRegistry} id; null where none. */
+    private final List<CalculationRuleDto>[] avgRulesByRegistryId;
+
+    private RuleDependencyGraph(List<CalculationRuleDto> orderedRules, Map<String, Integer> symbolIds,
+                                int[][] directConsumers, int[][] closures,
+                                List<CalculationRuleDto>[] avgRulesByRegistryId) {
+        this.orderedRules = orderedRules;
+        this.symbolIds = symbolIds;
+        this.directConsumers = directConsumers;
+        this.closures = closures;
+        this.avgRulesByRegistryId = avgRulesByRegistryId;
+    }
+
+    public static RuleDependencyGraph empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compile and validate the rules.
+     *
+     * @throws RuleGraphValidationException on duplicate outputs, unreachable inputs or cycles
+     */
+    public static RuleDependencyGraph compile(List<CalculationRuleDto> rules) {
+        if (rules == null || rules.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<String> errors = new ArrayList<>();
+        Map<String, Integer> producers = new HashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            CalculationRuleDto rule = rules.get(i);
+            String output = outputKey(rule);
+            if (output == null) {
+                errors.add("Rule #" + i + " has no outputSymbol");
+                continue;
+            }
+            if (rule.getTypeEnum() == null) {
+                errors.add("Rule " + output + " has unsupported type: " + rule.getType());
+            }
+            if (producers.putIfAbsent(output, i) != null) {
+                errors.add("Duplicate outputSymbol: " + output);
+            }
+        }
+
+        // Resolve inputs: calculated outputs by exact name, everything else as a normalized raw symbol
+        Map<String, Integer> symbolIds = new LinkedHashMap<>();
+        List<String> rawSymbols = new ArrayList<>();
+        List<List<Integer>> inputsByRule = new ArrayList<>();
+        List<List<Integer>> ruleDependencies = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            CalculationRuleDto rule = rules.get(i);
+            List<Integer> inputIds = new ArrayList<>();
+            List<Integer> dependencies = new ArrayList<>();
+            List<String> inputs = inputsOf(rule);
+
+            if (inputs.isEmpty()) {
+                errors.add("Rule " + outputKey(rule) + " is unreachable: no input symbols");
+            }
+            for (String input : inputs) {
+                String calculatedKey = input.trim().toUpperCase();
+                Integer producer = producers.get(calculatedKey);
+                if (producer != null) {
+                    dependencies.add(producer);
+                    inputIds.add(symbolIds.computeIfAbsent(calculatedKey, k -> symbolIds.size()));
+                } else if (!CalculationRuleType.CROSS.equals(rule.getTypeEnum())
+                        && SymbolUtils.isValidSymbol(SymbolUtils.normalizeSymbol(input))) {
+                    inputIds.add(symbolIds.computeIfAbsent(SymbolUtils.normalizeSymbol(input), raw -> {
+                        rawSymbols.add(raw);
+                        return symbolIds.size();
+                    }));
+                } else {
+                    errors.add("Rule " + outputKey(rule) + " is unreachable: input '" + input
+                            + "' is neither a raw symbol nor produced by another rule");
+                }
+            }
+            inputsByRule.add(inputIds);
+            ruleDependencies.add(dependencies);
+        }
+        for (String output : producers.keySet()) {
+            symbolIds.computeIfAbsent(output, k -> symbolIds.size());
+        }
+
+        if (!errors.isEmpty()) {
+            throw new RuleGraphValidationException(errors);
+        }
+
+        int[] topoOrder = topologicalOrder(rules, ruleDependencies);
+        int[] topoIndex = new int[rules.size()];
+        List<CalculationRuleDto> orderedRules = new ArrayList<>(rules.size());
+        for (int position = 0; position < topoOrder.length; position++) {
+            topoIndex[topoOrder[position]] = position;
+            orderedRules.add(rules.get(topoOrder[position]));
+        }
+
+        // Edges: symbol id -> consuming rules (by topological index)
+        int symbolCount = symbolIds.size();
+        List<List<Integer>> consumers = new ArrayList<>(symbolCount);
+        for (int s = 0; s < symbolCount; s++) {
+            consumers.add(new ArrayList<>());
+        }
+        for (int i = 0; i < rules.size(); i++) {
+            for (int symbolId : inputsByRule.get(i)) {
+                consumers.get(symbolId).add(topoIndex[i]);
+            }
+        }
+        int[] outputIdByRule = new int[rules.size()];
+        for (int position = 0; position < orderedRules.size(); position++) {
+            outputIdByRule[position] = symbolIds.get(outputKey(orderedRules.get(position)));
+        }
+
+        int[][] directConsumers = new int[symbolCount][];
+        int[][] closures = new int[symbolCount][];
+        for (int s = 0; s < symbolCount; s++) {
+            directConsumers[s] = consumers.get(s).stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        }
+        for (int s = 0; s < symbolCount; s++) {
+            BitSet reached = new BitSet(orderedRules.size());
+            Deque<Integer> pending = new ArrayDeque<>();
+            pending.push(s);
+            while (!pending.isEmpty()) {
+                for (int rule : directConsumers[pending.pop()]) {
+                    if (!reached.get(rule)) {
+                        reached.set(rule);
+                        pending.push(outputIdByRule[rule]);
+                    }
+                }
+            }
+            closures[s] = reached.stream().toArray();
+        }
+
+        return new RuleDependencyGraph(Collections.unmodifiableList(orderedRules),
+                Collections.unmodifiableMap(symbolIds), directConsumers, closures,
+                indexAvgRulesByRegistryId(orderedRules, symbolIds, rawSymbols, closures));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<CalculationRuleDto>[] indexAvgRulesByRegistryId(List<CalculationRuleDto> orderedRules,
+                                                                        Map<String, Integer> symbolIds,
+                                                                        List<String> rawSymbols, int[][] closures) {
+        SymbolRegistry registry = SymbolRegistry.global();
+        int[] registryIds = new int[rawSymbols.size()];
+        int size = 0;
+        for (int i = 0; i < registryIds.length; i++) {
+            // Raw inputs are configured symbols, so registering them here matches activation
+            registryIds[i] = registry.register(rawSymbols.get(i));
+            size = Math.max(size, registryIds[i] + 1);
+        }
+        List<CalculationRuleDto>[] avgRules = new List[size];
+        for (int i = 0; i < registryIds.length; i++) {
+            if (registryIds[i] == SymbolRegistry.UNKNOWN) {
+                continue;
+            }
+            List<CalculationRuleDto> rules = new ArrayList<>();
+            for (int rule : closures[symbolIds.get(rawSymbols.get(i))]) {
+                if (CalculationRuleType.AVG.equals(orderedRules.get(rule).getTypeEnum())) {
+                    rules.add(orderedRules.get(rule));
+                }
+            }
+            avgRules[registryIds[i]] = List.copyOf(rules);
+        }
+        return avgRules;
+    }
+
+    /**
+     * AVG rules in the downstream closure of a raw symbol, by registry id, in topological order.
+     * Hot path: one array read, no allocation.
+     */
+    public List<CalculationRuleDto> avgRulesFor(int symbolId) {
+        if (symbolId < 0 || symbolId >= avgRulesByRegistryId.length) {
+            return List.of();
+        }
+        List<CalculationRuleDto> rules = avgRulesByRegistryId[symbolId];
+        return rules != null ? rules : List.of();
+    }
+
+    /**
+     * AVG rules in the downstream closure of a raw symbol, any alias spelling, in topological order.
+     */
+    public List<CalculationRuleDto> avgRulesFor(String symbol) {
+        return avgRulesFor(SymbolRegistry.global().resolve(symbol));
+    }
+
+    /**
+     * CROSS rules in the downstream closure of the changed symbols, in topological order.
+     */
+    public List<CalculationRuleDto> crossRulesFor(Collection<String> changedSymbols) {
+        return rulesOfType(closureOf(changedSymbols), CalculationRuleType.CROSS);
+    }
+
+    /**
+     * Every rule that must be re-evaluated when the symbol changes, in topological order.
+     */
+    public List<CalculationRuleDto> downstreamOf(String symbol) {
+        BitSet closure = closureOf(Collections.singletonList(symbol));
+        List<CalculationRuleDto> result = new ArrayList<>(closure.cardinality());
+        closure.stream().forEach(index -> result.add(orderedRules.get(index)));
+        return result;
+    }
+
+    public List<CalculationRuleDto> getOrderedRules() {
+        return orderedRules;
+    }
+
+    public int getSymbolCount() {
+        return symbolIds.size();
+    }
+
+    public Map<String, Object> getGraphStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ruleCount", orderedRules.size());
+        stats.put("symbolCount", symbolIds.size());
+        stats.put("topologicalOrder", orderedRules.stream().map(RuleDependencyGraph::outputKey).toList());
+        return stats;
+    }
+
+    private BitSet closureOf(Collection<String> symbols) {
+        BitSet closure = new BitSet(orderedRules.size());
+        if (symbols == null) {
+            return closure;
+        }
+        for (String symbol : symbols) {
+            Integer id = resolve(symbol);
+            if (id != null) {
+                for (int rule : closures[id]) {
+                    closure.set(rule);
+                }
+            }
+        }
+        return closure;
+    }
+
+    private Integer resolve(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        // Updated symbols are usually rule outputs spelled exactly as configured
+        Integer exact = symbolIds.get(symbol);
+        if (exact != null) {
+            return exact;
+        }
+        Integer id = symbolIds.get(symbol.trim().toUpperCase());
+        return id != null ? id : symbolIds.get(SymbolUtils.normalizeSymbol(symbol));
+    }
+
+    private List<CalculationRuleDto> rulesOfType(BitSet closure, CalculationRuleType type) {
+        List<CalculationRuleDto> result = new ArrayList<>();
+        closure.stream()
+                .mapToObj(orderedRules::get)
+                .filter(rule -> type.equals(rule.getTypeEnum()))
+                .forEach(result::add);
+        return result;
+    }
+
+    private static int[] topologicalOrder(List<CalculationRuleDto> rules, List<List<Integer>> dependencies) {
+        int ruleCount = rules.size();
+        int[] inDegree = new int[ruleCount];
+        List<List<Integer>> dependents = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < ruleCount; i++) {
+            for (int dependency : dependencies.get(i)) {
+                dependents.get(dependency).add(i);
+                inDegree[i]++;
+            }
+        }
+
+        // Kahn's algorithm; ties keep configuration order
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < ruleCount; i++) {
+            if (inDegree[i] == 0) {
+                ready.add(i);
+            }
+        }
+        int[] order = new int[ruleCount];
+        int emitted = 0;
+        while (!ready.isEmpty()) {
+            int rule = ready.poll();
+            order[emitted++] = rule;
+            for (int dependent : dependents.get(rule)) {
+                if (--inDegree[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (emitted < ruleCount) {
+            List<String> cycle = new ArrayList<>();
+            for (int i = 0; i < ruleCount; i++) {
+                if (inDegree[i] > 0) {
+                    cycle.add(outputKey(rules.get(i)));
+                }
+            }
+            throw new RuleGraphValidationException(List.of("Dependency cycle between rules: " + cycle));
+        }
+        return order;
+    }
+
+    private static List<String> inputsOf(CalculationRuleDto rule) {
+        if (CalculationRuleType.CROSS.equals(rule.getTypeEnum())) {
+            return rule.getRequiredCalculatedRates();
+        }
+        return rule.getInputSymbols() != null ? rule.getInputSymbols() : List.of();
+    }
+
+    private static String outputKey(CalculationRuleDto rule) {
+        String output = rule.getOutputSymbol();
+        return output == null || output.trim().isEmpty() ? null : output.trim().toUpperCase();
+    }
+}
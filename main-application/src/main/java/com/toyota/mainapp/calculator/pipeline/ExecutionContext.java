@@ -1,6 +1,8 @@
 package com.toyota.mainapp.calculator.pipeline;
 
+import com.toyota.mainapp.config.RuleSetSnapshot;
 import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateTick;
 import com.toyota.mainapp.util.SymbolUtils;
 import lombok.Builder;
 import lombok.Data;
@@ -9,9 +11,13 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -32,7 +38,18 @@ public class ExecutionContext {
     
     private String pipelineId;
     private long startTime;
+    /** Rule set captured at start; a concurrent reload does not affect this run. */
+    private RuleSetSnapshot ruleSet;
+    /** Last rate that triggered this run; see {@link #getTriggeringRates()} for micro-batched runs. */
     private BaseRateDto triggeringRate;
+
+    /** Every tick coalesced into this run, in arrival order. */
+    @Builder.Default
+    private final List<BaseRateDto> triggeringRates = new ArrayList<>();
+
+    /** Fixed-point form of {@link #triggeringRates}, same index; entries may be null. */
+    @Builder.Default
+    private final List<RateTick> triggeringTicks = new ArrayList<>();
     
     @Builder.Default
     private Map<String, BaseRateDto> rawRates = new HashMap<>();
@@ -49,13 +66,39 @@ public class ExecutionContext {
     @Builder.Default
     private final List<String> stageErrors = new ArrayList<>();
     
+    /** Stage wall times recorded by {@link PipelineStageRunner}, in execution order. */
     @Builder.Default
-    private final Map<String, Long> stageTimings = new HashMap<>();
+    private final List<StageTiming> stageTimings = new ArrayList<>(4);
+
+    @Builder.Default
+    private final Set<String> updatedSymbols = new LinkedHashSet<>();
+
+    /** Cap on distinct snapshot entries; 0 means unbounded. */
+    private int maxSnapshotSize;
+    private int droppedSnapshotRates;
+
+    /** System.nanoTime() deadlines; 0 means no deadline. */
+    private long deadlineNanos;
+    private long stageDeadlineNanos;
+    /** Set when the runner stopped the pipeline before all calculation stages ran. */
+    private String cutOffReason;
     
+    public void addTrigger(RateTick tick, BaseRateDto rate) {
+        triggeringTicks.add(tick);
+        triggeringRates.add(rate);
+        triggeringRate = rate;
+    }
+
     public void addRateToSnapshot(BaseRateDto rate) {
         if (rate == null) return;
         
         String key = SymbolUtils.generateSnapshotKey(rate);
+        if (maxSnapshotSize > 0 && snapshotRates.size() >= maxSnapshotSize && !snapshotRates.containsKey(key)) {
+            if (droppedSnapshotRates++ == 0) {
+                log.warn("Snapshot [{}] reached maxSnapshotSize={}, dropping further rates", pipelineId, maxSnapshotSize);
+            }
+            return;
+        }
         snapshotRates.put(key, rate);
         log.debug("Added to snapshot [{}]: {}", pipelineId, key);
     }
@@ -71,6 +114,44 @@ public class ExecutionContext {
         return snapshotRates.values();
     }
 
+    /**
+     * Record a symbol whose value changed in this pipeline; drives downstream rule selection.
+     */
+    public void markSymbolUpdated(String symbol) {
+        if (symbol != null) {
+            updatedSymbols.add(symbol);
+        }
+    }
+
+    /**
+     * Nanoseconds left for the current stage (bounded by the pipeline deadline), or
+     * Long.MAX_VALUE when no deadline is set.
+     */
+    public long remainingStageNanos() {
+        long deadline = stageDeadlineNanos != 0 ? stageDeadlineNanos : deadlineNanos;
+        return deadline == 0 ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    public boolean isStageDeadlineExceeded() {
+        return remainingStageNanos() <= 0;
+    }
+
+    public boolean isPipelineDeadlineExceeded() {
+        return deadlineNanos != 0 && deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    public long getRuleSetVersion() {
+        return ruleSet != null ? ruleSet.version() : 0L;
+    }
+
+    public boolean isCutOff() {
+        return cutOffReason != null;
+    }
+
+    public int getStageErrorCount() {
+        return stageErrors.size();
+    }
+
     public void addStageError(String stageName, String error) {
         String errorEntry = stageName + ": " + error;
         stageErrors.add(errorEntry);
@@ -81,39 +162,28 @@ public class ExecutionContext {
         return new ArrayList<>(stageErrors);
     }
  
-    public void recordStageStart(String stageName) {
-        stageTimings.put(stageName + "_start", System.currentTimeMillis());
-    }
-
-    public void recordStageEnd(String stageName) {
-        stageTimings.put(stageName + "_end", System.currentTimeMillis());
-        
-        Long startTime = stageTimings.get(stageName + "_start");
-        if (startTime != null) {
-            long duration = System.currentTimeMillis() - startTime;
-            stageTimings.put(stageName + "_duration", duration);
-            log.debug("Stage [{}] {} completed in {}ms", pipelineId, stageName, duration);
-        }
+    public void recordStageDuration(String stageName, long nanos) {
+        stageTimings.add(new StageTiming(stageName, nanos));
     }
 
     public Map<String, Object> getPipelineStats() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("pipelineId", pipelineId);
+        stats.put("ruleSetVersion", getRuleSetVersion());
         stats.put("totalDuration", System.currentTimeMillis() - startTime);
         stats.put("snapshotRatesCount", snapshotRates.size());
         stats.put("stageErrorsCount", stageErrors.size());
+        stats.put("droppedSnapshotRates", droppedSnapshotRates);
+        stats.put("cutOffReason", cutOffReason);
         stats.put("stageDurations", getStagesDurations());
         return stats;
     }
     
     private Map<String, Long> getStagesDurations() {
-        Map<String, Long> durations = new HashMap<>();
-        stageTimings.entrySet().stream()
-            .filter(entry -> entry.getKey().endsWith("_duration"))
-            .forEach(entry -> {
-                String stageName = entry.getKey().replace("_duration", "");
-                durations.put(stageName, entry.getValue());
-            });
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (StageTiming timing : stageTimings) {
+            durations.put(timing.stageName(), TimeUnit.NANOSECONDS.toMillis(timing.nanos()));
+        }
         return durations;
     }
     
@@ -124,4 +194,7 @@ public class ExecutionContext {
     public List<BaseRateDto> getCalculatedRates() {
         return new ArrayList<>(calculatedRates);
     }
+
+    public record StageTiming(String stageName, long nanos) {
+    }
 }
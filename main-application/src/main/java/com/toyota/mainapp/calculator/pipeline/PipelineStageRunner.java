@@ -0,0 +1,265 @@
+package com.toyota.mainapp.calculator.pipeline;
+
+import com.toyota.mainapp.calculator.pipeline.stage.CalculationStage;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.exception.StageBudgetExceededException;
+import com.toyota.mainapp.metrics.PipelineLatencyMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Toyota Financial Data Platform - Pipeline Stage Runner
+ *
+ * Deadline-aware driver for the calculation stages. Applies the pipeline
+ * execution timeout, a per-stage time budget, the stage error budget and the
+ * snapshot size cap, and decides whether a cut-off pipeline still publishes
+ * its partial snapshot.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PipelineStageRunner {
+
+    private final ApplicationProperties appProperties;
+    private final AsyncTaskExecutor stageCallExecutor;
+    private final MeterRegistry meterRegistry;
+    private final PipelineLatencyMetrics latencyMetrics;
+
+    private final LongAdder cutOffCount = new LongAdder();
+    private final LongAdder partialSnapshotsPublished = new LongAdder();
+    private final LongAdder snapshotsSuppressed = new LongAdder();
+    private final LongAdder stageOverruns = new LongAdder();
+    private final LongAdder callTimeouts = new LongAdder();
+
+    /**
+     * Arm the pipeline deadline and snapshot cap on a freshly built context.
+     */
+    public void prepare(ExecutionContext context) {
+        ApplicationProperties.PipelineConfig config = appProperties.getPipeline();
+        if (config.getExecutionTimeoutMs() > 0) {
+            context.setDeadlineNanos(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getExecutionTimeoutMs()));
+        }
+        context.setMaxSnapshotSize(config.getMaxSnapshotSize());
+    }
+
+    /**
+     * Run the calculation stages under their budgets, then the publishing stage unless the
+     * pipeline was cut off and partial snapshots are disabled.
+     */
+    public void run(ExecutionContext context, List<CalculationStage> calculationStages, CalculationStage publishingStage) {
+        ApplicationProperties.PipelineConfig config = appProperties.getPipeline();
+        ApplicationProperties.PipelineConfig.ErrorHandling errorHandling = config.getErrorHandling();
+        long pipelineStartNanos = System.nanoTime();
+
+        for (CalculationStage stage : calculationStages) {
+            if (context.isPipelineDeadlineExceeded()) {
+                cutOff(context, "execution timeout of " + config.getExecutionTimeoutMs() + "ms reached before " + stage.getStageName());
+                break;
+            }
+
+            int errorsBefore = context.getStageErrorCount();
+            long startNanos = armStageBudget(context, config);
+            stage.execute(context);
+            long elapsedNanos = recordStage(context, stage, startNanos);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+
+            if (config.getStageTimeoutMs() > 0 && elapsedMs > config.getStageTimeoutMs()) {
+                stageOverruns.increment();
+                context.addStageError(stage.getStageName(),
+                        "Exceeded stage budget: " + elapsedMs + "ms > " + config.getStageTimeoutMs() + "ms");
+            }
+
+            if (errorHandling.isTreatStageErrorsAsWarnings()) {
+                continue;
+            }
+            if (!errorHandling.isContinueOnStageFailure() && context.getStageErrorCount() > errorsBefore) {
+                cutOff(context, stage.getStageName() + " reported errors");
+                break;
+            }
+            if (errorHandling.getMaxStageErrors() > 0 && context.getStageErrorCount() >= errorHandling.getMaxStageErrors()) {
+                cutOff(context, "error budget of " + errorHandling.getMaxStageErrors() + " stage errors exhausted");
+                break;
+            }
+        }
+
+        if (context.isCutOff() && !errorHandling.isPublishPartialSnapshots()) {
+            snapshotsSuppressed.increment();
+            log.warn("Pipeline [{}]: partial snapshot not published ({})", context.getPipelineId(), context.getCutOffReason());
+            latencyMetrics.recordPipeline(System.nanoTime() - pipelineStartNanos);
+            return;
+        }
+        if (context.isCutOff()) {
+            partialSnapshotsPublished.increment();
+        }
+
+        // Publishing gets its own budget so a late pipeline can still flush what it has
+        context.setDeadlineNanos(0);
+        long publishStartNanos = armStageBudget(context, config);
+        publishingStage.execute(context);
+        recordStage(context, publishingStage, publishStartNanos);
+        latencyMetrics.recordPipeline(System.nanoTime() - pipelineStartNanos);
+    }
+
+    /**
+     * Run a potentially blocking call (Redis read, script) off the pipeline thread and wait at
+     * most for the time left in the current stage.
+     *
+     * @throws StageBudgetExceededException if the budget runs out or the call cannot be scheduled
+     */
+    public <T> T callWithinBudget(ExecutionContext context, String description, Callable<T> call) {
+        long remainingNanos = context.remainingStageNanos();
+        if (remainingNanos == Long.MAX_VALUE) {
+            return callDirect(description, call);
+        }
+        if (remainingNanos <= 0) {
+            throw new StageBudgetExceededException("No stage budget left for " + description);
+        }
+
+        Future<T> future;
+        try {
+            future = stageCallExecutor.submit(call);
+        } catch (TaskRejectedException e) {
+            throw new StageBudgetExceededException("Stage call executor saturated, skipped " + description, e);
+        }
+        try {
+            return future.get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            callTimeouts.increment();
+            throw new StageBudgetExceededException(description + " did not finish within the stage budget", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new StageBudgetExceededException(description + " interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(description + " failed", cause);
+        }
+    }
+
+    /**
+     * Bound an asynchronous call (reactive Redis read) by the time left in the current stage.
+     * Nothing blocks: the returned stage fails with {@link StageBudgetExceededException} when the
+     * budget runs out first, and the call itself is cancelled.
+     */
+    public <T> CompletableFuture<T> withinBudget(ExecutionContext context, String description, CompletionStage<T> call) {
+        CompletableFuture<T> future = call.toCompletableFuture();
+        long remainingNanos = context.remainingStageNanos();
+        if (remainingNanos == Long.MAX_VALUE) {
+            return future;
+        }
+        if (remainingNanos <= 0) {
+            future.cancel(true);
+            return CompletableFuture.failedFuture(new StageBudgetExceededException("No stage budget left for " + description));
+        }
+        // The timeout goes on a copy so that the caller's future is cancelled rather than failed
+        return future.copy()
+                .orTimeout(remainingNanos, TimeUnit.NANOSECONDS)
+                .exceptionallyCompose(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        future.cancel(true);
+                        callTimeouts.increment();
+                        cause = new StageBudgetExceededException(description + " did not finish within the stage budget", cause);
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    /**
+     * Result of {@link #withinBudget} for stages, which run synchronously. Unlike
+     * {@link #callWithinBudget} no executor thread is involved.
+     *
+     * @throws StageBudgetExceededException if the budget runs out first
+     */
+    public <T> T awaitWithinBudget(ExecutionContext context, String description, CompletionStage<T> call) {
+        try {
+            return withinBudget(context, description, call).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(description + " failed", cause);
+        }
+    }
+
+    public Map<String, Object> getRunnerStats() {
+        ApplicationProperties.PipelineConfig config = appProperties.getPipeline();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("executionTimeoutMs", config.getExecutionTimeoutMs());
+        stats.put("stageTimeoutMs", config.getStageTimeoutMs());
+        stats.put("maxSnapshotSize", config.getMaxSnapshotSize());
+        stats.put("cutOff", cutOffCount.sum());
+        stats.put("partialSnapshotsPublished", partialSnapshotsPublished.sum());
+        stats.put("snapshotsSuppressed", snapshotsSuppressed.sum());
+        stats.put("stageOverruns", stageOverruns.sum());
+        stats.put("callTimeouts", callTimeouts.sum());
+        return stats;
+    }
+
+    private long armStageBudget(ExecutionContext context, ApplicationProperties.PipelineConfig config) {
+        long now = System.nanoTime();
+        long stageDeadline = config.getStageTimeoutMs() > 0
+                ? now + TimeUnit.MILLISECONDS.toNanos(config.getStageTimeoutMs())
+                : 0;
+        long pipelineDeadline = context.getDeadlineNanos();
+        if (stageDeadline == 0 || (pipelineDeadline != 0 && pipelineDeadline - stageDeadline < 0)) {
+            stageDeadline = pipelineDeadline;
+        }
+        context.setStageDeadlineNanos(stageDeadline);
+        return now;
+    }
+
+    private long recordStage(ExecutionContext context, CalculationStage stage, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        context.recordStageDuration(stage.getStageName(), elapsedNanos);
+        latencyMetrics.recordStage(stage.getStageName(), elapsedNanos);
+        return elapsedNanos;
+    }
+
+    private void cutOff(ExecutionContext context, String reason) {
+        context.setCutOffReason(reason);
+        cutOffCount.increment();
+        Counter.builder("pipeline.cutoff")
+                .description("Pipelines stopped before all calculation stages ran")
+                .register(meterRegistry)
+                .increment();
+        log.warn("Pipeline [{}]: cut off - {}", context.getPipelineId(), reason);
+    }
+
+    private static <T> T callDirect(String description, Callable<T> call) {
+        try {
+            return call.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(description + " failed", e);
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package com.toyota.mainapp.calculator.pipeline.stage;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 import org.springframework.stereotype.Component;
 
-import com.toyota.mainapp.cache.RateCacheService;
+import com.toyota.mainapp.calculator.CalculatedRatePublisher;
 import com.toyota.mainapp.calculator.engine.CalculationStrategy;
 import com.toyota.mainapp.calculator.engine.CalculationStrategyFactory;
+import com.toyota.mainapp.calculator.engine.IncrementalAverageEngine;
+import com.toyota.mainapp.calculator.engine.impl.AverageCalculationStrategy;
 import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
+import com.toyota.mainapp.calculator.pipeline.PipelineStageRunner;
 import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.config.RuleSetSnapshot;
 import com.toyota.mainapp.dto.config.CalculationRuleDto;
-import com.toyota.mainapp.dto.config.CalculationRuleType;
 import com.toyota.mainapp.dto.model.BaseRateDto;
-import com.toyota.mainapp.kafka.KafkaPublishingService;
+import com.toyota.mainapp.dto.model.RateTick;
 import com.toyota.mainapp.util.CalculationInputUtils;
 
 import lombok.RequiredArgsConstructor;
@@ -24,8 +30,9 @@ import lombok.extern.slf4j.Slf4j;
  * Toyota Financial Data Platform - Average Calculation Stage
  * 
  * Pipeline stage that calculates weighted averages from multiple raw provider rates.
- * Processes affected average rules based on triggering rates and maintains
- * comprehensive rate snapshots for downstream cross-rate calculations.
+ * Standard AVG rules are served by the in-memory incremental engine; other
+ * strategies still collect inputs from cache. Maintains rate snapshots for
+ * downstream cross-rate calculations.
  * 
  * @author Fatih Karataş
  * @version 1.0
@@ -39,57 +46,63 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AverageCalculationStage implements CalculationStage {
 
-    private final RateCacheService rateCacheService;
-    private final KafkaPublishingService kafkaPublishingService;
+    private final CalculatedRatePublisher calculatedRatePublisher;
     private final ApplicationProperties applicationProperties;
     private final CalculationStrategyFactory calculationStrategyFactory;
     private final CalculationInputUtils calculationInputUtils; 
+    private final IncrementalAverageEngine incrementalAverageEngine;
+    private final PipelineStageRunner pipelineStageRunner;
 
     @Override
     public void execute(ExecutionContext context) {
         String stageName = "AverageCalculation";
         
         try {
-            context.recordStageStart(stageName);
-            
             String pipelineId = context.getPipelineId();
-            BaseRateDto triggeringRate = context.getTriggeringRate();
+            List<BaseRateDto> triggeringRates = context.getTriggeringRates();
+            List<RateTick> triggeringTicks = context.getTriggeringTicks();
             
-            log.debug("✅ Stage 2 [{}]: Processing AVG rules for triggering rate: {}", 
-                    pipelineId, triggeringRate.getSymbol());
-
-            List<CalculationRuleDto> avgRules = findAffectedAverageRules(triggeringRate);
+            log.debug("✅ Stage 2 [{}]: Processing AVG rules for {} triggering rate(s)", 
+                    pipelineId, triggeringRates.size());
+
+            // Union of rules touched by the run, each calculated once after all board updates
+            List<CalculationRuleDto> avgRules = new ArrayList<>();
+            for (int i = 0; i < triggeringRates.size(); i++) {
+                BaseRateDto triggeringRate = triggeringRates.get(i);
+                List<CalculationRuleDto> rulesForSymbol = findAffectedAverageRules(context, triggeringTicks.get(i), triggeringRate);
+                // O(1) board update for every AVG rule reading this symbol
+                if (!rulesForSymbol.isEmpty() && triggeringTicks.get(i) != null) {
+                    incrementalAverageEngine.onRawTick(triggeringTicks.get(i), triggeringRate, rulesForSymbol);
+                }
+                for (CalculationRuleDto rule : rulesForSymbol) {
+                    if (!containsRule(avgRules, rule)) {
+                        avgRules.add(rule);
+                    }
+                }
+            }
             
             if (avgRules.isEmpty()) {
-                log.debug("No AVG calculation rules affected by: {}", triggeringRate.getSymbol());
-                context.recordStageEnd(stageName);
+                log.debug("No AVG calculation rules affected by pipeline: {}", pipelineId);
                 return;
             }
 
+            // Issue every Redis read up front; they share one pipelined round trip
+            Map<CalculationRuleDto, CompletionStage<Map<String, BaseRateDto>>> cacheReads = startCacheReads(avgRules);
+
             int processedCount = 0;
             int skippedCount = 0;
 
             for (CalculationRuleDto rule : avgRules) {
+                if (context.isStageDeadlineExceeded()) {
+                    int remaining = avgRules.size() - processedCount - skippedCount;
+                    context.addStageError(stageName, "Stage budget exhausted, " + remaining + " AVG rules not calculated");
+                    skippedCount += remaining;
+                    break;
+                }
                 try {
                     log.debug("Processing AVG rule: {} (sources: {})", 
                             rule.getOutputSymbol(), rule.getRawSources());
 
-                    // Collect required RAW inputs from cache using multiple providers
-                    Map<String, BaseRateDto> rawInputs = collectRawInputsForRule(rule);
-
-                    // Add ALL retrieved input rates to snapshot
-                    context.addAllRatesToSnapshot(rawInputs.values());
-                    log.debug("Added {} raw inputs to snapshot for rule: {}", 
-                            rawInputs.size(), rule.getOutputSymbol());
-
-                    //  Check if we have enough inputs for meaningful average
-                    if (rawInputs.isEmpty()) {
-                        context.addStageError(stageName, 
-                                "No raw inputs found for " + rule.getOutputSymbol());
-                        skippedCount++;
-                        continue;
-                    }
-
                     //  Get strategy from factory
                     CalculationStrategy strategy = calculationStrategyFactory.getStrategyForRule(rule);
                     if (strategy == null) {
@@ -99,28 +112,29 @@ public class AverageCalculationStage implements CalculationStage {
                         continue;
                     }
 
-                    //  Calculate AVG using strategy
-                    Optional<BaseRateDto> calculatedAvg = strategy.calculate(rule, rawInputs);
-                    
+                    Optional<BaseRateDto> calculatedAvg = strategy instanceof AverageCalculationStrategy
+                            ? calculateFromBoard(rule, context, cacheReads.get(rule))
+                            : calculateFromCache(rule, strategy, context, cacheReads.get(rule));
+
                     if (calculatedAvg.isPresent()) {
                         BaseRateDto avgRate = calculatedAvg.get();
 
                         avgRate.setSymbol(rule.getOutputSymbol());
                         
-                        //  Cache and publish calculated result
-                        rateCacheService.cacheCalculatedRate(avgRate);
-                        kafkaPublishingService.publishCalculatedRate(avgRate);
+                        //  Mirror to Redis and publish, unless the rule's publish policy suppresses it
+                        calculatedRatePublisher.publish(rule, avgRate);
                         
                         //Add calculated result to snapshot
                         context.addRateToSnapshot(avgRate);
+                        context.markSymbolUpdated(rule.getOutputSymbol());
                         
                         processedCount++;
-                        log.info("✅ AVG calculated [{}]: {} (symbol: {}) from {} inputs - ADDED TO SNAPSHOT", 
-                                pipelineId, rule.getOutputSymbol(), avgRate.getSymbol(), rawInputs.size());
+                        log.info("✅ AVG calculated [{}]: {} from {} inputs - ADDED TO SNAPSHOT", 
+                                pipelineId, rule.getOutputSymbol(), avgRate.getCalculationInputs().size());
                         
                     } else {
-                        context.addStageError(stageName, 
-                                "AVG calculation returned empty for: " + rule.getOutputSymbol());
+                        // Usually fewer fresh providers than minProviders; not a stage failure
+                        log.debug("AVG calculation returned empty for: {}", rule.getOutputSymbol());
                         skippedCount++;
                     }
                     
@@ -133,8 +147,6 @@ public class AverageCalculationStage implements CalculationStage {
                 }
             }
 
-            context.recordStageEnd(stageName);
-            
             String message = String.format("AVG: %d calculated, %d skipped", processedCount, skippedCount);
             context.addStageResult(message);
             
@@ -142,38 +154,79 @@ public class AverageCalculationStage implements CalculationStage {
 
         } catch (Exception e) {
             context.addStageError(stageName, "Stage failed: " + e.getMessage());
-            context.recordStageEnd(stageName);
             log.error("❌ Stage 2 [{}]: Average calculation stage failed", context.getPipelineId(), e);
         }
     }
 
-    private List<CalculationRuleDto> findAffectedAverageRules(BaseRateDto triggeringRate) {
-        List<CalculationRuleDto> allRules = applicationProperties.getCalculationRules();
-        if (allRules == null) {
-            return List.of();
-        }
-        
-        return allRules.stream()
-                .filter(rule -> CalculationRuleType.AVG.equals(rule.getTypeEnum()))
-                .filter(rule -> isRuleAffectedByRate(rule, triggeringRate))
-                .toList();
+    private List<CalculationRuleDto> findAffectedAverageRules(ExecutionContext context, RateTick tick,
+                                                              BaseRateDto triggeringRate) {
+        // Rules of the version this pipeline started with, even if a reload happened since
+        RuleSetSnapshot ruleSet = context.getRuleSet() != null ? context.getRuleSet() : applicationProperties.getRuleSet();
+        // Ticks carry the registry id, so the lookup is an array read; DTO-only triggers resolve it
+        return tick != null
+                ? ruleSet.graph().avgRulesFor(tick.getSymbolId())
+                : ruleSet.graph().avgRulesFor(triggeringRate.getSymbol());
     }
 
-    private boolean isRuleAffectedByRate(CalculationRuleDto rule, BaseRateDto triggeringRate) {
-        if (rule.getRawSources() == null) {
-            return false;
+    private static boolean containsRule(List<CalculationRuleDto> rules, CalculationRuleDto rule) {
+        // Rules come from the compiled graph, so identity is enough and avoids deep equals
+        for (CalculationRuleDto existing : rules) {
+            if (existing == rule) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        String triggeringSymbol = triggeringRate.getSymbol();
-        return rule.getRawSources().stream()
-                .anyMatch(source -> source.contains(triggeringSymbol) || 
-                                   triggeringSymbol.contains(source));
+    /**
+     * Start the cache reads of every rule that needs Redis: board rules with an empty board and
+     * rules whose strategy calculates from cached inputs.
+     */
+    private Map<CalculationRuleDto, CompletionStage<Map<String, BaseRateDto>>> startCacheReads(List<CalculationRuleDto> rules) {
+        Map<CalculationRuleDto, CompletionStage<Map<String, BaseRateDto>>> reads = new IdentityHashMap<>();
+        for (CalculationRuleDto rule : rules) {
+            CalculationStrategy strategy = calculationStrategyFactory.getStrategyForRule(rule);
+            if (strategy != null
+                    && (!(strategy instanceof AverageCalculationStrategy) || !incrementalAverageEngine.hasInputs(rule))) {
+                reads.put(rule, calculationInputUtils.collectRawInputsAsync(rule));
+            }
+        }
+        return reads;
     }
 
-private Map<String, BaseRateDto> collectRawInputsForRule(CalculationRuleDto rule) {
+    /**
+     * Average from the in-memory provider board; Redis is only read to seed an empty board.
+     */
+    private Optional<BaseRateDto> calculateFromBoard(CalculationRuleDto rule, ExecutionContext context,
+                                                     CompletionStage<Map<String, BaseRateDto>> cacheRead) {
+        if (!incrementalAverageEngine.hasInputs(rule) && cacheRead != null) {
+            Map<String, BaseRateDto> cachedInputs = pipelineStageRunner.awaitWithinBudget(context,
+                    "Redis seed for " + rule.getOutputSymbol(), cacheRead);
+            incrementalAverageEngine.seed(rule, cachedInputs.values());
+            log.debug("Seeded AVG board for {} from cache with {} inputs", rule.getOutputSymbol(), cachedInputs.size());
+        }
 
-    return calculationInputUtils.collectRawInputs(rule);
-}
+        Optional<BaseRateDto> average = incrementalAverageEngine.calculate(rule);
+        context.addAllRatesToSnapshot(incrementalAverageEngine.getInputs(rule));
+        return average;
+    }
+
+    private Optional<BaseRateDto> calculateFromCache(CalculationRuleDto rule, CalculationStrategy strategy,
+                                                     ExecutionContext context,
+                                                     CompletionStage<Map<String, BaseRateDto>> cacheRead) {
+        Map<String, BaseRateDto> rawInputs = pipelineStageRunner.awaitWithinBudget(context,
+                "Redis inputs for " + rule.getOutputSymbol(),
+                cacheRead != null ? cacheRead : calculationInputUtils.collectRawInputsAsync(rule));
+        context.addAllRatesToSnapshot(rawInputs.values());
+        if (rawInputs.isEmpty()) {
+            return Optional.empty();
+        }
+        if (strategy.requiresTimeoutGuard()) {
+            return pipelineStageRunner.callWithinBudget(context,
+                    strategy.getStrategyName() + " for " + rule.getOutputSymbol(), () -> strategy.calculate(rule, rawInputs));
+        }
+        return strategy.calculate(rule, rawInputs);
+    }
     @Override
     public String getStageName() {
         return "AverageCalculation";
@@ -1,12 +1,14 @@
 package com.toyota.mainapp.calculator.pipeline.stage;
 
+import com.toyota.mainapp.calculator.CalculatedRatePublisher;
 import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
-import com.toyota.mainapp.cache.RateCacheService;
+import com.toyota.mainapp.calculator.pipeline.PipelineStageRunner;
+import com.toyota.mainapp.cache.ReactiveRateCacheService;
 import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.config.RuleSetSnapshot;
 import com.toyota.mainapp.dto.config.CalculationRuleDto;
-import com.toyota.mainapp.dto.config.CalculationRuleType;
 import com.toyota.mainapp.dto.model.BaseRateDto;
-import com.toyota.mainapp.kafka.KafkaPublishingService;
+import com.toyota.mainapp.exception.StageBudgetExceededException;
 import com.toyota.mainapp.calculator.engine.CalculationStrategy;
 import com.toyota.mainapp.calculator.engine.CalculationStrategyFactory;
 import com.toyota.mainapp.util.SymbolUtils;
@@ -14,10 +16,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Toyota Financial Data Platform - Cross Rate Calculation Stage
@@ -35,25 +39,27 @@ import java.util.Optional;
 @Slf4j
 public class CrossRateCalculationStage implements CalculationStage {
 
-    private final RateCacheService rateCacheService;
-    private final KafkaPublishingService kafkaPublishingService;
+    private final ReactiveRateCacheService reactiveRateCacheService;
+    private final CalculatedRatePublisher calculatedRatePublisher;
     private final ApplicationProperties applicationProperties;
     private final CalculationStrategyFactory calculationStrategyFactory;
+    private final PipelineStageRunner pipelineStageRunner;
+
+    // A CROSS rule's inputs come from several symbols, so pipelines on different shards may
+    // run it at once; they calculate independently and only the compare-and-publish is serialized
+    private final ConcurrentHashMap<String, CrossRuleState> crossRuleStates = new ConcurrentHashMap<>();
 
     @Override
     public void execute(ExecutionContext context) {
         String stageName = "CrossRateCalculation";
 
         try {
-            context.recordStageStart(stageName);
-
             String pipelineId = context.getPipelineId();
             log.debug("✅ Stage 3 [{}]: Processing CROSS rules", pipelineId);
-            List<CalculationRuleDto> crossRules = findCrossRules();
+            List<CalculationRuleDto> crossRules = findCrossRules(context);
 
             if (crossRules.isEmpty()) {
-                log.debug("No CROSS calculation rules configured");
-                context.recordStageEnd(stageName);
+                log.debug("No CROSS rules downstream of updated symbols: {}", context.getUpdatedSymbols());
                 return;
             }
 
@@ -61,6 +67,12 @@ public class CrossRateCalculationStage implements CalculationStage {
             int skippedCount = 0;
 
             for (CalculationRuleDto rule : crossRules) {
+                if (context.isStageDeadlineExceeded()) {
+                    int remaining = crossRules.size() - processedCount - skippedCount;
+                    context.addStageError(stageName, "Stage budget exhausted, " + remaining + " CROSS rules not calculated");
+                    skippedCount += remaining;
+                    break;
+                }
                 try {
                     log.debug("Processing CROSS rule: {}", rule.getOutputSymbol());
 
@@ -71,15 +83,12 @@ public class CrossRateCalculationStage implements CalculationStage {
                         CalculationStrategy strategy = calculationStrategyFactory.getStrategyForRule(rule);
                         if (strategy != null) {
 
-                            Optional<BaseRateDto> calculatedCross = strategy.calculate(rule, inputRates);
+                            Optional<BaseRateDto> calculatedCross = calculateAndPublish(context, rule, strategy, inputRates);
 
                             if (calculatedCross.isPresent()) {
                                 BaseRateDto crossRate = calculatedCross.get();
-
-                                // Cache, publish, and add to snapshot
-                                rateCacheService.cacheCalculatedRate(crossRate);
-                                kafkaPublishingService.publishCalculatedRate(crossRate);
                                 context.addRateToSnapshot(crossRate);
+                                context.markSymbolUpdated(rule.getOutputSymbol());
 
                                 processedCount++;
                                 log.debug("✅ CROSS calculated [{}]: {}", pipelineId, crossRate.getSymbol());
@@ -96,6 +105,9 @@ public class CrossRateCalculationStage implements CalculationStage {
                         skippedCount++;
                     }
 
+                } catch (StageBudgetExceededException e) {
+                    context.addStageError(stageName, rule.getOutputSymbol() + ": " + e.getMessage());
+                    skippedCount++;
                 } catch (Exception e) {
                     log.warn("Error in CROSS calculation [{}]: {} - {}",
                             pipelineId, rule.getOutputSymbol(), e.getMessage());
@@ -103,8 +115,6 @@ public class CrossRateCalculationStage implements CalculationStage {
                 }
             }
 
-            context.recordStageEnd(stageName);
-
             String message = String.format("CROSS: %d calculated, %d skipped", processedCount, skippedCount);
             context.addStageResult(message);
 
@@ -112,15 +122,58 @@ public class CrossRateCalculationStage implements CalculationStage {
 
         } catch (Exception e) {
             context.addStageError(stageName, "Stage failed: " + e.getMessage());
-            context.recordStageEnd(stageName);
             log.error("❌ Stage 3 [{}]: Cross rate calculation stage failed", context.getPipelineId(), e);
         }
     }
 
-    private List<CalculationRuleDto> findCrossRules() {
-        return applicationProperties.getCalculationRules().stream()
-                .filter(rule -> CalculationRuleType.CROSS.equals(rule.getTypeEnum()))
-                .toList();
+    /**
+     * Calculate without any lock, then compare and publish under the rule's state. A run whose
+     * newest input is older than the one another shard already published is not published again,
+     * so the cached value never regresses; the strategy call itself never waits on another shard.
+     */
+    private Optional<BaseRateDto> calculateAndPublish(ExecutionContext context, CalculationRuleDto rule,
+                                                      CalculationStrategy strategy, Map<String, BaseRateDto> inputRates) {
+        long newestInput = newestInputTimestamp(inputRates);
+        Optional<BaseRateDto> calculatedCross = strategy.requiresTimeoutGuard()
+                ? pipelineStageRunner.callWithinBudget(context,
+                        strategy.getStrategyName() + " for " + rule.getOutputSymbol(),
+                        () -> strategy.calculate(rule, inputRates))
+                : strategy.calculate(rule, inputRates);
+
+        if (calculatedCross.isPresent()) {
+            CrossRuleState state = crossRuleStates.computeIfAbsent(rule.getOutputSymbol(), symbol -> new CrossRuleState());
+            synchronized (state) {
+                if (newestInput >= state.lastInputTimestamp) {
+                    // Cache and publish per the rule's publish policy
+                    state.lastInputTimestamp = newestInput;
+                    calculatedRatePublisher.publish(rule, calculatedCross.get());
+                } else {
+                    log.debug("CROSS {} from older inputs than the last published, snapshot only", rule.getOutputSymbol());
+                }
+            }
+        }
+        return calculatedCross;
+    }
+
+    private static long newestInputTimestamp(Map<String, BaseRateDto> inputRates) {
+        long newest = Long.MIN_VALUE;
+        for (BaseRateDto input : inputRates.values()) {
+            if (input.getTimestamp() != null && input.getTimestamp() > newest) {
+                newest = input.getTimestamp();
+            }
+        }
+        return newest;
+    }
+
+    private static final class CrossRuleState {
+        private long lastInputTimestamp = Long.MIN_VALUE;
+    }
+
+    private List<CalculationRuleDto> findCrossRules(ExecutionContext context) {
+        // Downstream closure of what changed in this pipeline, already in topological order,
+        // from the rule set version the pipeline started with
+        RuleSetSnapshot ruleSet = context.getRuleSet() != null ? context.getRuleSet() : applicationProperties.getRuleSet();
+        return ruleSet.graph().crossRulesFor(context.getUpdatedSymbols());
     }
 
     private Map<String, BaseRateDto> getInputsForCrossRate(CalculationRuleDto rule, ExecutionContext context) {
@@ -142,26 +195,37 @@ public class CrossRateCalculationStage implements CalculationStage {
         
         log.debug("Snapshot contains {} rates", snapshotMap.size());
 
+        // Step 1: Try to find in snapshot first
+        Map<String, BaseRateDto> found = new HashMap<>();
+        List<String> notInSnapshot = new ArrayList<>();
         for (String requiredSymbol : requiredRates) {
-            // Step 1: Try to find in snapshot first
             BaseRateDto rate = findRateInSnapshot(requiredSymbol, snapshotMap);
-            
-            // Step 2: If not in snapshot, try to get from cache
-            if (rate == null) {
-                rate = rateCacheService.getCalculatedRate(requiredSymbol);
-                
-                if (rate != null) {
-                    // Add cache-retrieved rate to snapshot for future use
-                    context.addRateToSnapshot(rate);
-                    log.debug("✅ Added cache-retrieved rate to snapshot: {}", requiredSymbol);
-                }
+            if (rate != null) {
+                found.put(requiredSymbol, rate);
+            } else {
+                notInSnapshot.add(requiredSymbol);
             }
-            
-            // Step 3: If found either in snapshot or cache, add to inputs
+        }
+
+        // Step 2: Everything the snapshot lacks comes from cache in one request
+        if (!notInSnapshot.isEmpty()) {
+            Map<String, BaseRateDto> cached = pipelineStageRunner.awaitWithinBudget(context,
+                    "Redis read of " + notInSnapshot, reactiveRateCacheService.getCalculatedRates(notInSnapshot).toFuture());
+            cached.forEach((symbol, rate) -> {
+                // Add cache-retrieved rate to snapshot for future use
+                context.addRateToSnapshot(rate);
+                found.put(symbol, rate);
+                log.debug("✅ Added cache-retrieved rate to snapshot: {}", symbol);
+            });
+        }
+
+        // Step 3: If found either in snapshot or cache, add to inputs
+        for (String requiredSymbol : requiredRates) {
+            BaseRateDto rate = found.get(requiredSymbol);
             if (rate != null) {
                 inputs.put(requiredSymbol, rate);
                 log.debug("✅ Found required input: {} (source: {})", 
-                    requiredSymbol, rate == snapshotMap.get(rate.getSymbol()) ? "snapshot" : "cache");
+                    requiredSymbol, notInSnapshot.contains(requiredSymbol) ? "cache" : "snapshot");
             } else {
                 log.warn("❌ Required input not found for {}: {}", rule.getOutputSymbol(), requiredSymbol);
             }
@@ -1,19 +1,19 @@
 package com.toyota.mainapp.calculator.pipeline.stage;
 
 import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
-import com.toyota.mainapp.cache.RateCacheService;
 import com.toyota.mainapp.dto.model.BaseRateDto;
-import com.toyota.mainapp.kafka.KafkaPublishingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Toyota Financial Data Platform - Raw Data Handling Stage
  * 
  * First pipeline stage that processes incoming raw rate data from providers.
- * Handles caching, Kafka publishing, and snapshot initialization for the
- * immediate processing pipeline within the financial data platform.
+ * Seeds the snapshot with the triggering rate(s); raw caching and Kafka publishing
+ * are done once per tick on ingestion, before the pipeline runs.
  * 
  * @author Fatih Karataş
  * @version 1.0
@@ -29,50 +29,35 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class RawDataHandlingStage implements CalculationStage {
 
-    private final RateCacheService rateCacheService;
-    private final KafkaPublishingService kafkaPublishingService;
-
     @Override
     public void execute(ExecutionContext context) {
         String stageName = "RawDataHandling";
         
         try {
-            context.recordStageStart(stageName);
-            
-            BaseRateDto triggeringRate = context.getTriggeringRate();
-            if (triggeringRate == null) {
-                String error = "Triggering rate is null";
+            List<BaseRateDto> triggeringRates = context.getTriggeringRates();
+            if (triggeringRates.isEmpty()) {
+                String error = "No triggering rate";
                 context.addStageError(stageName, error);
                 return;
             }
 
-            log.debug("✅ Stage 1 [{}]: Processing raw rate: {}", 
-                    context.getPipelineId(), triggeringRate.getSymbol());
+            log.debug("✅ Stage 1 [{}]: Processing {} raw rate(s)", 
+                    context.getPipelineId(), triggeringRates.size());
 
-            // Simple cache operation
-            rateCacheService.cacheRawRate(triggeringRate);
-            log.debug("Raw rate cached: {}", triggeringRate.getSymbol());
+            // Raw cache write and raw topic publish already happened on ingestion (once per tick)
 
-            // Publish to individual raw rate topic
-            kafkaPublishingService.publishRawRate(triggeringRate);
-            log.debug("Raw rate published to individual topic: {}", triggeringRate.getSymbol());
+            // Add triggering rates to snapshot for immediate publishing; a later tick of the
+            // same provider/symbol in a micro-batch replaces the earlier one
+            context.addAllRatesToSnapshot(triggeringRates);
+            log.debug("✅ Triggering rates added to snapshot [{}]", context.getPipelineId());
 
-            // Add triggering rate to snapshot for immediate publishing
-            context.addRateToSnapshot(triggeringRate);
-            log.debug("✅ Triggering rate added to snapshot [{}]: {}", 
-                    context.getPipelineId(), triggeringRate.getSymbol());
+            context.addStageResult("Raw data processed: " + triggeringRates.size() + " rate(s)");
 
-            context.addStageResult("Raw data processed: " + triggeringRate.getSymbol());
-
-            context.recordStageEnd(stageName);
-            
             log.info("✅ Stage 1 [{}]: Raw data handling completed successfully", 
                     context.getPipelineId());
             
         } catch (Exception e) {
             context.addStageError(stageName, e.getMessage());
-            context.recordStageEnd(stageName);
-            
             log.error("❌ Stage 1 [{}]: Raw data handling failed", 
                     context.getPipelineId(), e);
         }
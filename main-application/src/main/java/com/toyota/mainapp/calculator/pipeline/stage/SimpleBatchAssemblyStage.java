@@ -9,8 +9,10 @@ import org.springframework.stereotype.Component;
 
 import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
 import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateTick;
 import com.toyota.mainapp.dto.model.RateType;
 import com.toyota.mainapp.kafka.KafkaPublishingService;
+import com.toyota.mainapp.metrics.PipelineLatencyMetrics;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,14 +34,13 @@ import lombok.extern.slf4j.Slf4j;
 public class SimpleBatchAssemblyStage implements CalculationStage {
 
     private final KafkaPublishingService kafkaPublishingService;
+    private final PipelineLatencyMetrics latencyMetrics;
 
     @Override
     public void execute(ExecutionContext context) {
         String stageName = "SimpleBatchAssembly";
         
         try {
-            context.recordStageStart(stageName);
-            
             String pipelineId = context.getPipelineId();
             
             log.debug("✅ Stage 4 [{}]: Starting snapshot assembly", pipelineId);
@@ -48,7 +49,6 @@ public class SimpleBatchAssemblyStage implements CalculationStage {
             
             if (allSnapshotRates.isEmpty()) {
                 log.warn("No snapshot data available for pipeline: {}", pipelineId);
-                context.recordStageEnd(stageName);
                 return;
             }
 
@@ -57,7 +57,16 @@ public class SimpleBatchAssemblyStage implements CalculationStage {
                     .map(this::formatRateEntry)
                     .collect(Collectors.toList());
             
-            kafkaPublishingService.publishImmediateSnapshot(rateStrings, pipelineId);
+            List<RateTick> triggeringTicks = context.getTriggeringTicks();
+            BaseRateDto trigger = context.getTriggeringRate();
+            kafkaPublishingService.publishImmediateSnapshot(rateStrings, pipelineId,
+                            trigger != null ? trigger.getSymbol() : null, context.getRuleSetVersion())
+                    .whenComplete((ignored, ex) -> {
+                        if (ex == null) {
+                            long ackNanos = System.nanoTime();
+                            triggeringTicks.forEach(tick -> latencyMetrics.recordTickToAck(tick, ackNanos));
+                        }
+                    });
             
             List<String> stageErrors = context.getStageErrors();
             if (!stageErrors.isEmpty()) {
@@ -68,15 +77,11 @@ public class SimpleBatchAssemblyStage implements CalculationStage {
             // Legacy support 
             context.addStageResult(String.format("Published snapshot with %d rates", rateStrings.size()));
             
-            context.recordStageEnd(stageName);
-            
             log.info("✅ Stage 4 [{}]: Immediate snapshot published - {} rates, {} errors", 
                     pipelineId, rateStrings.size(), stageErrors.size());
             
         } catch (Exception e) {
             context.addStageError(stageName, "Failed to publish snapshot: " + e.getMessage());
-            context.recordStageEnd(stageName);
-            
             log.error("❌ Stage 4 [{}]: Snapshot publishing failed", 
                     context.getPipelineId(), e);
         }
@@ -1,10 +1,12 @@
 package com.toyota.mainapp.config;
 
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,9 +17,13 @@ import org.springframework.util.FileCopyUtils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toyota.mainapp.calculator.graph.RuleDependencyGraph;
 import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.exception.RuleGraphValidationException;
+import com.toyota.mainapp.util.SymbolRegistry;
 
 import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
@@ -28,7 +34,8 @@ import lombok.extern.slf4j.Slf4j;
  * 
  * Central configuration loading with resolved circular dependency handling.
  * Manages calculation rules, subscriber configurations, and pipeline
- * parameters with thread-safe configuration state management.
+ * parameters. Calculation rules live in an immutable, versioned
+ * {@link RuleSetSnapshot} swapped through a volatile reference.
  * 
  * @author Fatih Karataş
  * @version 1.0
@@ -42,7 +49,6 @@ import lombok.extern.slf4j.Slf4j;
 public class ApplicationProperties {
 
     private final ResourceLoader resourceLoader;
-    private final ReentrantLock configLock = new ReentrantLock();
     private ObjectMapper objectMapper;
 
     @Value("${app.calculator.config.path:classpath:calculation-config.json}")
@@ -50,10 +56,12 @@ public class ApplicationProperties {
 
     private SubscribersConfig subscribers = new SubscribersConfig();
 
-    // Configuration state
-    private List<CalculationRuleDto> calculationRules = new ArrayList<>();
-    private Map<String, List<String>> symbolProvidersMap;
-    private boolean configurationReady = false;
+    // Active rule set; replaced as a whole on reload so readers never lock
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile RuleSetSnapshot ruleSet = RuleSetSnapshot.EMPTY;
+    @Setter(AccessLevel.NONE)
+    private volatile boolean configurationReady = false;
 
     private long pipelineMaxInputAgeForCalculationMs = 20000; // Default to 20 seconds
     private int subscriberTcpReconnectDelayMs = 3000; // Default to 3 seconds
@@ -77,69 +85,97 @@ public class ApplicationProperties {
             log.error("❌ CRITICAL: ObjectMapper not injected - using fallback");
             this.objectMapper = new ObjectMapper(); // Fallback to prevent complete failure
         }
-        
-        configLock.lock();
+
         try {
-            var resource = resourceLoader.getResource(calculationConfigPath);
-            if (!resource.exists()) {
+            if (!resourceLoader.getResource(calculationConfigPath).exists()) {
                 log.warn("⚠️ Calculation config file not found: {}. Using empty configuration.", calculationConfigPath);
                 this.configurationReady = true; // Allow startup with empty config
                 return;
             }
-
-            String json = new String(FileCopyUtils.copyToByteArray(resource.getInputStream()), StandardCharsets.UTF_8);
-            JsonNode configNode = objectMapper.readTree(json);
-
-            JsonNode rulesNode = configNode.path("calculationRules");
-            if (rulesNode.isMissingNode()) {
-                rulesNode = configNode.path("rules");
-                log.warn("⚠️ Using legacy 'rules' key - please migrate to 'calculationRules'");
-            }
-            
-            if (!rulesNode.isMissingNode()) {
-                this.calculationRules = objectMapper.convertValue(
-                    rulesNode, 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, CalculationRuleDto.class)
-                );
-                log.info("✅ Loaded {} calculation rules", calculationRules.size());
-            }
-
-            JsonNode providersNode = configNode.path("symbolProviders");
-            if (!providersNode.isMissingNode()) {
-                this.symbolProvidersMap = objectMapper.convertValue(
-                    providersNode,
-                    objectMapper.getTypeFactory().constructMapType(Map.class, String.class, List.class)
-                );
-                log.info("✅ Loaded {} symbol provider mappings", symbolProvidersMap != null ? symbolProvidersMap.size() : 0);
-            }
-            
-            this.configurationReady = true;
+            activateRuleSet(parseRuleSet(ruleSet.version() + 1));
             log.info("🎉 Configuration loading completed successfully");
-            
+
+        } catch (RuleGraphValidationException e) {
+            log.error("❌ Invalid calculation rule graph: {}", e.getErrors());
+            throw e;
         } catch (Exception e) {
             log.error("❌ Failed to load calculation configuration", e);
             this.configurationReady = true; // Allow startup even with config failure
-        } finally {
-            configLock.unlock();
         }
     }
 
-    public boolean isConfigurationReady() {
-        configLock.lock();
-        try {
-            return configurationReady;
-        } finally {
-            configLock.unlock();
+    /**
+     * Read, parse and compile calculation-config.json into a snapshot without activating it.
+     *
+     * @throws RuleGraphValidationException if the rules do not form a valid dependency graph
+     * @throws IOException if the file is missing or not valid JSON
+     */
+    public RuleSetSnapshot parseRuleSet(long version) throws IOException {
+        var resource = resourceLoader.getResource(calculationConfigPath);
+        if (!resource.exists()) {
+            throw new FileNotFoundException("Calculation config file not found: " + calculationConfigPath);
+        }
+
+        String json = new String(FileCopyUtils.copyToByteArray(resource.getInputStream()), StandardCharsets.UTF_8);
+        JsonNode configNode = objectMapper.readTree(json);
+
+        JsonNode rulesNode = configNode.path("calculationRules");
+        if (rulesNode.isMissingNode()) {
+            rulesNode = configNode.path("rules");
+            log.warn("⚠️ Using legacy 'rules' key - please migrate to 'calculationRules'");
+        }
+
+        List<CalculationRuleDto> rules = new ArrayList<>();
+        if (!rulesNode.isMissingNode()) {
+            rules = objectMapper.convertValue(
+                rulesNode,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, CalculationRuleDto.class)
+            );
+            log.info("✅ Loaded {} calculation rules", rules.size());
         }
+
+        Map<String, List<String>> symbolProviders = null;
+        JsonNode providersNode = configNode.path("symbolProviders");
+        if (!providersNode.isMissingNode()) {
+            symbolProviders = objectMapper.convertValue(
+                providersNode,
+                objectMapper.getTypeFactory().constructMapType(Map.class, String.class, List.class)
+            );
+            log.info("✅ Loaded {} symbol provider mappings", symbolProviders != null ? symbolProviders.size() : 0);
+        }
+
+        RuleDependencyGraph graph = RuleDependencyGraph.compile(rules);
+        log.info("✅ Compiled rule dependency graph: {} rules over {} symbols",
+                graph.getOrderedRules().size(), graph.getSymbolCount());
+
+        return new RuleSetSnapshot(version, rules, symbolProviders, graph, calculationConfigPath, System.currentTimeMillis());
+    }
+
+    /**
+     * Publish a validated snapshot; pipelines started from now on run against it.
+     */
+    public void activateRuleSet(RuleSetSnapshot snapshot) {
+        // Only configured symbols get registry ids, so register them before any pipeline sees the rules
+        snapshot.symbols().forEach(SymbolRegistry.global()::register);
+        this.ruleSet = snapshot;
+        this.configurationReady = true;
+        log.info("✅ Activated calculation rule set v{} ({} rules)", snapshot.version(), snapshot.rules().size());
+    }
+
+    public RuleSetSnapshot getRuleSet() {
+        return ruleSet;
     }
 
     public List<CalculationRuleDto> getCalculationRules() {
-        configLock.lock();
-        try {
-            return new ArrayList<>(calculationRules);
-        } finally {
-            configLock.unlock();
-        }
+        return ruleSet.rules();
+    }
+
+    public Map<String, List<String>> getSymbolProvidersMap() {
+        return ruleSet.symbolProviders();
+    }
+
+    public RuleDependencyGraph getRuleDependencyGraph() {
+        return ruleSet.graph();
     }
 
     public String getSubscribersConfigPath() {
@@ -166,10 +202,85 @@ public class ApplicationProperties {
         
         private ErrorHandling errorHandling = new ErrorHandling();
         private long executionTimeoutMs = 5000L;
+        private long stageTimeoutMs = 2000L; // per calculation stage, within executionTimeoutMs
         private int maxSnapshotSize = 100;
+        private int shardCount = 0; // 0 = one shard per available core
+        private int shardQueueCapacity = 1024;
+        private boolean conflationEnabled = false;
+        private long batchWindowMs = 0L; // 0 = one pipeline run per tick
+        private int batchMaxSize = 64;
     }
     
     private PipelineConfig pipeline = new PipelineConfig();
+
+    @Data
+    public static class IngestionConfig {
+        private int ringBufferSize = 4096;
+        private String waitStrategy = "PARK";
+        private int consumerThreads = 2;
+    }
+
+    private IngestionConfig ingestion = new IngestionConfig();
+
+    @Data
+    public static class PricingConfig {
+        private int defaultScale = 6;
+        private Map<String, Integer> symbolScales = new HashMap<>();
+    }
+
+    private PricingConfig pricing = new PricingConfig();
+
+    @Data
+    public static class TracingConfig {
+        private boolean enabled = true;
+        private double sampleRate = 0.01; // fraction of successful pipelines traced
+        private boolean alwaysTraceErrors = true;
+        private int batchSize = 200;
+        private long flushIntervalMs = 1000L;
+        private int queueCapacity = 10000;
+    }
+
+    private TracingConfig tracing = new TracingConfig();
+
+    @Data
+    public static class SnapshotConfig {
+        private boolean legacyLineFormat = false; // one Kafka record per rate instead of one envelope per pipeline
+        private boolean transactional = false; // publish snapshots in Kafka transactions for read_committed consumers
+        private int maxSnapshotsPerTransaction = 50;
+        private int transactionQueueCapacity = 10000;
+        private int transactionAttempts = 3; // then the batch is spooled, one envelope record per snapshot
+        private long transactionRetryBackoffMs = 100L; // multiplied by the attempt number
+    }
+
+    private SnapshotConfig snapshot = new SnapshotConfig();
+
+    @Data
+    public static class PublishConfig {
+        private long defaultHeartbeatMs = 5000L; // below app.cache.calculated-rate.ttl-seconds so gated rates never expire
+        private long flushIntervalMs = 250L;
+    }
+
+    private PublishConfig publish = new PublishConfig();
+
+    @Data
+    public static class KafkaSpoolConfig {
+        private boolean enabled = true;
+        private String path = "data/kafka-spool.dat";
+        private int capacityBytes = 64 * 1024 * 1024; // oldest records are evicted beyond this
+        private long drainIntervalMs = 500L;
+        private int drainBatchSize = 500;
+        private long replayTimeoutMs = 5000L;
+    }
+
+    private KafkaSpoolConfig kafkaSpool = new KafkaSpoolConfig();
+
+    @Data
+    public static class RulesConfig {
+        private boolean watchEnabled = true; // reload when calculation-config.json changes on disk
+        private long watchIntervalMs = 2000L;
+    }
+
+    private RulesConfig rules = new RulesConfig();
     
     public PipelineConfig getPipeline() {
         return pipeline;
@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -66,6 +67,21 @@ public class BeanConfig {
         log.info("✅ pipelineTaskExecutor configured: core=3, max=8, queue=15");
         return executor;
     }
+
+    @Bean(name = "stageCallExecutor")
+    public AsyncTaskExecutor stageCallExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(256);
+        executor.setThreadNamePrefix("StageCall-");
+        // Never run on the caller: the point is to keep blocking calls off the shard thread
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        log.info("✅ stageCallExecutor configured: core=4, max=16, queue=256");
+        return executor;
+    }
+
     @Bean(name = "subscriberTaskExecutor")
     public TaskExecutor subscriberTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -79,6 +95,21 @@ public class BeanConfig {
         return executor;
     }
 
+    @Bean(name = "cacheMirrorExecutor")
+    public TaskExecutor cacheMirrorExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        // RateCacheMirror conflates per key and keeps at most one drain task per pending map queued
+        executor.setQueueCapacity(2);
+        executor.setThreadNamePrefix("CacheMirror-");
+        // Reject instead of discarding: a discarded drain would strand its pending rates
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        log.info("✅ cacheMirrorExecutor configured: core=1, max=1, queue=2");
+        return executor;
+    }
+
     @Bean
     public WebClient.Builder webClientBuilder() {
         log.info("✅ WebClient.Builder bean configured");
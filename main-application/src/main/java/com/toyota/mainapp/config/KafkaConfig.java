@@ -1,5 +1,6 @@
 package com.toyota.mainapp.config;
 
+import com.toyota.mainapp.kafka.SymbolGroupPartitioner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.AdminClientConfig;
@@ -24,8 +25,8 @@ import java.util.Map;
  * Toyota Financial Data Platform - Kafka Configuration
  * 
  * Configures Kafka producers, templates, and topics for real-time
- * financial data distribution. Optimizes for config-driven topics
- * and high-performance real-time pipeline requirements.
+ * financial data distribution. Topics are partitioned by symbol group
+ * so consumers scale out by partition while keeping per-symbol order.
  * 
  * @author Fatih Karataş
  * @version 1.0
@@ -42,6 +43,26 @@ public class KafkaConfig {
     @Value("${spring.kafka.producer.acks:all}")
     private String acks;
 
+    // Bounds how long send() may block a pipeline thread on metadata or a full buffer;
+    // anything slower is spooled to disk instead (see SpoolingKafkaSender)
+    @Value("${app.kafka.producer.max-block-ms:50}")
+    private long maxBlockMs;
+
+    @Value("${app.kafka.producer.delivery-timeout-ms:10000}")
+    private int deliveryTimeoutMs;
+
+    @Value("${app.kafka.producer.request-timeout-ms:5000}")
+    private int requestTimeoutMs;
+
+    @Value("${app.snapshot.transaction-id-prefix:snapshot-tx-}")
+    private String transactionIdPrefix;
+
+    // Stable per instance (0..n-1) so a restarted instance reuses its transactional.id: that
+    // fences the old producer and aborts its open transaction instead of leaving read_committed
+    // consumers stalled until transaction.timeout.ms. Two live instances must never share one.
+    @Value("${app.instance.ordinal:0}")
+    private int instanceOrdinal;
+
     @Value("${app.kafka.topic.partitions:1}")
     private int partitions;
 
@@ -57,6 +78,9 @@ public class KafkaConfig {
     @Value("${app.kafka.topic.simple-rates}")
     private String simpleRatesTopic;
 
+    @Value("${app.kafka.topic.pipeline-tracking:financial-pipeline-tracking}")
+    private String pipelineTrackingTopic;
+
     @PostConstruct
     public void logConfiguration() {
         log.info("Kafka Configuration:");
@@ -64,6 +88,12 @@ public class KafkaConfig {
         log.info("Raw Rates Topic: {}", rawRatesTopic);
         log.info("Calculated Rates Topic: {}", calculatedRatesTopic);
         log.info("Simple Rates Topic: {}", simpleRatesTopic);
+        log.info("Pipeline Tracking Topic: {}", pipelineTrackingTopic);
+        log.info("Partitions per topic: {} (symbol-group partitioned)", partitions);
+        if (instanceOrdinal < 0) {
+            throw new IllegalStateException("app.instance.ordinal must be >= 0, was " + instanceOrdinal);
+        }
+        log.info("Snapshot transactional.id prefix: {}{}-", transactionIdPrefix, instanceOrdinal);
     }
 
     @Bean
@@ -84,6 +114,10 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         configProps.put(ProducerConfig.LINGER_MS_CONFIG, 0);
         configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        configProps.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, SymbolGroupPartitioner.class);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
         
         return new DefaultKafkaProducerFactory<>(configProps);
     }
@@ -99,10 +133,38 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         configProps.put(ProducerConfig.LINGER_MS_CONFIG, 0);
         configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        configProps.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, SymbolGroupPartitioner.class);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
         
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
+    /**
+     * Transactional producer for atomic snapshots. Only used from the snapshot publisher's own
+     * thread, so it may block longer than the pipeline-facing producers.
+     */
+    @Bean
+    public ProducerFactory<String, String> transactionalProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        configProps.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, SymbolGroupPartitioner.class);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, requestTimeoutMs);
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(configProps);
+        factory.setTransactionIdPrefix(transactionIdPrefix + instanceOrdinal + "-");
+        return factory;
+    }
+
     @Bean
     @Qualifier("jsonKafkaTemplate")
     public KafkaTemplate<String, Object> jsonKafkaTemplate() {
@@ -115,6 +177,11 @@ public class KafkaConfig {
         return new KafkaTemplate<>(stringProducerFactory());
     }
 
+    @Bean
+    public KafkaTemplate<String, String> transactionalKafkaTemplate() {
+        return new KafkaTemplate<>(transactionalProducerFactory());
+    }
+
     @Bean
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return jsonKafkaTemplate();
@@ -134,4 +201,9 @@ public class KafkaConfig {
     public NewTopic simpleRatesTopicBean() {
         return new NewTopic(simpleRatesTopic, partitions, replicationFactor);
     }
-}
\ No newline at end of file
+
+    @Bean
+    public NewTopic pipelineTrackingTopicBean() {
+        return new NewTopic(pipelineTrackingTopic, partitions, replicationFactor);
+    }
+}
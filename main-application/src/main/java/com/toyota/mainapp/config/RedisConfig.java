@@ -8,8 +8,14 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
@@ -17,8 +23,12 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.toyota.mainapp.cache.BinaryRateRedisSerializer;
+import com.toyota.mainapp.cache.RateCacheService;
 import com.toyota.mainapp.dto.model.BaseRateDto;
 
+import java.nio.charset.StandardCharsets;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -49,6 +59,15 @@ public class RedisConfig {
     @Value("${spring.redis.database:0}")
     private int redisDatabase;
 
+    @Value("${app.cache.codec.format:binary}")
+    private String cacheCodec;
+
+    @Value("${app.cache.codec.read-legacy-json:true}")
+    private boolean readLegacyJson;
+
+    @Value("${app.cache.codec.include-inputs:true}")
+    private boolean includeCalculationInputs;
+
     @Bean
     public RedisConnectionFactory redisConnectionFactory() {
         // Check environment variables first, then fallback to properties
@@ -118,46 +137,93 @@ public class RedisConfig {
 
     @Bean("rawRateRedisTemplate")
     public RedisTemplate<String, BaseRateDto> rawRateRedisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, BaseRateDto> template = new RedisTemplate<>();
-        template.setConnectionFactory(connectionFactory);
-
-        // Configure key serializer
-        template.setKeySerializer(new StringRedisSerializer());
-        template.setHashKeySerializer(new StringRedisSerializer());
-        
-        // Configure specialized value serializer for BaseRateDto
-        Jackson2JsonRedisSerializer<BaseRateDto> serializer = new Jackson2JsonRedisSerializer<>(BaseRateDto.class);
-        serializer.setObjectMapper(redisObjectMapper());
-        
-        template.setValueSerializer(serializer);
-        template.setHashValueSerializer(serializer);
-        
-        template.afterPropertiesSet();
-        log.info("✅ Raw rate RedisTemplate configured for BaseRateDto");
+        RedisTemplate<String, BaseRateDto> template = rateTemplate(connectionFactory, rateValueSerializer(false));
+        log.info("✅ Raw rate RedisTemplate configured for BaseRateDto ({} codec)", cacheCodec);
         return template;
     }
 
     @Bean("calculatedRateRedisTemplate")
     public RedisTemplate<String, BaseRateDto> calculatedRateRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, BaseRateDto> template = rateTemplate(connectionFactory, rateValueSerializer(includeCalculationInputs));
+        log.info("✅ Calculated rate RedisTemplate configured for BaseRateDto ({} codec)", cacheCodec);
+        return template;
+    }
+
+    @Bean("reactiveRawRateRedisTemplate")
+    public ReactiveRedisTemplate<String, BaseRateDto> reactiveRawRateRedisTemplate(RedisConnectionFactory connectionFactory) {
+        log.info("✅ Reactive raw rate RedisTemplate configured ({} codec)", cacheCodec);
+        return reactiveRateTemplate(connectionFactory, rateValueSerializer(false));
+    }
+
+    @Bean("reactiveCalculatedRateRedisTemplate")
+    public ReactiveRedisTemplate<String, BaseRateDto> reactiveCalculatedRateRedisTemplate(RedisConnectionFactory connectionFactory) {
+        log.info("✅ Reactive calculated rate RedisTemplate configured ({} codec)", cacheCodec);
+        return reactiveRateTemplate(connectionFactory, rateValueSerializer(includeCalculationInputs));
+    }
+
+    /**
+     * Same key and value encoding as the blocking templates, on Lettuce's shared native connection.
+     */
+    private ReactiveRedisTemplate<String, BaseRateDto> reactiveRateTemplate(RedisConnectionFactory connectionFactory,
+                                                                            RedisSerializer<BaseRateDto> serializer) {
+        if (!(connectionFactory instanceof ReactiveRedisConnectionFactory reactiveFactory)) {
+            throw new IllegalStateException("Reactive rate cache needs a reactive (Lettuce) connection factory");
+        }
+        RedisSerializationContext<String, BaseRateDto> context = RedisSerializationContext
+                .<String, BaseRateDto>newSerializationContext(new StringRedisSerializer())
+                .value(serializer)
+                .hashKey(new StringRedisSerializer())
+                .hashValue(serializer)
+                .build();
+        return new ReactiveRedisTemplate<>(reactiveFactory, context);
+    }
+
+    private RedisTemplate<String, BaseRateDto> rateTemplate(RedisConnectionFactory connectionFactory,
+                                                            RedisSerializer<BaseRateDto> serializer) {
         RedisTemplate<String, BaseRateDto> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
         // Configure key serializer
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
-        
-        // Configure specialized value serializer for BaseRateDto
-        Jackson2JsonRedisSerializer<BaseRateDto> serializer = new Jackson2JsonRedisSerializer<>(BaseRateDto.class);
-        serializer.setObjectMapper(redisObjectMapper());
-        
+
         template.setValueSerializer(serializer);
         template.setHashValueSerializer(serializer);
-        
+
         template.afterPropertiesSet();
-        log.info("✅ Calculated rate RedisTemplate configured for BaseRateDto");
         return template;
     }
 
+    /**
+     * Binary codec by default; JSON with default typing is kept as the legacy format, readable by
+     * the binary codec while old entries age out. Instances still on the JSON format cannot read
+     * binary entries: when moving a fleet from JSON to binary, roll out with
+     * app.cache.codec.format=json first and switch to binary once no JSON-only instance is left.
+     */
+    private RedisSerializer<BaseRateDto> rateValueSerializer(boolean includeInputs) {
+        Jackson2JsonRedisSerializer<BaseRateDto> json = new Jackson2JsonRedisSerializer<>(redisObjectMapper(), BaseRateDto.class);
+        if ("json".equalsIgnoreCase(cacheCodec)) {
+            return json;
+        }
+        return new BinaryRateRedisSerializer(includeInputs, readLegacyJson ? json : null);
+    }
+
+    /**
+     * Near cache invalidations from other instances; see {@link RateCacheService#onInvalidation}.
+     */
+    @Bean
+    public RedisMessageListenerContainer nearCacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory, RateCacheService rateCacheService,
+            @Value("${app.cache.near.invalidation-channel:toyota_rates:cache:invalidate}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> rateCacheService.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(channel));
+        log.info("✅ Near cache invalidation listener subscribed to {}", channel);
+        return container;
+    }
+
     @Bean("rateRedisTemplate")
     public RedisTemplate<String, BaseRateDto> rateRedisTemplate(RedisConnectionFactory connectionFactory) {
 
@@ -0,0 +1,55 @@
+package com.toyota.mainapp.config;
+
+import com.toyota.mainapp.calculator.graph.RuleDependencyGraph;
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Toyota Financial Data Platform - Calculation Rule Set Snapshot
+ *
+ * One parsed and compiled version of calculation-config.json. Published as a
+ * whole through {@link ApplicationProperties#getRuleSet()}; pipelines capture
+ * it at start, so a reload never changes the rules of a run in flight. Rule
+ * objects are shared with the compiled graph and must be treated as read-only.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public record RuleSetSnapshot(long version,
+                              List<CalculationRuleDto> rules,
+                              Map<String, List<String>> symbolProviders,
+                              RuleDependencyGraph graph,
+                              String source,
+                              long loadedAt) {
+
+    public static final RuleSetSnapshot EMPTY =
+            new RuleSetSnapshot(0L, List.of(), Map.of(), RuleDependencyGraph.empty(), "none", 0L);
+
+    public RuleSetSnapshot {
+        rules = List.copyOf(rules);
+        symbolProviders = symbolProviders != null ? Map.copyOf(symbolProviders) : Map.of();
+    }
+
+    /**
+     * Every symbol the rule set mentions: rule outputs and inputs, raw sources and mapped symbols.
+     */
+    public Set<String> symbols() {
+        Set<String> symbols = new LinkedHashSet<>(symbolProviders.keySet());
+        for (CalculationRuleDto rule : rules) {
+            if (rule.getOutputSymbol() != null) {
+                symbols.add(rule.getOutputSymbol());
+            }
+            if (rule.getInputSymbols() != null) {
+                symbols.addAll(rule.getInputSymbols());
+            }
+            symbols.addAll(rule.getRawSources());
+            symbols.addAll(rule.getRequiredCalculatedRates());
+        }
+        return symbols;
+    }
+}
@@ -2,6 +2,7 @@ package com.toyota.mainapp.coordinator;
 
 import com.toyota.mainapp.coordinator.MainCoordinatorService;
 import com.toyota.mainapp.dto.config.SubscriberConfigDto;
+import com.toyota.mainapp.exception.RuleSetValidationException;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -59,6 +60,30 @@ public class CoordinatorController {
         return ResponseEntity.ok(coordinatorService.getSystemHealthStatus());
     }
     
+    @Operation(summary = "Get ingestion ring buffer statistics")
+    @GetMapping("/ingestion")
+    public ResponseEntity<Map<String, Object>> getIngestionStats() {
+        return ResponseEntity.ok(coordinatorService.getIngestionStats());
+    }
+    
+    @Operation(summary = "Get pipeline shard count, queue depths and symbol-to-shard mapping")
+    @GetMapping("/shards")
+    public ResponseEntity<Map<String, Object>> getPipelineShards() {
+        return ResponseEntity.ok(coordinatorService.getPipelineShardStats());
+    }
+    
+    @Operation(summary = "Get pipeline latency percentiles (p50/p99/p999) and queue depths")
+    @GetMapping("/metrics/pipeline")
+    public ResponseEntity<Map<String, Object>> getPipelineMetrics() {
+        return ResponseEntity.ok(coordinatorService.getPipelineMetrics());
+    }
+    
+    @Operation(summary = "Get the pipeline shard owning a symbol")
+    @GetMapping("/shards/{symbol}")
+    public ResponseEntity<Map<String, Object>> getShardForSymbol(@PathVariable String symbol) {
+        return ResponseEntity.ok(coordinatorService.getShardForSymbol(symbol));
+    }
+    
     @Operation(summary = "Reload subscribers configuration")
     @PostMapping("/reload-config")
     public ResponseEntity<String> reloadConfiguration() {
@@ -66,6 +91,22 @@ public class CoordinatorController {
         return ResponseEntity.ok("Configuration reload initiated");
     }
 
+    @Operation(summary = "Get the active calculation rule set version and reload status")
+    @GetMapping("/rules")
+    public ResponseEntity<Map<String, Object>> getCalculationRules() {
+        return ResponseEntity.ok(coordinatorService.getCalculationRulesInfo());
+    }
+
+    @Operation(summary = "Reload calculation rules; invalid rules are rejected and the active version kept")
+    @PostMapping("/rules/reload")
+    public ResponseEntity<Map<String, Object>> reloadCalculationRules() {
+        try {
+            return ResponseEntity.ok(coordinatorService.reloadCalculationRules());
+        } catch (RuleSetValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage(), "errors", e.getErrors()));
+        }
+    }
+
     @Operation(summary = "Subscribe to new rate symbol")
 @PostMapping("/subscribers/{providerName}/subscribe/{symbol}")
 public ResponseEntity<String> subscribeToSymbol(
@@ -1,20 +1,24 @@
 package com.toyota.mainapp.coordinator;
 
-import com.toyota.mainapp.cache.RateCacheService;
-import com.toyota.mainapp.calculator.RealTimeBatchProcessor;
+import com.toyota.mainapp.calculator.CalculatedRatePublisher;
+import com.toyota.mainapp.calculator.RuleSetReloadService;
+import com.toyota.mainapp.calculator.ShardedPipelineExecutor;
+import com.toyota.mainapp.calculator.pipeline.PipelineStageRunner;
 import com.toyota.mainapp.coordinator.callback.PlatformCallback;
 import com.toyota.mainapp.dto.config.SubscriberConfigDto;
 import com.toyota.mainapp.dto.model.BaseRateDto;
 import com.toyota.mainapp.dto.model.ProviderRateDto;
-import com.toyota.mainapp.exception.AggregatedRateValidationException;
+import com.toyota.mainapp.ingestion.RateIngestionService;
 import com.toyota.mainapp.kafka.KafkaPublishingService;
-import com.toyota.mainapp.mapper.RateMapper;
+import com.toyota.mainapp.kafka.SpoolingKafkaSender;
+import com.toyota.mainapp.metrics.ExecutorQueueMetrics;
+import com.toyota.mainapp.metrics.PipelineLatencyMetrics;
 import com.toyota.mainapp.subscriber.api.PlatformSubscriber;
 import com.toyota.mainapp.subscriber.dynamic.DynamicSubscriberLoader;
 import com.toyota.mainapp.subscriber.impl.RestRateSubscriber;
 import com.toyota.mainapp.subscriber.impl.TcpRateSubscriber;
+import com.toyota.mainapp.util.SymbolRegistry;
 import com.toyota.mainapp.util.SymbolUtils;
-import com.toyota.mainapp.validation.RateValidatorService;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
@@ -23,8 +27,10 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import com.toyota.mainapp.config.ApplicationProperties;
@@ -48,13 +54,15 @@ public class MainCoordinatorService implements PlatformCallback {
     private final DynamicSubscriberLoader dynamicSubscriberLoader;
     @Qualifier("subscriberTaskExecutor")
     private final TaskExecutor subscriberTaskExecutor;
-    @Qualifier("pipelineTaskExecutor")
-    private final TaskExecutor pipelineTaskExecutor;
-    private final RateMapper rateMapper;
-    private final RateValidatorService rateValidatorService;
-    private final RateCacheService rateCacheService;
+    private final RateIngestionService rateIngestionService;
+    private final ShardedPipelineExecutor shardedPipelineExecutor;
+    private final PipelineStageRunner pipelineStageRunner;
+    private final PipelineLatencyMetrics pipelineLatencyMetrics;
+    private final ExecutorQueueMetrics executorQueueMetrics;
     private final KafkaPublishingService kafkaPublishingService;
-    private final RealTimeBatchProcessor realTimeBatchProcessor;
+    private final SpoolingKafkaSender spoolingKafkaSender;
+    private final RuleSetReloadService ruleSetReloadService;
+    private final CalculatedRatePublisher calculatedRatePublisher;
     private final ApplicationProperties appProperties;
 
     private final Map<String, PlatformSubscriber> activeSubscribers = new ConcurrentHashMap<>();
@@ -105,31 +113,7 @@ public class MainCoordinatorService implements PlatformCallback {
 
     @Override
     public void onRateAvailable(String providerName, ProviderRateDto providerRate) {
-        pipelineTaskExecutor.execute(() -> {
-            try {
-                if (providerRate.getProviderName() == null) {
-                    providerRate.setProviderName(providerName);
-                }
-
-                BaseRateDto baseRate = rateMapper.toBaseRateDto(providerRate);
-                String normalizedSymbol = SymbolUtils.normalizeSymbol(baseRate.getSymbol());
-                
-                if (!SymbolUtils.isValidSymbol(normalizedSymbol)) return;
-                
-                baseRate.setSymbol(normalizedSymbol);
-                rateValidatorService.validate(baseRate);
-                baseRate.setValidatedAt(System.currentTimeMillis());
-
-                rateCacheService.cacheRawRate(baseRate);
-                kafkaPublishingService.publishRawRate(baseRate);
-                realTimeBatchProcessor.processNewRate(baseRate);
-
-            } catch (AggregatedRateValidationException e) {
-                log.warn("Rate validation failed from {}: {}", providerName, e.getErrors());
-            } catch (Exception e) {
-                log.error("Pipeline error from {}: {}", providerName, e.getMessage());
-            }
-        });
+        rateIngestionService.publish(providerName, providerRate);
     }
 
     @Override
@@ -228,6 +212,18 @@ public class MainCoordinatorService implements PlatformCallback {
         initializeAndStartSubscribers();
     }
 
+    public Map<String, Object> getCalculationRulesInfo() {
+        return ruleSetReloadService.getRuleSetInfo();
+    }
+
+    /**
+     * Reload calculation-config.json; the active rules stay in place if the new ones are invalid.
+     */
+    public Map<String, Object> reloadCalculationRules() {
+        ruleSetReloadService.reload("rest");
+        return ruleSetReloadService.getRuleSetInfo();
+    }
+
     public boolean addSymbolSubscription(String providerName, String symbol) {
         PlatformSubscriber subscriber = activeSubscribers.get(providerName);
         if (subscriber == null) return false;
@@ -254,6 +250,53 @@ public class MainCoordinatorService implements PlatformCallback {
         return false;
     }
 
+    public Map<String, Object> getIngestionStats() {
+        return rateIngestionService.getIngestionStats();
+    }
+
+    public Map<String, Object> getPipelineShardStats() {
+        Map<String, Object> stats = shardedPipelineExecutor.getShardStats();
+        stats.put("deadlines", pipelineStageRunner.getRunnerStats());
+        return stats;
+    }
+
+    /**
+     * Latency percentiles (stages, whole pipeline, tick-to-Kafka-ack) and the queue depths
+     * feeding the pipeline.
+     */
+    public Map<String, Object> getPipelineMetrics() {
+        Map<String, Object> metrics = new HashMap<>(pipelineLatencyMetrics.getLatencyReport());
+
+        Map<String, Object> queues = new HashMap<>();
+        queues.put("ingestionRing", rateIngestionService.getIngestionStats().get("depth"));
+        List<Integer> shardDepths = new ArrayList<>();
+        Object shards = shardedPipelineExecutor.getShardStats().get("shards");
+        if (shards instanceof List<?> shardList) {
+            for (Object shard : shardList) {
+                shardDepths.add((Integer) ((Map<?, ?>) shard).get("queueDepth"));
+            }
+        }
+        queues.put("pipelineShards", shardDepths);
+        queues.put("executors", executorQueueMetrics.getQueueDepths());
+        metrics.put("queues", queues);
+        metrics.put("tracing", kafkaPublishingService.getTracingStats());
+        metrics.put("snapshots", kafkaPublishingService.getSnapshotStats());
+        metrics.put("spool", spoolingKafkaSender.getStats());
+        metrics.put("publishing", calculatedRatePublisher.getStats());
+        metrics.put("symbols", SymbolRegistry.global().getStats());
+        metrics.put("timestamp", System.currentTimeMillis());
+        return metrics;
+    }
+
+    public Map<String, Object> getShardForSymbol(String symbol) {
+        String normalizedSymbol = SymbolUtils.normalizeSymbol(symbol);
+        Map<String, Object> result = new HashMap<>();
+        result.put("symbol", normalizedSymbol);
+        result.put("shard", shardedPipelineExecutor.shardFor(normalizedSymbol));
+        result.put("shardCount", shardedPipelineExecutor.getShardCount());
+        return result;
+    }
+
     public Map<String, Object> getProviderSubscriptions(String providerName) {
         Map<String, Object> result = new HashMap<>();
         PlatformSubscriber subscriber = activeSubscribers.get(providerName);
@@ -34,6 +34,7 @@ public class CalculationRuleDto {
     
     private List<String> inputSymbols; 
     private Map<String, Object> inputParameters; // 
+    private PublishPolicyDto publishPolicy;      // null = publish every result
     
 
     public CalculationRuleType getTypeEnum() {
@@ -0,0 +1,80 @@
+package com.toyota.mainapp.dto.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Toyota Financial Data Platform - Publish Policy Configuration
+ *
+ * Per-rule policy deciding which calculated results go to Redis and Kafka:
+ * every result, only results that moved by a pip or basis point threshold
+ * since the last published value, or at most one result per interval.
+ * Suppressed rules are republished on a heartbeat so caches never expire.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublishPolicyDto {
+
+    public enum Mode {
+        ALWAYS,
+        THRESHOLD,
+        THROTTLE
+    }
+
+    private Mode mode;
+    private Double minChangePips;
+    private Double minChangeBps;
+    private Double pipSize;            // defaults to 0.01 for JPY pairs, 0.0001 otherwise
+    private Long minIntervalMs;
+    private Long heartbeatMs;          // null = app.publish.default-heartbeat-ms, 0 = no heartbeat
+
+    public Mode getModeOrDefault() {
+        return mode != null ? mode : Mode.ALWAYS;
+    }
+
+    public double pipSizeFor(String symbol) {
+        if (pipSize != null) {
+            return pipSize;
+        }
+        return symbol != null && symbol.contains("JPY") ? 0.01 : 0.0001;
+    }
+
+    public List<String> validate() {
+        List<String> errors = new ArrayList<>();
+        switch (getModeOrDefault()) {
+            case THRESHOLD -> {
+                if (minChangePips == null && minChangeBps == null) {
+                    errors.add("THRESHOLD publish policy needs minChangePips or minChangeBps");
+                }
+                if ((minChangePips != null && minChangePips < 0) || (minChangeBps != null && minChangeBps < 0)) {
+                    errors.add("THRESHOLD publish policy thresholds must not be negative");
+                }
+                if (pipSize != null && pipSize <= 0) {
+                    errors.add("pipSize must be positive");
+                }
+            }
+            case THROTTLE -> {
+                if (minIntervalMs == null || minIntervalMs <= 0) {
+                    errors.add("THROTTLE publish policy needs a positive minIntervalMs");
+                }
+            }
+            case ALWAYS -> {
+            }
+        }
+        if (heartbeatMs != null && heartbeatMs < 0) {
+            errors.add("heartbeatMs must not be negative");
+        }
+        return errors;
+    }
+}
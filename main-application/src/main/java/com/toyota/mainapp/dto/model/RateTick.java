@@ -0,0 +1,79 @@
+package com.toyota.mainapp.dto.model;
+
+/**
+ * Toyota Financial Data Platform - Primitive Rate Tick
+ *
+ * Internal hot-path representation of a provider quote: interned symbol and
+ * provider ids plus bid/ask as scaled long mantissas sharing one per-symbol
+ * scale. Converted to {@link BaseRateDto} only at the Kafka/Redis edges.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class RateTick {
+
+    private final int symbolId;
+    private final int providerId;
+    private final long bid;
+    private final long ask;
+    private final int scale;
+    private final long timestamp;
+    private final long receivedAt;
+    /** System.nanoTime() when the tick entered the platform; 0 if unknown. */
+    private final long ingestNanos;
+
+    public RateTick(int symbolId, int providerId, long bid, long ask, int scale, long timestamp, long receivedAt) {
+        this(symbolId, providerId, bid, ask, scale, timestamp, receivedAt, 0L);
+    }
+
+    public RateTick(int symbolId, int providerId, long bid, long ask, int scale, long timestamp, long receivedAt,
+                    long ingestNanos) {
+        this.symbolId = symbolId;
+        this.providerId = providerId;
+        this.bid = bid;
+        this.ask = ask;
+        this.scale = scale;
+        this.timestamp = timestamp;
+        this.receivedAt = receivedAt;
+        this.ingestNanos = ingestNanos;
+    }
+
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    public int getProviderId() {
+        return providerId;
+    }
+
+    public long getBid() {
+        return bid;
+    }
+
+    public long getAsk() {
+        return ask;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getReceivedAt() {
+        return receivedAt;
+    }
+
+    public long getIngestNanos() {
+        return ingestNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "RateTick{symbolId=" + symbolId + ", providerId=" + providerId + ", bid=" + bid
+                + ", ask=" + ask + ", scale=" + scale + ", timestamp=" + timestamp + "}";
+    }
+}
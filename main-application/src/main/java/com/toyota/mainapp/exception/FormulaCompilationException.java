@@ -0,0 +1,25 @@
+package com.toyota.mainapp.exception;
+
+/**
+ * Thrown when a rule formula cannot be parsed or references an input
+ * that the rule does not declare
+ */
+public class FormulaCompilationException extends RuntimeException {
+
+    private final String formula;
+    private final int position;
+
+    public FormulaCompilationException(String message, String formula, int position) {
+        super(message + " at position " + position + " in '" + formula + "'");
+        this.formula = formula;
+        this.position = position;
+    }
+
+    public String getFormula() {
+        return formula;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+}
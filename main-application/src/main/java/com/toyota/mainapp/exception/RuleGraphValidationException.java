@@ -0,0 +1,22 @@
+package com.toyota.mainapp.exception;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when calculation rules cannot be compiled into a valid
+ * dependency graph (cycles, duplicate outputs or unresolvable inputs)
+ */
+public class RuleGraphValidationException extends RuntimeException {
+
+    private final List<String> errors;
+
+    public RuleGraphValidationException(List<String> errors) {
+        super("Calculation rule graph is invalid: " + String.join("; ", errors));
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+}
@@ -0,0 +1,22 @@
+package com.toyota.mainapp.exception;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when a reloaded calculation rule set fails validation (formula or
+ * script compilation) and is therefore not activated
+ */
+public class RuleSetValidationException extends RuntimeException {
+
+    private final List<String> errors;
+
+    public RuleSetValidationException(List<String> errors) {
+        super("Calculation rule set is invalid: " + String.join("; ", errors));
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+}
@@ -0,0 +1,16 @@
+package com.toyota.mainapp.exception;
+
+/**
+ * Thrown when a pipeline stage call does not finish within the time
+ * budget left for the stage
+ */
+public class StageBudgetExceededException extends RuntimeException {
+
+    public StageBudgetExceededException(String message) {
+        super(message);
+    }
+
+    public StageBudgetExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,88 @@
+package com.toyota.mainapp.ingestion;
+
+import com.toyota.mainapp.dto.model.ProviderRateDto;
+
+/**
+ * Toyota Financial Data Platform - Ring Buffer Rate Event
+ *
+ * Mutable, pre-allocated slot of the ingestion ring buffer. Subscriber threads
+ * copy provider fields into the slot instead of allocating a task per tick;
+ * the slot is cleared and reused once a consumer has handled it.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class RateEvent {
+
+    private long sequence;
+    private long publishNanos;
+    private String providerName;
+    private String symbol;
+    private String bid;
+    private String ask;
+    private Object timestamp;
+
+    void populate(long sequence, String providerName, ProviderRateDto rate, long publishNanos) {
+        this.sequence = sequence;
+        this.publishNanos = publishNanos;
+        this.providerName = rate.getProviderName() != null ? rate.getProviderName() : providerName;
+        this.symbol = rate.getSymbol();
+        this.bid = rate.getBid();
+        this.ask = rate.getAsk();
+        this.timestamp = rate.getTimestamp();
+    }
+
+    void clear() {
+        this.providerName = null;
+        this.symbol = null;
+        this.bid = null;
+        this.ask = null;
+        this.timestamp = null;
+    }
+
+    /**
+     * Copy the slot into a standalone DTO; the slot itself must not escape the handler.
+     */
+    public ProviderRateDto toProviderRate() {
+        ProviderRateDto rate = new ProviderRateDto();
+        rate.setSymbol(symbol);
+        rate.setBid(bid);
+        rate.setAsk(ask);
+        rate.setProviderName(providerName);
+        if (timestamp instanceof Long) {
+            rate.setTimestamp((Long) timestamp);
+        } else if (timestamp != null) {
+            rate.setTimestamp(timestamp.toString());
+        }
+        return rate;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getPublishNanos() {
+        return publishNanos;
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public String getBid() {
+        return bid;
+    }
+
+    public String getAsk() {
+        return ask;
+    }
+
+    public Object getTimestamp() {
+        return timestamp;
+    }
+}
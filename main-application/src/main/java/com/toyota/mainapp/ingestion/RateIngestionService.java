@@ -0,0 +1,260 @@
+package com.toyota.mainapp.ingestion;
+
+import com.toyota.mainapp.cache.RateCacheMirror;
+import com.toyota.mainapp.calculator.ConflatingRateQueue;
+import com.toyota.mainapp.calculator.RealTimeBatchProcessor;
+import com.toyota.mainapp.calculator.ShardedPipelineExecutor;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.ProviderRateDto;
+import com.toyota.mainapp.dto.model.RateTick;
+import com.toyota.mainapp.exception.AggregatedRateValidationException;
+import com.toyota.mainapp.kafka.KafkaPublishingService;
+import com.toyota.mainapp.mapper.RateMapper;
+import com.toyota.mainapp.util.FixedPointPrice;
+import com.toyota.mainapp.util.TickInterner;
+import com.toyota.mainapp.validation.RateValidatorService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toyota Financial Data Platform - Rate Ingestion Service
+ *
+ * Decouples subscriber I/O threads from the calculation pipeline. Subscribers
+ * only copy ticks into a pre-allocated ring buffer; dedicated ingestion threads
+ * drain it, map and validate in parallel, then hand each tick to its symbol's
+ * pipeline shard in ring sequence order.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RateIngestionService {
+
+    private final RateMapper rateMapper;
+    private final RateValidatorService rateValidatorService;
+    private final RateCacheMirror rateCacheMirror;
+    private final KafkaPublishingService kafkaPublishingService;
+    private final RealTimeBatchProcessor realTimeBatchProcessor;
+    private final ShardedPipelineExecutor shardedPipelineExecutor;
+    private final ConflatingRateQueue conflatingRateQueue;
+    private final TickInterner tickInterner;
+    private final ApplicationProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final List<Thread> consumerThreads = new ArrayList<>();
+    private RateRingBuffer ringBuffer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        ApplicationProperties.IngestionConfig config = appProperties.getIngestion();
+        WaitStrategy waitStrategy = WaitStrategy.fromString(config.getWaitStrategy());
+        ringBuffer = new RateRingBuffer(config.getRingBufferSize(), waitStrategy);
+        registerGauges();
+
+        running = true;
+        int threads = Math.max(1, config.getConsumerThreads());
+        for (int i = 0; i < threads; i++) {
+            Thread consumer = new Thread(this::consumeLoop, "Ingestion-" + (i + 1));
+            consumer.setDaemon(true);
+            consumer.start();
+            consumerThreads.add(consumer);
+        }
+
+        log.info("✅ Rate ingestion started: capacity={}, waitStrategy={}, consumers={}",
+                ringBuffer.getCapacity(), waitStrategy, threads);
+    }
+
+    /**
+     * Called from subscriber threads; copies the tick into the ring buffer and returns.
+     */
+    public void publish(String providerName, ProviderRateDto providerRate) {
+        ringBuffer.publish(providerName, providerRate);
+    }
+
+    private void consumeLoop() {
+        WaitStrategy waitStrategy = ringBuffer.getWaitStrategy();
+        int idleCounter = 0;
+        while (running) {
+            if (ringBuffer.poll(this::handleEvent)) {
+                idleCounter = 0;
+            } else {
+                idleCounter = waitStrategy.idle(idleCounter);
+            }
+        }
+        // Drain whatever was published before shutdown
+        while (ringBuffer.poll(this::handleEvent)) {
+            // keep draining
+        }
+    }
+
+    /**
+     * Map and validate concurrently with the other consumers, then dispatch in ring order so a
+     * slow consumer's tick is never overtaken by a later tick of the same symbol.
+     */
+    private void handleEvent(RateEvent event) {
+        long sequence = event.getSequence();
+        Runnable dispatch = prepare(event);
+        ringBuffer.awaitDispatchTurn(sequence);
+        try {
+            if (dispatch != null) {
+                dispatch.run();
+            }
+        } catch (Exception e) {
+            log.error("Pipeline dispatch error for sequence {}: {}", sequence, e.getMessage());
+        } finally {
+            ringBuffer.releaseDispatchTurn(sequence);
+        }
+    }
+
+    /**
+     * @return the shard hand-off for the tick, or null if it was dropped
+     */
+    private Runnable prepare(RateEvent event) {
+        String providerName = event.getProviderName();
+        try {
+            // One alias lookup yields the canonical id, which shards the tick and keys the rule graph.
+            // Unconfigured or malformed symbols resolve to UNKNOWN without being interned.
+            int symbolId = tickInterner.symbolId(event.getSymbol());
+
+            if (!tickInterner.isValidSymbol(symbolId)) {
+                log.debug("Dropping tick for unconfigured symbol {} from {}", event.getSymbol(), providerName);
+                return null;
+            }
+            if (providerName == null || providerName.trim().isEmpty()) {
+                throw new AggregatedRateValidationException(List.of("Provider name is required"));
+            }
+
+            RateTick tick = toTick(event, symbolId);
+            rateValidatorService.validate(tick);
+
+            // Edge representation for Redis/Kafka and the DTO-based stages
+            BaseRateDto baseRate = tickInterner.toBaseRateDto(tick);
+            baseRate.setValidatedAt(tick.getReceivedAt());
+
+            long orderingKey = conflationKey(tick);
+            long sequence = event.getSequence();
+            return () -> shardedPipelineExecutor.execute(symbolId, orderingKey, sequence,
+                    newestSequence -> processOnShard(tick, baseRate, newestSequence));
+
+        } catch (AggregatedRateValidationException e) {
+            log.warn("Rate validation failed from {}: {}", providerName, e.getErrors());
+        } catch (Exception e) {
+            log.error("Pipeline error from {}: {}", providerName, e.getMessage());
+        }
+        return null;
+    }
+
+    private RateTick toTick(RateEvent event, int symbolId) {
+        int scale = tickInterner.scaleOf(symbolId);
+        long bid;
+        long ask;
+        try {
+            bid = FixedPointPrice.parse(event.getBid(), scale);
+            ask = FixedPointPrice.parse(event.getAsk(), scale);
+        } catch (NumberFormatException | NullPointerException | ArithmeticException e) {
+            throw new AggregatedRateValidationException(
+                    List.of("Unparseable price: bid=" + event.getBid() + ", ask=" + event.getAsk()));
+        }
+        return new RateTick(symbolId, tickInterner.providerId(event.getProviderName()), bid, ask, scale,
+                rateMapper.safelyConvertTimestamp(event.getTimestamp()), System.currentTimeMillis(),
+                event.getPublishNanos());
+    }
+
+    private static long conflationKey(RateTick tick) {
+        return ((long) tick.getSymbolId() << 32) | (tick.getProviderId() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Runs on the shard owning the symbol: raw cache, raw publish and pipeline in tick order.
+     * Ticks arrive in ring order; one that is still older than the newest sequence seen for its
+     * provider and symbol is dropped entirely so it can never overwrite the newer raw quote.
+     */
+    private void processOnShard(RateTick tick, BaseRateDto baseRate, boolean newestSequence) {
+        if (!newestSequence) {
+            log.warn("⚠️ Dropping out-of-order tick {} from {}", baseRate.getSymbol(), baseRate.getProviderName());
+            return;
+        }
+        rateCacheMirror.mirrorRawRate(baseRate);
+        kafkaPublishingService.publishRawRate(baseRate);
+
+        if (!appProperties.getPipeline().isConflationEnabled()) {
+            realTimeBatchProcessor.processNewRate(tick, baseRate);
+            return;
+        }
+
+        // Raw path above stays lossless; the calculation pipeline only sees the latest tick per key
+        long conflationKey = conflationKey(tick);
+        if (conflatingRateQueue.offer(conflationKey, tick)) {
+            shardedPipelineExecutor.executeConflated(tick.getSymbolId(), () -> {
+                RateTick latest = conflatingRateQueue.poll(conflationKey);
+                if (latest != null) {
+                    BaseRateDto latestRate = latest == tick ? baseRate : tickInterner.toBaseRateDto(latest);
+                    latestRate.setValidatedAt(latest.getReceivedAt());
+                    realTimeBatchProcessor.processNewRate(latest, latestRate);
+                }
+            });
+        }
+    }
+
+    private void registerGauges() {
+        Gauge.builder("rate.ingestion.depth", ringBuffer, RateRingBuffer::getDepth)
+                .description("Ticks waiting in the ingestion ring buffer")
+                .register(meterRegistry);
+        Gauge.builder("rate.ingestion.lag", ringBuffer, buffer -> buffer.getLagNanos() / 1_000_000.0)
+                .description("Age of the oldest waiting tick")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("rate.ingestion.capacity", ringBuffer, RateRingBuffer::getCapacity)
+                .register(meterRegistry);
+        Gauge.builder("rate.ingestion.producer.waits", ringBuffer, RateRingBuffer::getProducerWaitCount)
+                .description("Times a subscriber found the ring buffer full")
+                .register(meterRegistry);
+    }
+
+    public Map<String, Object> getIngestionStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("capacity", ringBuffer.getCapacity());
+        stats.put("waitStrategy", ringBuffer.getWaitStrategy().name());
+        stats.put("consumerThreads", consumerThreads.size());
+        stats.put("depth", ringBuffer.getDepth());
+        stats.put("lagMs", TimeUnit.NANOSECONDS.toMillis(ringBuffer.getLagNanos()));
+        stats.put("lastDwellMicros", TimeUnit.NANOSECONDS.toMicros(ringBuffer.getLastDwellNanos()));
+        stats.put("published", ringBuffer.getPublishedCount());
+        stats.put("consumed", ringBuffer.getConsumedCount());
+        stats.put("producerWaits", ringBuffer.getProducerWaitCount());
+        stats.put("conflationEnabled", appProperties.getPipeline().isConflationEnabled());
+        stats.put("conflation", conflatingRateQueue.getConflationStats());
+        stats.put("batching", realTimeBatchProcessor.getBatchStats());
+        stats.put("timestamp", System.currentTimeMillis());
+        return stats;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        for (Thread consumer : consumerThreads) {
+            try {
+                consumer.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("Rate ingestion stopped, {} ticks consumed", ringBuffer.getConsumedCount());
+    }
+}
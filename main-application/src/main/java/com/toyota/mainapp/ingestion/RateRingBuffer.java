@@ -0,0 +1,186 @@
+package com.toyota.mainapp.ingestion;
+
+import com.toyota.mainapp.dto.model.ProviderRateDto;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Toyota Financial Data Platform - Rate Ingestion Ring Buffer
+ *
+ * Bounded, lock-free ring of pre-allocated {@link RateEvent} slots between the
+ * subscriber callbacks and the calculation pipeline. Each slot carries its own
+ * sequence number (Vyukov-style), so publishers and consumers only contend on a
+ * single CAS and never allocate on the hot path. Several subscriber threads may
+ * publish concurrently; several consumers may drain concurrently, and a dispatch
+ * cursor lets them hand events on in sequence order after working on them in parallel.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public class RateRingBuffer {
+
+    /**
+     * Consumer callback; the event is only valid for the duration of the call.
+     */
+    @FunctionalInterface
+    public interface EventHandler {
+        void onEvent(RateEvent event);
+    }
+
+    private final RateEvent[] slots;
+    private final AtomicLongArray slotSequences;
+    private final int capacity;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+
+    private final AtomicLong producerCursor = new AtomicLong();
+    private final AtomicLong consumerCursor = new AtomicLong();
+    // Next sequence allowed to dispatch; every consumed sequence must pass through it exactly once
+    private final AtomicLong dispatchCursor = new AtomicLong();
+
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder consumedCount = new LongAdder();
+    private final LongAdder producerWaitCount = new LongAdder();
+    private volatile long lastDwellNanos;
+
+    public RateRingBuffer(int requestedCapacity, WaitStrategy waitStrategy) {
+        this.capacity = nextPowerOfTwo(Math.max(2, requestedCapacity));
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy != null ? waitStrategy : WaitStrategy.PARK;
+        this.slots = new RateEvent[capacity];
+        this.slotSequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new RateEvent();
+            slotSequences.set(i, i);
+        }
+    }
+
+    /**
+     * Claim the next free slot and copy the rate into it. Waits with the configured
+     * strategy while the buffer is full, which pushes back on the publishing subscriber.
+     *
+     * @return sequence assigned to the event
+     */
+    public long publish(String providerName, ProviderRateDto rate) {
+        int idleCounter = 0;
+        while (true) {
+            long position = producerCursor.get();
+            int index = (int) (position & mask);
+            long difference = slotSequences.get(index) - position;
+
+            if (difference == 0) {
+                if (producerCursor.compareAndSet(position, position + 1)) {
+                    slots[index].populate(position, providerName, rate, System.nanoTime());
+                    slotSequences.set(index, position + 1);
+                    publishedCount.increment();
+                    return position;
+                }
+            } else if (difference < 0) {
+                if (idleCounter == 0) {
+                    producerWaitCount.increment();
+                }
+                idleCounter = waitStrategy.idle(idleCounter);
+            }
+        }
+    }
+
+    /**
+     * Hand the oldest published event to the handler and release its slot.
+     *
+     * @return false when the buffer was empty
+     */
+    public boolean poll(EventHandler handler) {
+        while (true) {
+            long position = consumerCursor.get();
+            int index = (int) (position & mask);
+            long difference = slotSequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (consumerCursor.compareAndSet(position, position + 1)) {
+                    RateEvent event = slots[index];
+                    try {
+                        lastDwellNanos = System.nanoTime() - event.getPublishNanos();
+                        handler.onEvent(event);
+                    } finally {
+                        event.clear();
+                        slotSequences.set(index, position + capacity);
+                        consumedCount.increment();
+                    }
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Wait until every event before this sequence has been dispatched. Consumers prepare events
+     * concurrently, then take turns here so downstream sees them in publish order.
+     */
+    public void awaitDispatchTurn(long sequence) {
+        int idleCounter = 0;
+        while (dispatchCursor.get() != sequence) {
+            idleCounter = waitStrategy.idle(idleCounter);
+        }
+    }
+
+    /**
+     * Pass the turn to the next sequence; call exactly once per consumed event, also for dropped ones.
+     */
+    public void releaseDispatchTurn(long sequence) {
+        dispatchCursor.set(sequence + 1);
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of events claimed by producers but not yet taken by a consumer.
+     */
+    public long getDepth() {
+        long depth = producerCursor.get() - consumerCursor.get();
+        return Math.max(0, Math.min(depth, capacity));
+    }
+
+    /**
+     * Age of the oldest waiting event in nanoseconds, 0 when the buffer is drained.
+     */
+    public long getLagNanos() {
+        long position = consumerCursor.get();
+        int index = (int) (position & mask);
+        if (slotSequences.get(index) != position + 1) {
+            return 0;
+        }
+        return Math.max(0, System.nanoTime() - slots[index].getPublishNanos());
+    }
+
+    public long getLastDwellNanos() {
+        return lastDwellNanos;
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    public long getConsumedCount() {
+        return consumedCount.sum();
+    }
+
+    public long getProducerWaitCount() {
+        return producerWaitCount.sum();
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+}
@@ -0,0 +1,68 @@
+package com.toyota.mainapp.ingestion;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Toyota Financial Data Platform - Ring Buffer Wait Strategy
+ *
+ * Idle behaviour used by ring buffer producers (buffer full) and consumers
+ * (buffer empty). Trades CPU usage against hand-off latency: BUSY_SPIN burns
+ * a core for the lowest latency, PARK sleeps briefly and is the safe default
+ * for shared hosts.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public enum WaitStrategy {
+
+    BUSY_SPIN,
+    YIELD,
+    PARK;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 100_000L;
+
+    /**
+     * Idle once and return the updated idle counter (reset to 0 after useful work).
+     */
+    public int idle(int counter) {
+        switch (this) {
+            case BUSY_SPIN:
+                Thread.onSpinWait();
+                break;
+            case YIELD:
+                if (counter < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+                break;
+            case PARK:
+            default:
+                if (counter < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (counter < YIELD_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                break;
+        }
+        return counter == Integer.MAX_VALUE ? counter : counter + 1;
+    }
+
+    public static WaitStrategy fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return PARK;
+        }
+        String normalized = value.trim().toUpperCase().replace('-', '_');
+        for (WaitStrategy strategy : values()) {
+            if (strategy.name().equals(normalized)) {
+                return strategy;
+            }
+        }
+        return PARK;
+    }
+}
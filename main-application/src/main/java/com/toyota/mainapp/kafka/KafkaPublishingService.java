@@ -1,5 +1,8 @@
 package com.toyota.mainapp.kafka;
 
+import com.toyota.envelope.SnapshotEnvelope;
+import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
+import com.toyota.mainapp.config.ApplicationProperties;
 import com.toyota.mainapp.dto.model.BaseRateDto;
 import com.toyota.mainapp.dto.model.RateType;
 import com.toyota.mainapp.dto.kafka.RatePayloadDto;
@@ -8,12 +11,22 @@ import com.toyota.mainapp.util.SymbolUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 /**
  * Toyota Financial Data Platform - Kafka Publishing Service
@@ -34,32 +47,58 @@ public class KafkaPublishingService implements SequentialPublisher {
     private final KafkaTemplate<String, Object> kafkaTemplate;
     @Qualifier("jsonKafkaTemplate")
     private final KafkaTemplate<String, Object> jsonKafkaTemplate;
+    private final KafkaTemplate<String, String> stringKafkaTemplate;
+    private final SpoolingKafkaSender spoolingKafkaSender;
+    private final TransactionalSnapshotPublisher transactionalSnapshotPublisher;
     private final RateMapper rateMapper;
+    private final ApplicationProperties appProperties;
 
     private static final String RAW_RATES_TOPIC = "financial-raw-rates";
     private static final String CALCULATED_RATES_TOPIC = "financial-calculated-rates";
     private static final String SIMPLE_RATES_BATCH_TOPIC = "financial-simple-rates";
 
+    @Value("${app.kafka.topic.pipeline-tracking:financial-pipeline-tracking}")
+    private String pipelineTrackingTopic = "financial-pipeline-tracking";
+
+    private volatile BlockingQueue<PipelineTrace> pendingTraces;
+    private final LongAdder tracesSampled = new LongAdder();
+    private final LongAdder tracesDropped = new LongAdder();
+    private final LongAdder tracesPublished = new LongAdder();
+    private final LongAdder traceBatchesPublished = new LongAdder();
+    private final LongAdder snapshotsPublished = new LongAdder();
+    private final LongAdder snapshotRecordsSent = new LongAdder();
+
 
     @Override
-    public void publishImmediateSnapshot(List<String> rateStrings, String pipelineId) {
+    public CompletableFuture<Void> publishImmediateSnapshot(List<String> rateStrings, String pipelineId,
+                                                            String triggerSymbol, long ruleSetVersion) {
         if (rateStrings == null || rateStrings.isEmpty()) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         
         if (pipelineId == null || pipelineId.trim().isEmpty()) {
             log.warn("Invalid pipelineId for immediate snapshot: {}", pipelineId);
-            return;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        snapshotsPublished.increment();
+        if (appProperties.getSnapshot().isTransactional()) {
+            return publishSnapshotInTransaction(rateStrings, pipelineId, triggerSymbol, ruleSetVersion);
+        }
+        if (!appProperties.getSnapshot().isLegacyLineFormat()) {
+            return publishSnapshotEnvelope(rateStrings, pipelineId, triggerSymbol, ruleSetVersion);
         }
 
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[rateStrings.size()];
+        snapshotRecordsSent.add(acks.length);
         try {
             int successCount = 0;
             int errorCount = 0;
             
-            for (String rateString : rateStrings) {
+            for (int i = 0; i < acks.length; i++) {
                 try {
                     // Each rate as separate message, pipelineId as KEY for consumer grouping
-                    kafkaTemplate.send(SIMPLE_RATES_BATCH_TOPIC, pipelineId, rateString)
+                    acks[i] = spoolingKafkaSender.sendJson(kafkaTemplate, SIMPLE_RATES_BATCH_TOPIC, pipelineId, rateStrings.get(i))
                                 .whenComplete((result, ex) -> {
                                     if (ex != null) {
                                         log.error("Failed to publish snapshot rate: {}", ex.getMessage());
@@ -69,6 +108,7 @@ public class KafkaPublishingService implements SequentialPublisher {
                     
                 } catch (Exception e) {
                     log.error("Error publishing snapshot rate [{}]: {}", pipelineId, e.getMessage());
+                    acks[i] = CompletableFuture.failedFuture(e);
                     errorCount++;
                 }
             }
@@ -77,12 +117,75 @@ public class KafkaPublishingService implements SequentialPublisher {
                 log.warn("Immediate snapshot dispatched [{}]: {} messages sent, {} errors", 
                         pipelineId, successCount, errorCount);
             }
+            return CompletableFuture.allOf(acks);
             
         } catch (Exception e) {
             log.error("Failed to publish immediate snapshot [{}]: {} rates - {}", 
                     pipelineId, rateStrings.size(), e.getMessage());
+            return CompletableFuture.failedFuture(e);
         }
     }
+
+    /**
+     * Whole snapshot as one record, still keyed by pipelineId.
+     */
+    private CompletableFuture<Void> publishSnapshotEnvelope(List<String> rateStrings, String pipelineId,
+                                                            String triggerSymbol, long ruleSetVersion) {
+        try {
+            String envelope = SnapshotEnvelope.encode(pipelineId, triggerSymbol, ruleSetVersion, rateStrings);
+            snapshotRecordsSent.increment();
+            // Plain string: consumers match the raw "SNAP|" header
+            return spoolingKafkaSender.sendText(stringKafkaTemplate, SIMPLE_RATES_BATCH_TOPIC, pipelineId, envelope)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.error("Failed to publish snapshot [{}]: {} rates - {}",
+                                    pipelineId, rateStrings.size(), ex.getMessage());
+                        }
+                    });
+        } catch (Exception e) {
+            log.error("Failed to publish immediate snapshot [{}]: {} rates - {}",
+                    pipelineId, rateStrings.size(), e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Snapshot records (one envelope, or one line per rate) committed in one Kafka transaction,
+     * possibly together with other pipelines' snapshots.
+     */
+    private CompletableFuture<Void> publishSnapshotInTransaction(List<String> rateStrings, String pipelineId,
+                                                                 String triggerSymbol, long ruleSetVersion) {
+        try {
+            boolean legacy = appProperties.getSnapshot().isLegacyLineFormat();
+            String envelope = legacy ? null : SnapshotEnvelope.encode(pipelineId, triggerSymbol, ruleSetVersion, rateStrings);
+            List<String> records = legacy ? rateStrings : List.of(envelope);
+            // Outside a transaction the snapshot is sent as one envelope, whatever the line format
+            Supplier<String> asOneRecord = legacy
+                    ? () -> SnapshotEnvelope.encode(pipelineId, triggerSymbol, ruleSetVersion, rateStrings)
+                    : () -> envelope;
+            snapshotRecordsSent.add(records.size());
+            return transactionalSnapshotPublisher.publish(SIMPLE_RATES_BATCH_TOPIC, pipelineId, records, asOneRecord)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.error("Failed to publish snapshot [{}]: {} rates - {}",
+                                    pipelineId, rateStrings.size(), ex.getMessage());
+                        }
+                    });
+        } catch (Exception e) {
+            log.error("Failed to publish immediate snapshot [{}]: {} rates - {}",
+                    pipelineId, rateStrings.size(), e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public Map<String, Object> getSnapshotStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("format", appProperties.getSnapshot().isLegacyLineFormat() ? "lines" : "envelope");
+        stats.put("transactions", transactionalSnapshotPublisher.getStats());
+        stats.put("snapshots", snapshotsPublished.sum());
+        stats.put("records", snapshotRecordsSent.sum());
+        return stats;
+    }
   
     @Override
     public void publishRate(BaseRateDto rate) {
@@ -105,7 +208,7 @@ public class KafkaPublishingService implements SequentialPublisher {
             RatePayloadDto payload = rateMapper.toRatePayloadDto(rawRate);
             payload.setEventType("RATE_RECEIVED");
             
-            jsonKafkaTemplate.send(RAW_RATES_TOPIC, rawRate.getSymbol(), payload);
+            spoolingKafkaSender.sendJson(jsonKafkaTemplate, RAW_RATES_TOPIC, rawRate.getSymbol(), payload);
             
         } catch (Exception e) {
             log.error("Failed to publish raw rate: {} - {}", rawRate.getSymbol(), e.getMessage());
@@ -123,7 +226,7 @@ public class KafkaPublishingService implements SequentialPublisher {
             payload.setEventType("RATE_CALCULATED");
             payload.setCalculationType(determineCalculationType(calculatedRate));
             
-            jsonKafkaTemplate.send(CALCULATED_RATES_TOPIC, calculatedRate.getSymbol(), payload);
+            spoolingKafkaSender.sendJson(jsonKafkaTemplate, CALCULATED_RATES_TOPIC, calculatedRate.getSymbol(), payload);
             
         } catch (Exception e) {
             log.error("Failed to publish calculated rate: {} - {}", 
@@ -131,6 +234,93 @@ public class KafkaPublishingService implements SequentialPublisher {
         }
     }
 
+    /**
+     * Sample a finished pipeline for tracing. Only the sampling decision and a queue offer
+     * run on the caller; formatting and sending happen in {@link #flushPipelineTraces()}.
+     */
+    public void publishPipelineTrace(ExecutionContext context) {
+        ApplicationProperties.TracingConfig tracing = appProperties.getTracing();
+        if (context == null || !tracing.isEnabled()) {
+            return;
+        }
+        boolean failed = context.isCutOff() || context.getStageErrorCount() > 0;
+        if (!(failed && tracing.isAlwaysTraceErrors())
+                && ThreadLocalRandom.current().nextDouble() >= tracing.getSampleRate()) {
+            return;
+        }
+        tracesSampled.increment();
+        if (!traceQueue(tracing).offer(new PipelineTrace(context, System.currentTimeMillis()))) {
+            tracesDropped.increment();
+        }
+    }
+
+    /**
+     * Drain sampled traces and send them as newline-separated batches, one Kafka record per batch.
+     */
+    @Scheduled(fixedDelayString = "${app.tracing.flush-interval-ms:1000}")
+    public void flushPipelineTraces() {
+        BlockingQueue<PipelineTrace> queue = pendingTraces;
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+        int batchSize = Math.max(1, appProperties.getTracing().getBatchSize());
+        List<PipelineTrace> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+        StringBuilder payload = new StringBuilder();
+
+        while (queue.drainTo(batch, batchSize) > 0) {
+            payload.setLength(0);
+            for (PipelineTrace trace : batch) {
+                if (payload.length() > 0) payload.append('\n');
+                payload.append(PipelineTraceFormatter.format(trace.context(), trace.completedAtMillis()));
+            }
+            int count = batch.size();
+            batch.clear();
+            try {
+                spoolingKafkaSender.sendText(stringKafkaTemplate, pipelineTrackingTopic, null, payload.toString())
+                        .whenComplete((result, ex) -> {
+                            if (ex != null) {
+                                log.warn("Failed to publish {} pipeline traces: {}", count, ex.getMessage());
+                            } else {
+                                tracesPublished.add(count);
+                                traceBatchesPublished.increment();
+                            }
+                        });
+            } catch (Exception e) {
+                log.warn("Error publishing {} pipeline traces: {}", count, e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getTracingStats() {
+        ApplicationProperties.TracingConfig tracing = appProperties.getTracing();
+        BlockingQueue<PipelineTrace> queue = pendingTraces;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", tracing.isEnabled());
+        stats.put("sampleRate", tracing.getSampleRate());
+        stats.put("sampled", tracesSampled.sum());
+        stats.put("dropped", tracesDropped.sum());
+        stats.put("published", tracesPublished.sum());
+        stats.put("batches", traceBatchesPublished.sum());
+        stats.put("pending", queue != null ? queue.size() : 0);
+        return stats;
+    }
+
+    private BlockingQueue<PipelineTrace> traceQueue(ApplicationProperties.TracingConfig tracing) {
+        BlockingQueue<PipelineTrace> queue = pendingTraces;
+        if (queue == null) {
+            synchronized (this) {
+                if (pendingTraces == null) {
+                    pendingTraces = new ArrayBlockingQueue<>(Math.max(1, tracing.getQueueCapacity()));
+                }
+                queue = pendingTraces;
+            }
+        }
+        return queue;
+    }
+
+    private record PipelineTrace(ExecutionContext context, long completedAtMillis) {
+    }
+
     // ✅ HELPER METHODS
     private String determineCalculationType(BaseRateDto rate) {
         return SymbolUtils.determineCalculationType(rate.getSymbol(), rate.getCalculatedByStrategy());
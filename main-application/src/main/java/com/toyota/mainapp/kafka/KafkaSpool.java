@@ -0,0 +1,267 @@
+package com.toyota.mainapp.kafka;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Toyota Financial Data Platform - Kafka Spool
+ *
+ * Memory-mapped, append-only ring file holding Kafka records that could not be
+ * sent. Records are kept in send order and removed once the broker has
+ * acknowledged their replay; when the file is full the oldest records are
+ * evicted. Head and tail live in the file header, so a backlog survives restarts.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public class KafkaSpool implements Closeable {
+
+    private static final int MAGIC = 0x4B53504C; // "KSPL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int LENGTH_SIZE = Integer.BYTES;
+
+    private final Path path;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    // Logical byte offsets; position in the ring is offset % capacity
+    private long head;
+    private long tail;
+    // Sequence number of the record at head, so acknowledgements survive evictions
+    private long headSequence;
+    private volatile int entries;
+
+    private long appended;
+    private long evicted;
+    private long rejected;
+    private long removed;
+
+    private KafkaSpool(Path path, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Open or create the spool file, recovering its backlog if it was written with the same capacity.
+     */
+    public static KafkaSpool open(Path path, int capacityBytes) throws IOException {
+        if (capacityBytes <= LENGTH_SIZE || capacityBytes > Integer.MAX_VALUE - HEADER_SIZE) {
+            throw new IllegalArgumentException("Invalid spool capacity: " + capacityBytes);
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) HEADER_SIZE + capacityBytes);
+
+        KafkaSpool spool = new KafkaSpool(path, capacityBytes, channel, buffer);
+        if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION && buffer.getLong(8) == capacityBytes) {
+            spool.head = buffer.getLong(16);
+            spool.tail = buffer.getLong(24);
+            spool.headSequence = buffer.getLong(32);
+            spool.entries = buffer.getInt(40);
+        } else {
+            spool.writeHeader();
+        }
+        return spool;
+    }
+
+    /**
+     * Append a record, evicting the oldest ones if it does not fit.
+     *
+     * @return false if the record alone is larger than the spool
+     */
+    public synchronized boolean append(SpooledRecord record) {
+        byte[] payload = encode(record);
+        int size = LENGTH_SIZE + payload.length;
+        if (size > capacity) {
+            rejected++;
+            return false;
+        }
+        while (tail - head + size > capacity) {
+            popHead();
+            evicted++;
+        }
+        put(tail, ByteBuffer.allocate(LENGTH_SIZE).putInt(payload.length).array());
+        put(tail + LENGTH_SIZE, payload);
+        tail += size;
+        entries++;
+        appended++;
+        writeHeader();
+        return true;
+    }
+
+    /**
+     * Oldest records, up to max, without removing them.
+     */
+    public synchronized Batch peek(int max) {
+        List<SpooledRecord> records = new ArrayList<>(Math.min(max, entries));
+        long position = head;
+        for (int i = 0; i < entries && records.size() < max; i++) {
+            int length = readLength(position);
+            records.add(decode(get(position + LENGTH_SIZE, length)));
+            position += LENGTH_SIZE + length;
+        }
+        return new Batch(headSequence, records);
+    }
+
+    /**
+     * Remove records acknowledged by the broker. Records of the batch that were evicted in the
+     * meantime are already gone and are skipped.
+     */
+    public synchronized void remove(long firstSequence, int count) {
+        long end = firstSequence + count;
+        while (headSequence < end && entries > 0) {
+            popHead();
+            removed++;
+        }
+        writeHeader();
+    }
+
+    public boolean isEmpty() {
+        return entries == 0;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public synchronized long getBytes() {
+        return tail - head;
+    }
+
+    public synchronized long getEvicted() {
+        return evicted;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("path", path.toString());
+        stats.put("capacityBytes", capacity);
+        stats.put("backlogEntries", entries);
+        stats.put("backlogBytes", tail - head);
+        stats.put("appended", appended);
+        stats.put("evicted", evicted);
+        stats.put("rejected", rejected);
+        stats.put("removed", removed);
+        return stats;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writeHeader();
+        buffer.force();
+        channel.close();
+    }
+
+    private void popHead() {
+        head += LENGTH_SIZE + readLength(head);
+        headSequence++;
+        entries--;
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, capacity);
+        buffer.putLong(16, head);
+        buffer.putLong(24, tail);
+        buffer.putLong(32, headSequence);
+        buffer.putInt(40, entries);
+    }
+
+    private int readLength(long position) {
+        return ByteBuffer.wrap(get(position, LENGTH_SIZE)).getInt();
+    }
+
+    private void put(long position, byte[] src) {
+        int offset = (int) (position % capacity);
+        int first = Math.min(src.length, capacity - offset);
+        buffer.put(HEADER_SIZE + offset, src, 0, first);
+        if (first < src.length) {
+            buffer.put(HEADER_SIZE, src, first, src.length - first);
+        }
+    }
+
+    private byte[] get(long position, int length) {
+        byte[] dst = new byte[length];
+        int offset = (int) (position % capacity);
+        int first = Math.min(length, capacity - offset);
+        buffer.get(HEADER_SIZE + offset, dst, 0, first);
+        if (first < length) {
+            buffer.get(HEADER_SIZE, dst, first, length - first);
+        }
+        return dst;
+    }
+
+    private static byte[] encode(SpooledRecord record) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(record.spooledAt());
+            writeString(out, record.topic());
+            writeString(out, record.key());
+            writeString(out, record.value());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode spooled record", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static SpooledRecord decode(byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        long spooledAt = in.getLong();
+        return new SpooledRecord(readString(in), readString(in), readString(in), spooledAt);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A record as it will be replayed: the value already serialized the way its original template would.
+     */
+    public record SpooledRecord(String topic, String key, String value, long spooledAt) {
+    }
+
+    /**
+     * Records from the head of the spool; firstSequence identifies them for {@link #remove}.
+     */
+    public record Batch(long firstSequence, List<SpooledRecord> records) {
+    }
+}
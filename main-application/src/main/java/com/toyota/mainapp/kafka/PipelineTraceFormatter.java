@@ -0,0 +1,86 @@
+package com.toyota.mainapp.kafka;
+
+import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toyota Financial Data Platform - Pipeline Trace Formatter
+ *
+ * Renders a finished {@link ExecutionContext} as one pipeline-tracking record:
+ * SYMBOL|BID|ASK|TIMESTAMP|PIPELINE_ID|PROVIDER|DURATION_MS|STAGES_US|INPUTS|ERRORS|SNAPSHOT_SIZE|CUT_OFF|RULES_VERSION.
+ * The first six fields are the format the OpenSearch consumer has always parsed.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class PipelineTraceFormatter {
+
+    private PipelineTraceFormatter() {
+    }
+
+    public static String format(ExecutionContext context, long completedAtMillis) {
+        BaseRateDto trigger = context.getTriggeringRate();
+        StringBuilder record = new StringBuilder(256);
+
+        if (trigger != null) {
+            field(record, trigger.getSymbol()).append('|');
+            field(record, trigger.getBid() != null ? trigger.getBid().toPlainString() : "").append('|');
+            field(record, trigger.getAsk() != null ? trigger.getAsk().toPlainString() : "").append('|');
+            field(record, trigger.getTimestamp() != null ? Instant.ofEpochMilli(trigger.getTimestamp()).toString() : "").append('|');
+        } else {
+            record.append("UNKNOWN|||").append(Instant.ofEpochMilli(completedAtMillis)).append('|');
+        }
+        field(record, context.getPipelineId()).append('|');
+        field(record, trigger != null ? trigger.getProviderName() : "").append('|');
+        record.append(completedAtMillis - context.getStartTime()).append('|');
+
+        List<ExecutionContext.StageTiming> timings = context.getStageTimings();
+        for (int i = 0; i < timings.size(); i++) {
+            ExecutionContext.StageTiming timing = timings.get(i);
+            if (i > 0) record.append(',');
+            field(record, timing.stageName()).append('=').append(TimeUnit.NANOSECONDS.toMicros(timing.nanos()));
+        }
+        record.append('|');
+
+        // Input lineage: every tick coalesced into this run
+        List<BaseRateDto> inputs = context.getTriggeringRates();
+        for (int i = 0; i < inputs.size(); i++) {
+            BaseRateDto input = inputs.get(i);
+            if (i > 0) record.append(',');
+            field(record, input.getProviderName()).append('-');
+            field(record, input.getSymbol()).append('@').append(input.getTimestamp());
+        }
+        record.append('|');
+
+        List<String> errors = context.getStageErrors();
+        for (int i = 0; i < errors.size(); i++) {
+            if (i > 0) record.append(';');
+            field(record, errors.get(i));
+        }
+        record.append('|');
+
+        record.append(context.getSnapshotRates().size()).append('|');
+        field(record, context.getCutOffReason()).append('|');
+        record.append(context.getRuleSetVersion());
+        return record.toString();
+    }
+
+    /**
+     * Append a value with the record separators ('|', ',', ';', newline) replaced.
+     */
+    private static StringBuilder field(StringBuilder record, String value) {
+        if (value == null) {
+            return record;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            record.append(c == '|' || c == ',' || c == ';' || c == '\n' || c == '\r' ? ' ' : c);
+        }
+        return record;
+    }
+}
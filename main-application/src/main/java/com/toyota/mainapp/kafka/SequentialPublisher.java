@@ -3,6 +3,7 @@ package com.toyota.mainapp.kafka;
 import com.toyota.mainapp.dto.model.BaseRateDto;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Toyota Financial Data Platform - Sequential Publisher Interface
@@ -17,7 +18,20 @@ import java.util.List;
  */
 public interface SequentialPublisher {
     
-    void publishImmediateSnapshot(List<String> rateStrings, String pipelineId);
+    /**
+     * @return completes when every entry of the snapshot has been acknowledged by the broker,
+     *         or exceptionally if any send failed
+     */
+    default CompletableFuture<Void> publishImmediateSnapshot(List<String> rateStrings, String pipelineId) {
+        return publishImmediateSnapshot(rateStrings, pipelineId, null, 0L);
+    }
+
+    /**
+     * @param triggerSymbol symbol whose tick started the pipeline, carried in the envelope header
+     * @param ruleSetVersion calculation rule set version the snapshot was computed with
+     */
+    CompletableFuture<Void> publishImmediateSnapshot(List<String> rateStrings, String pipelineId,
+                                                     String triggerSymbol, long ruleSetVersion);
     
     void publishRate(BaseRateDto rate);
     
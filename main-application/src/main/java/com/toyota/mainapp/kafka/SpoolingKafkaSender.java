@@ -0,0 +1,332 @@
+package com.toyota.mainapp.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toyota.mainapp.config.ApplicationProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Toyota Financial Data Platform - Spooling Kafka Sender
+ *
+ * Sends records through the Kafka templates and moves every send that fails or
+ * times out into the {@link KafkaSpool}. While a backlog exists new records go
+ * straight to the spool, so a broker outage never blocks pipeline threads.
+ * Each send is numbered when it is made and failures enter the spool in that
+ * order, whichever callback fires first, so replay keeps send order. A record
+ * whose send failed can still arrive after a later one that went through
+ * directly; delivery of spooled records is at-least-once. Replay runs batch
+ * after batch until the spool is empty, then publishing goes direct again.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SpoolingKafkaSender {
+
+    private final KafkaTemplate<String, String> stringKafkaTemplate;
+    private final ApplicationProperties appProperties;
+
+    // Same mapper JsonSerializer uses, so a replayed JSON record is byte-identical to a direct send
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+
+    private volatile KafkaSpool spool;
+    private volatile ExecutorService replayExecutor;
+    private final AtomicBoolean replaying = new AtomicBoolean();
+
+    // Sends not yet settled, by send sequence; failures leave in sequence order
+    private final AtomicLong sendSequence = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, PendingSend> unsettled = new ConcurrentSkipListMap<>();
+    private long nextToSettle = 1; // guarded by unsettled
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder spooled = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+
+    @PostConstruct
+    public void openSpool() {
+        ApplicationProperties.KafkaSpoolConfig config = appProperties.getKafkaSpool();
+        if (!config.isEnabled()) {
+            log.info("Kafka spool disabled, failed publishes are only logged");
+            return;
+        }
+        try {
+            spool = KafkaSpool.open(Path.of(config.getPath()), config.getCapacityBytes());
+            replayExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Kafka-Spool-Replay");
+                thread.setDaemon(true);
+                return thread;
+            });
+            log.info("✅ Kafka spool opened: {} ({} records pending replay)", config.getPath(), spool.getEntries());
+        } catch (IOException | RuntimeException e) {
+            log.error("❌ Cannot open Kafka spool {}, failed publishes will be lost: {}", config.getPath(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void closeSpool() {
+        KafkaSpool current = spool;
+        spool = null;
+        ExecutorService executor = replayExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.warn("Error closing Kafka spool: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Send through a JSON-serializing template; the value is serialized here only if it has to be spooled.
+     */
+    public CompletableFuture<Void> sendJson(KafkaTemplate<String, Object> template, String topic, String key, Object value) {
+        return send(topic, key, () -> template.send(topic, key, value), () -> toJson(value));
+    }
+
+    /**
+     * Send through a String-serializing template.
+     */
+    public CompletableFuture<Void> sendText(KafkaTemplate<String, String> template, String topic, String key, String value) {
+        return send(topic, key, () -> template.send(topic, key, value), () -> value);
+    }
+
+    /**
+     * Start replaying spooled records unless a replay is running. Replay sends one batch at a time
+     * without blocking: when the broker has acknowledged a whole batch the next one follows at once,
+     * so the drain rate is set by the broker rather than this interval. It stops at the first failure,
+     * so later records are never delivered ahead of earlier ones, and resumes on the next tick.
+     */
+    @Scheduled(fixedDelayString = "${app.kafka-spool.drain-interval-ms:500}")
+    public void drainSpool() {
+        if (replaying.compareAndSet(false, true)) {
+            replayNextBatch();
+        }
+    }
+
+    public long getBacklogEntries() {
+        KafkaSpool current = spool;
+        return current != null ? current.getEntries() : 0;
+    }
+
+    public long getBacklogBytes() {
+        KafkaSpool current = spool;
+        return current != null ? current.getBytes() : 0;
+    }
+
+    public long getEvicted() {
+        KafkaSpool current = spool;
+        return current != null ? current.getEvicted() : 0;
+    }
+
+    public long getSpooled() {
+        return spooled.sum();
+    }
+
+    public long getReplayed() {
+        return replayed.sum();
+    }
+
+    public Map<String, Object> getStats() {
+        KafkaSpool current = spool;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", current != null);
+        stats.put("sent", sent.sum());
+        stats.put("spooled", spooled.sum());
+        stats.put("replayed", replayed.sum());
+        stats.put("lost", lost.sum());
+        if (current != null) {
+            stats.put("spool", current.getStats());
+        }
+        return stats;
+    }
+
+    private CompletableFuture<Void> send(String topic, String key,
+                                         Supplier<CompletableFuture<? extends SendResult<String, ?>>> send,
+                                         Supplier<String> value) {
+        PendingSend pending = new PendingSend(topic, key, value);
+        unsettled.put(sendSequence.incrementAndGet(), pending);
+
+        KafkaSpool current = spool;
+        if (current != null && !current.isEmpty()) {
+            // Broker was failing a moment ago; queue behind the backlog instead of waiting on it
+            settle(pending, false, null);
+            return pending.result;
+        }
+        try {
+            send.get().whenComplete((result, ex) -> settle(pending, ex == null, ex));
+        } catch (Exception e) {
+            // Metadata or buffer wait exceeded max.block.ms
+            settle(pending, false, e);
+        }
+        return pending.result;
+    }
+
+    private void settle(PendingSend pending, boolean delivered, Throwable cause) {
+        pending.delivered = delivered;
+        pending.cause = cause;
+        pending.settled = true;
+        if (delivered) {
+            sent.increment();
+            pending.result.complete(null);
+        }
+        spoolSettled();
+    }
+
+    /**
+     * Retire settled sends from the lowest sequence up, spooling the failed ones. Stops at the
+     * first send still in flight (or not yet registered), so a slow failure keeps its place.
+     */
+    private void spoolSettled() {
+        synchronized (unsettled) {
+            PendingSend head;
+            while ((head = unsettled.get(nextToSettle)) != null && head.settled) {
+                unsettled.remove(nextToSettle++);
+                if (!head.delivered) {
+                    spool(head);
+                }
+            }
+        }
+    }
+
+    private void spool(PendingSend pending) {
+        KafkaSpool current = spool;
+        if (current != null) {
+            try {
+                if (current.append(new KafkaSpool.SpooledRecord(pending.topic, pending.key, pending.value.get(),
+                        System.currentTimeMillis()))) {
+                    if (current.getEntries() == 1) {
+                        log.warn("⚠️ Kafka publish to {} failed, spooling until the broker recovers: {}",
+                                pending.topic, pending.cause != null ? pending.cause.getMessage() : "backlog pending");
+                    }
+                    spooled.increment();
+                    pending.result.complete(null);
+                    return;
+                }
+                log.error("❌ Record for {} larger than the Kafka spool, dropped", pending.topic);
+            } catch (Exception e) {
+                log.error("❌ Cannot spool record for {}: {}", pending.topic, e.getMessage());
+            }
+        }
+        lost.increment();
+        Throwable cause = pending.cause;
+        Throwable failure = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        pending.result.completeExceptionally(failure != null ? failure : new IllegalStateException("Kafka spool unavailable"));
+    }
+
+    private void replayNextBatch() {
+        KafkaSpool current = spool;
+        if (current == null || current.isEmpty()) {
+            replaying.set(false);
+            return;
+        }
+        ApplicationProperties.KafkaSpoolConfig config = appProperties.getKafkaSpool();
+        KafkaSpool.Batch batch = current.peek(Math.max(1, config.getDrainBatchSize()));
+
+        List<CompletableFuture<SendResult<String, String>>> acks = new ArrayList<>(batch.records().size());
+        try {
+            for (KafkaSpool.SpooledRecord record : batch.records()) {
+                acks.add(stringKafkaTemplate.send(record.topic(), record.key(), record.value()));
+            }
+        } catch (Exception e) {
+            log.debug("Kafka still unavailable, spool replay deferred: {}", e.getMessage());
+        }
+        if (acks.isEmpty()) {
+            replaying.set(false);
+            return;
+        }
+
+        CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                .orTimeout(config.getReplayTimeoutMs(), TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, ex) -> replayed(current, batch, acks, ex));
+    }
+
+    /**
+     * Remove the acknowledged prefix of a replayed batch; continue with the next batch if all of it
+     * went through, otherwise wait for the next scheduled drain.
+     */
+    private void replayed(KafkaSpool current, KafkaSpool.Batch batch,
+                          List<CompletableFuture<SendResult<String, String>>> acks, Throwable failure) {
+        int acked = 0;
+        while (acked < acks.size() && acks.get(acked).isDone() && !acks.get(acked).isCompletedExceptionally()) {
+            acked++;
+        }
+        if (acked > 0 && spool == current) {
+            current.remove(batch.firstSequence(), acked);
+            replayed.add(acked);
+            if (current.isEmpty()) {
+                log.info("✅ Kafka spool drained, resuming direct publishing");
+            }
+        }
+
+        boolean complete = failure == null && acked == batch.records().size();
+        ExecutorService executor = replayExecutor;
+        if (!complete || executor == null || executor.isShutdown()) {
+            if (failure != null) {
+                log.debug("Spool replay stopped after {} records: {}", acked, failure.getMessage());
+            }
+            replaying.set(false);
+            return;
+        }
+        try {
+            // Producer callbacks run on the network thread, which must not send
+            executor.execute(this::replayNextBatch);
+        } catch (RuntimeException e) {
+            replaying.set(false);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName() + " for spooling", e);
+        }
+    }
+
+    private static final class PendingSend {
+        final String topic;
+        final String key;
+        final Supplier<String> value;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        boolean delivered;
+        Throwable cause;
+        volatile boolean settled; // written last, publishes delivered and cause
+
+        PendingSend(String topic, String key, Supplier<String> value) {
+            this.topic = topic;
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
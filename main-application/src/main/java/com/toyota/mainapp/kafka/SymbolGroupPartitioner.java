@@ -0,0 +1,57 @@
+package com.toyota.mainapp.kafka;
+
+import com.toyota.mainapp.util.SymbolUtils;
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Toyota Financial Data Platform - Symbol Group Partitioner
+ *
+ * Routes every record of a currency pair to the same partition, whatever the key
+ * spelling: raw (USDTRY), calculated (USDTRY_AVG) and snapshot (USDTRY_1749399209461)
+ * records share the partition of their canonical pair, so per-symbol order holds
+ * across topics and consumers can scale out by partition. The partition is the
+ * default murmur2 partition of the canonical pair, computable by any client.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public class SymbolGroupPartitioner implements Partitioner {
+
+    private final AtomicInteger unkeyed = new AtomicInteger();
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        Integer numPartitions = cluster.partitionCountForTopic(topic);
+        if (numPartitions == null || numPartitions <= 1) {
+            return 0;
+        }
+        if (key == null) {
+            // Traces and other unkeyed records carry no ordering requirement
+            return Utils.toPositive(unkeyed.getAndIncrement()) % numPartitions;
+        }
+        return groupHash(key.toString()) % numPartitions;
+    }
+
+    /**
+     * Positive murmur2 hash of the key's symbol group; alias resolution is cached by the symbol registry.
+     */
+    public static int groupHash(String key) {
+        String group = SymbolUtils.symbolGroupKey(key);
+        return Utils.toPositive(Utils.murmur2(group.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,221 @@
+package com.toyota.mainapp.kafka;
+
+import com.toyota.mainapp.config.ApplicationProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Toyota Financial Data Platform - Transactional Snapshot Publisher
+ *
+ * Publishes pipeline snapshots atomically: one thread drains queued snapshots
+ * and sends each micro-batch in a single Kafka transaction, so read_committed
+ * consumers see every record of a snapshot or none. Pipeline threads only
+ * enqueue. An aborted transaction is retried; if it keeps failing, or the
+ * queue overflows, snapshots go through the spooling path in queue order, each
+ * as one envelope record, since outside a transaction only a single record is atomic.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionalSnapshotPublisher {
+
+    private final KafkaTemplate<String, String> transactionalKafkaTemplate;
+    private final KafkaTemplate<String, String> stringKafkaTemplate;
+    private final SpoolingKafkaSender spoolingKafkaSender;
+    private final ApplicationProperties appProperties;
+
+    private volatile BlockingQueue<PendingSnapshot> queue;
+    // Snapshots that found the queue full; they and everything after them are spilled behind the queue.
+    // Appends (offer or overflow) and the spill hold its monitor so the order cannot interleave.
+    private final ConcurrentLinkedQueue<PendingSnapshot> overflow = new ConcurrentLinkedQueue<>();
+    private volatile boolean running;
+    private Thread thread;
+
+    private final LongAdder transactionsCommitted = new LongAdder();
+    private final LongAdder transactionsAborted = new LongAdder();
+    private final LongAdder transactionRetries = new LongAdder();
+    private final LongAdder snapshotsCommitted = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        ApplicationProperties.SnapshotConfig config = appProperties.getSnapshot();
+        if (!config.isTransactional()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(Math.max(1, config.getTransactionQueueCapacity()));
+        running = true;
+        thread = new Thread(this::run, "Snapshot-Tx-Publisher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("✅ Transactional snapshot publishing started: up to {} snapshots per transaction",
+                config.getMaxSnapshotsPerTransaction());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queue the records of one snapshot, all keyed by pipelineId, for the next transaction.
+     *
+     * @param asOneRecord the snapshot as a single envelope record, used when it has to be sent
+     *                    without a transaction
+     * @return completes when the transaction holding the snapshot commits, or the snapshot is
+     *         sent or spooled outside a transaction
+     */
+    public CompletableFuture<Void> publish(String topic, String pipelineId, List<String> values,
+                                           Supplier<String> asOneRecord) {
+        PendingSnapshot snapshot = new PendingSnapshot(topic, pipelineId, values, asOneRecord, new CompletableFuture<>());
+        BlockingQueue<PendingSnapshot> pending = queue;
+        if (pending == null) {
+            return sendWithoutTransaction(snapshot);
+        }
+        // Never block the pipeline thread on a full queue; once one snapshot overflowed, later
+        // ones follow it so none overtakes another
+        synchronized (overflow) {
+            if (!overflow.isEmpty() || !pending.offer(snapshot)) {
+                overflow.add(snapshot);
+            }
+        }
+        return snapshot.ack();
+    }
+
+    public Map<String, Object> getStats() {
+        BlockingQueue<PendingSnapshot> pending = queue;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", running);
+        stats.put("committed", transactionsCommitted.sum());
+        stats.put("aborted", transactionsAborted.sum());
+        stats.put("retries", transactionRetries.sum());
+        stats.put("snapshots", snapshotsCommitted.sum());
+        stats.put("fallbacks", fallbacks.sum());
+        stats.put("pending", (pending != null ? pending.size() : 0) + overflow.size());
+        return stats;
+    }
+
+    private void run() {
+        int maxPerTransaction = Math.max(1, appProperties.getSnapshot().getMaxSnapshotsPerTransaction());
+        List<PendingSnapshot> batch = new ArrayList<>(maxPerTransaction);
+        while (running || !queue.isEmpty() || !overflow.isEmpty()) {
+            try {
+                if (!overflow.isEmpty()) {
+                    spillBacklog();
+                    continue;
+                }
+                PendingSnapshot first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxPerTransaction - 1);
+                publishBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publishBatch(List<PendingSnapshot> batch) throws InterruptedException {
+        if (spoolingKafkaSender.getBacklogEntries() > 0) {
+            // Broker was failing; keep order behind the spooled records
+            batch.forEach(this::sendWithoutTransaction);
+            return;
+        }
+        ApplicationProperties.SnapshotConfig config = appProperties.getSnapshot();
+        int attempts = Math.max(1, config.getTransactionAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionalKafkaTemplate.executeInTransaction(operations -> {
+                    for (PendingSnapshot snapshot : batch) {
+                        for (String value : snapshot.values()) {
+                            operations.send(snapshot.topic(), snapshot.pipelineId(), value);
+                        }
+                    }
+                    return null;
+                });
+                transactionsCommitted.increment();
+                snapshotsCommitted.add(batch.size());
+                batch.forEach(snapshot -> snapshot.ack().complete(null));
+                return;
+            } catch (Exception e) {
+                transactionsAborted.increment();
+                // Stop retrying once the queue overflows; the backlog is spilled right after this batch
+                if (attempt >= attempts || !running || !overflow.isEmpty()) {
+                    log.warn("⚠️ Snapshot transaction of {} snapshots aborted {} times, spooling them: {}",
+                            batch.size(), attempt, e.getMessage());
+                    batch.forEach(this::sendWithoutTransaction);
+                    return;
+                }
+                transactionRetries.increment();
+                log.debug("Snapshot transaction aborted (attempt {}), retrying: {}", attempt, e.getMessage());
+                Thread.sleep(config.getTransactionRetryBackoffMs() * attempt);
+            }
+        }
+    }
+
+    /**
+     * The queue overflowed: hand everything waiting to the spooling path, queued snapshots first,
+     * then the overflow, so nothing overtakes an older snapshot.
+     */
+    private void spillBacklog() {
+        List<PendingSnapshot> backlog = new ArrayList<>(queue.size() + 64);
+        synchronized (overflow) {
+            queue.drainTo(backlog);
+            PendingSnapshot snapshot;
+            while ((snapshot = overflow.poll()) != null) {
+                backlog.add(snapshot);
+            }
+        }
+        backlog.forEach(this::sendWithoutTransaction);
+        log.warn("⚠️ Snapshot transaction queue overflowed, {} snapshots spooled", backlog.size());
+    }
+
+    private CompletableFuture<Void> sendWithoutTransaction(PendingSnapshot snapshot) {
+        fallbacks.increment();
+        spoolingKafkaSender.sendText(stringKafkaTemplate, snapshot.topic(), snapshot.pipelineId(), snapshot.asOneRecord().get())
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        snapshot.ack().completeExceptionally(ex);
+                    } else {
+                        snapshot.ack().complete(null);
+                    }
+                });
+        return snapshot.ack();
+    }
+
+    private record PendingSnapshot(String topic, String pipelineId, List<String> values,
+                                   Supplier<String> asOneRecord, CompletableFuture<Void> ack) {
+    }
+}
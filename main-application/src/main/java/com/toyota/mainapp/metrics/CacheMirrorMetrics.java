@@ -0,0 +1,45 @@
+package com.toyota.mainapp.metrics;
+
+import com.toyota.mainapp.cache.RateCacheMirror;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Toyota Financial Data Platform - Cache Mirror Metrics
+ *
+ * Counters for the Redis write-behind mirror: submitted writes, writes
+ * superseded by a newer rate before reaching Redis, rejected drain
+ * submissions, plus a gauge of writes still pending.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheMirrorMetrics {
+
+    private final RateCacheMirror rateCacheMirror;
+    private final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void registerMeters() {
+        FunctionCounter.builder("cache.mirror.submitted", rateCacheMirror, RateCacheMirror::getSubmittedCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.mirror.conflated", rateCacheMirror, RateCacheMirror::getConflatedCount)
+                .description("Writes replaced by a newer rate for the same key before reaching Redis")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.mirror.rejected", rateCacheMirror, RateCacheMirror::getRejectedCount)
+                .description("Drain submissions rejected by the mirror executor; their rates stay pending")
+                .register(meterRegistry);
+        Gauge.builder("cache.mirror.pending", rateCacheMirror, RateCacheMirror::getPendingCount)
+                .register(meterRegistry);
+        log.info("✅ Cache mirror meters registered");
+    }
+}
@@ -0,0 +1,74 @@
+package com.toyota.mainapp.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Toyota Financial Data Platform - Executor Queue Metrics
+ *
+ * Queue depth and active thread gauges for the application's thread pool
+ * executors (pipeline, stage calls, cache mirror, subscribers), keyed by
+ * bean name.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutorQueueMetrics {
+
+    private final Map<String, TaskExecutor> taskExecutors;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ThreadPoolTaskExecutor> pools = new TreeMap<>();
+
+    @PostConstruct
+    public void registerGauges() {
+        taskExecutors.forEach((name, executor) -> {
+            if (executor instanceof ThreadPoolTaskExecutor pool) {
+                pools.put(name, pool);
+                Gauge.builder("executor.queue.depth", pool, ExecutorQueueMetrics::queueDepth)
+                        .description("Tasks waiting for an executor thread")
+                        .tag("executor", name)
+                        .register(meterRegistry);
+                Gauge.builder("executor.active.threads", pool, ThreadPoolTaskExecutor::getActiveCount)
+                        .tag("executor", name)
+                        .register(meterRegistry);
+            }
+        });
+        log.info("✅ Executor queue gauges registered for {}", pools.keySet());
+    }
+
+    public Map<String, Object> getQueueDepths() {
+        Map<String, Object> depths = new TreeMap<>();
+        pools.forEach((name, pool) -> {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("queueDepth", queueDepth(pool));
+            stats.put("activeThreads", pool.getActiveCount());
+            stats.put("poolSize", pool.getPoolSize());
+            depths.put(name, stats);
+        });
+        return depths;
+    }
+
+    private static int queueDepth(ThreadPoolTaskExecutor pool) {
+        try {
+            return pool.getThreadPoolExecutor().getQueue().size();
+        } catch (IllegalStateException e) {
+            // Not initialized yet or already shut down
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.toyota.mainapp.metrics;
+
+import com.toyota.mainapp.kafka.SpoolingKafkaSender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Toyota Financial Data Platform - Kafka Spool Metrics
+ *
+ * Backlog gauges and spooled, replayed and evicted counters for the on-disk
+ * spool that holds Kafka publishes during broker outages.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaSpoolMetrics {
+
+    private final SpoolingKafkaSender spoolingKafkaSender;
+    private final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void registerMeters() {
+        Gauge.builder("kafka.spool.backlog.entries", spoolingKafkaSender, SpoolingKafkaSender::getBacklogEntries)
+                .description("Records waiting in the spool for replay")
+                .register(meterRegistry);
+        Gauge.builder("kafka.spool.backlog.bytes", spoolingKafkaSender, SpoolingKafkaSender::getBacklogBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("kafka.spool.spooled", spoolingKafkaSender, SpoolingKafkaSender::getSpooled)
+                .description("Publishes written to the spool instead of Kafka")
+                .register(meterRegistry);
+        FunctionCounter.builder("kafka.spool.replayed", spoolingKafkaSender, SpoolingKafkaSender::getReplayed)
+                .register(meterRegistry);
+        FunctionCounter.builder("kafka.spool.evicted", spoolingKafkaSender, SpoolingKafkaSender::getEvicted)
+                .description("Oldest records dropped to keep the spool within capacity-bytes")
+                .register(meterRegistry);
+        log.info("✅ Kafka spool meters registered");
+    }
+}
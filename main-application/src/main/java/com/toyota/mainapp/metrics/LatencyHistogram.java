@@ -0,0 +1,78 @@
+package com.toyota.mainapp.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toyota Financial Data Platform - Latency Histogram
+ *
+ * HdrHistogram-backed latency distribution in nanoseconds. Writers record
+ * through a lock-free {@link Recorder}; readers see the last one to two
+ * minutes of samples, so percentiles follow current tail latency instead of
+ * averaging over the whole uptime.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class LatencyHistogram {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    // Gauges for several quantiles are read together on each scrape; share one merge
+    private static final long SNAPSHOT_REUSE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+
+    private Histogram interval;
+    private Histogram current = new Histogram(SIGNIFICANT_DIGITS);
+    private Histogram previous = new Histogram(SIGNIFICANT_DIGITS);
+    private long windowStartNanos = System.nanoTime();
+    private Histogram snapshot;
+    private long snapshotNanos;
+
+    public void record(long nanos) {
+        recorder.recordValue(Math.max(0L, nanos));
+    }
+
+    /**
+     * Samples of the current and previous window. The returned histogram must not be modified.
+     */
+    public synchronized Histogram snapshot() {
+        long now = System.nanoTime();
+        if (snapshot != null && now - snapshotNanos < SNAPSHOT_REUSE_NANOS) {
+            return snapshot;
+        }
+        interval = recorder.getIntervalHistogram(interval);
+        current.add(interval);
+        if (now - windowStartNanos >= WINDOW_NANOS) {
+            previous = current;
+            current = new Histogram(SIGNIFICANT_DIGITS);
+            windowStartNanos = now;
+        }
+        Histogram merged = previous.copy();
+        merged.add(current);
+        snapshot = merged;
+        snapshotNanos = now;
+        return merged;
+    }
+
+    public double percentileMicros(double percentile) {
+        return snapshot().getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    public Map<String, Object> summary() {
+        Histogram histogram = snapshot();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("p50Us", histogram.getValueAtPercentile(50.0) / 1_000.0);
+        summary.put("p99Us", histogram.getValueAtPercentile(99.0) / 1_000.0);
+        summary.put("p999Us", histogram.getValueAtPercentile(99.9) / 1_000.0);
+        summary.put("maxUs", histogram.getMaxValue() / 1_000.0);
+        return summary;
+    }
+}
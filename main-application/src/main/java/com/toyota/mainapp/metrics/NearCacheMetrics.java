@@ -0,0 +1,51 @@
+package com.toyota.mainapp.metrics;
+
+import com.toyota.mainapp.cache.NearCache;
+import com.toyota.mainapp.cache.RateCacheService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Toyota Financial Data Platform - Near Cache Metrics
+ *
+ * Hit, miss and eviction counters plus a size gauge for the in-process rate
+ * caches in front of Redis, tagged by cache (raw, raw-symbol, calculated).
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NearCacheMetrics {
+
+    private final RateCacheService rateCacheService;
+    private final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void registerMeters() {
+        for (NearCache<?> cache : rateCacheService.getNearCaches()) {
+            FunctionCounter.builder("cache.near.hits", cache, NearCache::getHits)
+                    .description("Reads answered without a Redis round trip")
+                    .tag("cache", cache.getName())
+                    .register(meterRegistry);
+            FunctionCounter.builder("cache.near.misses", cache, NearCache::getMisses)
+                    .tag("cache", cache.getName())
+                    .register(meterRegistry);
+            FunctionCounter.builder("cache.near.evictions", cache, NearCache::getEvictions)
+                    .description("Live entries dropped to stay within max-entries")
+                    .tag("cache", cache.getName())
+                    .register(meterRegistry);
+            Gauge.builder("cache.near.size", cache, NearCache::size)
+                    .tag("cache", cache.getName())
+                    .register(meterRegistry);
+        }
+        log.info("✅ Near cache meters registered");
+    }
+}
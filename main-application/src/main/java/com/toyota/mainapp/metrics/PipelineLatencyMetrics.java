@@ -0,0 +1,120 @@
+package com.toyota.mainapp.metrics;
+
+import com.toyota.mainapp.dto.model.RateTick;
+import com.toyota.mainapp.util.TickInterner;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Toyota Financial Data Platform - Pipeline Latency Metrics
+ *
+ * Tail-latency view of the calculation pipeline: per-stage and whole-pipeline
+ * wall time, and tick-to-Kafka-ack latency per symbol and provider. Each
+ * distribution is exported as p50/p99/p999 gauges and through
+ * {@link #getLatencyReport()}.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PipelineLatencyMetrics {
+
+    private static final double[] QUANTILES = {50.0, 99.0, 99.9};
+    private static final String[] QUANTILE_TAGS = {"0.5", "0.99", "0.999"};
+
+    private final MeterRegistry meterRegistry;
+    private final TickInterner tickInterner;
+
+    private final Map<String, LatencyHistogram> stageLatencies = new ConcurrentHashMap<>();
+    private final Map<Long, LatencyHistogram> tickToAckLatencies = new ConcurrentHashMap<>();
+    private volatile LatencyHistogram pipelineLatency;
+
+    public void recordStage(String stageName, long nanos) {
+        LatencyHistogram histogram = stageLatencies.get(stageName);
+        if (histogram == null) {
+            histogram = stageLatencies.computeIfAbsent(stageName, name ->
+                    register(new LatencyHistogram(), "pipeline.stage.latency", "stage", name));
+        }
+        histogram.record(nanos);
+    }
+
+    public void recordPipeline(long nanos) {
+        LatencyHistogram histogram = pipelineLatency;
+        if (histogram == null) {
+            synchronized (this) {
+                if (pipelineLatency == null) {
+                    pipelineLatency = register(new LatencyHistogram(), "pipeline.execution.latency");
+                }
+                histogram = pipelineLatency;
+            }
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * Record the time from ingestion of {@code tick} until its snapshot was acknowledged by Kafka.
+     * Ticks without an ingest timestamp are ignored.
+     */
+    public void recordTickToAck(RateTick tick, long ackNanos) {
+        if (tick == null || tick.getIngestNanos() == 0) {
+            return;
+        }
+        long key = ((long) tick.getSymbolId() << 32) | (tick.getProviderId() & 0xFFFFFFFFL);
+        LatencyHistogram histogram = tickToAckLatencies.get(key);
+        if (histogram == null) {
+            histogram = tickToAckLatencies.computeIfAbsent(key, k -> register(new LatencyHistogram(),
+                    "pipeline.tick.to.ack.latency",
+                    "symbol", tickInterner.symbolName(tick.getSymbolId()),
+                    "provider", tickInterner.providerName(tick.getProviderId())));
+        }
+        histogram.record(ackNanos - tick.getIngestNanos());
+    }
+
+    public Map<String, Object> getLatencyReport() {
+        Map<String, Object> stages = new TreeMap<>();
+        stageLatencies.forEach((stage, histogram) -> stages.put(stage, histogram.summary()));
+
+        Map<String, Object> tickToAck = new TreeMap<>();
+        tickToAckLatencies.forEach((key, histogram) -> {
+            int symbolId = (int) (key >>> 32);
+            int providerId = key.intValue();
+            tickToAck.put(tickInterner.symbolName(symbolId) + "/" + tickInterner.providerName(providerId),
+                    histogram.summary());
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        LatencyHistogram pipeline = pipelineLatency;
+        report.put("pipeline", pipeline != null ? pipeline.summary() : Map.of());
+        report.put("stages", stages);
+        report.put("tickToAck", tickToAck);
+        return report;
+    }
+
+    private LatencyHistogram register(LatencyHistogram histogram, String name, String... tags) {
+        for (int i = 0; i < QUANTILES.length; i++) {
+            double quantile = QUANTILES[i];
+            Gauge.builder(name, histogram, h -> h.percentileMicros(quantile))
+                    .description("Latency over the last one to two minutes")
+                    .baseUnit("microseconds")
+                    .tags(tags)
+                    .tag("quantile", QUANTILE_TAGS[i])
+                    .register(meterRegistry);
+        }
+        Gauge.builder(name + ".count", histogram, h -> h.snapshot().getTotalCount())
+                .tags(tags)
+                .register(meterRegistry);
+        log.debug("Registered latency histogram {} {}", name, String.join(",", tags));
+        return histogram;
+    }
+}
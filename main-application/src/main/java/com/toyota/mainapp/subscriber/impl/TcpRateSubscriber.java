@@ -247,22 +247,23 @@ public class TcpRateSubscriber implements PlatformSubscriber {
             if (parts.length < 3) return;
 
             String symbol = parts[0].trim();
-            double bid = 0.0;
-            double ask = 0.0;
+            String bid = null;
+            String ask = null;
 
+            // Keep the provider's decimal text; it is parsed once, exactly, on ingestion
             for (int i = 1; i < parts.length; i++) {
                 String part = parts[i];
                 if (part.contains("22:number:")) {
-                    bid = Double.parseDouble(part.substring(part.lastIndexOf(":") + 1));
+                    bid = part.substring(part.lastIndexOf(":") + 1).trim();
                 } else if (part.contains("25:number:")) {
-                    ask = Double.parseDouble(part.substring(part.lastIndexOf(":") + 1));
+                    ask = part.substring(part.lastIndexOf(":") + 1).trim();
                 }
             }
 
             ProviderRateDto rate = new ProviderRateDto();
             rate.setSymbol(symbol);
-            rate.setBid(String.valueOf(bid));
-            rate.setAsk(String.valueOf(ask));
+            rate.setBid(bid);
+            rate.setAsk(ask);
             rate.setProviderName(providerName);
             rate.setTimestamp(System.currentTimeMillis());
 
@@ -1,6 +1,7 @@
 package com.toyota.mainapp.util;
 
 import com.toyota.mainapp.cache.RateCacheService;
+import com.toyota.mainapp.cache.ReactiveRateCacheService;
 import com.toyota.mainapp.dto.config.CalculationRuleDto;
 import com.toyota.mainapp.dto.model.BaseRateDto;
 import lombok.RequiredArgsConstructor;
@@ -9,9 +10,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 
 /**
  Input collection utilities for calculation stages
@@ -22,6 +27,7 @@ import java.util.Map;
 public class CalculationInputUtils {
 
     private final RateCacheService rateCacheService;
+    private final ReactiveRateCacheService reactiveRateCacheService;
 
     @Value("${app.calculation.provider-names:TCPProvider1,TCPProvider2,RESTProvider1}")
     private String providerNamesConfig;
@@ -41,16 +47,39 @@ public class CalculationInputUtils {
         return collectRawInputsFromSources(rule.getInputSymbols());
     }
 
+    /**
+     * Non-blocking {@link #collectRawInputs}: every source symbol of the rule in one cache request.
+     */
+    public CompletionStage<Map<String, BaseRateDto>> collectRawInputsAsync(CalculationRuleDto rule) {
+        List<String> sources = rule.getInputSymbols() != null && !rule.getInputSymbols().isEmpty()
+                ? rule.getInputSymbols()
+                : rule.getRawSources();
+        if (sources == null || sources.isEmpty()) {
+            log.warn("No input symbols or raw sources defined for rule: {}", rule.getOutputSymbol());
+            return CompletableFuture.completedFuture(new HashMap<>());
+        }
+
+        List<String> normalizedSymbols = sources.stream().map(SymbolUtils::normalizeSymbol).distinct().toList();
+        return reactiveRateCacheService.getRawRatesForSymbols(normalizedSymbols, getProviderNames())
+                .map(bySymbol -> assembleRawInputs(sources,
+                        symbol -> bySymbol.getOrDefault(symbol, Collections.emptyMap())))
+                .toFuture();
+    }
+
     private Map<String, BaseRateDto> collectRawInputsFromSources(List<String> sources) {
-        Map<String, BaseRateDto> inputRates = new HashMap<>();
-        
         List<String> providerNames = getProviderNames();
+        // Get all providers for this symbol from cache
+        return assembleRawInputs(sources, symbol -> rateCacheService.getRawRatesForSymbol(symbol, providerNames));
+    }
+
+    private Map<String, BaseRateDto> assembleRawInputs(List<String> sources,
+                                                       Function<String, Map<String, BaseRateDto>> ratesForSymbol) {
+        Map<String, BaseRateDto> inputRates = new HashMap<>();
 
         for (String inputSymbol : sources) {
             String normalizedSymbol = SymbolUtils.normalizeSymbol(inputSymbol);
             
-            // Get all providers for this symbol from cache
-            Map<String, BaseRateDto> symbolRates = rateCacheService.getRawRatesForSymbol(normalizedSymbol, providerNames);
+            Map<String, BaseRateDto> symbolRates = ratesForSymbol.apply(normalizedSymbol);
 
             symbolRates.forEach((provider, rate) -> {
                 if (rate != null && RateCalculationUtils.isValidRate(rate)) {
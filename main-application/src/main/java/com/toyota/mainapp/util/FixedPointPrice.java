@@ -0,0 +1,213 @@
+package com.toyota.mainapp.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Toyota Financial Data Platform - Fixed-Point Price Arithmetic
+ *
+ * Exact decimal prices as scaled {@code long} mantissas (value = mantissa / 10^scale).
+ * Parsing, comparison, averaging and multiplication are allocation-free; rounding is
+ * HALF_UP like the BigDecimal path it replaces. BigDecimal is only produced at the
+ * Kafka/Redis edges via {@link #toBigDecimal(long, int)}.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class FixedPointPrice {
+
+    public static final int MAX_SCALE = 12;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1L;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10L;
+        }
+    }
+
+    private FixedPointPrice() {
+    }
+
+    public static long pow10(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    public static long parse(CharSequence text, int scale) {
+        return parse(text, 0, text.length(), scale);
+    }
+
+    /**
+     * Parse a plain decimal ("34.12345", "-0.5", "12") into a mantissa at the given scale,
+     * rounding surplus fraction digits HALF_UP. No intermediate objects are created.
+     *
+     * @throws NumberFormatException on empty input, non-digits or overflow
+     */
+    public static long parse(CharSequence text, int start, int end, int scale) {
+        checkScale(scale);
+        while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+        if (start >= end) {
+            throw new NumberFormatException("Empty price");
+        }
+
+        boolean negative = false;
+        char first = text.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+        }
+
+        long mantissa = 0;
+        int fractionDigits = -1;
+        boolean roundUp = false;
+        boolean sawDigit = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                if (fractionDigits >= 0) {
+                    throw new NumberFormatException("Multiple decimal points");
+                }
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Invalid character in price: " + c);
+            }
+            sawDigit = true;
+            if (fractionDigits >= scale) {
+                // First dropped digit decides HALF_UP rounding; later ones are ignored
+                if (fractionDigits == scale) {
+                    roundUp = c >= '5';
+                }
+                fractionDigits++;
+                continue;
+            }
+            mantissa = Math.addExact(Math.multiplyExact(mantissa, 10L), c - '0');
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        if (!sawDigit) {
+            throw new NumberFormatException("Price has no digits");
+        }
+
+        int usedFraction = fractionDigits < 0 ? 0 : Math.min(fractionDigits, scale);
+        mantissa = Math.multiplyExact(mantissa, POWERS_OF_TEN[scale - usedFraction]);
+        if (roundUp) {
+            mantissa = Math.addExact(mantissa, 1L);
+        }
+        return negative ? -mantissa : mantissa;
+    }
+
+    public static long fromBigDecimal(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long mantissa, int scale) {
+        return BigDecimal.valueOf(mantissa, scale);
+    }
+
+    /**
+     * Change the scale of a mantissa, rounding HALF_UP when digits are dropped.
+     */
+    public static long rescale(long mantissa, int fromScale, int toScale) {
+        if (fromScale == toScale) {
+            return mantissa;
+        }
+        if (toScale > fromScale) {
+            return Math.multiplyExact(mantissa, POWERS_OF_TEN[toScale - fromScale]);
+        }
+        return divideHalfUp(mantissa, POWERS_OF_TEN[fromScale - toScale]);
+    }
+
+    /**
+     * a * b rounded HALF_UP to the target scale.
+     */
+    public static long multiply(long a, int scaleA, long b, int scaleB, int targetScale) {
+        int productScale = scaleA + scaleB;
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return rescale(low, productScale, targetScale);
+        }
+        // Product exceeds 64 bits; rare for FX prices, so fall back to BigDecimal
+        return fromBigDecimal(toBigDecimal(a, scaleA).multiply(toBigDecimal(b, scaleB)), targetScale);
+    }
+
+    /**
+     * a / b rounded HALF_UP to the target scale.
+     */
+    public static long divide(long a, int scaleA, long b, int scaleB, int targetScale) {
+        if (b == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        // a/10^sa / (b/10^sb) = a * 10^(sb - sa + target) / b at target scale
+        int shift = scaleB - scaleA + targetScale;
+        if (shift >= 0 && shift < POWERS_OF_TEN.length) {
+            long factor = POWERS_OF_TEN[shift];
+            long high = Math.multiplyHigh(a, factor);
+            long low = a * factor;
+            if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+                return divideHalfUp(low, b);
+            }
+        } else if (shift < 0 && -shift < POWERS_OF_TEN.length) {
+            long factor = POWERS_OF_TEN[-shift];
+            long high = Math.multiplyHigh(b, factor);
+            long low = b * factor;
+            if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+                return divideHalfUp(a, low);
+            }
+        }
+        return fromBigDecimal(toBigDecimal(a, scaleA)
+                .divide(toBigDecimal(b, scaleB), targetScale, RoundingMode.HALF_UP), targetScale);
+    }
+
+    /**
+     * Integer division rounded HALF_UP (away from zero on ties), matching BigDecimal.
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        long doubledRemainder = Math.abs(remainder) * 2;
+        if (doubledRemainder >= Math.abs(divisor)) {
+            return ((dividend ^ divisor) < 0) ? quotient - 1 : quotient + 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Append the decimal form (scale digits after the point) without creating a BigDecimal.
+     */
+    public static StringBuilder appendTo(StringBuilder target, long mantissa, int scale) {
+        if (mantissa < 0) {
+            target.append('-');
+            mantissa = -mantissa;
+        }
+        long divisor = POWERS_OF_TEN[scale];
+        target.append(mantissa / divisor);
+        if (scale > 0) {
+            target.append('.');
+            long fraction = mantissa % divisor;
+            for (long p = divisor / 10; p > 0; p /= 10) {
+                target.append((char) ('0' + (fraction / p) % 10));
+            }
+        }
+        return target;
+    }
+
+    public static String toString(long mantissa, int scale) {
+        return appendTo(new StringBuilder(24), mantissa, scale).toString();
+    }
+
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Unsupported price scale: " + scale);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.toyota.mainapp.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Toyota Financial Data Platform - Symbol Registry
+ *
+ * Interns the configured canonical symbols under dense int ids and remembers
+ * every alias spelling (USD/TRY, usdtry, USDTRY_AVG, PF1_USDTRY) that resolved
+ * to one, so normalization runs once per spelling and the hot path can index
+ * arrays by id. Only symbols registered from configuration get an id; the
+ * table is capped, so provider input and record keys can never grow it.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public final class SymbolRegistry {
+
+    public static final int UNKNOWN = -1;
+    public static final int DEFAULT_MAX_ALIASES = 16_384;
+    public static final int DEFAULT_MAX_SYMBOLS = 1_000;
+
+    private static final SymbolRegistry GLOBAL = new SymbolRegistry(DEFAULT_MAX_ALIASES, DEFAULT_MAX_SYMBOLS);
+    private static final Pattern VALID_SYMBOL_PATTERN = Pattern.compile("^[A-Z]{6,}$");
+    private static final String CALC_RATE_PREFIX = "CALC_RATE:";
+
+    private final int maxAliases;
+    private final int maxSymbols;
+    private final Map<String, Integer> aliasIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> canonicalIds = new ConcurrentHashMap<>();
+    // Copy-on-write id -> name table; readers never lock
+    private volatile String[] names = new String[0];
+    private final LongAdder uncachedResolutions = new LongAdder();
+    private final LongAdder unknownResolutions = new LongAdder();
+
+    public SymbolRegistry(int maxAliases) {
+        this(maxAliases, DEFAULT_MAX_SYMBOLS);
+    }
+
+    public SymbolRegistry(int maxAliases, int maxSymbols) {
+        this.maxAliases = maxAliases;
+        this.maxSymbols = maxSymbols;
+    }
+
+    /**
+     * Process-wide registry behind {@link SymbolUtils} and {@link TickInterner}.
+     */
+    public static SymbolRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Intern a configured symbol (rule input or output, provider mapping) under its canonical form.
+     *
+     * @return dense id, or {@link #UNKNOWN} if the canonical form is not a valid symbol
+     * @throws IllegalStateException if the configuration holds more than maxSymbols symbols
+     */
+    public int register(String symbol) {
+        if (symbol == null) {
+            return UNKNOWN;
+        }
+        String canonical = canonicalize(symbol);
+        if (!VALID_SYMBOL_PATTERN.matcher(canonical).matches()) {
+            return UNKNOWN;
+        }
+        return intern(canonical);
+    }
+
+    /**
+     * Id of the registered symbol behind any alias. Unregistered symbols are not interned.
+     *
+     * @return dense id, or {@link #UNKNOWN} for null or a symbol that is not configured
+     */
+    public int resolve(String symbol) {
+        if (symbol == null) {
+            return UNKNOWN;
+        }
+        Integer id = aliasIds.get(symbol);
+        if (id != null) {
+            return id;
+        }
+
+        Integer canonicalId = canonicalIds.get(canonicalize(symbol));
+        if (canonicalId == null) {
+            unknownResolutions.increment();
+            return UNKNOWN;
+        }
+        // Unbounded provider input must not grow the alias table forever
+        if (aliasIds.size() < maxAliases) {
+            aliasIds.put(symbol, canonicalId);
+        } else {
+            uncachedResolutions.increment();
+        }
+        return canonicalId;
+    }
+
+    /**
+     * Canonical form of any spelling, from the alias table when the symbol is registered.
+     */
+    public String canonical(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        int id = resolve(symbol);
+        return id != UNKNOWN ? names[id] : canonicalize(symbol);
+    }
+
+    /**
+     * Whether the canonical form is a plain currency code pair or longer letter-only code,
+     * whether or not it is registered.
+     */
+    public boolean isValidSymbol(String symbol) {
+        return symbol != null && VALID_SYMBOL_PATTERN.matcher(canonical(symbol)).matches();
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * Whether the id belongs to a registered symbol; only valid symbols are registered.
+     */
+    public boolean isValid(int id) {
+        return id >= 0 && id < names.length;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("symbols", names.length);
+        stats.put("maxSymbols", maxSymbols);
+        stats.put("aliases", aliasIds.size());
+        stats.put("maxAliases", maxAliases);
+        stats.put("uncachedResolutions", uncachedResolutions.sum());
+        stats.put("unknownResolutions", unknownResolutions.sum());
+        return stats;
+    }
+
+    private int intern(String canonical) {
+        Integer id = canonicalIds.get(canonical);
+        if (id != null) {
+            return id;
+        }
+        synchronized (canonicalIds) {
+            Integer existing = canonicalIds.get(canonical);
+            if (existing != null) {
+                return existing;
+            }
+            int newId = names.length;
+            if (newId >= maxSymbols) {
+                throw new IllegalStateException("Symbol table full (" + maxSymbols + "), cannot register " + canonical);
+            }
+            String[] table = Arrays.copyOf(names, newId + 1);
+            table[newId] = canonical;
+            names = table;
+            canonicalIds.put(canonical, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Slow path: strip slashes, case and rule decorations down to the base pair.
+     */
+    static String canonicalize(String symbol) {
+        String normalized = symbol.trim().toUpperCase().replace("/", "");
+
+        if (normalized.contains("_")) {
+            String[] parts = normalized.split("_");
+            if (parts.length >= 2) {
+                String symbolPart = parts[parts.length - 1];
+                if (symbolPart.equals("AVG") || symbolPart.equals("CROSS") || symbolPart.equals("CALC")) {
+                    if (parts.length >= 3) {
+                        normalized = parts[parts.length - 2];
+                    } else {
+                        normalized = parts[0];
+                    }
+                } else {
+                    normalized = symbolPart;
+                }
+            }
+        }
+
+        if (normalized.startsWith(CALC_RATE_PREFIX)) {
+            normalized = normalized.substring(CALC_RATE_PREFIX.length());
+        }
+        return normalized;
+    }
+}
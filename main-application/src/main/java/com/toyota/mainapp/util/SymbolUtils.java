@@ -5,63 +5,28 @@ import com.toyota.mainapp.dto.model.RateType;
 
 import java.util.UUID;
 import java.util.regex.Pattern;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class SymbolUtils {
 
-    private static final Map<String, String> NORMALIZE_CACHE = new ConcurrentHashMap<>();
-    private static final Map<String, List<String>> VARIANTS_CACHE = new ConcurrentHashMap<>();
-    private static final int MAX_CACHE_SIZE = 1000;
     private static final Pattern CURRENCY_PAIR_PATTERN = Pattern.compile("^[A-Z]{6}$");
+    public static final String BATCH_PIPELINE_PREFIX = "BATCH_";
 
     private SymbolUtils() {
     }
 
+    /**
+     * Canonical pair for any spelling (USD/TRY, usdtry, USDTRY_AVG, PF1_USDTRY -> USDTRY),
+     * resolved once per spelling by the {@link SymbolRegistry} for configured symbols.
+     */
     public static String normalizeSymbol(String symbol) {
-        if (symbol == null) return null;
-        String cached = NORMALIZE_CACHE.get(symbol);
-        if (cached != null) {
-            return cached;
-        }
-
-        String normalized = symbol.trim().toUpperCase().replace("/", "");
-
-        if (normalized.contains("_")) {
-            String[] parts = normalized.split("_");
-            if (parts.length >= 2) {
-                String symbolPart = parts[parts.length - 1];
-                if (symbolPart.equals("AVG") || symbolPart.equals("CROSS") || symbolPart.equals("CALC")) {
-                    if (parts.length >= 3) {
-                        normalized = parts[parts.length - 2];
-                    } else {
-                        normalized = parts[0];
-                    }
-                } else {
-                    normalized = symbolPart;
-                }
-            }
-        }
-
-        if (normalized.startsWith("CALC_RATE:")) {
-            normalized = normalized.substring("CALC_RATE:".length());
-        }
-
-        if (NORMALIZE_CACHE.size() < MAX_CACHE_SIZE) {
-            NORMALIZE_CACHE.put(symbol, normalized);
-        }
-
-        return normalized;
+        return SymbolRegistry.global().canonical(symbol);
     }
 
     public static boolean isValidSymbol(String symbol) {
-        if (symbol == null || symbol.trim().isEmpty()) {
+        if (symbol == null) {
             return false;
         }
-        String normalized = normalizeSymbol(symbol);
-        return normalized.length() >= 6 && normalized.matches("^[A-Z]+$");
+        return SymbolRegistry.global().isValidSymbol(symbol);
     }
 
     public static String addSlash(String symbol) {
@@ -79,6 +44,27 @@ public class SymbolUtils {
         return rate.getSymbol() + "_" + System.currentTimeMillis();
     }
 
+    /**
+     * Partitioning group of a record key: the canonical pair behind a symbol (PF1_USDTRY,
+     * USDTRY_AVG -> USDTRY) or behind a pipeline id (BATCH_USDTRY_1749399209461 -> USDTRY).
+     */
+    public static String symbolGroupKey(String key) {
+        if (key == null) return null;
+        String symbol = key.startsWith(BATCH_PIPELINE_PREFIX) ? key.substring(BATCH_PIPELINE_PREFIX.length()) : key;
+        int separator = symbol.lastIndexOf('_');
+        if (separator > 0 && separator < symbol.length() - 1 && isDigits(symbol, separator + 1)) {
+            symbol = symbol.substring(0, separator);
+        }
+        return normalizeSymbol(symbol);
+    }
+
+    private static boolean isDigits(String value, int from) {
+        for (int i = from; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) return false;
+        }
+        return true;
+    }
+
     public static String generateSnapshotKey(BaseRateDto rate) {
         if (rate == null) return "";
         
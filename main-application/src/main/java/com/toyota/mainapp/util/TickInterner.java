@@ -0,0 +1,117 @@
+package com.toyota.mainapp.util;
+
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateTick;
+import com.toyota.mainapp.dto.model.RateType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Toyota Financial Data Platform - Tick Id Interner
+ *
+ * Dense ids for symbols (taken from the {@link SymbolRegistry}, so any alias
+ * maps to its canonical id) and providers, so ticks can carry ints instead of
+ * strings, and owns the per-symbol price scale. Also the single place where a
+ * {@link RateTick} is materialized into a {@link BaseRateDto}.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+@RequiredArgsConstructor
+public class TickInterner {
+
+    /** Provider ids share an int with the symbol id in the AVG board's slot keys, 16 bits each. */
+    public static final int MAX_IDS = 1 << 16;
+
+    private final ApplicationProperties appProperties;
+
+    private final SymbolRegistry symbolRegistry = SymbolRegistry.global();
+    private final Map<String, Integer> providerIds = new ConcurrentHashMap<>();
+    // Copy-on-write id -> value tables; readers never lock
+    private volatile String[] providers = new String[0];
+    private volatile int[] symbolScales = new int[0];
+
+    /**
+     * Canonical symbol id for any alias spelling, or {@link SymbolRegistry#UNKNOWN} if not configured.
+     */
+    public int symbolId(String symbol) {
+        return symbolRegistry.resolve(symbol);
+    }
+
+    public boolean isValidSymbol(int symbolId) {
+        return symbolRegistry.isValid(symbolId);
+    }
+
+    public int providerId(String providerName) {
+        Integer id = providerIds.get(providerName);
+        if (id != null) {
+            return id;
+        }
+        synchronized (providerIds) {
+            Integer existing = providerIds.get(providerName);
+            if (existing != null) {
+                return existing;
+            }
+            int newId = providers.length;
+            if (newId >= MAX_IDS) {
+                throw new IllegalStateException("Too many providers, cannot intern " + providerName);
+            }
+            String[] names = Arrays.copyOf(providers, newId + 1);
+            names[newId] = providerName;
+            providers = names;
+            providerIds.put(providerName, newId);
+            return newId;
+        }
+    }
+
+    public String symbolName(int symbolId) {
+        return symbolRegistry.name(symbolId);
+    }
+
+    public String providerName(int providerId) {
+        return providers[providerId];
+    }
+
+    public int scaleOf(int symbolId) {
+        int[] scales = symbolScales;
+        return symbolId < scales.length ? scales[symbolId] : extendScales(symbolId);
+    }
+
+    /**
+     * Edge conversion for Kafka/Redis and the DTO-based pipeline stages.
+     */
+    public BaseRateDto toBaseRateDto(RateTick tick) {
+        BaseRateDto rate = new BaseRateDto();
+        rate.setRateType(RateType.RAW);
+        rate.setSymbol(symbolName(tick.getSymbolId()));
+        rate.setProviderName(providerName(tick.getProviderId()));
+        rate.setBid(FixedPointPrice.toBigDecimal(tick.getBid(), tick.getScale()));
+        rate.setAsk(FixedPointPrice.toBigDecimal(tick.getAsk(), tick.getScale()));
+        rate.setTimestamp(tick.getTimestamp());
+        rate.setReceivedAt(tick.getReceivedAt());
+        return rate;
+    }
+
+    private synchronized int extendScales(int symbolId) {
+        int[] scales = symbolScales;
+        if (symbolId < scales.length) {
+            return scales[symbolId];
+        }
+        // Registry ids are dense, so fill every id up to this one
+        ApplicationProperties.PricingConfig pricing = appProperties.getPricing();
+        int[] extended = Arrays.copyOf(scales, symbolId + 1);
+        for (int id = scales.length; id <= symbolId; id++) {
+            Integer configured = pricing.getSymbolScales().get(symbolRegistry.name(id));
+            extended[id] = configured != null ? configured : pricing.getDefaultScale();
+        }
+        symbolScales = extended;
+        return extended[symbolId];
+    }
+}
@@ -1,6 +1,7 @@
 package com.toyota.mainapp.validation;
 
 import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateTick;
 import com.toyota.mainapp.exception.AggregatedRateValidationException;
 import com.toyota.mainapp.validation.rules.ValidationRule;
 import lombok.RequiredArgsConstructor;
@@ -69,6 +70,30 @@ public class RateValidatorService {
         
     }
     
+    /**
+     * Hot-path validation on fixed-point mantissas; no allocation unless the tick is rejected.
+     */
+    public void validate(RateTick tick) throws AggregatedRateValidationException {
+        if (tick == null) {
+            throw new AggregatedRateValidationException(List.of("Rate object is null"));
+        }
+        if (tick.getBid() > 0 && tick.getAsk() > 0 && tick.getBid() <= tick.getAsk()) {
+            return;
+        }
+
+        List<String> errors = new ArrayList<>();
+        if (tick.getBid() <= 0) {
+            errors.add("Bid price must be positive");
+        }
+        if (tick.getAsk() <= 0) {
+            errors.add("Ask price must be positive");
+        }
+        if (tick.getBid() > tick.getAsk()) {
+            errors.add("Bid price cannot be greater than ask price");
+        }
+        throw new AggregatedRateValidationException(errors);
+    }
+
     private List<String> validateBasicFields(BaseRateDto rate) {
         List<String> errors = new ArrayList<>();
         
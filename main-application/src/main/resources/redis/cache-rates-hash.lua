@@ -0,0 +1,21 @@
+-- Toyota Financial Data Platform - batched raw rate write, hash layout
+--
+-- KEYS: one per-symbol hash key per rate (may repeat). ARGV: TTL in seconds,
+-- near cache invalidation channel ('' = none), writer instance id, then one
+-- provider/value pair per key. Field freshness travels inside the value
+-- (receivedAt); the hash TTL only reaps symbols that went quiet.
+-- Returns the number of fields written.
+
+local ttl = tonumber(ARGV[1])
+local channel = ARGV[2]
+local instance = ARGV[3]
+
+for i, key in ipairs(KEYS) do
+    redis.call('HSET', key, ARGV[2 + 2 * i], ARGV[3 + 2 * i])
+    redis.call('EXPIRE', key, ttl)
+    if channel ~= '' then
+        redis.call('PUBLISH', channel, instance .. '|' .. key)
+    end
+end
+
+return #KEYS
@@ -0,0 +1,37 @@
+-- Toyota Financial Data Platform - batched rate cache write
+--
+-- KEYS: rate keys; with compare, followed by one fingerprint key per rate key in
+-- the same order. ARGV: compare flag ('1' = skip unchanged quotes), TTL in seconds,
+-- near cache invalidation channel ('' = none), writer instance id, then one
+-- fingerprint/value pair per rate key. The fingerprint ("bid|ask") lives next to
+-- the value so unchanged quotes only have their TTL refreshed.
+-- Returns the number of keys actually written.
+
+local compare = ARGV[1] == '1'
+local ttl = tonumber(ARGV[2])
+local channel = ARGV[3]
+local instance = ARGV[4]
+local count = compare and #KEYS / 2 or #KEYS
+local written = 0
+
+for i = 1, count do
+    local key = KEYS[i]
+    local fingerprint = ARGV[3 + 2 * i]
+    local value = ARGV[4 + 2 * i]
+    local fingerprintKey = KEYS[count + i]
+
+    if compare and redis.call('GET', fingerprintKey) == fingerprint and redis.call('EXPIRE', key, ttl) == 1 then
+        redis.call('EXPIRE', fingerprintKey, ttl)
+    else
+        redis.call('SET', key, value, 'EX', ttl)
+        if compare then
+            redis.call('SET', fingerprintKey, fingerprint, 'EX', ttl)
+        end
+        if channel ~= '' then
+            redis.call('PUBLISH', channel, instance .. '|' .. key)
+        end
+        written = written + 1
+    end
+end
+
+return written
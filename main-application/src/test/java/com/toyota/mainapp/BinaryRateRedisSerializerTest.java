@@ -0,0 +1,139 @@
+package com.toyota.mainapp;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.toyota.mainapp.cache.BinaryRateRedisSerializer;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.InputRateInfo;
+import com.toyota.mainapp.dto.model.RateType;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryRateRedisSerializerTest {
+
+    private final Jackson2JsonRedisSerializer<BaseRateDto> json = legacyJson();
+    private final BinaryRateRedisSerializer codec = new BinaryRateRedisSerializer(true, json);
+
+    @Test
+    void rawRateRoundTrips() {
+        BaseRateDto raw = rawRate();
+
+        BaseRateDto decoded = codec.deserialize(codec.serialize(raw));
+
+        assertEquals(raw, decoded);
+        assertEquals(5, decoded.getBid().scale());
+    }
+
+    @Test
+    void calculatedRateWithInputsRoundTrips() {
+        BaseRateDto calculated = calculatedRate();
+
+        assertEquals(calculated, codec.deserialize(codec.serialize(calculated)));
+    }
+
+    @Test
+    void inputsAreOptional() {
+        BinaryRateRedisSerializer withoutInputs = new BinaryRateRedisSerializer(false, json);
+
+        byte[] bytes = withoutInputs.serialize(calculatedRate());
+
+        assertTrue(withoutInputs.deserialize(bytes).getCalculationInputs().isEmpty());
+        assertTrue(bytes.length < codec.serialize(calculatedRate()).length);
+    }
+
+    @Test
+    void binaryIsMuchSmallerThanTypedJson() {
+        BaseRateDto raw = rawRate();
+        assertTrue(codec.serialize(raw).length * 3 < json.serialize(raw).length);
+    }
+
+    @Test
+    void legacyJsonEntriesStayReadable() {
+        BaseRateDto raw = rawRate();
+        byte[] legacy = json.serialize(raw);
+
+        assertEquals(raw, codec.deserialize(legacy));
+        assertThrows(SerializationException.class,
+                () -> new BinaryRateRedisSerializer(true, null).deserialize(legacy));
+    }
+
+    @Test
+    void unusualDecimalsRoundTrip() {
+        BaseRateDto rate = rawRate();
+        rate.setBid(new BigDecimal("123456789012345678901234567890.123456"));
+        rate.setAsk(new BigDecimal("-1.5E+3"));
+
+        BaseRateDto decoded = codec.deserialize(codec.serialize(rate));
+
+        assertEquals(rate.getBid(), decoded.getBid());
+        assertEquals(rate.getAsk(), decoded.getAsk());
+    }
+
+    @Test
+    void rejectsUnknownVersionAndTruncatedEntries() {
+        byte[] bytes = codec.serialize(rawRate());
+        byte[] future = bytes.clone();
+        future[1] = 9;
+
+        assertThrows(SerializationException.class, () -> codec.deserialize(future));
+        assertThrows(SerializationException.class, () -> codec.deserialize(java.util.Arrays.copyOf(bytes, bytes.length - 3)));
+        assertNull(codec.deserialize(new byte[0]));
+    }
+
+    @Test
+    void corruptLengthsAreSerializationErrors() {
+        // Presence = INPUTS only, then an input count of -1 as a 64-bit varint
+        byte[] negativeCount = {(byte) 0xB7, 1, (byte) 0x80, (byte) 0x40,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+        // Presence = BID only, wide decimal with a zero byte length
+        byte[] emptyDecimal = {(byte) 0xB7, 1, 0x04, 0x01, 0x00};
+
+        assertThrows(SerializationException.class, () -> codec.deserialize(negativeCount));
+        assertThrows(SerializationException.class, () -> codec.deserialize(emptyDecimal));
+    }
+
+    private static BaseRateDto rawRate() {
+        BaseRateDto rate = new BaseRateDto();
+        rate.setRateType(RateType.RAW);
+        rate.setSymbol("USDTRY");
+        rate.setProviderName("TCPProvider1");
+        rate.setBid(new BigDecimal("34.12340"));
+        rate.setAsk(new BigDecimal("34.12590"));
+        rate.setTimestamp(1_735_689_600_123L);
+        rate.setReceivedAt(1_735_689_600_130L);
+        rate.setStatus(BaseRateDto.RateStatusEnum.ACTIVE);
+        return rate;
+    }
+
+    private static BaseRateDto calculatedRate() {
+        BaseRateDto rate = rawRate();
+        rate.setRateType(RateType.CALCULATED);
+        rate.setSymbol("EURTRY");
+        rate.setProviderName("CALCULATED");
+        rate.setCalculationType("CROSS");
+        rate.setCalculatedByStrategy("formulaCalculationStrategy");
+        rate.setLastCalculationTimestamp(1_735_689_600_200L);
+        rate.setCalculationInputs(List.of(
+                InputRateInfo.fromBaseRateDto(rawRate()),
+                InputRateInfo.builder().symbol("EURUSD").rateType("CALCULATED").bid(new BigDecimal("1.08")).build()));
+        return rate;
+    }
+
+    private static Jackson2JsonRedisSerializer<BaseRateDto> legacyJson() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        return new Jackson2JsonRedisSerializer<>(mapper, BaseRateDto.class);
+    }
+}
@@ -0,0 +1,186 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.cache.RateCacheMirror;
+import com.toyota.mainapp.calculator.CalculatedRatePublisher;
+import com.toyota.mainapp.calculator.graph.RuleDependencyGraph;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.config.RuleSetSnapshot;
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.dto.config.PublishPolicyDto;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.kafka.KafkaPublishingService;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CalculatedRatePublisherTest {
+
+    private final ApplicationProperties properties = new ApplicationProperties(new DefaultResourceLoader());
+    private final RateCacheMirror rateCacheMirror = mock(RateCacheMirror.class);
+    private final KafkaPublishingService kafkaPublishingService = mock(KafkaPublishingService.class);
+    private final CalculatedRatePublisher publisher =
+            new CalculatedRatePublisher(rateCacheMirror, kafkaPublishingService, properties);
+
+    @Test
+    void rulesWithoutPolicyPublishEveryResult() {
+        CalculationRuleDto rule = rule(null);
+
+        assertTrue(publisher.publish(rule, rate("34.10000")));
+        assertTrue(publisher.publish(rule, rate("34.10000")));
+
+        verify(kafkaPublishingService, times(2)).publishCalculatedRate(any());
+        verify(rateCacheMirror, times(2)).mirrorCalculatedRate(any());
+    }
+
+    @Test
+    void thresholdComparesAgainstLastPublishedValue() {
+        CalculationRuleDto rule = rule(PublishPolicyDto.builder()
+                .mode(PublishPolicyDto.Mode.THRESHOLD).minChangePips(1.0).heartbeatMs(0L).build());
+
+        assertTrue(publisher.publish(rule, rate("34.10000")));
+        assertFalse(publisher.publish(rule, rate("34.10006")));
+        // Drift adds up against the published 34.10000
+        assertTrue(publisher.publish(rule, rate("34.10012")));
+
+        assertEquals(1L, publisher.getStats().get("suppressed"));
+        verify(kafkaPublishingService, times(2)).publishCalculatedRate(any());
+    }
+
+    @Test
+    void basisPointThresholdUsesMidMove() {
+        CalculationRuleDto rule = rule(PublishPolicyDto.builder()
+                .mode(PublishPolicyDto.Mode.THRESHOLD).minChangeBps(1.0).heartbeatMs(0L).build());
+
+        assertTrue(publisher.publish(rule, rate("100.00000")));
+        assertFalse(publisher.publish(rule, rate("100.00500")));
+        assertTrue(publisher.publish(rule, rate("100.02000")));
+    }
+
+    @Test
+    void throttledRulePublishesTrailingValue() throws InterruptedException {
+        CalculationRuleDto rule = rule(PublishPolicyDto.builder()
+                .mode(PublishPolicyDto.Mode.THROTTLE).minIntervalMs(30L).heartbeatMs(0L).build());
+        BaseRateDto last = rate("34.30000");
+
+        assertTrue(publisher.publish(rule, rate("34.10000")));
+        assertFalse(publisher.publish(rule, rate("34.20000")));
+        assertFalse(publisher.publish(rule, last));
+        publisher.flushDue();
+        verify(kafkaPublishingService, never()).publishCalculatedRate(last);
+
+        Thread.sleep(40);
+        publisher.flushDue();
+
+        verify(kafkaPublishingService).publishCalculatedRate(last);
+        assertEquals(1L, publisher.getStats().get("trailingPublished"));
+    }
+
+    @Test
+    void silentRuleIsRepublishedOnHeartbeat() throws InterruptedException {
+        CalculationRuleDto rule = rule(PublishPolicyDto.builder()
+                .mode(PublishPolicyDto.Mode.THRESHOLD).minChangePips(10.0).heartbeatMs(20L).build());
+        BaseRateDto latest = rate("34.10001");
+
+        publisher.publish(rule, rate("34.10000"));
+        publisher.publish(rule, latest);
+        Thread.sleep(30);
+        publisher.flushDue();
+
+        verify(rateCacheMirror).mirrorCalculatedRate(latest);
+        assertEquals(1L, publisher.getStats().get("heartbeats"));
+    }
+
+    @Test
+    void flushSendIsNotOvertakenByConcurrentPublish() throws InterruptedException {
+        CalculationRuleDto rule = rule(PublishPolicyDto.builder()
+                .mode(PublishPolicyDto.Mode.THRESHOLD).minChangePips(10.0).heartbeatMs(20L).build());
+        BaseRateDto heartbeat = rate("34.10001");
+        BaseRateDto newer = rate("34.20000");
+        AtomicBoolean overtaken = new AtomicBoolean();
+        doAnswer(invocation -> {
+            // A pipeline publishes a newer value while the heartbeat is being sent
+            Thread pipeline = new Thread(() -> publisher.publish(rule, newer));
+            pipeline.start();
+            pipeline.join(100);
+            overtaken.set(!pipeline.isAlive());
+            return null;
+        }).when(kafkaPublishingService).publishCalculatedRate(heartbeat);
+
+        publisher.publish(rule, rate("34.10000"));
+        publisher.publish(rule, heartbeat);
+        Thread.sleep(30);
+        publisher.flushDue();
+
+        assertFalse(overtaken.get());
+        InOrder order = inOrder(kafkaPublishingService);
+        order.verify(kafkaPublishingService).publishCalculatedRate(heartbeat);
+        order.verify(kafkaPublishingService, timeout(1000)).publishCalculatedRate(newer);
+    }
+
+    @Test
+    void reloadDropsStateOfSymbolsNoLongerGated() throws InterruptedException {
+        CalculationRuleDto rule = rule(PublishPolicyDto.builder()
+                .mode(PublishPolicyDto.Mode.THRESHOLD).minChangePips(10.0).heartbeatMs(20L).build());
+        publisher.publish(rule, rate("34.10000"));
+        assertEquals(1, publisher.getStats().get("gatedSymbols"));
+
+        activate(2L, CalculationRuleDto.builder().outputSymbol("EURTRY_CROSS").type("CROSS").build());
+        Thread.sleep(30);
+        publisher.flushDue();
+
+        // No heartbeat for a rule that is now ALWAYS, and its state is gone
+        verify(kafkaPublishingService, times(1)).publishCalculatedRate(any());
+        assertEquals(0, publisher.getStats().get("gatedSymbols"));
+        assertEquals(1L, publisher.getStats().get("purgedSymbols"));
+    }
+
+    @Test
+    void reloadedPolicyAppliesToExistingState() throws InterruptedException {
+        CalculationRuleDto rule = rule(PublishPolicyDto.builder()
+                .mode(PublishPolicyDto.Mode.THRESHOLD).minChangePips(10.0).heartbeatMs(0L).build());
+        publisher.publish(rule, rate("34.10000"));
+
+        rule(PublishPolicyDto.builder()
+                .mode(PublishPolicyDto.Mode.THRESHOLD).minChangePips(10.0).heartbeatMs(20L).build());
+        Thread.sleep(30);
+        publisher.flushDue();
+
+        assertEquals(1L, publisher.getStats().get("heartbeats"));
+    }
+
+    @Test
+    void incompletePoliciesAreRejected() {
+        assertFalse(PublishPolicyDto.builder().mode(PublishPolicyDto.Mode.THRESHOLD).build().validate().isEmpty());
+        assertFalse(PublishPolicyDto.builder().mode(PublishPolicyDto.Mode.THROTTLE).build().validate().isEmpty());
+        assertTrue(PublishPolicyDto.builder().mode(PublishPolicyDto.Mode.THROTTLE).minIntervalMs(100L).build().validate().isEmpty());
+    }
+
+    /**
+     * The rule, activated as the only rule of the next rule set version.
+     */
+    private CalculationRuleDto rule(PublishPolicyDto policy) {
+        CalculationRuleDto rule = CalculationRuleDto.builder()
+                .outputSymbol("EURTRY_CROSS")
+                .type("CROSS")
+                .publishPolicy(policy)
+                .build();
+        activate(properties.getRuleSet().version() + 1, rule);
+        return rule;
+    }
+
+    private void activate(long version, CalculationRuleDto rule) {
+        properties.activateRuleSet(new RuleSetSnapshot(version, List.of(rule), Map.of(),
+                RuleDependencyGraph.empty(), "test", System.currentTimeMillis()));
+    }
+
+    private static BaseRateDto rate(String bid) {
+        return RateFixtures.rate("EURTRY_CROSS", null, bid);
+    }
+}
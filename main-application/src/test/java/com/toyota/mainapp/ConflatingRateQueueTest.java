@@ -0,0 +1,31 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.calculator.ConflatingRateQueue;
+import com.toyota.mainapp.dto.model.RateTick;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflatingRateQueueTest {
+
+    @Test
+    void keepsOnlyLatestPendingTickPerKey() {
+        ConflatingRateQueue queue = new ConflatingRateQueue(new SimpleMeterRegistry());
+        long key = 7L << 32 | 1L;
+
+        assertTrue(queue.offer(key, tick(3410000L)));
+        assertFalse(queue.offer(key, tick(3420000L)));
+        assertFalse(queue.offer(key, tick(3430000L)));
+
+        assertEquals(3430000L, queue.poll(key).getBid());
+        assertNull(queue.poll(key));
+        assertEquals(2, queue.getConflatedCount());
+
+        assertTrue(queue.offer(key, tick(3440000L)));
+    }
+
+    private RateTick tick(long bid) {
+        return new RateTick(7, 1, bid, bid, 5, System.currentTimeMillis(), System.currentTimeMillis());
+    }
+}
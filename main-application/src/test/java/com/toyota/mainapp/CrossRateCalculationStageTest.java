@@ -0,0 +1,88 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.cache.ReactiveRateCacheService;
+import com.toyota.mainapp.calculator.CalculatedRatePublisher;
+import com.toyota.mainapp.calculator.engine.CalculationStrategy;
+import com.toyota.mainapp.calculator.engine.CalculationStrategyFactory;
+import com.toyota.mainapp.calculator.graph.RuleDependencyGraph;
+import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
+import com.toyota.mainapp.calculator.pipeline.PipelineStageRunner;
+import com.toyota.mainapp.calculator.pipeline.stage.CrossRateCalculationStage;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.config.RuleSetSnapshot;
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CrossRateCalculationStageTest {
+
+    private static final CalculationRuleDto CROSS = CalculationRuleDto.builder()
+            .outputSymbol("EURTRY_CROSS").type("CROSS").strategyType("formulaCalculationStrategy")
+            .inputSymbols(List.of("EURUSD_AVG", "USDTRY_AVG")).build();
+    private static final RuleSetSnapshot RULE_SET = new RuleSetSnapshot(1L, List.of(CROSS), Map.of(),
+            RuleDependencyGraph.compile(List.of(
+                    CalculationRuleDto.builder().outputSymbol("EURUSD_AVG").type("AVG").inputSymbols(List.of("EURUSD")).build(),
+                    CalculationRuleDto.builder().outputSymbol("USDTRY_AVG").type("AVG").inputSymbols(List.of("USDTRY")).build(),
+                    CROSS)),
+            "test", 0L);
+
+    private final CalculatedRatePublisher calculatedRatePublisher = mock(CalculatedRatePublisher.class);
+    private final CalculationStrategyFactory calculationStrategyFactory = mock(CalculationStrategyFactory.class);
+    private final CalculationStrategy strategy = mock(CalculationStrategy.class);
+    private final ApplicationProperties properties = new ApplicationProperties(new DefaultResourceLoader());
+    private final CrossRateCalculationStage stage = new CrossRateCalculationStage(mock(ReactiveRateCacheService.class),
+            calculatedRatePublisher, properties, calculationStrategyFactory, mock(PipelineStageRunner.class));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shardsCalculateConcurrentlyAndOlderInputsNeverRepublish() throws Exception {
+        CountDownLatch olderCalculating = new CountDownLatch(1);
+        CountDownLatch newerPublished = new CountDownLatch(1);
+        when(calculationStrategyFactory.getStrategyForRule(CROSS)).thenReturn(strategy);
+        when(strategy.calculate(eq(CROSS), anyMap())).thenAnswer(invocation -> {
+            long inputTime = invocation.getArgument(1, Map.class).values().stream()
+                    .mapToLong(rate -> ((BaseRateDto) rate).getTimestamp()).max().orElseThrow();
+            if (inputTime == 100L) {
+                olderCalculating.countDown();
+                // Only returns if the other shard could calculate and publish meanwhile
+                assertTrue(newerPublished.await(2, TimeUnit.SECONDS));
+            }
+            return Optional.of(RateFixtures.rate("EURTRY_CROSS", null, "36.00000", inputTime));
+        });
+        doAnswer(invocation -> {
+            newerPublished.countDown();
+            return true;
+        }).when(calculatedRatePublisher).publish(eq(CROSS), any());
+
+        CompletableFuture<Void> olderShard = CompletableFuture.runAsync(() -> stage.execute(context(100L)));
+        assertTrue(olderCalculating.await(2, TimeUnit.SECONDS));
+        stage.execute(context(200L));
+        olderShard.get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<BaseRateDto> published = ArgumentCaptor.forClass(BaseRateDto.class);
+        verify(calculatedRatePublisher).publish(eq(CROSS), published.capture());
+        assertEquals(200L, published.getValue().getTimestamp());
+        verify(strategy, times(2)).calculate(eq(CROSS), anyMap());
+    }
+
+    private static ExecutionContext context(long inputTime) {
+        ExecutionContext context = ExecutionContext.builder().pipelineId("PIPE_" + inputTime).ruleSet(RULE_SET).build();
+        context.addRateToSnapshot(RateFixtures.rate("EURUSD_AVG", null, "1.08000", inputTime));
+        context.addRateToSnapshot(RateFixtures.rate("USDTRY_AVG", null, "34.10000", inputTime));
+        context.markSymbolUpdated("EURUSD_AVG");
+        return context;
+    }
+}
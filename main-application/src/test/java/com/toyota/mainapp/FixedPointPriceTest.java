@@ -0,0 +1,37 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.util.FixedPointPrice;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointPriceTest {
+
+    @Test
+    void parsesExactlyAndRoundsHalfUp() {
+        assertEquals(3412345L, FixedPointPrice.parse("34.12345", 5));
+        assertEquals(3412350L, FixedPointPrice.parse(" 34.1235 ", 5));
+        assertEquals(3412346L, FixedPointPrice.parse("34.123456", 5));
+        assertEquals(-50000L, FixedPointPrice.parse("-0.5", 5));
+        assertEquals(1200000L, FixedPointPrice.parse("12", 5));
+        assertThrows(NumberFormatException.class, () -> FixedPointPrice.parse("1.2.3", 5));
+        assertThrows(NumberFormatException.class, () -> FixedPointPrice.parse("abc", 5));
+    }
+
+    @Test
+    void multiplyAndDivideMatchBigDecimal() {
+        long eurUsd = FixedPointPrice.parse("1.08457", 6);
+        long usdTry = FixedPointPrice.parse("34.12345", 6);
+        BigDecimal expected = new BigDecimal("1.08457").multiply(new BigDecimal("34.12345"))
+                .setScale(5, RoundingMode.HALF_UP);
+
+        assertEquals(expected, FixedPointPrice.toBigDecimal(
+                FixedPointPrice.multiply(eurUsd, 6, usdTry, 6, 5), 5));
+        assertEquals(new BigDecimal("34.12345").divide(new BigDecimal("1.08457"), 5, RoundingMode.HALF_UP),
+                FixedPointPrice.toBigDecimal(FixedPointPrice.divide(usdTry, 6, eurUsd, 6, 5), 5));
+        assertEquals("-1.00500", FixedPointPrice.toString(-100500L, 5));
+    }
+}
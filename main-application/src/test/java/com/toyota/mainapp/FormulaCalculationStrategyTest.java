@@ -0,0 +1,106 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.calculator.engine.formula.CompiledFormula;
+import com.toyota.mainapp.calculator.engine.formula.FormulaCompiler;
+import com.toyota.mainapp.calculator.engine.impl.FormulaCalculationStrategy;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.InputRateInfo;
+import com.toyota.mainapp.exception.FormulaCompilationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormulaCalculationStrategyTest {
+
+    private static final List<String> INPUTS = List.of("EURUSD_AVG", "USDTRY_AVG");
+
+    private final FormulaCalculationStrategy strategy =
+            new FormulaCalculationStrategy(new ApplicationProperties(new DefaultResourceLoader()));
+
+    @Test
+    void crossMatchesBigDecimalProduct() {
+        CalculationRuleDto rule = CalculationRuleDto.builder()
+                .outputSymbol("EURTRY_CROSS")
+                .type("CROSS")
+                .strategyType("formulaCalculationStrategy")
+                .inputSymbols(INPUTS)
+                .inputParameters(Map.of(
+                        "bidFormula", "round(EURUSD_AVG.bid * USDTRY_AVG.bid, 5)",
+                        "askFormula", "EURUSD_AVG.ask × USDTRY_AVG.ask",
+                        "defaultScale", "5"))
+                .build();
+        Map<String, BaseRateDto> inputs = Map.of(
+                "EURUSD_AVG", rate("EURUSD_AVG", "1.08457", "1.08463"),
+                "USDTRY_AVG", rate("USDTRY_AVG", "34.12345", "34.12895"));
+
+        BaseRateDto cross = strategy.calculate(rule, inputs).orElseThrow();
+
+        assertTrue(strategy.canHandle(rule));
+        assertEquals(new BigDecimal("1.08457").multiply(new BigDecimal("34.12345")).setScale(5, RoundingMode.HALF_UP),
+                cross.getBid());
+        assertEquals(new BigDecimal("1.08463").multiply(new BigDecimal("34.12895")).setScale(5, RoundingMode.HALF_UP),
+                cross.getAsk());
+        assertEquals("EURTRY", cross.getSymbol());
+        assertEquals(List.of("EURUSD_AVG", "USDTRY_AVG"),
+                cross.getCalculationInputs().stream().map(InputRateInfo::getSymbol).toList());
+        assertEquals(new BigDecimal("34.12345"), cross.getCalculationInputs().get(1).getBid());
+    }
+
+    @Test
+    void honoursPrecedenceFunctionsAndDivision() {
+        assertEquals(new BigDecimal("7.00000"), eval("1 + 2 * 3"));
+        assertEquals(new BigDecimal("9.00000"), eval("(1 + 2) * 3"));
+        assertEquals(new BigDecimal("-1.00000"), eval("-(3 - 2)"));
+        assertEquals(new BigDecimal("0.33333"), eval("1 / 3"));
+        assertEquals(new BigDecimal("1.08460"), eval("EURUSD_AVG.mid"));
+        assertEquals(new BigDecimal("1.08457"), eval("min(EURUSD_AVG.ask, EURUSD_AVG.bid, 2)"));
+        assertEquals(new BigDecimal("1.10000"), eval("max(round(EURUSD_AVG.bid, 1), 0.5)"));
+    }
+
+    @Test
+    void divisionNeedsNoSpacesAndSlashedSymbolsAreBracketed() {
+        assertEquals(new BigDecimal("0.03178"), eval("EURUSD_AVG.bid/USDTRY_AVG.bid"));
+        assertEquals(new BigDecimal("0.50000"), eval("1/2"));
+
+        CompiledFormula slashed = FormulaCompiler.compile("[USD/TRY].bid/2", List.of("USD/TRY"));
+        long result = slashed.evaluate(new long[]{3412345}, new long[]{3412895}, new int[]{5},
+                new long[slashed.getMaxStackDepth()], new int[slashed.getMaxStackDepth()], 5);
+        assertEquals(new BigDecimal("17.06173"), BigDecimal.valueOf(result, 5));
+        assertThrows(FormulaCompilationException.class, () -> FormulaCompiler.compile("[USD/TRY.bid", List.of("USD/TRY")));
+    }
+
+    @Test
+    void rejectsUnknownReferencesAndSyntaxErrors() {
+        FormulaCompilationException unknown = assertThrows(FormulaCompilationException.class,
+                () -> FormulaCompiler.compile("GBPUSD_AVG.bid * 2", INPUTS));
+        assertEquals(0, unknown.getPosition());
+        assertThrows(FormulaCompilationException.class, () -> FormulaCompiler.compile("EURUSD_AVG.bid *", INPUTS));
+        assertThrows(FormulaCompilationException.class, () -> FormulaCompiler.compile("EURUSD_AVG.last", INPUTS));
+        assertThrows(FormulaCompilationException.class, () -> FormulaCompiler.compile("pow(2, 3)", INPUTS));
+        assertThrows(FormulaCompilationException.class, () -> FormulaCompiler.compile("(1 + 2", INPUTS));
+    }
+
+    private BigDecimal eval(String formula) {
+        CompiledFormula compiled = FormulaCompiler.compile(formula, INPUTS);
+        long result = compiled.evaluate(new long[]{108457, 3412345}, new long[]{108463, 3412895}, new int[]{5, 5},
+                new long[compiled.getMaxStackDepth()], new int[compiled.getMaxStackDepth()], 5);
+        return BigDecimal.valueOf(result, 5);
+    }
+
+    private BaseRateDto rate(String symbol, String bid, String ask) {
+        BaseRateDto rate = new BaseRateDto();
+        rate.setSymbol(symbol);
+        rate.setBid(new BigDecimal(bid));
+        rate.setAsk(new BigDecimal(ask));
+        rate.setTimestamp(System.currentTimeMillis());
+        return rate;
+    }
+}
@@ -0,0 +1,101 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.calculator.engine.impl.GroovyScriptCalculationStrategy;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroovyScriptCalculationStrategyTest {
+
+    private final DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+    private final GroovyScriptCalculationStrategy strategy = new GroovyScriptCalculationStrategy(
+            resourceLoader, new ApplicationProperties(resourceLoader), new SimpleMeterRegistry());
+
+    @Test
+    void compilesScriptOnceAndReusesItAcrossTicks() {
+        CalculationRuleDto rule = CalculationRuleDto.builder()
+                .outputSymbol("EURTRY_CROSS")
+                .type("CROSS")
+                .strategyType("groovyScriptCalculationStrategy")
+                .implementation("scripts/eur_try_calculator.groovy")
+                .inputSymbols(List.of("EURUSD_AVG", "USDTRY_AVG"))
+                .inputParameters(Map.of("eurUsdAvgKey", "EURUSD_AVG",
+                        "usdTryAvgSourceKey", "USDTRY_AVG", "defaultScale", "5"))
+                .build();
+        Map<String, BaseRateDto> inputs = Map.of(
+                "EURUSD_AVG", rate("EURUSD_AVG", "1.08000", "1.09000"),
+                "USDTRY_AVG", rate("USDTRY_AVG", "34.00000", "34.10000"));
+
+        BaseRateDto first = strategy.calculate(rule, inputs).orElseThrow();
+        BaseRateDto second = strategy.calculate(rule, inputs).orElseThrow();
+
+        assertEquals(new BigDecimal("36.72000"), first.getBid());
+        assertEquals(new BigDecimal("37.16900"), second.getAsk());
+        Map<String, Object> stats = strategy.getScriptCacheStats();
+        assertEquals(1L, stats.get("compilations"));
+        assertEquals(1L, stats.get("threadInstances"));
+        assertEquals(2L, stats.get("executions"));
+    }
+
+    @Test
+    void reloadedRuleRunsEditedScriptAndValidationSeesCurrentContent(@TempDir Path scriptRoot) throws Exception {
+        Path script = scriptRoot.resolve("scripts/spread.groovy");
+        Files.createDirectories(script.getParent());
+        Files.writeString(script, "return [bid: new BigDecimal('1.00000'), ask: new BigDecimal('2.00000')]");
+        DefaultResourceLoader scriptLoader = new DefaultResourceLoader(
+                new URLClassLoader(new URL[]{scriptRoot.toUri().toURL()}, getClass().getClassLoader()));
+        GroovyScriptCalculationStrategy reloadable = new GroovyScriptCalculationStrategy(
+                scriptLoader, new ApplicationProperties(scriptLoader), new SimpleMeterRegistry());
+
+        CalculationRuleDto v1 = scriptRule("scripts/spread.groovy");
+        assertEquals(new BigDecimal("1.00000"), reloadable.calculate(v1, Map.of()).orElseThrow().getBid());
+
+        // Same path, broken content: validation must compile the file, not trust the cached path
+        Files.writeString(script, "return [bid: ");
+        assertEquals(1, reloadable.validateRules(List.of(scriptRule("scripts/spread.groovy"))).size());
+
+        Files.writeString(script, "return [bid: new BigDecimal('3.00000'), ask: new BigDecimal('4.00000')]");
+        CalculationRuleDto v2 = scriptRule("scripts/spread.groovy");
+        assertTrue(reloadable.validateRules(List.of(v2)).isEmpty());
+
+        assertEquals(new BigDecimal("3.00000"), reloadable.calculate(v2, Map.of()).orElseThrow().getBid());
+        // A pipeline still holding the old rule object keeps the version it was bound to
+        assertEquals(new BigDecimal("1.00000"), reloadable.calculate(v1, Map.of()).orElseThrow().getBid());
+    }
+
+    private static CalculationRuleDto scriptRule(String implementation) {
+        return CalculationRuleDto.builder()
+                .outputSymbol("USDTRY_SPREAD")
+                .type("CROSS")
+                .strategyType("groovyScriptCalculationStrategy")
+                .implementation(implementation)
+                .inputSymbols(List.of())
+                .build();
+    }
+
+    private BaseRateDto rate(String symbol, String bid, String ask) {
+        BaseRateDto rate = new BaseRateDto();
+        rate.setSymbol(symbol);
+        rate.setRateType(RateType.CALCULATED);
+        rate.setProviderName("CALCULATED");
+        rate.setBid(new BigDecimal(bid));
+        rate.setAsk(new BigDecimal(ask));
+        rate.setTimestamp(System.currentTimeMillis());
+        return rate;
+    }
+}
@@ -0,0 +1,92 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.calculator.engine.IncrementalAverageEngine;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateTick;
+import com.toyota.mainapp.util.FixedPointPrice;
+import com.toyota.mainapp.util.SymbolRegistry;
+import com.toyota.mainapp.util.TickInterner;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalAverageEngineTest {
+
+    private final TickInterner interner = new TickInterner(new ApplicationProperties(new DefaultResourceLoader()));
+    private final IncrementalAverageEngine engine = new IncrementalAverageEngine(interner);
+
+    @BeforeAll
+    static void registerSymbols() {
+        SymbolRegistry.global().register("USDTRY");
+    }
+
+    @Test
+    void replacesProviderContributionOnEachTick() {
+        CalculationRuleDto rule = rule(2, 15000);
+        long now = System.currentTimeMillis();
+
+        apply(rule, tick("TCPProvider2", "34.00", "34.10", now));
+        assertTrue(engine.calculate(rule).isEmpty(), "minProviders=2 not yet satisfied");
+
+        apply(rule, tick("RESTProvider1", "34.20", "34.30", now));
+        apply(rule, tick("TCPProvider2", "34.40", "34.50", now));
+
+        BaseRateDto average = engine.calculate(rule).orElseThrow();
+        assertEquals(new BigDecimal("34.30000"), average.getBid());
+        assertEquals(new BigDecimal("34.40000"), average.getAsk());
+        assertEquals(2, average.getCalculationInputs().size());
+    }
+
+    @Test
+    void dropsQuotesOlderThanMaxAge() {
+        CalculationRuleDto rule = rule(1, 1000);
+        long now = System.currentTimeMillis();
+
+        apply(rule, tick("TCPProvider2", "34.00", "34.10", now - 5000));
+        apply(rule, tick("RESTProvider1", "34.20", "34.30", now));
+
+        BaseRateDto average = engine.calculate(rule).orElseThrow();
+        assertEquals(new BigDecimal("34.20000"), average.getBid());
+        assertTrue(engine.hasInputs(rule));
+        assertEquals(1, engine.getInputs(rule).size());
+    }
+
+    @Test
+    void rejectsIdsThatDoNotFitTheSlotKey() {
+        CalculationRuleDto rule = rule(1, 15000);
+        int symbolId = interner.symbolId("USDTRY");
+        RateTick tick = new RateTick(symbolId, TickInterner.MAX_IDS, 340000, 341000, 4, 0L, 0L);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.onRawTick(tick, null, List.of(rule)));
+    }
+
+    private CalculationRuleDto rule(int minProviders, int maxAge) {
+        return CalculationRuleDto.builder()
+                .outputSymbol("USDTRY_AVG")
+                .type("AVG")
+                .strategyType("averageCalculationStrategy")
+                .inputSymbols(List.of("USDTRY"))
+                .inputParameters(Map.of("minProviders", minProviders, "maxAge", maxAge))
+                .build();
+    }
+
+    private void apply(CalculationRuleDto rule, RateTick tick) {
+        // The materialized rate is what the engine reports as calculation inputs
+        engine.onRawTick(tick, interner.toBaseRateDto(tick), List.of(rule));
+    }
+
+    private RateTick tick(String provider, String bid, String ask, long receivedAt) {
+        int symbolId = interner.symbolId("USDTRY");
+        int scale = interner.scaleOf(symbolId);
+        return new RateTick(symbolId, interner.providerId(provider), FixedPointPrice.parse(bid, scale),
+                FixedPointPrice.parse(ask, scale), scale, receivedAt, receivedAt);
+    }
+}
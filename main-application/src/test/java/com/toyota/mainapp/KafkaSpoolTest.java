@@ -0,0 +1,98 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.kafka.KafkaSpool;
+import com.toyota.mainapp.kafka.KafkaSpool.SpooledRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KafkaSpoolTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void peekKeepsOrderAndRemoveDropsAcknowledgedPrefix() throws Exception {
+        try (KafkaSpool spool = KafkaSpool.open(dir.resolve("spool.dat"), 4096)) {
+            spool.append(record("a"));
+            spool.append(record("b"));
+            spool.append(new SpooledRecord("financial-pipeline-tracking", null, "c", 3L));
+
+            KafkaSpool.Batch batch = spool.peek(10);
+            assertEquals(List.of("a", "b", "c"), batch.records().stream().map(SpooledRecord::value).toList());
+            assertNull(batch.records().get(2).key());
+
+            spool.remove(batch.firstSequence(), 2);
+            assertEquals(1, spool.getEntries());
+            assertEquals("c", spool.peek(10).records().get(0).value());
+        }
+    }
+
+    @Test
+    void evictsOldestWhenFullAndWrapsAround() throws Exception {
+        try (KafkaSpool spool = KafkaSpool.open(dir.resolve("spool.dat"), 256)) {
+            for (int i = 0; i < 20; i++) {
+                assertTrue(spool.append(record("value-" + i)));
+            }
+
+            List<SpooledRecord> records = spool.peek(100).records();
+            assertTrue(spool.getEvicted() > 0);
+            assertTrue(spool.getBytes() <= 256);
+            assertEquals(20, records.size() + spool.getEvicted());
+            assertEquals("value-19", records.get(records.size() - 1).value());
+            assertEquals("value-" + spool.getEvicted(), records.get(0).value());
+        }
+    }
+
+    @Test
+    void removeSkipsRecordsEvictedSincePeek() throws Exception {
+        try (KafkaSpool spool = KafkaSpool.open(dir.resolve("spool.dat"), 256)) {
+            spool.append(record("old-1"));
+            spool.append(record("old-2"));
+            KafkaSpool.Batch batch = spool.peek(2);
+
+            for (int i = 0; i < 10; i++) {
+                spool.append(record("new-" + i));
+            }
+            int before = spool.getEntries();
+            spool.remove(batch.firstSequence(), batch.records().size());
+
+            assertEquals(before, spool.getEntries());
+            assertEquals("new-9", spool.peek(100).records().get(before - 1).value());
+        }
+    }
+
+    @Test
+    void backlogSurvivesReopen() throws Exception {
+        Path file = dir.resolve("spool.dat");
+        try (KafkaSpool spool = KafkaSpool.open(file, 1024)) {
+            spool.append(record("a"));
+            spool.append(record("b"));
+            spool.remove(spool.peek(1).firstSequence(), 1);
+        }
+
+        try (KafkaSpool spool = KafkaSpool.open(file, 1024)) {
+            assertEquals(1, spool.getEntries());
+            SpooledRecord record = spool.peek(10).records().get(0);
+            assertEquals("financial-raw-rates", record.topic());
+            assertEquals("USDTRY", record.key());
+            assertEquals("b", record.value());
+        }
+    }
+
+    @Test
+    void rejectsRecordLargerThanCapacity() throws Exception {
+        try (KafkaSpool spool = KafkaSpool.open(dir.resolve("spool.dat"), 64)) {
+            assertFalse(spool.append(record("x".repeat(100))));
+            assertTrue(spool.isEmpty());
+        }
+    }
+
+    private static SpooledRecord record(String value) {
+        return new SpooledRecord("financial-raw-rates", "USDTRY", value, 1L);
+    }
+}
@@ -0,0 +1,125 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.cache.NearCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearCacheTest {
+
+    @Test
+    void entriesExpireWithTheirTtl() {
+        NearCache<String> cache = new NearCache<>("raw", 10);
+        cache.put("k", "v", 1_000, 0);
+
+        assertEquals("v", cache.lookup("k", 999).value());
+        assertNull(cache.lookup("k", 1_000));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void negativeEntriesAreHitsWithoutValue() {
+        NearCache<String> cache = new NearCache<>("raw", 10);
+        cache.putIfAbsent("missing", null, 500, 0, cache.stamp());
+
+        NearCache.Entry<String> entry = cache.lookup("missing", 100);
+        assertNotNull(entry);
+        assertNull(entry.value());
+        assertEquals(1L, cache.getStats().get("negativeHits"));
+    }
+
+    @Test
+    void loadDoesNotOverwriteNewerLocalWrite() {
+        NearCache<String> cache = new NearCache<>("raw", 10);
+        cache.put("k", "written", 1_000, 0);
+        cache.putIfAbsent("k", "loaded", 1_000, 10, cache.stamp());
+        assertEquals("written", cache.lookup("k", 20).value());
+
+        // An expired entry is fair game for the load
+        cache.putIfAbsent("k", "reloaded", 1_000, 2_000, cache.stamp());
+        assertEquals("reloaded", cache.lookup("k", 2_010).value());
+    }
+
+    @Test
+    void staysWithinMaxEntries() {
+        NearCache<String> cache = new NearCache<>("calculated", 3);
+        for (int i = 0; i < 10; i++) {
+            cache.put("k" + i, "v" + i, 1_000 + i, 0);
+        }
+        assertEquals(3, cache.size());
+        assertEquals(7, cache.getEvictions());
+        assertEquals("v9", cache.lookup("k9", 1).value());
+    }
+
+    @Test
+    void expiredEntriesAreDroppedBeforeLiveOnes() {
+        NearCache<String> cache = new NearCache<>("raw", 2);
+        cache.put("old", "v", 10, 0);
+        cache.put("live", "v", 1_000, 0);
+        cache.put("new", "v", 1_000, 100);
+
+        assertEquals(0, cache.getEvictions());
+        assertNotNull(cache.lookup("live", 100));
+        assertNotNull(cache.lookup("new", 100));
+    }
+
+    @Test
+    void invalidateRemovesEntry() {
+        NearCache<String> cache = new NearCache<>("raw", 10);
+        cache.put("k", "v", 1_000, 0);
+        cache.invalidate("k", 1);
+        assertNull(cache.lookup("k", 1));
+        assertEquals(1L, cache.getStats().get("invalidations"));
+    }
+
+    @Test
+    void fillStartedBeforeInvalidationIsRefused() {
+        NearCache<String> cache = new NearCache<>("raw", 10);
+        long readStarted = cache.stamp();
+        cache.invalidate("k", 5);
+        cache.putIfAbsent("k", "stale", 1_000, 10, readStarted);
+
+        assertNull(cache.lookup("k", 20));
+        assertEquals(1L, cache.getStats().get("staleFills"));
+
+        // A read started after the invalidation sees the new Redis value
+        cache.putIfAbsent("k", "fresh", 1_000, 30, cache.stamp());
+        assertEquals("fresh", cache.lookup("k", 40).value());
+    }
+
+    @Test
+    void sweptTombstoneStillRefusesOlderFills() {
+        NearCache<String> cache = new NearCache<>("raw", 2);
+        long readStarted = cache.stamp();
+        cache.invalidate("k", 0);
+        cache.put("a", "v", 1_000, 10);
+        // Full: the sweep drops the tombstone along with its record of the invalidation
+        cache.put("b", "v", 1_000, 10);
+
+        cache.putIfAbsent("k", "stale", 1_000, 20, readStarted);
+        assertNull(cache.lookup("k", 30));
+        assertEquals(1L, cache.getStats().get("staleFills"));
+    }
+
+    @Test
+    void fullCacheSweepsOncePerBatchOfInserts() {
+        NearCache<String> cache = new NearCache<>("calculated", 100);
+        for (int i = 0; i < 100; i++) {
+            cache.put("k" + i, "v" + i, 1_000 + i, 0);
+        }
+        cache.put("k100", "v100", 1_100, 0);
+
+        // One sweep evicts the tenth closest to expiry, leaving room for the next inserts
+        assertEquals(10, cache.getEvictions());
+        assertEquals(91, cache.size());
+        assertNull(cache.lookup("k9", 1));
+        assertNotNull(cache.lookup("k10", 1));
+        for (int i = 101; i < 110; i++) {
+            cache.put("k" + i, "v" + i, 1_000 + i, 0);
+        }
+        assertEquals(10, cache.getEvictions());
+        assertEquals(100, cache.size());
+    }
+}
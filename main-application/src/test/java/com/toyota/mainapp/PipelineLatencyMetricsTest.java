@@ -0,0 +1,66 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.dto.model.RateTick;
+import com.toyota.mainapp.metrics.PipelineLatencyMetrics;
+import com.toyota.mainapp.util.SymbolRegistry;
+import com.toyota.mainapp.util.TickInterner;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineLatencyMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TickInterner tickInterner = new TickInterner(new ApplicationProperties(new DefaultResourceLoader()));
+    private final PipelineLatencyMetrics metrics = new PipelineLatencyMetrics(meterRegistry, tickInterner);
+
+    @Test
+    void tracksTickToAckPerSymbolAndProvider() {
+        int usdtry = SymbolRegistry.global().register("USDTRY");
+        int tcp = tickInterner.providerId("TCPProvider1");
+        int rest = tickInterner.providerId("RESTProvider1");
+
+        for (int i = 1; i <= 100; i++) {
+            metrics.recordTickToAck(tick(usdtry, tcp, 1_000L), 1_000L + i * 1_000_000L);
+        }
+        metrics.recordTickToAck(tick(usdtry, rest, 5_000L), 5_000L + 250_000L);
+        // Ticks without an ingest timestamp carry no latency
+        metrics.recordTickToAck(tick(usdtry, rest, 0L), 1_000_000_000L);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> tickToAck =
+                (Map<String, Map<String, Object>>) metrics.getLatencyReport().get("tickToAck");
+        Map<String, Object> tcpLatency = tickToAck.get("USDTRY/TCPProvider1");
+        assertEquals(100L, tcpLatency.get("count"));
+        assertEquals(50_000.0, (double) tcpLatency.get("p50Us"), 50.0);
+        assertEquals(100_000.0, (double) tcpLatency.get("p999Us"), 100.0);
+        assertEquals(1L, tickToAck.get("USDTRY/RESTProvider1").get("count"));
+
+        Gauge p99 = meterRegistry.find("pipeline.tick.to.ack.latency")
+                .tags("symbol", "USDTRY", "provider", "TCPProvider1", "quantile", "0.99").gauge();
+        assertNotNull(p99);
+        assertEquals(99_000.0, p99.value(), 100.0);
+    }
+
+    @Test
+    void reportsEmptyPipelineHistogramBeforeFirstRun() {
+        assertEquals(Map.of(), metrics.getLatencyReport().get("pipeline"));
+
+        metrics.recordPipeline(2_000_000L);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> pipeline = (Map<String, Object>) metrics.getLatencyReport().get("pipeline");
+        assertEquals(1L, pipeline.get("count"));
+        assertEquals(2_000.0, (double) pipeline.get("maxUs"), 5.0);
+    }
+
+    private static RateTick tick(int symbolId, int providerId, long ingestNanos) {
+        return new RateTick(symbolId, providerId, 341_000L, 342_000L, 4, 0L, 0L, ingestNanos);
+    }
+}
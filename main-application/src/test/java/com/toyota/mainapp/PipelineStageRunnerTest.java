@@ -0,0 +1,198 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
+import com.toyota.mainapp.calculator.pipeline.PipelineStageRunner;
+import com.toyota.mainapp.calculator.pipeline.stage.CalculationStage;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateType;
+import com.toyota.mainapp.exception.StageBudgetExceededException;
+import com.toyota.mainapp.metrics.PipelineLatencyMetrics;
+import com.toyota.mainapp.util.TickInterner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineStageRunnerTest {
+
+    private final ApplicationProperties properties = new ApplicationProperties(new DefaultResourceLoader());
+    private final ThreadPoolTaskExecutor callExecutor = new ThreadPoolTaskExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PipelineLatencyMetrics latencyMetrics =
+            new PipelineLatencyMetrics(meterRegistry, new TickInterner(properties));
+    private final PipelineStageRunner runner;
+
+    PipelineStageRunnerTest() {
+        callExecutor.initialize();
+        runner = new PipelineStageRunner(properties, callExecutor, meterRegistry, latencyMetrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callExecutor.shutdown();
+    }
+
+    @Test
+    void cutsOffOverrunningPipelineAndPublishesPartialSnapshot() {
+        properties.getPipeline().setExecutionTimeoutMs(30);
+        AtomicBoolean crossRan = new AtomicBoolean();
+        AtomicBoolean published = new AtomicBoolean();
+
+        ExecutionContext context = context();
+        runner.run(context,
+                List.of(stage("Slow", ctx -> sleep(60)), stage("Cross", ctx -> crossRan.set(true))),
+                stage("Publish", ctx -> published.set(true)));
+
+        assertFalse(crossRan.get());
+        assertTrue(published.get());
+        assertTrue(context.getCutOffReason().contains("execution timeout"));
+    }
+
+    @Test
+    void suppressesSnapshotWhenErrorBudgetExhaustedAndPartialsDisabled() {
+        properties.getPipeline().getErrorHandling().setMaxStageErrors(2);
+        properties.getPipeline().getErrorHandling().setPublishPartialSnapshots(false);
+        AtomicBoolean published = new AtomicBoolean();
+
+        ExecutionContext context = context();
+        runner.run(context,
+                List.of(stage("Failing", ctx -> {
+                    ctx.addStageError("Failing", "first");
+                    ctx.addStageError("Failing", "second");
+                })),
+                stage("Publish", ctx -> published.set(true)));
+
+        assertTrue(context.isCutOff());
+        assertFalse(published.get());
+    }
+
+    @Test
+    void boundedCallGivesUpWhenStageBudgetRunsOut() {
+        properties.getPipeline().setStageTimeoutMs(50);
+        ExecutionContext context = context();
+
+        long start = System.nanoTime();
+        runner.run(context, List.of(stage("Cross", ctx ->
+                assertThrows(StageBudgetExceededException.class,
+                        () -> runner.callWithinBudget(ctx, "slow script", () -> {
+                            sleep(2000);
+                            return null;
+                        })))), stage("Publish", ctx -> { }));
+
+        assertTrue(System.nanoTime() - start < 1_000_000_000L, "caller must not wait for the slow call");
+    }
+
+    @Test
+    void awaitedReadGivesUpWhenStageBudgetRunsOut() {
+        properties.getPipeline().setStageTimeoutMs(50);
+        ExecutionContext context = context();
+        CompletableFuture<String> neverCompletes = new CompletableFuture<>();
+
+        runner.run(context, List.of(stage("Cross", ctx -> {
+            assertEquals("cached", runner.awaitWithinBudget(ctx, "fast read", CompletableFuture.completedFuture("cached")));
+            assertThrows(StageBudgetExceededException.class,
+                    () -> runner.awaitWithinBudget(ctx, "stalled read", neverCompletes));
+        })), stage("Publish", ctx -> { }));
+
+        assertTrue(neverCompletes.isCancelled());
+    }
+
+    @Test
+    void budgetedReadComposesWithoutBlocking() {
+        properties.getPipeline().setStageTimeoutMs(50);
+        ExecutionContext context = context();
+        CompletableFuture<String> neverCompletes = new CompletableFuture<>();
+
+        runner.run(context, List.of(stage("Cross", ctx -> {
+            CompletableFuture<String> bounded = runner.withinBudget(ctx, "stalled read", neverCompletes)
+                    .thenApply(String::toUpperCase);
+            // Returned right away; the budget fails the composed stage later
+            assertFalse(bounded.isDone());
+            CompletionException failure = assertThrows(CompletionException.class, bounded::join);
+            assertInstanceOf(StageBudgetExceededException.class, failure.getCause());
+        })), stage("Publish", ctx -> { }));
+
+        assertTrue(neverCompletes.isCancelled());
+        assertEquals(1L, runner.getRunnerStats().get("callTimeouts"));
+    }
+
+    @Test
+    void recordsStageAndPipelineLatencies() {
+        ExecutionContext context = context();
+        runner.run(context, List.of(stage("Slow", ctx -> sleep(20))), stage("Publish", ctx -> { }));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> durations = (Map<String, Long>) context.getPipelineStats().get("stageDurations");
+        assertEquals(List.of("Slow", "Publish"), List.copyOf(durations.keySet()));
+        assertTrue(durations.get("Slow") >= 20);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> stages =
+                (Map<String, Map<String, Object>>) latencyMetrics.getLatencyReport().get("stages");
+        assertEquals(1L, stages.get("Slow").get("count"));
+        assertTrue((double) stages.get("Slow").get("p99Us") >= 20_000);
+        assertNotNull(meterRegistry.find("pipeline.stage.latency").tags("stage", "Slow", "quantile", "0.999").gauge());
+    }
+
+    @Test
+    void capsSnapshotSize() {
+        properties.getPipeline().setMaxSnapshotSize(2);
+        ExecutionContext context = context();
+
+        context.addRateToSnapshot(rate("USDTRY"));
+        context.addRateToSnapshot(rate("EURUSD"));
+        context.addRateToSnapshot(rate("GBPUSD"));
+        context.addRateToSnapshot(rate("USDTRY"));
+
+        assertEquals(2, context.getSnapshotRates().size());
+        assertEquals(1, context.getDroppedSnapshotRates());
+    }
+
+    private ExecutionContext context() {
+        ExecutionContext context = ExecutionContext.builder()
+                .pipelineId("test")
+                .startTime(System.currentTimeMillis())
+                .build();
+        runner.prepare(context);
+        return context;
+    }
+
+    private static CalculationStage stage(String name, java.util.function.Consumer<ExecutionContext> body) {
+        return new CalculationStage() {
+            @Override
+            public void execute(ExecutionContext context) {
+                body.accept(context);
+            }
+
+            @Override
+            public String getStageName() {
+                return name;
+            }
+        };
+    }
+
+    private static BaseRateDto rate(String symbol) {
+        BaseRateDto rate = new BaseRateDto();
+        rate.setRateType(RateType.CALCULATED);
+        rate.setSymbol(symbol);
+        return rate;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
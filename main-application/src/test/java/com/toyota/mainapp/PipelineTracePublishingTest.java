@@ -0,0 +1,124 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateType;
+import com.toyota.mainapp.kafka.KafkaPublishingService;
+import com.toyota.mainapp.kafka.PipelineTraceFormatter;
+import com.toyota.mainapp.kafka.SpoolingKafkaSender;
+import com.toyota.mainapp.kafka.TransactionalSnapshotPublisher;
+import com.toyota.mainapp.mapper.RateMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PipelineTracePublishingTest {
+
+    private final ApplicationProperties properties = new ApplicationProperties(new DefaultResourceLoader());
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> stringKafkaTemplate = mock(KafkaTemplate.class);
+    private final SpoolingKafkaSender spoolingKafkaSender = new SpoolingKafkaSender(stringKafkaTemplate, properties);
+    @SuppressWarnings("unchecked")
+    private final KafkaPublishingService publisher = new KafkaPublishingService(mock(KafkaTemplate.class),
+            mock(KafkaTemplate.class), stringKafkaTemplate, spoolingKafkaSender,
+            new TransactionalSnapshotPublisher(stringKafkaTemplate, stringKafkaTemplate, spoolingKafkaSender, properties),
+            mock(RateMapper.class), properties);
+
+    @Test
+    void formatKeepsConsumerFieldsFirstAndAddsStagesLineageAndErrors() {
+        ExecutionContext context = context("USDTRY");
+        context.addTrigger(null, rate("RESTProvider1", "USDTRY", "34.15", "34.25", 2_000L));
+        context.recordStageDuration("RawDataHandling", 120_000L);
+        context.recordStageDuration("AverageCalculation", 3_400_000L);
+        context.addStageError("AverageCalculation", "Redis timeout | retry");
+
+        String[] fields = PipelineTraceFormatter.format(context, 1_050L).split("\\|", -1);
+
+        assertEquals(13, fields.length);
+        assertEquals("USDTRY", fields[0]);
+        assertEquals("34.15", fields[1]);
+        assertEquals("34.25", fields[2]);
+        assertEquals("1970-01-01T00:00:02Z", fields[3]);
+        assertEquals("PIPE_USDTRY", fields[4]);
+        assertEquals("RESTProvider1", fields[5]);
+        assertEquals("50", fields[6]);
+        assertEquals("RawDataHandling=120,AverageCalculation=3400", fields[7]);
+        assertEquals("TCPProvider1-USDTRY@1000,RESTProvider1-USDTRY@2000", fields[8]);
+        assertEquals("AverageCalculation: Redis timeout   retry", fields[9]);
+        assertEquals("0", fields[12]);
+    }
+
+    @Test
+    void sendsSampledTracesInBatchesOffTheCallingThread() {
+        properties.getTracing().setSampleRate(1.0);
+        properties.getTracing().setBatchSize(2);
+        when(stringKafkaTemplate.send(anyString(), isNull(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        publisher.publishPipelineTrace(context("USDTRY"));
+        publisher.publishPipelineTrace(context("EURUSD"));
+        publisher.publishPipelineTrace(context("GBPUSD"));
+        verifyNoInteractions(stringKafkaTemplate);
+
+        publisher.flushPipelineTraces();
+
+        ArgumentCaptor<String> batches = ArgumentCaptor.forClass(String.class);
+        verify(stringKafkaTemplate, times(2)).send(eq("financial-pipeline-tracking"), isNull(), batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).split("\n").length);
+        assertEquals(1, batches.getAllValues().get(1).split("\n").length);
+        assertEquals(3L, publisher.getTracingStats().get("published"));
+    }
+
+    @Test
+    void publishesToTheConfiguredTrackingTopic() {
+        properties.getTracing().setSampleRate(1.0);
+        ReflectionTestUtils.setField(publisher, "pipelineTrackingTopic", "staging-pipeline-tracking");
+        when(stringKafkaTemplate.send(anyString(), isNull(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        publisher.publishPipelineTrace(context("USDTRY"));
+        publisher.flushPipelineTraces();
+
+        verify(stringKafkaTemplate).send(eq("staging-pipeline-tracking"), isNull(), anyString());
+    }
+
+    @Test
+    void alwaysTracesFailedPipelinesWhenSamplingIsOff() {
+        properties.getTracing().setSampleRate(0.0);
+
+        publisher.publishPipelineTrace(context("USDTRY"));
+        ExecutionContext failed = context("EURUSD");
+        failed.addStageError("CrossRateCalculation", "boom");
+        publisher.publishPipelineTrace(failed);
+
+        assertEquals(1L, publisher.getTracingStats().get("sampled"));
+    }
+
+    private static ExecutionContext context(String symbol) {
+        ExecutionContext context = ExecutionContext.builder()
+                .pipelineId("PIPE_" + symbol)
+                .startTime(1_000L)
+                .build();
+        context.addTrigger(null, rate("TCPProvider1", symbol, "34.10", "34.20", 1_000L));
+        return context;
+    }
+
+    private static BaseRateDto rate(String provider, String symbol, String bid, String ask, long timestamp) {
+        BaseRateDto rate = new BaseRateDto();
+        rate.setRateType(RateType.RAW);
+        rate.setSymbol(symbol);
+        rate.setProviderName(provider);
+        rate.setBid(new BigDecimal(bid));
+        rate.setAsk(new BigDecimal(ask));
+        rate.setTimestamp(timestamp);
+        return rate;
+    }
+}
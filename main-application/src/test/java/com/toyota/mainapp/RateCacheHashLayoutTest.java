@@ -0,0 +1,93 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.cache.RateCacheService;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.toyota.mainapp.RateFixtures.rate;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+class RateCacheHashLayoutTest {
+
+    private RedisTemplate<String, BaseRateDto> rawTemplate;
+    private HashOperations<String, Object, Object> hashOps;
+    private RateCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        rawTemplate = RateFixtures.redisTemplate();
+        hashOps = mock(HashOperations.class);
+        when(rawTemplate.opsForHash()).thenReturn(hashOps);
+
+        service = RateFixtures.rateCacheService(rawTemplate, RateFixtures.redisTemplate());
+        ReflectionTestUtils.setField(service, "rawRateLayout", "hash");
+    }
+
+    @Test
+    void readReturnsEveryProviderWithOneHgetall() {
+        Map<Object, Object> stored = new HashMap<>();
+        stored.put("PF1", rate("USDTRY", "PF1", "34.10", System.currentTimeMillis()));
+        stored.put("AddedAtRuntime", rate("USDTRY", "AddedAtRuntime", "34.11", System.currentTimeMillis()));
+        when(hashOps.entries("test:raw:h:USDTRY")).thenReturn(stored);
+
+        Map<String, BaseRateDto> rates = service.getRawRatesForSymbol("USDTRY", List.of("PF1"));
+        service.getRawRatesForSymbol("USDTRY", List.of("PF1"));
+
+        assertEquals(2, rates.size());
+        assertTrue(rates.containsKey("AddedAtRuntime"));
+        verify(hashOps, times(1)).entries("test:raw:h:USDTRY");
+    }
+
+    @Test
+    void staleFieldsAreDropped() {
+        Map<Object, Object> stored = new HashMap<>();
+        stored.put("PF1", rate("USDTRY", "PF1", "34.10", System.currentTimeMillis()));
+        stored.put("Quiet", rate("USDTRY", "Quiet", "33.00", System.currentTimeMillis() - 60_000));
+        when(hashOps.entries("test:raw:h:USDTRY")).thenReturn(stored);
+
+        assertEquals(List.of("PF1"), List.copyOf(service.getRawRatesForSymbol("USDTRY").keySet()));
+    }
+
+    @Test
+    void localWriteUpdatesLoadedSymbol() {
+        when(hashOps.entries("test:raw:h:USDTRY")).thenReturn(Map.of("PF1", rate("USDTRY", "PF1", "34.10", System.currentTimeMillis())));
+        service.getRawRatesForSymbol("USDTRY");
+
+        BaseRateDto pf2 = rate("USDTRY", "PF2", "34.12", System.currentTimeMillis());
+        service.primeRawRate(pf2);
+
+        Map<String, BaseRateDto> rates = service.getRawRatesForSymbol("USDTRY");
+        assertSame(pf2, rates.get("PF2"));
+        assertEquals(2, rates.size());
+        verify(hashOps, times(1)).entries(anyString());
+    }
+
+    @Test
+    void writeUsesHashScriptWithProviderFields() {
+        service.cacheRawRates(List.of(rate("USDTRY", "PF1", "34.10", System.currentTimeMillis()),
+                rate("USDTRY", "PF2", "34.12", System.currentTimeMillis())));
+
+        ArgumentCaptor<RedisScript<Long>> script = ArgumentCaptor.forClass(RedisScript.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(rawTemplate).execute(script.capture(), any(), any(),
+                eq(List.of("test:raw:h:USDTRY", "test:raw:h:USDTRY")), args.capture());
+        assertTrue(script.getValue().getScriptAsString().contains("HSET"));
+        assertEquals("15", new String((byte[]) args.getValue()[0], StandardCharsets.UTF_8));
+        assertEquals("PF1", new String((byte[]) args.getValue()[3], StandardCharsets.UTF_8));
+        assertEquals("PF2", new String((byte[]) args.getValue()[5], StandardCharsets.UTF_8));
+    }
+}
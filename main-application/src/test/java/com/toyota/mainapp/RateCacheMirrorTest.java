@@ -0,0 +1,72 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.cache.RateCacheMirror;
+import com.toyota.mainapp.cache.RateCacheService;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class RateCacheMirrorTest {
+
+    private final RateCacheService rateCacheService = mock(RateCacheService.class);
+    private final List<Runnable> queued = new ArrayList<>();
+    private boolean rejecting;
+    private final TaskExecutor executor = task -> {
+        if (rejecting) {
+            throw new TaskRejectedException("full");
+        }
+        queued.add(task);
+    };
+    private final RateCacheMirror mirror = new RateCacheMirror(rateCacheService, executor);
+
+    @Test
+    void pendingWritesAreConflatedPerKeyAndCounted() {
+        mirror.mirrorRawRate(rate("PF1", "34.10"));
+        mirror.mirrorRawRate(rate("PF1", "34.11"));
+        mirror.mirrorRawRate(rate("PF2", "34.12"));
+
+        assertEquals(1, queued.size());
+        assertEquals(1L, mirror.getConflatedCount());
+        queued.remove(0).run();
+
+        verify(rateCacheService).cacheRawRates(argThat(batch -> batch.size() == 2
+                && batch.stream().anyMatch(r -> r.getBid().compareTo(new BigDecimal("34.11")) == 0)));
+        assertEquals(0, mirror.getPendingCount());
+    }
+
+    @Test
+    void rejectedDrainKeepsRatesPendingUntilResubmitted() {
+        rejecting = true;
+        mirror.mirrorRawRate(rate("PF1", "34.10"));
+
+        assertEquals(1L, mirror.getRejectedCount());
+        assertEquals(1, mirror.getPendingCount());
+        verify(rateCacheService, never()).cacheRawRates(anyList());
+
+        rejecting = false;
+        mirror.resubmitPendingDrains();
+        queued.remove(0).run();
+
+        verify(rateCacheService).cacheRawRates(argThat(batch -> batch.size() == 1));
+        assertEquals(0, mirror.getPendingCount());
+    }
+
+    private static BaseRateDto rate(String provider, String bid) {
+        BaseRateDto rate = new BaseRateDto();
+        rate.setSymbol("USDTRY");
+        rate.setProviderName(provider);
+        rate.setBid(new BigDecimal(bid));
+        rate.setAsk(new BigDecimal(bid));
+        rate.setTimestamp(System.currentTimeMillis());
+        return rate;
+    }
+}
@@ -0,0 +1,104 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.cache.RateCacheService;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.toyota.mainapp.RateFixtures.rate;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+class RateCacheNearCacheTest {
+
+    private RedisTemplate<String, BaseRateDto> rawTemplate;
+    private RedisTemplate<String, BaseRateDto> calculatedTemplate;
+    private ValueOperations<String, BaseRateDto> rawOps;
+    private ValueOperations<String, BaseRateDto> calculatedOps;
+    private RateCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        rawTemplate = RateFixtures.redisTemplate();
+        calculatedTemplate = RateFixtures.redisTemplate();
+        rawOps = mock(ValueOperations.class);
+        calculatedOps = mock(ValueOperations.class);
+        when(rawTemplate.opsForValue()).thenReturn(rawOps);
+        when(calculatedTemplate.opsForValue()).thenReturn(calculatedOps);
+        service = RateFixtures.rateCacheService(rawTemplate, calculatedTemplate);
+    }
+
+    @Test
+    void secondReadIsServedLocally() {
+        BaseRateDto pf1 = rate("USDTRY", "PF1", "34.10");
+        when(rawOps.multiGet(anyList())).thenReturn(Arrays.asList(pf1, null));
+
+        Map<String, BaseRateDto> first = service.getRawRatesForSymbol("USDTRY", List.of("PF1", "PF2"));
+        Map<String, BaseRateDto> second = service.getRawRatesForSymbol("USDTRY", List.of("PF1", "PF2"));
+
+        assertEquals(Map.of("PF1", pf1), first);
+        assertEquals(first, second);
+        // PF2 was absent in Redis and is remembered as a negative entry
+        verify(rawOps, times(1)).multiGet(anyList());
+    }
+
+    @Test
+    void onlyMissingKeysGoToRedis() {
+        service.primeRawRate(rate("USDTRY", "PF1", "34.10"));
+        BaseRateDto pf2 = rate("USDTRY", "PF2", "34.12");
+        when(rawOps.multiGet(List.of("test:raw:USDTRY:PF2"))).thenReturn(List.of(pf2));
+
+        Map<String, BaseRateDto> rates = service.getRawRatesForSymbol("USDTRY", List.of("PF1", "PF2"));
+
+        assertEquals(2, rates.size());
+        verify(rawOps).multiGet(List.of("test:raw:USDTRY:PF2"));
+    }
+
+    @Test
+    void writeUpdatesLocalCopy() {
+        BaseRateDto calculated = rate("USDTRY", "CALCULATED", "34.11");
+
+        service.cacheCalculatedRate(calculated);
+
+        verify(calculatedTemplate).execute(any(RedisScript.class), any(), any(), eq(List.of("test:calc:USDTRY")), any(Object[].class));
+        assertSame(calculated, service.getLatestCalculatedRate("USDTRY"));
+        verify(calculatedOps, never()).get(anyString());
+    }
+
+    @Test
+    void foreignInvalidationEvictsAndOwnIsIgnored() {
+        BaseRateDto stale = rate("USDTRY", "CALCULATED", "34.11");
+        BaseRateDto fresh = rate("USDTRY", "CALCULATED", "34.20");
+        service.primeCalculatedRate(stale);
+        String instanceId = (String) ReflectionTestUtils.getField(service, "instanceId");
+
+        service.onInvalidation(instanceId + "|test:calc:USDTRY");
+        assertSame(stale, service.getLatestCalculatedRate("USDTRY"));
+
+        when(calculatedOps.get("test:calc:USDTRY")).thenReturn(fresh);
+        service.onInvalidation("other-instance|test:calc:USDTRY");
+        assertSame(fresh, service.getLatestCalculatedRate("USDTRY"));
+    }
+
+    @Test
+    void disabledNearCacheAlwaysReadsRedis() {
+        ReflectionTestUtils.setField(service, "nearCacheEnabled", false);
+        BaseRateDto calculated = rate("USDTRY", "CALCULATED", "34.11");
+        when(calculatedOps.get("test:calc:USDTRY")).thenReturn(calculated);
+
+        service.getLatestCalculatedRate("USDTRY");
+        service.getLatestCalculatedRate("USDTRY");
+
+        verify(calculatedOps, times(2)).get("test:calc:USDTRY");
+    }
+}
@@ -0,0 +1,103 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.cache.RateCacheService;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static com.toyota.mainapp.RateFixtures.rate;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+class RateCacheScriptWriteTest {
+
+    private RedisTemplate<String, BaseRateDto> rawTemplate;
+    private RedisTemplate<String, BaseRateDto> calculatedTemplate;
+    private RateCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        rawTemplate = RateFixtures.redisTemplate();
+        calculatedTemplate = RateFixtures.redisTemplate();
+        service = RateFixtures.rateCacheService(rawTemplate, calculatedTemplate);
+    }
+
+    @Test
+    void rawBatchIsOneScriptCall() {
+        when(rawTemplate.execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class))).thenReturn(2L);
+
+        service.cacheRawRates(List.of(
+                rate("USDTRY", "PF1", "34.10"),
+                rate("USDTRY", "PF2", "34.12"),
+                rate("EURUSD", "PF1", "1.08")));
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        ArgumentCaptor<RedisScript<Long>> script = ArgumentCaptor.forClass(RedisScript.class);
+        verify(rawTemplate, times(1)).execute(script.capture(), any(), any(), keys.capture(), args.capture());
+
+        assertTrue(script.getValue().getScriptAsString().contains("redis.call('SET', key, value, 'EX', ttl)"));
+
+        // Fingerprint keys follow the rate keys so the script never builds a key itself
+        assertEquals(List.of("test:raw:USDTRY:PF1", "test:raw:USDTRY:PF2", "test:raw:EURUSD:PF1",
+                "test:raw:USDTRY:PF1:fp", "test:raw:USDTRY:PF2:fp", "test:raw:EURUSD:PF1:fp"), keys.getValue());
+        assertFalse(script.getValue().getScriptAsString().contains(".. ':fp'"));
+        Object[] sent = args.getValue();
+        assertEquals(4 + 2 * 3, sent.length);
+        assertEquals("1", string(sent[0]));
+        assertEquals("15", string(sent[1]));
+        assertEquals("toyota_rates:cache:invalidate", string(sent[2]));
+        assertEquals("34.10|34.12", string(sent[4]));
+
+        Map<String, Object> stats = service.getCacheStats();
+        assertEquals(1L, stats.get("scriptCalls"));
+        assertEquals(2L, stats.get("scriptWrites"));
+        assertEquals(1L, stats.get("ttlRefreshes"));
+    }
+
+    @Test
+    void calculatedRatesAreWrittenWithoutCompare() {
+        service.cacheCalculatedRates(List.of(rate("USDTRY", "CALCULATED", "34.11"), rate("EURTRY", "CALCULATED", "36.90")));
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(calculatedTemplate).execute(any(RedisScript.class), any(), any(),
+                eq(List.of("test:calc:USDTRY", "test:calc:EURTRY")), args.capture());
+        assertEquals("0", string(args.getValue()[0]));
+        assertEquals("10", string(args.getValue()[1]));
+        verifyNoInteractions(rawTemplate);
+    }
+
+    @Test
+    void invalidRatesAreSkippedAndEmptyBatchSendsNothing() {
+        BaseRateDto noProvider = rate("USDTRY", null, "34.10");
+
+        service.cacheRawRates(List.of(noProvider));
+
+        verify(rawTemplate, never()).execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void disabledNearCacheSendsNoChannel() {
+        ReflectionTestUtils.setField(service, "nearCacheEnabled", false);
+
+        service.cacheRawRate(rate("USDTRY", "PF1", "34.10"));
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(rawTemplate).execute(any(RedisScript.class), any(), any(), anyList(), args.capture());
+        assertEquals("", string(args.getValue()[2]));
+    }
+
+    private static String string(Object arg) {
+        return new String((byte[]) arg, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,64 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.cache.RateCacheService;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Rates and a mock-backed {@link RateCacheService} shared by the cache and publishing tests.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+final class RateFixtures {
+
+    private RateFixtures() {
+    }
+
+    /**
+     * A quote received now, ask two hundredths above bid.
+     */
+    static BaseRateDto rate(String symbol, String provider, String bid) {
+        return rate(symbol, provider, bid, System.currentTimeMillis());
+    }
+
+    static BaseRateDto rate(String symbol, String provider, String bid, long receivedAt) {
+        BaseRateDto rate = new BaseRateDto();
+        rate.setSymbol(symbol);
+        rate.setProviderName(provider);
+        rate.setBid(new BigDecimal(bid));
+        rate.setAsk(new BigDecimal(bid).add(new BigDecimal("0.02")));
+        rate.setTimestamp(receivedAt);
+        rate.setReceivedAt(receivedAt);
+        return rate;
+    }
+
+    /**
+     * Mock template that serializes values and hash values as JSON, like the real beans.
+     */
+    static RedisTemplate<String, BaseRateDto> redisTemplate() {
+        RedisTemplate<String, BaseRateDto> template = mock(RedisTemplate.class);
+        RedisSerializer serializer = new Jackson2JsonRedisSerializer<>(BaseRateDto.class);
+        when(template.getValueSerializer()).thenReturn(serializer);
+        when(template.getHashValueSerializer()).thenReturn(serializer);
+        return template;
+    }
+
+    /**
+     * Service with the "test" key prefix, 15s raw and 10s calculated TTLs and the near cache on.
+     */
+    static RateCacheService rateCacheService(RedisTemplate<String, BaseRateDto> rawTemplate,
+                                             RedisTemplate<String, BaseRateDto> calculatedTemplate) {
+        RateCacheService service = new RateCacheService(rawTemplate, calculatedTemplate);
+        ReflectionTestUtils.setField(service, "rawRateTtlSeconds", 15);
+        ReflectionTestUtils.setField(service, "calculatedRateTtlSeconds", 10);
+        ReflectionTestUtils.setField(service, "keyPrefix", "test");
+        service.initNearCache();
+        return service;
+    }
+}
@@ -0,0 +1,111 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.cache.RateCacheMirror;
+import com.toyota.mainapp.calculator.ConflatingRateQueue;
+import com.toyota.mainapp.calculator.RealTimeBatchProcessor;
+import com.toyota.mainapp.calculator.ShardedPipelineExecutor;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.ProviderRateDto;
+import com.toyota.mainapp.dto.model.RateTick;
+import com.toyota.mainapp.ingestion.RateIngestionService;
+import com.toyota.mainapp.kafka.KafkaPublishingService;
+import com.toyota.mainapp.mapper.RateMapper;
+import com.toyota.mainapp.util.SymbolRegistry;
+import com.toyota.mainapp.util.TickInterner;
+import com.toyota.mainapp.validation.RateValidatorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RateIngestionServiceTest {
+
+    private static final int TICKS = 30;
+
+    private final ApplicationProperties properties = new ApplicationProperties(new DefaultResourceLoader());
+    private final RateMapper rateMapper = mock(RateMapper.class);
+    private final RateValidatorService rateValidatorService = mock(RateValidatorService.class);
+    private final RateCacheMirror rateCacheMirror = mock(RateCacheMirror.class);
+    private final KafkaPublishingService kafkaPublishingService = mock(KafkaPublishingService.class);
+    private final RealTimeBatchProcessor realTimeBatchProcessor = mock(RealTimeBatchProcessor.class);
+    private final List<Integer> mirrored = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> published = Collections.synchronizedList(new ArrayList<>());
+    private ShardedPipelineExecutor executor;
+    private RateIngestionService ingestion;
+
+    @BeforeEach
+    void start() {
+        SymbolRegistry.global().register("USDTRY");
+        properties.getIngestion().setConsumerThreads(2);
+        properties.getIngestion().setWaitStrategy("BUSY_SPIN");
+        properties.getPipeline().setShardCount(1);
+        when(rateMapper.safelyConvertTimestamp(any())).thenReturn(0L);
+        doAnswer(invocation -> {
+            mirrored.add(tickNumber(invocation.getArgument(0)));
+            return null;
+        }).when(rateCacheMirror).mirrorRawRate(any());
+        doAnswer(invocation -> {
+            published.add(tickNumber(invocation.getArgument(0)));
+            return null;
+        }).when(kafkaPublishingService).publishRawRate(any());
+
+        executor = new ShardedPipelineExecutor(properties, new SimpleMeterRegistry());
+        executor.start();
+        ingestion = new RateIngestionService(rateMapper, rateValidatorService, rateCacheMirror, kafkaPublishingService,
+                realTimeBatchProcessor, executor, mock(ConflatingRateQueue.class), new TickInterner(properties),
+                properties, new SimpleMeterRegistry());
+        ingestion.start();
+    }
+
+    @AfterEach
+    void stop() {
+        ingestion.stop();
+        executor.stop();
+    }
+
+    @Test
+    void slowConsumerDoesNotLetALaterTickOvertakeIt() {
+        // Every third tick is slow to validate, so the other consumer finishes the next one first
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0, RateTick.class).getBid() % 3 == 0) {
+                Thread.sleep(20);
+            }
+            return null;
+        }).when(rateValidatorService).validate(any(RateTick.class));
+
+        for (int i = 0; i < TICKS; i++) {
+            ingestion.publish("TCPProvider1", tick(i));
+        }
+
+        verify(realTimeBatchProcessor, timeout(5000).times(TICKS)).processNewRate(any(), any());
+        List<Integer> inOrder = IntStream.range(0, TICKS).boxed().toList();
+        assertEquals(inOrder, mirrored);
+        assertEquals(inOrder, published);
+    }
+
+    private static ProviderRateDto tick(int number) {
+        ProviderRateDto rate = new ProviderRateDto();
+        rate.setSymbol("USDTRY");
+        rate.setProviderName("TCPProvider1");
+        rate.setBid(String.valueOf(number));
+        rate.setAsk(String.valueOf(number + 1));
+        rate.setTimestamp(0L);
+        return rate;
+    }
+
+    private static int tickNumber(BaseRateDto rate) {
+        return rate.getBid().setScale(0, RoundingMode.UNNECESSARY).intValueExact();
+    }
+}
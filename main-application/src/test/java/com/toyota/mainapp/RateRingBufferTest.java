@@ -0,0 +1,45 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.dto.model.ProviderRateDto;
+import com.toyota.mainapp.ingestion.RateRingBuffer;
+import com.toyota.mainapp.ingestion.WaitStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateRingBufferTest {
+
+    @Test
+    void publishedRatesAreConsumedInOrderAndSlotsReused() {
+        RateRingBuffer buffer = new RateRingBuffer(3, WaitStrategy.BUSY_SPIN);
+        assertEquals(4, buffer.getCapacity());
+
+        List<String> consumed = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                buffer.publish("TCP_PROVIDER", rate("USDTRY", "34." + i));
+            }
+            assertEquals(4, buffer.getDepth());
+            while (buffer.poll(event -> consumed.add(event.getBid()))) {
+                // drain
+            }
+            assertEquals(0, buffer.getDepth());
+        }
+
+        assertEquals(12, consumed.size());
+        assertEquals(List.of("34.0", "34.1", "34.2", "34.3"), consumed.subList(8, 12));
+        assertFalse(buffer.poll(event -> fail("buffer should be empty")));
+    }
+
+    private ProviderRateDto rate(String symbol, String bid) {
+        ProviderRateDto rate = new ProviderRateDto();
+        rate.setSymbol(symbol);
+        rate.setBid(bid);
+        rate.setAsk(bid);
+        rate.setTimestamp(System.currentTimeMillis());
+        return rate;
+    }
+}
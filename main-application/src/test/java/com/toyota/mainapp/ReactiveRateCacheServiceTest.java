@@ -0,0 +1,106 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.cache.RateCacheService;
+import com.toyota.mainapp.cache.ReactiveRateCacheService;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.toyota.mainapp.RateFixtures.rate;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+class ReactiveRateCacheServiceTest {
+
+    private ReactiveRedisTemplate<String, BaseRateDto> rawTemplate;
+    private ReactiveRedisTemplate<String, BaseRateDto> calculatedTemplate;
+    private ReactiveValueOperations<String, BaseRateDto> rawOps;
+    private ReactiveValueOperations<String, BaseRateDto> calculatedOps;
+    private RateCacheService rateCacheService;
+    private ReactiveRateCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        rawTemplate = mock(ReactiveRedisTemplate.class);
+        calculatedTemplate = mock(ReactiveRedisTemplate.class);
+        rawOps = mock(ReactiveValueOperations.class);
+        calculatedOps = mock(ReactiveValueOperations.class);
+        when(rawTemplate.opsForValue()).thenReturn(rawOps);
+        when(calculatedTemplate.opsForValue()).thenReturn(calculatedOps);
+
+        rateCacheService = RateFixtures.rateCacheService(RateFixtures.redisTemplate(), RateFixtures.redisTemplate());
+        service = new ReactiveRateCacheService(rateCacheService, rawTemplate, calculatedTemplate);
+    }
+
+    @Test
+    void readsAllSymbolsInOneRequest() {
+        BaseRateDto usdPf1 = rate("USDTRY", "PF1", "34.10");
+        BaseRateDto eurPf2 = rate("EURUSD", "PF2", "1.08");
+        when(rawOps.multiGet(anyList())).thenReturn(Mono.just(Arrays.asList(usdPf1, null, null, eurPf2)));
+
+        Map<String, Map<String, BaseRateDto>> rates =
+                service.getRawRatesForSymbols(List.of("USDTRY", "EURUSD"), List.of("PF1", "PF2")).block();
+
+        assertEquals(Map.of("USDTRY", Map.of("PF1", usdPf1), "EURUSD", Map.of("PF2", eurPf2)), rates);
+        verify(rawOps).multiGet(List.of("test:raw:USDTRY:PF1", "test:raw:USDTRY:PF2",
+                "test:raw:EURUSD:PF1", "test:raw:EURUSD:PF2"));
+    }
+
+    @Test
+    void nearCacheHitsSkipRedis() {
+        BaseRateDto calculated = rate("USDTRY", "CALCULATED", "34.11");
+        rateCacheService.primeCalculatedRate(calculated);
+
+        assertSame(calculated, service.getCalculatedRate("USDTRY").block());
+        verifyNoInteractions(calculatedOps);
+    }
+
+    @Test
+    void loadedRatesFillNearCache() {
+        BaseRateDto calculated = rate("EURUSD", "CALCULATED", "1.08");
+        when(calculatedOps.multiGet(List.of("test:calc:EURUSD"))).thenReturn(Mono.just(List.of(calculated)));
+
+        service.getCalculatedRates(List.of("EURUSD")).block();
+
+        assertSame(calculated, rateCacheService.getLatestCalculatedRate("EURUSD"));
+    }
+
+    @Test
+    void redisFailureReadsAsMiss() {
+        BaseRateDto cached = rate("USDTRY", "CALCULATED", "34.11");
+        rateCacheService.primeCalculatedRate(cached);
+        when(calculatedOps.multiGet(anyList())).thenReturn(Mono.error(new IllegalStateException("connection reset")));
+
+        Map<String, BaseRateDto> rates = service.getCalculatedRates(List.of("USDTRY", "EURUSD")).block();
+
+        assertEquals(Map.of("USDTRY", cached), rates);
+        assertEquals(1L, service.getStats().get("failedReads"));
+    }
+
+    @Test
+    void hashLayoutReadsOneHashPerSymbol() {
+        ReflectionTestUtils.setField(rateCacheService, "rawRateLayout", "hash");
+        ReactiveHashOperations<String, Object, Object> hashOps = mock(ReactiveHashOperations.class);
+        when(rawTemplate.opsForHash()).thenReturn((ReactiveHashOperations) hashOps);
+        BaseRateDto pf1 = rate("USDTRY", "PF1", "34.10");
+        when(hashOps.entries("test:raw:h:USDTRY")).thenReturn(Flux.just(Map.entry("PF1", pf1)));
+
+        Map<String, Map<String, BaseRateDto>> rates =
+                service.getRawRatesForSymbols(List.of("USDTRY"), List.of("PF1")).block();
+
+        assertEquals(Map.of("USDTRY", Map.of("PF1", pf1)), rates);
+        verifyNoInteractions(rawOps);
+    }
+}
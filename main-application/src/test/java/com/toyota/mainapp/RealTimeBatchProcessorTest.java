@@ -0,0 +1,101 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.calculator.RealTimeBatchProcessor;
+import com.toyota.mainapp.calculator.ShardedPipelineExecutor;
+import com.toyota.mainapp.calculator.pipeline.ExecutionContext;
+import com.toyota.mainapp.calculator.pipeline.PipelineStageRunner;
+import com.toyota.mainapp.calculator.pipeline.stage.AverageCalculationStage;
+import com.toyota.mainapp.calculator.pipeline.stage.CrossRateCalculationStage;
+import com.toyota.mainapp.calculator.pipeline.stage.RawDataHandlingStage;
+import com.toyota.mainapp.calculator.pipeline.stage.SimpleBatchAssemblyStage;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.dto.model.BaseRateDto;
+import com.toyota.mainapp.dto.model.RateType;
+import com.toyota.mainapp.kafka.KafkaPublishingService;
+import com.toyota.mainapp.metrics.PipelineLatencyMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RealTimeBatchProcessorTest {
+
+    private final SimpleBatchAssemblyStage assemblyStage = mock(SimpleBatchAssemblyStage.class);
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    private ShardedPipelineExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void coalescesTicksWithinWindowIntoOneRun() {
+        RealTimeBatchProcessor processor = processor(50, 64);
+
+        for (String symbol : List.of("USDTRY", "EURUSD", "GBPUSD")) {
+            for (String provider : List.of("TCPProvider1", "TCPProvider2", "RESTProvider1")) {
+                BaseRateDto rate = rate(provider, symbol);
+                executor.execute(symbol, () -> processor.processNewRate(null, rate));
+            }
+        }
+
+        ArgumentCaptor<ExecutionContext> runs = ArgumentCaptor.forClass(ExecutionContext.class);
+        verify(assemblyStage, timeout(2000)).execute(runs.capture());
+        assertEquals(9, runs.getValue().getTriggeringRates().size());
+        assertTrue(runs.getValue().getPipelineId().startsWith("BATCH_"));
+    }
+
+    @Test
+    void flushesEarlyWhenBatchIsFull() {
+        RealTimeBatchProcessor processor = processor(200, 4);
+
+        for (int i = 0; i < 9; i++) {
+            BaseRateDto rate = rate("TCPProvider" + i, "USDTRY");
+            executor.execute("USDTRY", () -> processor.processNewRate(null, rate));
+        }
+
+        ArgumentCaptor<ExecutionContext> runs = ArgumentCaptor.forClass(ExecutionContext.class);
+        verify(assemblyStage, timeout(2000).times(3)).execute(runs.capture());
+        assertEquals(List.of(4, 4, 1), runs.getAllValues().stream()
+                .map(context -> context.getTriggeringRates().size()).toList());
+        assertEquals(3L, processor.getBatchStats().get("runs"));
+    }
+
+    private RealTimeBatchProcessor processor(long windowMs, int maxSize) {
+        ApplicationProperties properties = spy(new ApplicationProperties(new DefaultResourceLoader()));
+        doReturn(true).when(properties).isConfigurationReady();
+        properties.getPipeline().setShardCount(1);
+        properties.getPipeline().setBatchWindowMs(windowMs);
+        properties.getPipeline().setBatchMaxSize(maxSize);
+
+        executor = new ShardedPipelineExecutor(properties, new SimpleMeterRegistry());
+        executor.start();
+        scheduler.initialize();
+
+        return new RealTimeBatchProcessor(mock(RawDataHandlingStage.class), mock(AverageCalculationStage.class),
+                mock(CrossRateCalculationStage.class), assemblyStage,
+                new PipelineStageRunner(properties, scheduler, new SimpleMeterRegistry(), mock(PipelineLatencyMetrics.class)), executor, scheduler,
+                mock(KafkaPublishingService.class), properties);
+    }
+
+    private BaseRateDto rate(String provider, String symbol) {
+        BaseRateDto rate = new BaseRateDto();
+        rate.setRateType(RateType.RAW);
+        rate.setSymbol(symbol);
+        rate.setProviderName(provider);
+        rate.setBid(new BigDecimal("34.10"));
+        rate.setAsk(new BigDecimal("34.20"));
+        rate.setTimestamp(System.currentTimeMillis());
+        return rate;
+    }
+}
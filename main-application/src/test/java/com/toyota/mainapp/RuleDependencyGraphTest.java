@@ -0,0 +1,53 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.calculator.graph.RuleDependencyGraph;
+import com.toyota.mainapp.dto.config.CalculationRuleDto;
+import com.toyota.mainapp.exception.RuleGraphValidationException;
+import com.toyota.mainapp.util.SymbolRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleDependencyGraphTest {
+
+    @Test
+    void reEvaluatesOnlyDownstreamRulesInTopologicalOrder() {
+        RuleDependencyGraph graph = RuleDependencyGraph.compile(List.of(
+                rule("EURTRY_CROSS", "CROSS", "EURUSD_AVG", "USDTRY_AVG"),
+                rule("USDTRY_AVG", "AVG", "USDTRY"),
+                rule("EURUSD_AVG", "AVG", "EURUSD"),
+                rule("GBPUSD_AVG", "AVG", "GBPUSD")));
+
+        assertEquals(List.of("USDTRY_AVG"), outputs(graph.avgRulesFor("USD/TRY")));
+        assertEquals(List.of("USDTRY_AVG"), outputs(graph.avgRulesFor(SymbolRegistry.global().resolve("USDTRY"))));
+        assertTrue(graph.avgRulesFor(SymbolRegistry.UNKNOWN).isEmpty());
+        assertEquals(List.of("USDTRY_AVG", "EURTRY_CROSS"), outputs(graph.downstreamOf("USDTRY")));
+        assertEquals(List.of("EURTRY_CROSS"), outputs(graph.crossRulesFor(List.of("EURUSD_AVG"))));
+        assertTrue(graph.crossRulesFor(List.of("GBPUSD_AVG")).isEmpty());
+    }
+
+    @Test
+    void rejectsCyclesAndUnreachableRules() {
+        assertThrows(RuleGraphValidationException.class, () -> RuleDependencyGraph.compile(List.of(
+                rule("A_CROSS", "CROSS", "B_CROSS"),
+                rule("B_CROSS", "CROSS", "A_CROSS"))));
+
+        assertThrows(RuleGraphValidationException.class, () -> RuleDependencyGraph.compile(List.of(
+                rule("EURTRY_CROSS", "CROSS", "EURUSD_AVG", "USDTRY_AVG"),
+                rule("USDTRY_AVG", "AVG", "USDTRY"))));
+    }
+
+    private CalculationRuleDto rule(String output, String type, String... inputs) {
+        return CalculationRuleDto.builder()
+                .outputSymbol(output)
+                .type(type)
+                .inputSymbols(List.of(inputs))
+                .build();
+    }
+
+    private List<String> outputs(List<CalculationRuleDto> rules) {
+        return rules.stream().map(CalculationRuleDto::getOutputSymbol).toList();
+    }
+}
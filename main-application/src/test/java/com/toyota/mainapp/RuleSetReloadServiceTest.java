@@ -0,0 +1,101 @@
+package com.toyota.mainapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toyota.mainapp.calculator.RuleSetReloadService;
+import com.toyota.mainapp.calculator.engine.impl.FormulaCalculationStrategy;
+import com.toyota.mainapp.calculator.engine.impl.GroovyScriptCalculationStrategy;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.config.RuleSetSnapshot;
+import com.toyota.mainapp.exception.RuleSetValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSetReloadServiceTest {
+
+    private static final String AVG_RULE = """
+            {"outputSymbol": "USDTRY_AVG", "type": "AVG", "strategyType": "averageCalculationStrategy",
+             "inputSymbols": ["USDTRY"]}""";
+    private static final String EURUSD_AVG_RULE = """
+            {"outputSymbol": "EURUSD_AVG", "type": "AVG", "strategyType": "averageCalculationStrategy",
+             "inputSymbols": ["EURUSD"]}""";
+
+    @TempDir
+    Path configDir;
+
+    private Path configFile;
+    private ApplicationProperties properties;
+    private RuleSetReloadService reloadService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        configFile = configDir.resolve("calculation-config.json");
+        writeRules(AVG_RULE);
+
+        DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+        properties = new ApplicationProperties(resourceLoader);
+        properties.setObjectMapper(new ObjectMapper());
+        properties.setCalculationConfigPath("file:" + configFile);
+        properties.loadCalculationConfiguration();
+
+        reloadService = new RuleSetReloadService(properties, new FormulaCalculationStrategy(properties),
+                new GroovyScriptCalculationStrategy(resourceLoader, properties, new SimpleMeterRegistry()));
+        reloadService.initWatch();
+    }
+
+    @Test
+    void reloadSwapsInNewVersionWhileCapturedSnapshotStaysIntact() throws IOException {
+        RuleSetSnapshot inFlight = properties.getRuleSet();
+        assertEquals(1L, inFlight.version());
+
+        writeRules(AVG_RULE + "," + EURUSD_AVG_RULE);
+        RuleSetSnapshot reloaded = reloadService.reload("test");
+
+        assertEquals(2L, reloaded.version());
+        assertSame(reloaded, properties.getRuleSet());
+        assertEquals(2, properties.getCalculationRules().size());
+        assertEquals(1, properties.getRuleDependencyGraph().avgRulesFor("EURUSD").size());
+        // A pipeline that started on v1 still sees v1
+        assertEquals(1, inFlight.rules().size());
+        assertTrue(inFlight.graph().avgRulesFor("EURUSD").isEmpty());
+    }
+
+    @Test
+    void invalidRuleSetIsRejectedAndActiveVersionKept() throws IOException {
+        RuleSetSnapshot active = properties.getRuleSet();
+
+        writeRules(AVG_RULE + """
+                ,{"outputSymbol": "EURTRY_CROSS", "type": "CROSS", "strategyType": "formulaCalculationStrategy",
+                  "inputSymbols": ["USDTRY_AVG"],
+                  "inputParameters": {"bidFormula": "USDTRY_AVG.bid *", "askFormula": "USDTRY_AVG.ask"}}""");
+
+        RuleSetValidationException e = assertThrows(RuleSetValidationException.class, () -> reloadService.reload("test"));
+        assertTrue(e.getErrors().get(0).startsWith("EURTRY_CROSS"));
+        assertSame(active, properties.getRuleSet());
+        assertEquals(1L, reloadService.getRuleSetInfo().get("rejectedReloads"));
+    }
+
+    @Test
+    void fileWatchReloadsOnlyWhenTheFileChanges() throws IOException {
+        reloadService.watchConfigFile();
+        assertEquals(1L, properties.getRuleSet().version());
+
+        writeRules(AVG_RULE + "," + EURUSD_AVG_RULE);
+        reloadService.watchConfigFile();
+
+        assertEquals(2L, properties.getRuleSet().version());
+        assertEquals(1L, reloadService.getRuleSetInfo().get("reloads"));
+    }
+
+    private void writeRules(String rules) throws IOException {
+        Files.writeString(configFile, "{\"calculationRules\": [" + rules + "]}");
+    }
+}
@@ -0,0 +1,132 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.calculator.ShardedPipelineExecutor;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.util.SymbolRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedPipelineExecutorTest {
+
+    private static final int USDTRY = SymbolRegistry.global().register("USDTRY");
+
+    private ShardedPipelineExecutor executor;
+
+    @BeforeEach
+    void start() {
+        ApplicationProperties properties = new ApplicationProperties(new DefaultResourceLoader());
+        properties.getPipeline().setShardCount(1);
+        properties.getPipeline().setShardQueueCapacity(16);
+        executor = new ShardedPipelineExecutor(properties, new SimpleMeterRegistry());
+        executor.start();
+    }
+
+    @AfterEach
+    void stop() {
+        executor.stop();
+    }
+
+    @Test
+    void outOfOrderTickStillRunsButIsNotLatest() throws Exception {
+        List<String> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(4);
+
+        executor.execute(USDTRY, 1L, 5L, latest -> { seen.add("a5:" + latest); done.countDown(); });
+        executor.execute(USDTRY, 1L, 3L, latest -> { seen.add("a3:" + latest); done.countDown(); });
+        executor.execute(USDTRY, 2L, 1L, latest -> { seen.add("b1:" + latest); done.countDown(); });
+        executor.execute(USDTRY, 1L, 6L, latest -> { seen.add("a6:" + latest); done.countDown(); });
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        // The overtaken tick is handed to the task (raw cache and publish) but flagged stale
+        assertEquals(List.of("a5:true", "a3:false", "b1:true", "a6:true"), seen);
+    }
+
+    @Test
+    void conflatedDrainRunsOnceForAFullQueueOfTicks() throws Exception {
+        CountDownLatch release = blockWorker();
+        AtomicInteger latestTick = new AtomicInteger();
+        AtomicBoolean dirty = new AtomicBoolean();
+        List<Integer> calculated = new CopyOnWriteArrayList<>();
+        CountDownLatch drained = new CountDownLatch(1);
+
+        for (int i = 1; i <= 16; i++) {
+            int tick = i;
+            executor.execute("USDTRY", () -> {
+                latestTick.set(tick);
+                if (dirty.compareAndSet(false, true)) {
+                    executor.executeConflated(USDTRY, () -> {
+                        dirty.set(false);
+                        calculated.add(latestTick.get());
+                        drained.countDown();
+                    });
+                }
+            });
+        }
+        release.countDown();
+
+        assertTrue(drained.await(2, TimeUnit.SECONDS));
+        // The queue was full, yet the 16 ticks collapse into one calculation of the latest
+        assertEquals(List.of(16), calculated);
+    }
+
+    @Test
+    void conflatedDrainRunsBeforeTasksQueuedAfterItsRound() throws Exception {
+        CountDownLatch release = blockWorker();
+        List<String> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(4);
+
+        executor.execute("USDTRY", () -> {
+            seen.add("a");
+            executor.executeConflated(USDTRY, () -> { seen.add("drain"); done.countDown(); });
+            executor.execute("USDTRY", () -> { seen.add("late"); done.countDown(); });
+            done.countDown();
+        });
+        executor.execute("USDTRY", () -> { seen.add("b"); done.countDown(); });
+        release.countDown();
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("a", "b", "drain", "late"), seen);
+    }
+
+    @Test
+    void anySpellingOfASymbolMapsToItsRegistryIdShard() {
+        ApplicationProperties properties = new ApplicationProperties(new DefaultResourceLoader());
+        properties.getPipeline().setShardCount(4);
+        ShardedPipelineExecutor sharded = new ShardedPipelineExecutor(properties, new SimpleMeterRegistry());
+        sharded.start();
+        try {
+            assertEquals(sharded.shardFor(USDTRY), sharded.shardFor("USD/TRY"));
+            assertEquals(sharded.shardFor(USDTRY), sharded.shardFor("usdtry"));
+            assertEquals(USDTRY % 4, sharded.shardFor(USDTRY));
+        } finally {
+            sharded.stop();
+        }
+    }
+
+    private CountDownLatch blockWorker() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute("USDTRY", () -> {
+            blocked.countDown();
+            try {
+                release.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(blocked.await(2, TimeUnit.SECONDS));
+        return release;
+    }
+}
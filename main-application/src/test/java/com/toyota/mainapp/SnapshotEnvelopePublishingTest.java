@@ -0,0 +1,76 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.kafka.KafkaPublishingService;
+import com.toyota.mainapp.kafka.SpoolingKafkaSender;
+import com.toyota.mainapp.kafka.TransactionalSnapshotPublisher;
+import com.toyota.mainapp.mapper.RateMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SnapshotEnvelopePublishingTest {
+
+    private static final List<String> RATES = List.of(
+            "TCPProvider1-USDTRY|34.10000|34.20000|2025-01-01T10:00:00Z",
+            "USDTRY_AVG|34.12000|34.22000|2025-01-01T10:00:00Z",
+            "EURTRY_CROSS|36.90000|37.00000|2025-01-01T10:00:00Z");
+
+    private final ApplicationProperties properties = new ApplicationProperties(new DefaultResourceLoader());
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> stringKafkaTemplate = mock(KafkaTemplate.class);
+    private final SpoolingKafkaSender spoolingKafkaSender = new SpoolingKafkaSender(stringKafkaTemplate, properties);
+    @SuppressWarnings("unchecked")
+    private final KafkaPublishingService publisher = new KafkaPublishingService(kafkaTemplate,
+            mock(KafkaTemplate.class), stringKafkaTemplate, spoolingKafkaSender,
+            new TransactionalSnapshotPublisher(stringKafkaTemplate, stringKafkaTemplate, spoolingKafkaSender, properties),
+            mock(RateMapper.class), properties);
+
+    @Test
+    void sendsWholeSnapshotAsOneRecord() {
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        CompletableFuture<Void> ack = publisher.publishImmediateSnapshot(RATES, "PIPE_USDTRY", "USDTRY", 7L);
+
+        // Through the String template, so the value is not JSON-quoted
+        ArgumentCaptor<String> envelope = ArgumentCaptor.forClass(String.class);
+        verify(stringKafkaTemplate, times(1)).send(eq("financial-simple-rates"), eq("PIPE_USDTRY"), envelope.capture());
+        verifyNoInteractions(kafkaTemplate);
+        String[] lines = envelope.getValue().split("\n");
+        assertEquals("SNAP|v1|PIPE_USDTRY|USDTRY|7|3", lines[0]);
+        assertEquals(RATES, List.of(lines).subList(1, lines.length));
+        assertTrue(ack.isDone() && !ack.isCompletedExceptionally());
+    }
+
+    @Test
+    void headerSeparatorsInValuesAreReplaced() {
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        publisher.publishImmediateSnapshot(RATES.subList(0, 1), "PIPE|1", null, 0L);
+
+        ArgumentCaptor<String> envelope = ArgumentCaptor.forClass(String.class);
+        verify(stringKafkaTemplate).send(anyString(), anyString(), envelope.capture());
+        assertTrue(envelope.getValue().startsWith("SNAP|v1|PIPE 1||0|1\n"));
+    }
+
+    @Test
+    void legacyFormatSendsOneRecordPerRate() {
+        properties.getSnapshot().setLegacyLineFormat(true);
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        publisher.publishImmediateSnapshot(RATES, "PIPE_USDTRY", "USDTRY", 7L);
+
+        verify(kafkaTemplate, times(3)).send(eq("financial-simple-rates"), eq("PIPE_USDTRY"), any());
+        assertEquals(3L, publisher.getSnapshotStats().get("records"));
+    }
+}
@@ -0,0 +1,208 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.kafka.SpoolingKafkaSender;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SpoolingKafkaSenderTest {
+
+    @TempDir
+    Path dir;
+
+    private final ApplicationProperties properties = new ApplicationProperties(new DefaultResourceLoader());
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> stringKafkaTemplate = mock(KafkaTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> jsonKafkaTemplate = mock(KafkaTemplate.class);
+    private SpoolingKafkaSender sender;
+
+    @BeforeEach
+    void openSpool() {
+        properties.getKafkaSpool().setPath(dir.resolve("spool.dat").toString());
+        properties.getKafkaSpool().setCapacityBytes(256 * 1024);
+        sender = new SpoolingKafkaSender(stringKafkaTemplate, properties);
+        sender.openSpool();
+    }
+
+    @AfterEach
+    void closeSpool() {
+        sender.closeSpool();
+    }
+
+    @Test
+    void blockedSendIsSpooledAndLaterSendsQueueBehindIt() {
+        when(jsonKafkaTemplate.send(anyString(), anyString(), any())).thenThrow(new TimeoutException("max.block.ms"));
+
+        CompletableFuture<Void> first = sender.sendJson(jsonKafkaTemplate, "financial-raw-rates", "USDTRY", Map.of("bid", 1));
+        CompletableFuture<Void> second = sender.sendText(stringKafkaTemplate, "financial-simple-rates", "PIPE", "SNAP|v1");
+
+        assertTrue(first.isDone() && !first.isCompletedExceptionally());
+        assertTrue(second.isDone() && !second.isCompletedExceptionally());
+        verify(jsonKafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        verifyNoInteractions(stringKafkaTemplate);
+        assertEquals(2L, sender.getBacklogEntries());
+    }
+
+    @Test
+    void asyncFailureIsSpooled() {
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("delivery.timeout.ms")));
+
+        CompletableFuture<Void> ack = sender.sendText(stringKafkaTemplate, "financial-simple-rates", "PIPE", "SNAP|v1");
+
+        assertFalse(ack.isCompletedExceptionally());
+        assertEquals(1L, sender.getSpooled());
+        assertEquals(1L, sender.getBacklogEntries());
+    }
+
+    @Test
+    void drainReplaysInOrderWithJsonEncodedValues() {
+        when(jsonKafkaTemplate.send(anyString(), anyString(), any())).thenThrow(new TimeoutException("max.block.ms"));
+        sender.sendJson(jsonKafkaTemplate, "financial-raw-rates", "USDTRY", Map.of("bid", 1));
+        sender.sendText(stringKafkaTemplate, "financial-simple-rates", "PIPE", "SNAP|v1");
+
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        sender.drainSpool();
+
+        InOrder order = inOrder(stringKafkaTemplate);
+        order.verify(stringKafkaTemplate).send("financial-raw-rates", "USDTRY", "{\"bid\":1}");
+        order.verify(stringKafkaTemplate).send("financial-simple-rates", "PIPE", "SNAP|v1");
+        assertEquals(0L, sender.getBacklogEntries());
+        assertEquals(2L, sender.getReplayed());
+    }
+
+    @Test
+    void drainKeepsRecordsAfterFirstFailure() {
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("down")));
+        sender.sendText(stringKafkaTemplate, "financial-simple-rates", "PIPE_1", "one");
+        sender.sendText(stringKafkaTemplate, "financial-simple-rates", "PIPE_2", "two");
+
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("down again")));
+        sender.drainSpool();
+
+        assertEquals(1L, sender.getReplayed());
+        assertEquals(1L, sender.getBacklogEntries());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void asyncFailuresAreSpooledInSendOrder() {
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        CompletableFuture<Object> second = new CompletableFuture<>();
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn((CompletableFuture) first)
+                .thenReturn((CompletableFuture) second);
+        CompletableFuture<Void> firstAck = sender.sendText(stringKafkaTemplate, "financial-simple-rates", "PIPE_1", "one");
+        CompletableFuture<Void> secondAck = sender.sendText(stringKafkaTemplate, "financial-simple-rates", "PIPE_2", "two");
+
+        // A fast failure of the later send waits for the slower failure of the earlier one
+        second.completeExceptionally(new TimeoutException("broker down"));
+        assertFalse(secondAck.isDone());
+        assertEquals(0L, sender.getSpooled());
+        first.completeExceptionally(new TimeoutException("delivery.timeout.ms"));
+        assertTrue(firstAck.isDone() && secondAck.isDone());
+
+        reset(stringKafkaTemplate);
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        sender.drainSpool();
+        InOrder order = inOrder(stringKafkaTemplate);
+        order.verify(stringKafkaTemplate).send("financial-simple-rates", "PIPE_1", "one");
+        order.verify(stringKafkaTemplate).send("financial-simple-rates", "PIPE_2", "two");
+    }
+
+    @Test
+    void oneDrainTickReplaysTheWholeBacklog() throws InterruptedException {
+        properties.getKafkaSpool().setDrainBatchSize(100);
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("down")));
+        for (int i = 0; i < 1_000; i++) {
+            sender.sendText(stringKafkaTemplate, "financial-simple-rates", "K", Integer.toString(i));
+        }
+        assertEquals(1_000L, sender.getBacklogEntries());
+
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        sender.drainSpool();
+
+        // Ten batches, not one per tick
+        awaitBacklog(0L, 2_000);
+        assertEquals(1_000L, sender.getReplayed());
+    }
+
+    @Test
+    void recoversUnderSustainedLoadWithoutReordering() throws InterruptedException {
+        properties.getKafkaSpool().setDrainBatchSize(100);
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("down")));
+        int backlog = 1_000;
+        for (int i = 0; i < backlog; i++) {
+            sender.sendText(stringKafkaTemplate, "financial-simple-rates", "K", Integer.toString(i));
+        }
+
+        // Broker is back; pipeline threads keep publishing while the backlog replays
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            delivered.add(invocation.getArgument(2));
+            return CompletableFuture.completedFuture(null);
+        });
+        int total = 4_000;
+        Thread load = new Thread(() -> {
+            for (int i = backlog; i < total; i++) {
+                sender.sendText(stringKafkaTemplate, "financial-simple-rates", "K", Integer.toString(i));
+            }
+        });
+        load.start();
+        sender.drainSpool();
+        load.join(5_000);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (delivered.size() < total && System.currentTimeMillis() < deadline) {
+            sender.drainSpool();
+            Thread.sleep(20);
+        }
+        assertEquals(IntStream.range(0, total).mapToObj(Integer::toString).toList(), delivered);
+        assertEquals(0L, sender.getBacklogEntries());
+        assertTrue(sender.getReplayed() >= backlog);
+    }
+
+    @Test
+    void disabledSpoolOnlyReportsFailure() {
+        sender.closeSpool();
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("down")));
+
+        CompletableFuture<Void> ack = sender.sendText(stringKafkaTemplate, "financial-simple-rates", "PIPE", "SNAP|v1");
+
+        assertTrue(ack.isCompletedExceptionally());
+        assertEquals(0L, sender.getBacklogEntries());
+    }
+
+    private void awaitBacklog(long entries, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (sender.getBacklogEntries() != entries && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(entries, sender.getBacklogEntries());
+    }
+}
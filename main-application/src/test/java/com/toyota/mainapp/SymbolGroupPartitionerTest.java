@@ -0,0 +1,64 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.kafka.SymbolGroupPartitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolGroupPartitionerTest {
+
+    private static final String TOPIC = "financial-simple-rates";
+
+    private final SymbolGroupPartitioner partitioner = new SymbolGroupPartitioner();
+
+    @Test
+    void everySpellingOfAPairLandsOnOnePartition() {
+        Cluster cluster = cluster(12);
+        int expected = Utils.toPositive(Utils.murmur2("USDTRY".getBytes(StandardCharsets.UTF_8))) % 12;
+
+        for (String key : List.of("USDTRY", "USD/TRY", "PF1_USDTRY", "USDTRY_AVG",
+                "USDTRY_1749399209461", "BATCH_USDTRY_1749399209461")) {
+            assertEquals(expected, partition(key, cluster), key);
+        }
+    }
+
+    @Test
+    void pairsSpreadAcrossPartitions() {
+        Cluster cluster = cluster(6);
+        Set<Integer> used = new HashSet<>();
+        for (String pair : List.of("USDTRY", "EURUSD", "GBPUSD", "EURTRY", "GBPTRY", "USDJPY", "EURGBP", "AUDUSD")) {
+            used.add(partition(pair, cluster));
+        }
+        assertTrue(used.size() > 1);
+    }
+
+    @Test
+    void unkeyedRecordsRotateAndSinglePartitionTopicsShortCircuit() {
+        Cluster cluster = cluster(3);
+        assertNotEquals(partition(null, cluster), partition(null, cluster));
+        assertEquals(0, partition("USDTRY", cluster(1)));
+    }
+
+    private int partition(String key, Cluster cluster) {
+        return partitioner.partition(TOPIC, key, null, "value", null, cluster);
+    }
+
+    private static Cluster cluster(int partitions) {
+        Node node = new Node(0, "localhost", 9092);
+        List<PartitionInfo> infos = new ArrayList<>();
+        for (int i = 0; i < partitions; i++) {
+            infos.add(new PartitionInfo(TOPIC, i, node, new Node[]{node}, new Node[]{node}));
+        }
+        return new Cluster("test", List.of(node), infos, Set.of(), Set.of());
+    }
+}
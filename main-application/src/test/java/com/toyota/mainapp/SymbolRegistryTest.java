@@ -0,0 +1,85 @@
+package com.toyota.mainapp;
+
+import com.toyota.mainapp.util.SymbolRegistry;
+import com.toyota.mainapp.util.SymbolUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolRegistryTest {
+
+    @Test
+    void aliasesResolveToOneDenseId() {
+        SymbolRegistry registry = new SymbolRegistry(SymbolRegistry.DEFAULT_MAX_ALIASES);
+
+        int usdTry = registry.register("USDTRY_AVG");
+        assertEquals(0, usdTry);
+        assertEquals(usdTry, registry.resolve("USDTRY"));
+        assertEquals(usdTry, registry.resolve("USD/TRY"));
+        assertEquals(usdTry, registry.resolve(" usdtry "));
+        assertEquals(usdTry, registry.resolve("PF1_USDTRY"));
+        assertEquals(usdTry, registry.resolve("CALC_USDTRY_CROSS"));
+
+        int eurTry = registry.register("EURTRY_CROSS");
+        assertEquals(1, eurTry);
+        assertEquals(eurTry, registry.register("EUR/TRY"));
+        assertEquals("EURTRY", registry.name(eurTry));
+        assertEquals(2, registry.size());
+        assertEquals(SymbolRegistry.UNKNOWN, registry.resolve(null));
+    }
+
+    @Test
+    void onlyValidConfiguredSymbolsAreInterned() {
+        SymbolRegistry registry = new SymbolRegistry(SymbolRegistry.DEFAULT_MAX_ALIASES);
+
+        assertTrue(registry.isValid(registry.register("gbp/usd")));
+        assertEquals(SymbolRegistry.UNKNOWN, registry.register("USD"));
+        assertEquals(SymbolRegistry.UNKNOWN, registry.register("  "));
+        assertEquals(SymbolRegistry.UNKNOWN, registry.register("USD1TRY"));
+        assertFalse(registry.isValid(SymbolRegistry.UNKNOWN));
+
+        // Provider input and record keys resolve without growing the table
+        assertEquals(SymbolRegistry.UNKNOWN, registry.resolve("XAUUSD"));
+        assertEquals(SymbolRegistry.UNKNOWN, registry.resolve("3f2b8c1e-52a4-4c0e-9d0b-7a1d2e4f6a8b"));
+        assertEquals(2L, registry.getStats().get("unknownResolutions"));
+        assertEquals("XAUUSD", registry.canonical("xau/usd"));
+        assertTrue(registry.isValidSymbol("XAUUSD"));
+        assertEquals(1, registry.size());
+        assertEquals(0, registry.getStats().get("aliases"));
+    }
+
+    @Test
+    void symbolTableIsBounded() {
+        SymbolRegistry registry = new SymbolRegistry(SymbolRegistry.DEFAULT_MAX_ALIASES, 2);
+
+        registry.register("USDTRY");
+        registry.register("EURUSD");
+        assertEquals(0, registry.register("usd/try"));
+
+        assertThrows(IllegalStateException.class, () -> registry.register("GBPUSD"));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void aliasTableIsBoundedButResolutionStillWorks() {
+        SymbolRegistry registry = new SymbolRegistry(2);
+
+        int usdTry = registry.register("USDTRY");
+        registry.resolve("USDTRY");
+        registry.resolve("USD/TRY");
+        assertEquals(usdTry, registry.resolve("usd/try"));
+        assertEquals(usdTry, registry.resolve("usd/try"));
+
+        assertEquals(2, registry.getStats().get("aliases"));
+        assertEquals(2L, registry.getStats().get("uncachedResolutions"));
+    }
+
+    @Test
+    void symbolUtilsDelegatesToGlobalRegistry() {
+        assertEquals("USDTRY", SymbolUtils.normalizeSymbol("USD/TRY_AVG"));
+        assertTrue(SymbolUtils.symbolsEquivalent("EURUSD_AVG", "eur/usd"));
+        assertFalse(SymbolUtils.symbolsEquivalent("EURUSD", "GBPUSD"));
+        assertTrue(SymbolUtils.isValidSymbol("TCPProvider1_EURUSD"));
+        assertNull(SymbolUtils.normalizeSymbol(null));
+    }
+}
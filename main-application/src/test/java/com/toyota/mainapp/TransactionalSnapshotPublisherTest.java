@@ -0,0 +1,192 @@
+package com.toyota.mainapp;
+
+import com.toyota.envelope.SnapshotEnvelope;
+import com.toyota.mainapp.config.ApplicationProperties;
+import com.toyota.mainapp.kafka.SpoolingKafkaSender;
+import com.toyota.mainapp.kafka.TransactionalSnapshotPublisher;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransactionalSnapshotPublisherTest {
+
+    private static final String TOPIC = "financial-simple-rates";
+
+    private final ApplicationProperties properties = new ApplicationProperties(new DefaultResourceLoader());
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> transactionalKafkaTemplate = mock(KafkaTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> stringKafkaTemplate = mock(KafkaTemplate.class);
+    private final SpoolingKafkaSender spoolingKafkaSender = new SpoolingKafkaSender(stringKafkaTemplate, properties);
+    private final TransactionalSnapshotPublisher publisher = new TransactionalSnapshotPublisher(
+            transactionalKafkaTemplate, stringKafkaTemplate, spoolingKafkaSender, properties);
+
+    @BeforeEach
+    void start() {
+        properties.getSnapshot().setTransactional(true);
+        properties.getSnapshot().setTransactionRetryBackoffMs(1L);
+    }
+
+    @AfterEach
+    void stop() {
+        publisher.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void commitsAllRecordsOfASnapshotInOneTransaction() throws Exception {
+        when(transactionalKafkaTemplate.executeInTransaction(any())).thenAnswer(invocation ->
+                invocation.getArgument(0, KafkaOperations.OperationsCallback.class).doInOperations(transactionalKafkaTemplate));
+        publisher.start();
+
+        CompletableFuture<Void> ack = publish("PIPE_USDTRY", "r1", "r2", "r3");
+        ack.get(5, TimeUnit.SECONDS);
+
+        verify(transactionalKafkaTemplate, times(1)).executeInTransaction(any());
+        verify(transactionalKafkaTemplate).send(TOPIC, "PIPE_USDTRY", "r1");
+        verify(transactionalKafkaTemplate).send(TOPIC, "PIPE_USDTRY", "r3");
+        verifyNoInteractions(stringKafkaTemplate);
+        assertEquals(1L, publisher.getStats().get("committed"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void abortedTransactionIsRetriedInANewTransaction() throws Exception {
+        when(transactionalKafkaTemplate.executeInTransaction(any()))
+                .thenThrow(new KafkaException("coordinator moved"))
+                .thenAnswer(invocation -> invocation.getArgument(0, KafkaOperations.OperationsCallback.class)
+                        .doInOperations(transactionalKafkaTemplate));
+        publisher.start();
+
+        publish("PIPE_EURUSD", "r1", "r2").get(5, TimeUnit.SECONDS);
+
+        verify(transactionalKafkaTemplate, times(2)).executeInTransaction(any());
+        verifyNoInteractions(stringKafkaTemplate);
+        assertEquals(1L, publisher.getStats().get("committed"));
+        assertEquals(1L, publisher.getStats().get("retries"));
+    }
+
+    @Test
+    void persistentlyAbortedSnapshotIsSpooledAsOneRecord() throws Exception {
+        when(transactionalKafkaTemplate.executeInTransaction(any())).thenThrow(new KafkaException("fenced"));
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        publisher.start();
+
+        publish("PIPE_EURUSD", "r1", "r2").get(5, TimeUnit.SECONDS);
+
+        verify(transactionalKafkaTemplate, times(3)).executeInTransaction(any());
+        // Never record by record: outside a transaction only a single record is atomic
+        verify(stringKafkaTemplate).send(TOPIC, "PIPE_EURUSD", envelope("PIPE_EURUSD", "r1", "r2"));
+        verifyNoMoreInteractions(stringKafkaTemplate);
+        assertEquals(3L, publisher.getStats().get("aborted"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fullQueueDoesNotOvertakeQueuedSnapshots() throws Exception {
+        properties.getSnapshot().setTransactionQueueCapacity(1);
+        CountDownLatch inTransaction = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionalKafkaTemplate.executeInTransaction(any())).thenAnswer(invocation -> {
+            inTransaction.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0, KafkaOperations.OperationsCallback.class).doInOperations(transactionalKafkaTemplate);
+        });
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        publisher.start();
+
+        CompletableFuture<Void> first = publish("PIPE_1", "a");
+        assertTrue(inTransaction.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued = publish("PIPE_2", "b");
+        CompletableFuture<Void> overflowed = publish("PIPE_3", "c");
+        CompletableFuture<Void> afterOverflow = publish("PIPE_4", "d");
+        // Nothing is sent from the pipeline thread while the transaction is in flight
+        verifyNoInteractions(stringKafkaTemplate);
+        release.countDown();
+        CompletableFuture.allOf(first, queued, overflowed, afterOverflow).get(5, TimeUnit.SECONDS);
+
+        verify(transactionalKafkaTemplate).send(TOPIC, "PIPE_1", "a");
+        InOrder order = inOrder(stringKafkaTemplate);
+        order.verify(stringKafkaTemplate).send(TOPIC, "PIPE_2", envelope("PIPE_2", "b"));
+        order.verify(stringKafkaTemplate).send(TOPIC, "PIPE_3", envelope("PIPE_3", "c"));
+        order.verify(stringKafkaTemplate).send(TOPIC, "PIPE_4", envelope("PIPE_4", "d"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentPublishersKeepTheirOrderThroughOverflow() throws Exception {
+        properties.getSnapshot().setTransactionQueueCapacity(2);
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        when(transactionalKafkaTemplate.send(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(2));
+            return null;
+        });
+        when(transactionalKafkaTemplate.executeInTransaction(any())).thenAnswer(invocation -> {
+            Thread.sleep(1);
+            return invocation.getArgument(0, KafkaOperations.OperationsCallback.class).doInOperations(transactionalKafkaTemplate);
+        });
+        when(stringKafkaTemplate.send(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(2));
+            return CompletableFuture.completedFuture(null);
+        });
+        publisher.start();
+
+        int threads = 4;
+        int perThread = 300;
+        ExecutorService pipelines = Executors.newFixedThreadPool(threads);
+        List<Future<List<CompletableFuture<Void>>>> submitted = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            submitted.add(pipelines.submit(() -> {
+                List<CompletableFuture<Void>> acks = new ArrayList<>(perThread);
+                for (int n = 0; n < perThread; n++) {
+                    String value = thread + ":" + n;
+                    acks.add(publisher.publish(TOPIC, "PIPE_" + thread, List.of(value), () -> value));
+                }
+                return acks;
+            }));
+        }
+        for (Future<List<CompletableFuture<Void>>> acks : submitted) {
+            CompletableFuture.allOf(acks.get(5, TimeUnit.SECONDS).toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        }
+        pipelines.shutdown();
+
+        assertEquals(threads * perThread, sent.size());
+        int[] last = new int[threads];
+        Arrays.fill(last, -1);
+        for (String value : sent) {
+            int thread = Integer.parseInt(value.substring(0, value.indexOf(':')));
+            int n = Integer.parseInt(value.substring(value.indexOf(':') + 1));
+            assertEquals(last[thread] + 1, n, "snapshot of thread " + thread + " overtaken");
+            last[thread] = n;
+        }
+    }
+
+    private CompletableFuture<Void> publish(String pipelineId, String... records) {
+        return publisher.publish(TOPIC, pipelineId, List.of(records), () -> envelope(pipelineId, records));
+    }
+
+    private static String envelope(String pipelineId, String... records) {
+        return SnapshotEnvelope.encode(pipelineId, "USDTRY", 1L, List.of(records));
+    }
+}
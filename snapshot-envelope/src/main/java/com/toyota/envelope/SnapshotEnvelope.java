@@ -0,0 +1,107 @@
+package com.toyota.envelope;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Toyota Financial Data Platform - Snapshot Envelope
+ *
+ * Packs a whole pipeline snapshot into one Kafka record: a header line
+ * SNAP|v1|PIPELINE_ID|TRIGGER|RULES_VERSION|COUNT followed by one
+ * SYMBOL|BID|ASK|TIMESTAMP line per rate. The main application encodes it,
+ * the consumers decode it; both sides use this class so the format lives in one place.
+ *
+ * @author Fatih Karataş
+ * @version 1.0
+ * @since 2025
+ */
+public record SnapshotEnvelope(String pipelineId, String triggerSymbol, long ruleSetVersion, List<String> rates) {
+
+    public static final String MAGIC = "SNAP";
+    public static final String VERSION = "v1";
+
+    private static final String PREFIX = MAGIC + "|";
+
+    public static String encode(String pipelineId, String triggerSymbol, long ruleSetVersion, List<String> rateStrings) {
+        int size = 64;
+        for (String rate : rateStrings) {
+            size += rate.length() + 1;
+        }
+        StringBuilder envelope = new StringBuilder(size);
+        envelope.append(MAGIC).append('|').append(VERSION).append('|');
+        field(envelope, pipelineId).append('|');
+        field(envelope, triggerSymbol).append('|');
+        envelope.append(ruleSetVersion).append('|').append(rateStrings.size());
+        for (String rate : rateStrings) {
+            envelope.append('\n').append(rate);
+        }
+        return envelope.toString();
+    }
+
+    /**
+     * @return whether the record is an envelope rather than a single legacy rate line
+     */
+    public static boolean isEnvelope(String message) {
+        return message != null && message.startsWith(PREFIX);
+    }
+
+    /**
+     * @param fallbackPipelineId record key, used when the header carries no pipeline id
+     * @return the decoded envelope, or null if the header is malformed, of an unknown version,
+     *         or its COUNT does not match the rate lines (a truncated or corrupted record)
+     */
+    public static SnapshotEnvelope decode(String message, String fallbackPipelineId) {
+        int headerEnd = message.indexOf('\n');
+        String header = headerEnd < 0 ? message : message.substring(0, headerEnd);
+        String[] fields = header.split("\\|", -1);
+        if (fields.length < 6 || !MAGIC.equals(fields[0]) || !VERSION.equals(fields[1])) {
+            return null;
+        }
+
+        int count;
+        long ruleSetVersion;
+        try {
+            count = Integer.parseInt(fields[5]);
+            ruleSetVersion = Long.parseLong(fields[4]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (count < 0) {
+            return null;
+        }
+
+        List<String> rates = new ArrayList<>(Math.min(count, 1024));
+        int start = headerEnd + 1;
+        while (headerEnd >= 0 && start <= message.length()) {
+            int end = message.indexOf('\n', start);
+            String line = end < 0 ? message.substring(start) : message.substring(start, end);
+            if (!line.isBlank()) {
+                rates.add(line);
+            }
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        if (rates.size() != count) {
+            return null;
+        }
+
+        String pipelineId = fields[2].isEmpty() ? fallbackPipelineId : fields[2];
+        return new SnapshotEnvelope(pipelineId, fields[3].isEmpty() ? null : fields[3], ruleSetVersion, List.copyOf(rates));
+    }
+
+    /**
+     * Append a header value with the separators ('|', newline) replaced.
+     */
+    private static StringBuilder field(StringBuilder envelope, String value) {
+        if (value == null) {
+            return envelope;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            envelope.append(c == '|' || c == '\n' || c == '\r' ? ' ' : c);
+        }
+        return envelope;
+    }
+}
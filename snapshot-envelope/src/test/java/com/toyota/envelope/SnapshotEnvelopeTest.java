@@ -0,0 +1,66 @@
+package com.toyota.envelope;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotEnvelopeTest {
+
+    private static final List<String> RATES = List.of(
+            "TCPProvider1-USDTRY|34.10000|34.20000|2025-01-01T10:00:00Z",
+            "USDTRY_AVG|34.12000|34.22000|2025-01-01T10:00:00Z");
+
+    @Test
+    void decodesWhatItEncodes() {
+        String message = SnapshotEnvelope.encode("BATCH_USDTRY_1", "USDTRY", 7L, RATES);
+
+        assertTrue(SnapshotEnvelope.isEnvelope(message));
+        assertEquals(new SnapshotEnvelope("BATCH_USDTRY_1", "USDTRY", 7L, RATES),
+                SnapshotEnvelope.decode(message, "key"));
+    }
+
+    @Test
+    void headerSeparatorsInIdsAreReplaced() {
+        String message = SnapshotEnvelope.encode("BATCH|1\n", null, 0L, RATES);
+
+        SnapshotEnvelope envelope = SnapshotEnvelope.decode(message, "key");
+        assertEquals("BATCH 1 ", envelope.pipelineId());
+        assertNull(envelope.triggerSymbol());
+        assertEquals(RATES, envelope.rates());
+    }
+
+    @Test
+    void emptyPipelineIdFallsBackToRecordKey() {
+        String message = SnapshotEnvelope.encode("", "USDTRY", 1L, RATES);
+
+        assertEquals("key", SnapshotEnvelope.decode(message, "key").pipelineId());
+    }
+
+    @Test
+    void countMismatchIsRejected() {
+        String message = SnapshotEnvelope.encode("BATCH_USDTRY_1", "USDTRY", 1L, RATES);
+        String truncated = message.substring(0, message.lastIndexOf('\n'));
+        String padded = message + "\nEURTRY_CROSS|36.90000|37.00000|2025-01-01T10:00:00Z";
+
+        assertNull(SnapshotEnvelope.decode(truncated, "key"));
+        assertNull(SnapshotEnvelope.decode(padded, "key"));
+    }
+
+    @Test
+    void malformedHeadersAreRejected() {
+        assertNull(SnapshotEnvelope.decode("SNAP|v1|BATCH_1|USDTRY|1", "key"));
+        assertNull(SnapshotEnvelope.decode("SNAP|v2|BATCH_1|USDTRY|1|0", "key"));
+        assertNull(SnapshotEnvelope.decode("SNAP|v1|BATCH_1|USDTRY|x|0", "key"));
+        assertNull(SnapshotEnvelope.decode("SNAP|v1|BATCH_1|USDTRY|1|-1", "key"));
+        assertFalse(SnapshotEnvelope.isEnvelope("USDTRY|34.1|34.2|2025-01-01T10:00:00Z"));
+    }
+
+    @Test
+    void emptySnapshotDecodes() {
+        SnapshotEnvelope envelope = SnapshotEnvelope.decode(SnapshotEnvelope.encode("BATCH_1", "USDTRY", 1L, List.of()), "key");
+
+        assertEquals(List.of(), envelope.rates());
+    }
+}